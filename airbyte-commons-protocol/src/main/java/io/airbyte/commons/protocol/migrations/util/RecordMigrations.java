@@ -17,8 +17,11 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.validation.json.JsonSchemaValidator;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -51,10 +54,89 @@ public class RecordMigrations {
 
   }
 
+  /**
+   * The subschemas of a schema which contain a schema accepted by a schema matcher, i.e. the paths of
+   * the data that a mutation may modify. Computing it walks the schema once, it should be kept for
+   * all the records of a stream.
+   */
+  public static final class MutationPlan {
+
+    private final JsonNode schema;
+    private final Function<JsonNode, Boolean> schemaMatcher;
+    // Compared by identity: the plan only answers for the nodes of its own schema.
+    private final Set<JsonNode> affectedSchemas = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private MutationPlan(final JsonNode schema, final Function<JsonNode, Boolean> schemaMatcher) {
+      this.schema = schema;
+      this.schemaMatcher = schemaMatcher;
+      findAffectedSchemas(schema);
+    }
+
+    /**
+     * Returns false if no data can be modified by the mutation, in which case it can be skipped.
+     */
+    public boolean requiresMutation() {
+      return affectedSchemas.contains(schema);
+    }
+
+    private boolean isAffected(final JsonNode subschema) {
+      return affectedSchemas.contains(subschema);
+    }
+
+    /**
+     * Follows the subschemas {@link #mutateDataNode(JsonSchemaValidator, MutationPlan, Transformer,
+     * JsonNode)} can recurse into: oneOf options, properties and items. A schema is affected if it, or
+     * any of its subschemas, is accepted by the matcher.
+     */
+    private boolean findAffectedSchemas(final JsonNode subschema) {
+      boolean affected = schemaMatcher.apply(subschema);
+      if (subschema.hasNonNull(ONEOF_KEY)) {
+        for (final JsonNode option : subschema.get(ONEOF_KEY)) {
+          affected |= findAffectedSchemas(option);
+        }
+      }
+      if (subschema.hasNonNull(PROPERTIES_KEY)) {
+        for (final JsonNode property : subschema.get(PROPERTIES_KEY)) {
+          affected |= findAffectedSchemas(property);
+        }
+      }
+      if (subschema.hasNonNull(ITEMS_KEY)) {
+        final JsonNode itemsNode = subschema.get(ITEMS_KEY);
+        if (itemsNode.isArray()) {
+          for (final JsonNode item : itemsNode) {
+            affected |= findAffectedSchemas(item);
+          }
+        } else {
+          affected |= findAffectedSchemas(itemsNode);
+        }
+      }
+      if (affected) {
+        affectedSchemas.add(subschema);
+      }
+      return affected;
+    }
+
+  }
+
+  /**
+   * Find which parts of a schema may have data to mutate.
+   *
+   * @param schemaMatcher see {@link #mutateDataNode(JsonSchemaValidator, Function, Transformer,
+   *        JsonNode, JsonNode)}.
+   * @param schema the schema of the data to mutate.
+   */
+  public static MutationPlan planMutation(final Function<JsonNode, Boolean> schemaMatcher, final JsonNode schema) {
+    return new MutationPlan(schema, schemaMatcher);
+  }
+
   /**
    * Works on a best-effort basis. If the schema doesn't match the data, we'll do our best to mutate
    * anything that we can definitively say matches the criteria. Should _not_ throw an exception if
    * bad things happen (e.g. we try to parse a non-numerical string as a number).
+   * <p>
+   * Every node of the data is visited and checked against its schema, prefer
+   * {@link #mutateDataNode(JsonSchemaValidator, MutationPlan, Transformer, JsonNode)} to mutate many
+   * records of the same schema.
    *
    * @param schemaMatcher Accepts a JsonNode schema and returns whether its corresponding entry in the
    *        data should be mutated. Doesn't need to handle oneOf cases, i.e. should only care about
@@ -67,25 +149,64 @@ public class RecordMigrations {
                                             final Transformer transformer,
                                             final JsonNode data,
                                             final JsonNode schema) {
+    return mutateDataNode(validator, planMutation(schemaMatcher, schema), transformer, data, schema, true);
+  }
+
+  /**
+   * Same as {@link #mutateDataNode(JsonSchemaValidator, Function, Transformer, JsonNode, JsonNode)},
+   * with a precomputed plan. Only the parts of the data whose schema is affected by the plan are
+   * visited, the others are returned as-is. As a consequence, the returned matchedSchema only tells
+   * whether the visited parts of the data match the schema.
+   *
+   * @param plan the plan of the mutation, for the schema of the data.
+   * @param transformer Performs the modification on the given data node. Should not throw exceptions.
+   */
+  public static MigratedNode mutateDataNode(
+                                            final JsonSchemaValidator validator,
+                                            final MutationPlan plan,
+                                            final Transformer transformer,
+                                            final JsonNode data) {
+    return mutateDataNode(validator, plan, transformer, data, plan.schema, false);
+  }
+
+  /**
+   * Mutates data against one of the subschemas of the plan.
+   *
+   * @param mustMatch whether the caller needs to know if the data matches the schema, i.e. we're
+   *        trying to find which option of a oneOf matches. Otherwise, data which has nothing to
+   *        mutate doesn't need to be visited.
+   */
+  private static MigratedNode mutateDataNode(
+                                             final JsonSchemaValidator validator,
+                                             final MutationPlan plan,
+                                             final Transformer transformer,
+                                             final JsonNode data,
+                                             final JsonNode schema,
+                                             final boolean mustMatch) {
+    if (!mustMatch && !plan.isAffected(schema)) {
+      return new MigratedNode(data, true);
+    }
+
     // If this is a oneOf node, then we need to handle each oneOf case.
     if (!schema.hasNonNull(REF_KEY) && !schema.hasNonNull(TYPE_KEY) && schema.hasNonNull(ONEOF_KEY)) {
-      return mutateOneOfNode(validator, schemaMatcher, transformer, data, schema);
+      return mutateOneOfNode(validator, plan, transformer, data, schema);
     }
 
     // If we should mutate the data, then mutate it appropriately
-    if (schemaMatcher.apply(schema)) {
+    if (plan.schemaMatcher.apply(schema)) {
       return transformer.apply(schema, data);
     }
 
     // Otherwise, we need to recurse into non-primitive nodes.
     if (data.isObject()) {
-      return mutateObjectNode(validator, schemaMatcher, transformer, data, schema);
+      return mutateObjectNode(validator, plan, transformer, data, schema, mustMatch);
     } else if (data.isArray()) {
-      return mutateArrayNode(validator, schemaMatcher, transformer, data, schema);
+      return mutateArrayNode(validator, plan, transformer, data, schema, mustMatch);
     } else {
       // There's nothing to do in the case of a primitive node.
-      // So we just check whether the schema is correct and return the node as-is.
-      return new MigratedNode(data, validator.test(schema, data));
+      // So we just check whether the schema is correct (if anyone needs to know) and return the node
+      // as-is.
+      return new MigratedNode(data, !mustMatch || validator.test(schema, data));
     }
   }
 
@@ -96,7 +217,7 @@ public class RecordMigrations {
    */
   private static MigratedNode mutateOneOfNode(
                                               final JsonSchemaValidator validator,
-                                              final Function<JsonNode, Boolean> schemaMatcher,
+                                              final MutationPlan plan,
                                               final Transformer transformer,
                                               final JsonNode data,
                                               final JsonNode schema) {
@@ -110,7 +231,7 @@ public class RecordMigrations {
     // Return the first schema that matches the data, or the first schema if none matched successfully.
     MigratedNode migratedNode = null;
     for (final JsonNode maybeSchema : schemaOptions) {
-      final MigratedNode maybeMigratedNode = mutateDataNode(validator, schemaMatcher, transformer, data, maybeSchema);
+      final MigratedNode maybeMigratedNode = mutateDataNode(validator, plan, transformer, data, maybeSchema, true);
       if (maybeMigratedNode.matchedSchema()) {
         // If we've found a matching schema, then return immediately
         return maybeMigratedNode;
@@ -128,10 +249,11 @@ public class RecordMigrations {
    */
   private static MigratedNode mutateObjectNode(
                                                final JsonSchemaValidator validator,
-                                               final Function<JsonNode, Boolean> schemaMatcher,
+                                               final MutationPlan plan,
                                                final Transformer transformer,
                                                final JsonNode data,
-                                               final JsonNode schema) {
+                                               final JsonNode schema,
+                                               final boolean mustMatch) {
     boolean isObjectSchema;
     // First, check whether the schema is supposed to be an object at all.
     if (schema.hasNonNull(REF_KEY)) {
@@ -175,7 +297,7 @@ public class RecordMigrations {
         if (propertiesNode != null && propertiesNode.hasNonNull(key)) {
           // If we have a schema for this property, mutate the value
           final JsonNode subschema = propertiesNode.get(key);
-          final MigratedNode migratedNode = mutateDataNode(validator, schemaMatcher, transformer, value, subschema);
+          final MigratedNode migratedNode = mutateDataNode(validator, plan, transformer, value, subschema, mustMatch);
           mutatedData.set(key, migratedNode.node);
           if (!migratedNode.matchedSchema) {
             matchedSchema = false;
@@ -196,10 +318,11 @@ public class RecordMigrations {
    */
   private static MigratedNode mutateArrayNode(
                                               final JsonSchemaValidator validator,
-                                              final Function<JsonNode, Boolean> schemaMatcher,
+                                              final MutationPlan plan,
                                               final Transformer transformer,
                                               final JsonNode data,
-                                              final JsonNode schema) {
+                                              final JsonNode schema,
+                                              final boolean mustMatch) {
     // Similar to objects, we first check whether this is even supposed to be an array.
     boolean isArraySchema;
     if (schema.hasNonNull(REF_KEY)) {
@@ -243,7 +366,7 @@ public class RecordMigrations {
           final JsonNode element = data.get(i);
           if (itemsNode.size() > i) {
             // If we have a schema for this element, then try mutating the element
-            final MigratedNode mutatedElement = mutateDataNode(validator, schemaMatcher, transformer, element, itemsNode.get(i));
+            final MigratedNode mutatedElement = mutateDataNode(validator, plan, transformer, element, itemsNode.get(i), mustMatch);
             if (!mutatedElement.matchedSchema()) {
               allSchemasMatched = false;
             }
@@ -260,7 +383,7 @@ public class RecordMigrations {
         // IN the case of {items: schema}, we just check every array element against that schema.
         boolean matchedSchema = true;
         for (final JsonNode item : data) {
-          final MigratedNode migratedNode = mutateDataNode(validator, schemaMatcher, transformer, item, itemsNode);
+          final MigratedNode migratedNode = mutateDataNode(validator, plan, transformer, item, itemsNode, mustMatch);
           mutatedItems.add(migratedNode.node);
           if (!migratedNode.matchedSchema) {
             matchedSchema = false;
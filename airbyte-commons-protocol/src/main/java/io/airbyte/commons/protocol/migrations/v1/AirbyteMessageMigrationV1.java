@@ -15,6 +15,8 @@ import io.airbyte.commons.json.Jsons;
 import io.airbyte.commons.protocol.migrations.AirbyteMessageMigration;
 import io.airbyte.commons.protocol.migrations.util.RecordMigrations;
 import io.airbyte.commons.protocol.migrations.util.RecordMigrations.MigratedNode;
+import io.airbyte.commons.protocol.migrations.util.RecordMigrations.MutationPlan;
+import io.airbyte.commons.protocol.migrations.util.RecordMigrations.Transformer;
 import io.airbyte.commons.version.AirbyteProtocolVersion;
 import io.airbyte.commons.version.Version;
 import io.airbyte.protocol.models.AirbyteMessage;
@@ -23,11 +25,15 @@ import io.airbyte.protocol.models.AirbyteStream;
 import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
 import io.airbyte.protocol.models.ConfiguredAirbyteStream;
 import io.airbyte.protocol.models.JsonSchemaReferenceTypes;
+import io.airbyte.protocol.models.StreamDescriptor;
 import io.airbyte.validation.json.JsonSchemaValidator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 /**
  * V1 Migration.
@@ -36,7 +42,41 @@ import java.util.Optional;
 // @Singleton
 public class AirbyteMessageMigrationV1 implements AirbyteMessageMigration<io.airbyte.protocol.models.v0.AirbyteMessage, AirbyteMessage> {
 
+  private static final Pattern NUMERIC_LITERAL = Pattern.compile("-?\\d+(\\.\\d+)?");
+
+  /**
+   * Numbers are references to the integer or number types.
+   */
+  private static final Function<JsonNode, Boolean> NUMBER_SCHEMA_MATCHER = s -> {
+    if (s.hasNonNull(REF_KEY)) {
+      final String type = s.get(REF_KEY).asText();
+      return JsonSchemaReferenceTypes.INTEGER_REFERENCE.equals(type)
+          || JsonSchemaReferenceTypes.NUMBER_REFERENCE.equals(type);
+    } else {
+      return false;
+    }
+  };
+
+  /**
+   * Numbers are strings in V1, they are converted back to numbers if they are numeric literals.
+   */
+  private static final Transformer NUMBER_DOWNGRADE_TRANSFORMER = (s, d) -> {
+    if (NUMERIC_LITERAL.matcher(d.asText()).matches()) {
+      // If this string is a numeric literal, convert it to a numeric node.
+      return new MigratedNode(Jsons.deserialize(d.asText()), true);
+    } else {
+      // Otherwise, just leave the node unchanged.
+      return new MigratedNode(d, false);
+    }
+  };
+
+  /**
+   * The downgrade plans of the streams of a catalog, see {@link #getDowngradePlans}.
+   */
+  private record CatalogDowngradePlans(ConfiguredAirbyteCatalog catalog, Map<StreamDescriptor, MutationPlan> plans) {}
+
   private final JsonSchemaValidator validator;
+  private volatile CatalogDowngradePlans catalogDowngradePlans;
 
   public AirbyteMessageMigrationV1() {
     this(new JsonSchemaValidator());
@@ -62,16 +102,13 @@ public class AirbyteMessageMigrationV1 implements AirbyteMessageMigration<io.air
       if (configuredAirbyteCatalog.isPresent()) {
         final ConfiguredAirbyteCatalog catalog = configuredAirbyteCatalog.get();
         final io.airbyte.protocol.models.v0.AirbyteRecordMessage record = newMessage.getRecord();
-        final Optional<ConfiguredAirbyteStream> maybeStream = catalog.getStreams().stream()
-            .filter(stream -> Objects.equals(stream.getStream().getName(), record.getStream())
-                && Objects.equals(stream.getStream().getNamespace(), record.getNamespace()))
-            .findFirst();
+        final MutationPlan plan = getDowngradePlans(catalog)
+            .get(new StreamDescriptor().withName(record.getStream()).withNamespace(record.getNamespace()));
         // If this record doesn't belong to any configured stream, then there's no point downgrading it
-        // So only do the downgrade if we can find its stream
-        if (maybeStream.isPresent()) {
-          final JsonNode schema = maybeStream.get().getStream().getJsonSchema();
+        // So only do the downgrade if we can find its stream. Neither if its stream has no number.
+        if (plan != null && plan.requiresMutation()) {
           final JsonNode oldData = record.getData();
-          final MigratedNode downgradedNode = downgradeRecord(oldData, schema);
+          final MigratedNode downgradedNode = RecordMigrations.mutateDataNode(validator, plan, NUMBER_DOWNGRADE_TRANSFORMER, oldData);
           record.setData(downgradedNode.node());
         }
       }
@@ -139,33 +176,25 @@ public class AirbyteMessageMigrationV1 implements AirbyteMessageMigration<io.air
   /**
    * We need the schema to recognize which fields are integers, since it would be wrong to just assume
    * any numerical string should be parsed out.
-   *
-   * Works on a best-effort basis. If the schema doesn't match the data, we'll do our best to
-   * downgrade anything that we can definitively say is a number. Should _not_ throw an exception if
-   * bad things happen (e.g. we try to parse a non-numerical string as a number).
+   * <p>
+   * The schemas of the streams are walked once per catalog to find where numbers can be. Records are
+   * migrated by {@link RecordMigrations#mutateDataNode(JsonSchemaValidator, MutationPlan, Transformer,
+   * JsonNode)}, on a best-effort basis: if the schema doesn't match the data, we'll do our best to
+   * downgrade anything that we can definitively say is a number.
    */
-  private MigratedNode downgradeRecord(final JsonNode data, final JsonNode schema) {
-    return RecordMigrations.mutateDataNode(
-        validator,
-        s -> {
-          if (s.hasNonNull(REF_KEY)) {
-            final String type = s.get(REF_KEY).asText();
-            return JsonSchemaReferenceTypes.INTEGER_REFERENCE.equals(type)
-                || JsonSchemaReferenceTypes.NUMBER_REFERENCE.equals(type);
-          } else {
-            return false;
-          }
-        },
-        (s, d) -> {
-          if (d.asText().matches("-?\\d+(\\.\\d+)?")) {
-            // If this string is a numeric literal, convert it to a numeric node.
-            return new MigratedNode(Jsons.deserialize(d.asText()), true);
-          } else {
-            // Otherwise, just leave the node unchanged.
-            return new MigratedNode(d, false);
-          }
-        },
-        data, schema);
+  private Map<StreamDescriptor, MutationPlan> getDowngradePlans(final ConfiguredAirbyteCatalog catalog) {
+    final CatalogDowngradePlans cached = catalogDowngradePlans;
+    if (cached != null && cached.catalog() == catalog) {
+      return cached.plans();
+    }
+    final Map<StreamDescriptor, MutationPlan> plans = new HashMap<>();
+    for (final ConfiguredAirbyteStream stream : catalog.getStreams()) {
+      plans.putIfAbsent(
+          new StreamDescriptor().withName(stream.getStream().getName()).withNamespace(stream.getStream().getNamespace()),
+          RecordMigrations.planMutation(NUMBER_SCHEMA_MATCHER, stream.getStream().getJsonSchema()));
+    }
+    catalogDowngradePlans = new CatalogDowngradePlans(catalog, plans);
+    return plans;
   }
 
   @Override
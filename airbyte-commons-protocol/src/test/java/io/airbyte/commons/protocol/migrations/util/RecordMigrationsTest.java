@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.protocol.migrations.util;
+
+import static io.airbyte.protocol.models.JsonSchemaReferenceTypes.REF_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.commons.protocol.migrations.util.RecordMigrations.MigratedNode;
+import io.airbyte.commons.protocol.migrations.util.RecordMigrations.MutationPlan;
+import io.airbyte.commons.protocol.migrations.util.RecordMigrations.Transformer;
+import io.airbyte.commons.resources.MoreResources;
+import io.airbyte.protocol.models.JsonSchemaReferenceTypes;
+import io.airbyte.validation.json.JsonSchemaValidator;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RecordMigrationsTest {
+
+  private static final Function<JsonNode, Boolean> INTEGER_MATCHER =
+      s -> s.hasNonNull(REF_KEY) && JsonSchemaReferenceTypes.INTEGER_REFERENCE.equals(s.get(REF_KEY).asText());
+  private static final Transformer TO_NUMBER = (s, d) -> new MigratedNode(Jsons.jsonNode(Integer.parseInt(d.asText())), true);
+
+  private static final JsonNode STRING_SCHEMA = Jsons.jsonNode(Map.of(REF_KEY, JsonSchemaReferenceTypes.STRING_REFERENCE));
+  private static final JsonNode INTEGER_SCHEMA = Jsons.jsonNode(Map.of(REF_KEY, JsonSchemaReferenceTypes.INTEGER_REFERENCE));
+
+  private JsonSchemaValidator validator;
+
+  @BeforeEach
+  void setup() throws URISyntaxException {
+    final URI parentUri = MoreResources.readResourceAsFile("WellKnownTypes.json").getAbsoluteFile().toURI();
+    validator = new JsonSchemaValidator(parentUri);
+  }
+
+  @Test
+  void testSchemaWithoutMatchingTypesRequiresNoMutation() {
+    final JsonNode schema = objectSchema(Map.of(
+        "name", STRING_SCHEMA,
+        "tags", Jsons.jsonNode(Map.of("type", "array", "items", STRING_SCHEMA))));
+
+    assertFalse(RecordMigrations.planMutation(INTEGER_MATCHER, schema).requiresMutation());
+  }
+
+  @Test
+  void testNestedMatchingTypesRequireMutation() {
+    final JsonNode schema = objectSchema(Map.of(
+        "name", STRING_SCHEMA,
+        "counts", Jsons.jsonNode(Map.of("oneOf", List.of(STRING_SCHEMA, Jsons.jsonNode(Map.of("type", "array", "items", INTEGER_SCHEMA)))))));
+
+    assertTrue(RecordMigrations.planMutation(INTEGER_MATCHER, schema).requiresMutation());
+  }
+
+  @Test
+  void testOnlyAffectedPathsAreMutated() {
+    final JsonNode schema = objectSchema(Map.of(
+        "unaffected", objectSchema(Map.of("name", STRING_SCHEMA)),
+        "count", INTEGER_SCHEMA));
+    final JsonNode data = Jsons.jsonNode(Map.of("unaffected", Map.of("name", "a"), "count", "12"));
+    final MutationPlan plan = RecordMigrations.planMutation(INTEGER_MATCHER, schema);
+
+    final JsonNode mutated = RecordMigrations.mutateDataNode(validator, plan, TO_NUMBER, data).node();
+
+    assertEquals(Jsons.jsonNode(Map.of("unaffected", Map.of("name", "a"), "count", 12)), mutated);
+    // the unaffected field wasn't visited
+    assertSame(data.get("unaffected"), mutated.get("unaffected"));
+    // and gives the same result as without a plan
+    assertEquals(mutated, RecordMigrations.mutateDataNode(validator, INTEGER_MATCHER, TO_NUMBER, data, schema).node());
+  }
+
+  private static JsonNode objectSchema(final Map<String, JsonNode> properties) {
+    return Jsons.jsonNode(Map.of("type", "object", "properties", properties));
+  }
+
+}
@@ -26,6 +26,7 @@ import io.airbyte.config.StreamSyncStats;
 import io.airbyte.config.SyncStats;
 import io.airbyte.config.helpers.LogClientSingleton;
 import io.airbyte.metrics.lib.OssMetricsRegistry;
+import io.airbyte.persistence.job.AttemptStatsCoalescer;
 import io.airbyte.persistence.job.JobPersistence;
 import io.airbyte.persistence.job.models.Job;
 import jakarta.inject.Named;
@@ -51,12 +52,15 @@ public class AttemptHandler {
   private final JobConverter jobConverter;
   private final JobCreationAndStatusUpdateHelper jobCreationAndStatusUpdateHelper;
   private final Path workspaceRoot;
+  private final AttemptStatsCoalescer attemptStatsCoalescer;
 
   public AttemptHandler(final JobPersistence jobPersistence,
                         final JobConverter jobConverter,
                         final JobCreationAndStatusUpdateHelper jobCreationAndStatusUpdateHelper,
-                        @Named("workspaceRoot") final Path workspaceRoot) {
+                        @Named("workspaceRoot") final Path workspaceRoot,
+                        final AttemptStatsCoalescer attemptStatsCoalescer) {
     this.jobPersistence = jobPersistence;
+    this.attemptStatsCoalescer = attemptStatsCoalescer;
     this.jobConverter = jobConverter;
     this.jobCreationAndStatusUpdateHelper = jobCreationAndStatusUpdateHelper;
     this.workspaceRoot = workspaceRoot;
@@ -137,10 +141,14 @@ public class AttemptHandler {
                   .withEstimatedRecords(s.getStats().getEstimatedRecords())))
           .collect(Collectors.toList());
 
-      jobPersistence.writeStats(requestBody.getJobId(), requestBody.getAttemptNumber(),
-          stats.getEstimatedRecords(), stats.getEstimatedBytes(),
-          stats.getRecordsEmitted(), stats.getBytesEmitted(),
-          stats.getRecordsCommitted(), stats.getBytesCommitted(),
+      attemptStatsCoalescer.writeStats(requestBody.getJobId(), requestBody.getAttemptNumber(),
+          new SyncStats()
+              .withEstimatedRecords(stats.getEstimatedRecords())
+              .withEstimatedBytes(stats.getEstimatedBytes())
+              .withRecordsEmitted(stats.getRecordsEmitted())
+              .withBytesEmitted(stats.getBytesEmitted())
+              .withRecordsCommitted(stats.getRecordsCommitted())
+              .withBytesCommitted(stats.getBytesCommitted()),
           streamStats);
 
     } catch (final IOException ioe) {
@@ -4,6 +4,7 @@
 
 package io.airbyte.commons.server.handlers;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.airbyte.api.model.generated.AttemptInfoRead;
 import io.airbyte.api.model.generated.AttemptNormalizationStatusReadList;
@@ -34,6 +35,7 @@ import io.airbyte.api.model.generated.SourceRead;
 import io.airbyte.commons.enums.Enums;
 import io.airbyte.commons.server.converters.JobConverter;
 import io.airbyte.commons.server.converters.WorkflowStateConverter;
+import io.airbyte.commons.server.errors.BadRequestException;
 import io.airbyte.commons.temporal.TemporalClient;
 import io.airbyte.commons.version.AirbyteVersion;
 import io.airbyte.config.Configs.WorkerEnvironment;
@@ -43,11 +45,14 @@ import io.airbyte.config.helpers.LogConfigs;
 import io.airbyte.config.persistence.ConfigNotFoundException;
 import io.airbyte.persistence.job.JobPersistence;
 import io.airbyte.persistence.job.JobPersistence.JobAttemptPair;
+import io.airbyte.persistence.job.JobPersistence.JobProjection;
 import io.airbyte.persistence.job.models.Job;
 import io.airbyte.persistence.job.models.JobStatus;
 import io.airbyte.validation.json.JsonValidationException;
 import jakarta.inject.Singleton;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -71,6 +76,7 @@ public class JobHistoryHandler {
   private final SourceDefinitionsHandler sourceDefinitionsHandler;
   private final DestinationDefinitionsHandler destinationDefinitionsHandler;
   public static final int DEFAULT_PAGE_SIZE = 200;
+  private static final String JOB_CURSOR_PREFIX = "v1:";
   private final JobPersistence jobPersistence;
   private final JobConverter jobConverter;
   private final WorkflowStateConverter workflowStateConverter;
@@ -129,11 +135,24 @@ public class JobHistoryHandler {
     final List<Job> jobs;
 
     if (request.getIncludingJobId() != null) {
+      if (request.getCursor() != null) {
+        throw new BadRequestException("includingJobId and cursor can't be used together.");
+      }
       jobs = jobPersistence.listJobsIncludingId(
           configTypes,
           configId,
           request.getIncludingJobId(),
-          pageSize);
+          pageSize,
+          JobProjection.WITH_STATS);
+    } else if (request.getCursor() != null) {
+      jobs = jobPersistence.listJobsAfter(configTypes, configId, pageSize,
+          decodeJobCursor(request.getCursor()),
+          request.getStatus() == null ? null : JobStatus.valueOf(request.getStatus().toString().toUpperCase()),
+          request.getCreatedAtStart(),
+          request.getCreatedAtEnd(),
+          request.getUpdatedAtStart(),
+          request.getUpdatedAtEnd(),
+          JobProjection.WITH_STATS);
     } else {
       jobs = jobPersistence.listJobs(configTypes, configId, pageSize,
           (request.getPagination() != null && request.getPagination().getRowOffset() != null) ? request.getPagination().getRowOffset() : 0,
@@ -143,7 +162,8 @@ public class JobHistoryHandler {
           request.getUpdatedAtStart(),
           request.getUpdatedAtEnd(),
           request.getOrderByField() == null ? null : request.getOrderByField().name(),
-          request.getOrderByMethod() == null ? null : request.getOrderByMethod().name());
+          request.getOrderByMethod() == null ? null : request.getOrderByMethod().name(),
+          JobProjection.WITH_STATS);
     }
 
     final List<JobWithAttemptsRead> jobReads = jobs.stream().map(JobConverter::getJobWithAttemptsRead).collect(Collectors.toList());
@@ -162,7 +182,44 @@ public class JobHistoryHandler {
     }
 
     final Long totalJobCount = jobPersistence.getJobCount(configTypes, configId);
-    return new JobReadList().jobs(jobReads).totalJobCount(totalJobCount);
+    final JobReadList jobReadList = new JobReadList().jobs(jobReads).totalJobCount(totalJobCount);
+    // a page of fewer jobs than the page size is the last one
+    if (request.getIncludingJobId() == null && jobs.size() == pageSize && isListedInPageOrder(request)) {
+      jobReadList.nextCursor(encodeJobCursor(jobs.get(jobs.size() - 1).getId()));
+    }
+    return jobReadList;
+  }
+
+  /**
+   * Pages are split in descending (created_at, id) order. The next page only starts after the last
+   * job of a page if its jobs are returned in that order, which is always the case when listing them
+   * after a cursor.
+   */
+  private static boolean isListedInPageOrder(final JobListRequestBody request) {
+    return request.getCursor() != null
+        || (request.getOrderByField() == null || request.getOrderByField() == JobListRequestBody.OrderByFieldEnum.CREATEDAT)
+            && (request.getOrderByMethod() == null || request.getOrderByMethod() == JobListRequestBody.OrderByMethodEnum.DESC);
+  }
+
+  /**
+   * Cursors are opaque to clients so that what they hold can change. They currently hold the id of
+   * the last job of a page.
+   */
+  @VisibleForTesting
+  static String encodeJobCursor(final long jobId) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString((JOB_CURSOR_PREFIX + jobId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static long decodeJobCursor(final String cursor) {
+    try {
+      final String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (decoded.startsWith(JOB_CURSOR_PREFIX)) {
+        return Long.parseLong(decoded.substring(JOB_CURSOR_PREFIX.length()));
+      }
+    } catch (final IllegalArgumentException e) {
+      throw new BadRequestException("Invalid job list cursor: " + cursor, e);
+    }
+    throw new BadRequestException("Invalid job list cursor: " + cursor);
   }
 
   @SuppressWarnings("UnstableApiUsage")
@@ -192,7 +249,8 @@ public class JobHistoryHandler {
         request.getUpdatedAtStart(),
         request.getUpdatedAtEnd(),
         request.getOrderByField() == null ? null : request.getOrderByField().name(),
-        request.getOrderByMethod() == null ? null : request.getOrderByMethod().name());
+        request.getOrderByMethod() == null ? null : request.getOrderByMethod().name(),
+        JobProjection.WITH_STATS);
 
     final List<JobWithAttemptsRead> jobReads = jobs.stream().map(JobConverter::getJobWithAttemptsRead).collect(Collectors.toList());
     final var jobIds = jobReads.stream().map(r -> r.getJob().getId()).toList();
@@ -300,7 +358,8 @@ public class JobHistoryHandler {
     final List<Job> nonTerminalSyncJobsForConnection = jobPersistence.listJobsForConnectionWithStatuses(
         connectionId,
         Collections.singleton(ConfigType.SYNC),
-        JobStatus.NON_TERMINAL_STATUSES);
+        JobStatus.NON_TERMINAL_STATUSES,
+        JobProjection.SUMMARY);
 
     // there *should* only be a single running sync job for a connection, but
     // jobPersistence.listJobsForConnectionWithStatuses orders by created_at desc so
@@ -309,11 +368,11 @@ public class JobHistoryHandler {
   }
 
   public Optional<JobRead> getLatestSyncJob(final UUID connectionId) throws IOException {
-    return jobPersistence.getLastSyncJob(connectionId).map(JobConverter::getJobRead);
+    return jobPersistence.getLastSyncJob(connectionId, JobProjection.SUMMARY).map(JobConverter::getJobRead);
   }
 
   public List<JobRead> getLatestSyncJobsForConnections(final List<UUID> connectionIds) throws IOException {
-    return jobPersistence.getLastSyncJobForConnections(connectionIds).stream()
+    return jobPersistence.getLastSyncJobForConnections(connectionIds, JobProjection.SUMMARY).stream()
         .map(JobConverter::getJobRead)
         .collect(Collectors.toList());
   }
@@ -325,7 +384,7 @@ public class JobHistoryHandler {
   }
 
   public List<JobRead> getRunningSyncJobForConnections(final List<UUID> connectionIds) throws IOException {
-    return jobPersistence.getRunningSyncJobForConnections(connectionIds).stream()
+    return jobPersistence.getRunningSyncJobForConnections(connectionIds, JobProjection.SUMMARY).stream()
         .map(JobConverter::getJobRead)
         .collect(Collectors.toList());
   }
@@ -23,6 +23,7 @@ import io.airbyte.metrics.lib.MetricClientFactory;
 import io.airbyte.metrics.lib.OssMetricsRegistry;
 import io.airbyte.persistence.job.JobNotifier;
 import io.airbyte.persistence.job.JobPersistence;
+import io.airbyte.persistence.job.JobPersistence.JobProjection;
 import io.airbyte.persistence.job.errorreporter.JobErrorReporter;
 import io.airbyte.persistence.job.errorreporter.SyncJobReportingContext;
 import io.airbyte.persistence.job.models.Attempt;
@@ -150,7 +151,7 @@ public class JobsHandler {
     // This DB call is a lift-n-shift from activity code to move database access out of the worker. It
     // is knowingly brittle and awkward. By setting pageSize to 2 this should just fetch the latest and
     // preceding job, but technically can fetch a much longer list.
-    final List<Job> jobs = jobPersistence.listJobsIncludingId(SYNC_CONFIG_SET, connectionId.toString(), jobId, 2);
+    final List<Job> jobs = jobPersistence.listJobsIncludingId(SYNC_CONFIG_SET, connectionId.toString(), jobId, 2, JobProjection.SUMMARY);
 
     final boolean previousJobSucceeded = jobCreationAndStatusUpdateHelper.findPreviousJob(jobs, jobId)
         .map(jobCreationAndStatusUpdateHelper::didJobSucceed)
@@ -7,6 +7,7 @@ package io.airbyte.commons.server.handlers;
 import io.airbyte.api.model.generated.ConnectionIdRequestBody;
 import io.airbyte.api.model.generated.ConnectionState;
 import io.airbyte.api.model.generated.ConnectionStateCreateOrUpdate;
+import io.airbyte.api.model.generated.InternalOperationResult;
 import io.airbyte.commons.converters.StateConverter;
 import io.airbyte.commons.server.errors.SyncIsRunningException;
 import io.airbyte.config.StateWrapper;
@@ -47,6 +48,17 @@ public class StateHandler {
     return StateConverter.toApi(connectionId, newInternalState.orElse(null));
   }
 
+  public InternalOperationResult mergeState(final ConnectionStateCreateOrUpdate connectionStateCreateOrUpdate) throws IOException {
+    final UUID connectionId = connectionStateCreateOrUpdate.getConnectionId();
+
+    // Streams missing from the request keep their state. Unlike createOrUpdateState, the merged state
+    // isn't read back so the cost of a merge only depends on the size of the request.
+    final StateWrapper convertedMerge = StateConverter.toInternal(connectionStateCreateOrUpdate.getConnectionState());
+    statePersistence.updateOrCreateState(connectionId, convertedMerge);
+
+    return new InternalOperationResult().succeeded(true);
+  }
+
   public ConnectionState createOrUpdateStateSafe(final ConnectionStateCreateOrUpdate connectionStateCreateOrUpdate) throws IOException {
     if (jobHistoryHandler.getLatestRunningSyncJob(connectionStateCreateOrUpdate.getConnectionId()).isPresent()) {
       throw new SyncIsRunningException("State cannot be updated while a sync is running for this connection.");
@@ -45,12 +45,14 @@ import io.airbyte.config.StandardSyncSummary;
 import io.airbyte.config.StandardSyncSummary.ReplicationStatus;
 import io.airbyte.config.SyncStats;
 import io.airbyte.config.helpers.LogClientSingleton;
+import io.airbyte.persistence.job.AttemptStatsCoalescer;
 import io.airbyte.persistence.job.JobPersistence;
 import io.airbyte.persistence.job.models.Attempt;
 import io.airbyte.persistence.job.models.AttemptStatus;
 import io.airbyte.persistence.job.models.Job;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
@@ -100,7 +102,7 @@ class AttemptHandlerTest {
     jobConverter = Mockito.mock(JobConverter.class);
     path = Mockito.mock(Path.class);
     helper = Mockito.mock(JobCreationAndStatusUpdateHelper.class);
-    handler = new AttemptHandler(jobPersistence, jobConverter, helper, path);
+    handler = new AttemptHandler(jobPersistence, jobConverter, helper, path, new AttemptStatsCoalescer(jobPersistence, Duration.ZERO));
   }
 
   @Test
@@ -5,6 +5,8 @@
 package io.airbyte.commons.server.handlers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -37,6 +39,7 @@ import io.airbyte.api.model.generated.SourceRead;
 import io.airbyte.api.model.generated.StreamDescriptor;
 import io.airbyte.commons.enums.Enums;
 import io.airbyte.commons.server.converters.JobConverter;
+import io.airbyte.commons.server.errors.BadRequestException;
 import io.airbyte.commons.server.helpers.ConnectionHelpers;
 import io.airbyte.commons.server.helpers.DestinationHelpers;
 import io.airbyte.commons.server.helpers.SourceHelpers;
@@ -58,6 +61,7 @@ import io.airbyte.config.persistence.ConfigNotFoundException;
 import io.airbyte.persistence.job.JobPersistence;
 import io.airbyte.persistence.job.JobPersistence.AttemptStats;
 import io.airbyte.persistence.job.JobPersistence.JobAttemptPair;
+import io.airbyte.persistence.job.JobPersistence.JobProjection;
 import io.airbyte.persistence.job.models.Attempt;
 import io.airbyte.persistence.job.models.AttemptNormalizationStatus;
 import io.airbyte.persistence.job.models.AttemptStatus;
@@ -68,8 +72,10 @@ import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
 import io.airbyte.protocol.models.ConfiguredAirbyteStream;
 import io.airbyte.validation.json.JsonValidationException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -222,7 +228,8 @@ class JobHistoryHandlerTest {
           null,
           null,
           null,
-          null))
+          null,
+          JobProjection.WITH_STATS))
               .thenReturn(List.of(latestJobNoAttempt, successfulJob));
       when(jobPersistence.getJobCount(Set.of(Enums.convertTo(CONFIG_TYPE_FOR_API, ConfigType.class)), JOB_CONFIG_ID)).thenReturn(2L);
       when(jobPersistence.getAttemptStats(List.of(200L, 100L))).thenReturn(Map.of(
@@ -267,7 +274,8 @@ class JobHistoryHandlerTest {
       final var latestJob =
           new Job(latestJobId, ConfigType.SYNC, JOB_CONFIG_ID, JOB_CONFIG, Collections.emptyList(), JobStatus.PENDING, null, createdAt3, createdAt3);
 
-      when(jobPersistence.listJobs(configTypes, JOB_CONFIG_ID, pagesize, rowOffset, null, null, null, null, null, null, null))
+      when(jobPersistence.listJobs(configTypes, JOB_CONFIG_ID, pagesize, rowOffset, null, null, null, null, null, null, null,
+          JobProjection.WITH_STATS))
           .thenReturn(List.of(latestJob, secondJob, firstJob));
       when(jobPersistence.getJobCount(configTypes, JOB_CONFIG_ID)).thenReturn(3L);
       when(jobPersistence.getAttemptStats(List.of(300L, 200L, 100L))).thenReturn(Map.of(
@@ -307,7 +315,8 @@ class JobHistoryHandlerTest {
           new Job(jobId2, JOB_CONFIG.getConfigType(), JOB_CONFIG_ID, JOB_CONFIG, Collections.emptyList(), JobStatus.PENDING,
               null, createdAt2, createdAt2);
 
-      when(jobPersistence.listJobsIncludingId(Set.of(Enums.convertTo(CONFIG_TYPE_FOR_API, ConfigType.class)), JOB_CONFIG_ID, jobId2, pagesize))
+      when(jobPersistence.listJobsIncludingId(Set.of(Enums.convertTo(CONFIG_TYPE_FOR_API, ConfigType.class)), JOB_CONFIG_ID, jobId2, pagesize,
+          JobProjection.WITH_STATS))
           .thenReturn(List.of(latestJobNoAttempt, successfulJob));
       when(jobPersistence.getJobCount(Set.of(Enums.convertTo(CONFIG_TYPE_FOR_API, ConfigType.class)), JOB_CONFIG_ID)).thenReturn(2L);
       when(jobPersistence.getAttemptStats(List.of(200L, 100L))).thenReturn(Map.of(
@@ -330,6 +339,76 @@ class JobHistoryHandlerTest {
       assertEquals(expectedJobReadList, jobReadList);
     }
 
+    @Test
+    @DisplayName("Should return the jobs after the cursor and the cursor of the next page")
+    void testListJobsAfterCursor() throws IOException {
+      final var successfulJob = testJob;
+      final int pagesize = 2;
+
+      final var jobId2 = JOB_ID + 100;
+      final var createdAt2 = CREATED_AT + 1000;
+      final var latestJobNoAttempt =
+          new Job(jobId2, JOB_CONFIG.getConfigType(), JOB_CONFIG_ID, JOB_CONFIG, Collections.emptyList(), JobStatus.PENDING,
+              null, createdAt2, createdAt2);
+      final long previousPageLastJobId = jobId2 + 100;
+
+      when(jobPersistence.listJobsAfter(Set.of(Enums.convertTo(CONFIG_TYPE_FOR_API, ConfigType.class)), JOB_CONFIG_ID, pagesize,
+          previousPageLastJobId, null, null, null, null, null, JobProjection.WITH_STATS))
+              .thenReturn(List.of(latestJobNoAttempt, successfulJob));
+      when(jobPersistence.getJobCount(Set.of(Enums.convertTo(CONFIG_TYPE_FOR_API, ConfigType.class)), JOB_CONFIG_ID)).thenReturn(5L);
+      when(jobPersistence.getAttemptStats(List.of(200L, 100L))).thenReturn(Map.of(
+          new JobAttemptPair(100, 0), ATTEMPT_STATS,
+          new JobAttemptPair(jobId2, 0), ATTEMPT_STATS));
+
+      final var requestBody = new JobListRequestBody()
+          .configTypes(Collections.singletonList(CONFIG_TYPE_FOR_API))
+          .configId(JOB_CONFIG_ID)
+          .cursor(JobHistoryHandler.encodeJobCursor(previousPageLastJobId))
+          .pagination(new Pagination().pageSize(pagesize));
+      final var jobReadList = jobHistoryHandler.listJobsFor(requestBody);
+
+      assertEquals(List.of(jobId2, JOB_ID), jobReadList.getJobs().stream().map(job -> job.getJob().getId()).toList());
+      assertEquals(5L, jobReadList.getTotalJobCount());
+      assertEquals(JobHistoryHandler.encodeJobCursor(JOB_ID), jobReadList.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should not return a cursor when the jobs of the page are not in descending creation order")
+    void testListJobsInAnotherOrderHasNoCursor() throws IOException {
+      final int pagesize = 1;
+      when(jobPersistence.listJobs(Set.of(Enums.convertTo(CONFIG_TYPE_FOR_API, ConfigType.class)), JOB_CONFIG_ID, pagesize, 0, null, null, null,
+          null, null, JobListRequestBody.OrderByFieldEnum.UPDATEDAT.name(), JobListRequestBody.OrderByMethodEnum.ASC.name(),
+          JobProjection.WITH_STATS))
+              .thenReturn(List.of(testJob));
+      when(jobPersistence.getJobCount(Set.of(Enums.convertTo(CONFIG_TYPE_FOR_API, ConfigType.class)), JOB_CONFIG_ID)).thenReturn(5L);
+      when(jobPersistence.getAttemptStats(List.of(JOB_ID))).thenReturn(Map.of(new JobAttemptPair(JOB_ID, 0), ATTEMPT_STATS));
+
+      final var requestBody = new JobListRequestBody()
+          .configTypes(Collections.singletonList(CONFIG_TYPE_FOR_API))
+          .configId(JOB_CONFIG_ID)
+          .orderByField(JobListRequestBody.OrderByFieldEnum.UPDATEDAT)
+          .orderByMethod(JobListRequestBody.OrderByMethodEnum.ASC)
+          .pagination(new Pagination().pageSize(pagesize));
+      final var jobReadList = jobHistoryHandler.listJobsFor(requestBody);
+
+      assertEquals(List.of(JOB_ID), jobReadList.getJobs().stream().map(job -> job.getJob().getId()).toList());
+      assertNull(jobReadList.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject cursors which weren't returned by a previous page")
+    void testListJobsWithInvalidCursor() {
+      final var requestBody = new JobListRequestBody()
+          .configTypes(Collections.singletonList(CONFIG_TYPE_FOR_API))
+          .configId(JOB_CONFIG_ID);
+
+      assertThrows(BadRequestException.class, () -> jobHistoryHandler.listJobsFor(requestBody.cursor("not a cursor")));
+      assertThrows(BadRequestException.class,
+          () -> jobHistoryHandler.listJobsFor(requestBody.cursor(Base64.getUrlEncoder().encodeToString("v2:1".getBytes(StandardCharsets.UTF_8)))));
+      assertThrows(BadRequestException.class,
+          () -> jobHistoryHandler.listJobsFor(requestBody.cursor(JobHistoryHandler.encodeJobCursor(JOB_ID)).includingJobId(JOB_ID)));
+    }
+
   }
 
   @Test
@@ -421,7 +500,8 @@ class JobHistoryHandlerTest {
     when(jobPersistence.listJobsForConnectionWithStatuses(
         connectionId,
         Collections.singleton(ConfigType.SYNC),
-        JobStatus.NON_TERMINAL_STATUSES)).thenReturn(List.of(newerRunningJob, olderRunningJob));
+        JobStatus.NON_TERMINAL_STATUSES,
+        JobProjection.SUMMARY)).thenReturn(List.of(newerRunningJob, olderRunningJob));
 
     final Optional<JobRead> expectedJob = Optional.of(JobConverter.getJobRead(newerRunningJob));
     final Optional<JobRead> actualJob = jobHistoryHandler.getLatestRunningSyncJob(connectionId);
@@ -437,7 +517,8 @@ class JobHistoryHandlerTest {
     when(jobPersistence.listJobsForConnectionWithStatuses(
         connectionId,
         Collections.singleton(ConfigType.SYNC),
-        JobStatus.NON_TERMINAL_STATUSES)).thenReturn(Collections.emptyList());
+        JobStatus.NON_TERMINAL_STATUSES,
+        JobProjection.SUMMARY)).thenReturn(Collections.emptyList());
 
     final Optional<JobRead> actual = jobHistoryHandler.getLatestRunningSyncJob(connectionId);
 
@@ -457,7 +538,7 @@ class JobHistoryHandlerTest {
         JOB_CONFIG, ImmutableList.of(newerFailedJobAttempt),
         JobStatus.RUNNING, null, newerFailedCreatedAt, newerFailedCreatedAt);
 
-    when(jobPersistence.getLastSyncJob(connectionId)).thenReturn(Optional.of(newerFailedJob));
+    when(jobPersistence.getLastSyncJob(connectionId, JobProjection.SUMMARY)).thenReturn(Optional.of(newerFailedJob));
 
     final Optional<JobRead> expectedJob = Optional.of(JobConverter.getJobRead(newerFailedJob));
     final Optional<JobRead> actualJob = jobHistoryHandler.getLatestSyncJob(connectionId);
@@ -128,7 +128,7 @@ class JobsHandlerTest {
 
   @Test
   void didPreviousJobSucceedReturnsFalseIfNoPreviousJob() throws Exception {
-    when(jobPersistence.listJobsIncludingId(any(), any(), anyLong(), anyInt()))
+    when(jobPersistence.listJobsIncludingId(any(), any(), anyLong(), anyInt(), any()))
         .thenReturn(List.of(
             Mockito.mock(Job.class),
             Mockito.mock(Job.class),
@@ -146,7 +146,7 @@ class JobsHandlerTest {
 
   @Test
   void didPreviousJobSucceedReturnsTrueIfPreviousJobSucceeded() throws Exception {
-    when(jobPersistence.listJobsIncludingId(any(), any(), anyLong(), anyInt()))
+    when(jobPersistence.listJobsIncludingId(any(), any(), anyLong(), anyInt(), any()))
         .thenReturn(List.of(
             Mockito.mock(Job.class),
             Mockito.mock(Job.class),
@@ -164,7 +164,7 @@ class JobsHandlerTest {
 
   @Test
   void didPreviousJobSucceedReturnsFalseIfPreviousJobNotInSucceededState() throws Exception {
-    when(jobPersistence.listJobsIncludingId(any(), any(), anyLong(), anyInt()))
+    when(jobPersistence.listJobsIncludingId(any(), any(), anyLong(), anyInt(), any()))
         .thenReturn(List.of(
             Mockito.mock(Job.class),
             Mockito.mock(Job.class),
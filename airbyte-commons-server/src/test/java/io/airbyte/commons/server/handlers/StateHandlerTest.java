@@ -6,7 +6,9 @@ package io.airbyte.commons.server.handlers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -153,6 +155,16 @@ class StateHandlerTest {
         new StateWrapper().withStateType(StateType.LEGACY).withLegacyState(JSON_BLOB).withStateMessages(null));
   }
 
+  @Test
+  void testMergeStateDoesNotReadTheStateBack() throws IOException {
+    final ConnectionStateCreateOrUpdate input = new ConnectionStateCreateOrUpdate().connectionId(CONNECTION_ID)
+        .connectionState(new ConnectionState().stateType(ConnectionStateType.LEGACY).state(JSON_BLOB));
+    assertTrue(stateHandler.mergeState(input).getSucceeded());
+    verify(statePersistence, times(1)).updateOrCreateState(CONNECTION_ID,
+        new StateWrapper().withStateType(StateType.LEGACY).withLegacyState(JSON_BLOB).withStateMessages(null));
+    verify(statePersistence, never()).getCurrentState(CONNECTION_ID);
+  }
+
   @Test
   void testCreateOrUpdateStateSafe() throws IOException {
     final ConnectionStateCreateOrUpdate input = new ConnectionStateCreateOrUpdate().connectionId(CONNECTION_ID)
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Common setup of the pipeline stage benchmarks: the shape of the records is a parameter of every
+ * benchmark, results are reported in records per second.
+ * <p>
+ * Benchmarks cycle through a pool of {@link #RECORD_POOL_SIZE} records so that they don't measure a
+ * single record sitting in the cpu caches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings("MissingJavadocMethod")
+public abstract class AbstractRecordBenchmark {
+
+  protected static final int RECORD_POOL_SIZE = 1024;
+
+  @Param({"10", "100"})
+  public int width;
+
+  @Param({"1", "3"})
+  public int depth;
+
+  @Param({"32"})
+  public int stringLength;
+
+  private int index;
+
+  protected SyntheticRecordGenerator generator() {
+    return new SyntheticRecordGenerator(width, depth, stringLength);
+  }
+
+  /**
+   * Returns the index of the next record of the pool to use.
+   */
+  protected int nextIndex() {
+    index = (index + 1) & (RECORD_POOL_SIZE - 1);
+    return index;
+  }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.benchmarks;
+
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.workers.internal.DefaultAirbyteMessageBufferedWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Serialization of records to a destination by {@link DefaultAirbyteMessageBufferedWriter}, the
+ * output is discarded.
+ */
+@SuppressWarnings("MissingJavadocMethod")
+public class BufferedWriterBenchmark extends AbstractRecordBenchmark {
+
+  private List<AirbyteMessage> records;
+  private DefaultAirbyteMessageBufferedWriter writer;
+
+  @Setup
+  public void setup() {
+    records = generator().records(RECORD_POOL_SIZE);
+    writer = new DefaultAirbyteMessageBufferedWriter(new BufferedWriter(Writer.nullWriter()));
+  }
+
+  @Benchmark
+  public void write() throws IOException {
+    writer.write(records.get(nextIndex()));
+  }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.benchmarks;
+
+import io.airbyte.commons.features.EnvVariableFeatureFlags;
+import io.airbyte.metrics.lib.NotImplementedMetricClient;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.workers.internal.bookkeeping.AirbyteMessageTracker;
+import io.airbyte.workers.internal.bookkeeping.ParallelStreamStatsTracker;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Tracking of the records read from a source by {@link AirbyteMessageTracker}, with the stats
+ * tracker used by the replication workers.
+ */
+@SuppressWarnings("MissingJavadocMethod")
+public class MessageTrackerBenchmark extends AbstractRecordBenchmark {
+
+  private List<AirbyteMessage> records;
+  private AirbyteMessageTracker messageTracker;
+
+  @Setup
+  public void setup() {
+    records = generator().records(RECORD_POOL_SIZE);
+    messageTracker = new AirbyteMessageTracker(new ParallelStreamStatsTracker(new NotImplementedMetricClient()), new EnvVariableFeatureFlags());
+  }
+
+  @Benchmark
+  public void acceptFromSource() {
+    messageTracker.acceptFromSource(records.get(nextIndex()));
+  }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.benchmarks;
+
+import io.airbyte.config.JobSyncConfig.NamespaceDefinitionType;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteStream;
+import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
+import io.airbyte.protocol.models.ConfiguredAirbyteStream;
+import io.airbyte.workers.internal.NamespacingMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapping of the namespace and stream name of records and states by {@link NamespacingMapper}, with
+ * a custom namespace format and a stream prefix, over catalogs of many streams in many namespaces.
+ * <p>
+ * The mapper renames messages in place, their source names are restored before every mapping. The
+ * shape of the record data doesn't matter here, only the number of streams is a parameter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings("MissingJavadocMethod")
+public class NamespacingMapperBenchmark {
+
+  private static final int MESSAGE_POOL_SIZE = 1 << 14;
+  private static final int STREAMS_PER_NAMESPACE = 10;
+
+  @Param({"1", "1000", "10000"})
+  public int streamCount;
+
+  private final List<AirbyteMessage> records = new ArrayList<>();
+  private final List<AirbyteMessage> states = new ArrayList<>();
+  private String[] namespaces;
+  private String[] streams;
+  private NamespacingMapper mapper;
+  private int index;
+
+  @Setup
+  public void setup() {
+    final SyntheticRecordGenerator generator = new SyntheticRecordGenerator(1, 1, 8);
+    namespaces = new String[MESSAGE_POOL_SIZE];
+    streams = new String[MESSAGE_POOL_SIZE];
+    for (int i = 0; i < MESSAGE_POOL_SIZE; i++) {
+      namespaces[i] = namespace(i % streamCount);
+      streams[i] = stream(i % streamCount);
+      records.add(generator.record(i));
+      states.add(SyntheticRecordGenerator.streamState(i, streamCount));
+    }
+
+    final List<ConfiguredAirbyteStream> catalogStreams = new ArrayList<>();
+    for (int i = 0; i < streamCount; i++) {
+      catalogStreams.add(new ConfiguredAirbyteStream().withStream(new AirbyteStream().withNamespace(namespace(i)).withName(stream(i))));
+    }
+    mapper = new NamespacingMapper(NamespaceDefinitionType.CUSTOMFORMAT, "${SOURCE_NAMESPACE}_destination", "prefix_");
+    mapper.mapCatalog(new ConfiguredAirbyteCatalog().withStreams(catalogStreams));
+  }
+
+  @Benchmark
+  public AirbyteMessage mapRecord() {
+    final int i = nextIndex();
+    final AirbyteMessage record = records.get(i);
+    record.getRecord().setNamespace(namespaces[i]);
+    record.getRecord().setStream(streams[i]);
+    return mapper.mapMessage(record);
+  }
+
+  @Benchmark
+  public AirbyteMessage mapAndRevertState() {
+    final int i = nextIndex();
+    final AirbyteMessage state = states.get(i);
+    state.getState().getStream().getStreamDescriptor()
+        .withNamespace(SyntheticRecordGenerator.NAMESPACE)
+        .withName(streams[i]);
+    return mapper.revertMap(mapper.mapMessage(state));
+  }
+
+  private int nextIndex() {
+    index = (index + 1) & (MESSAGE_POOL_SIZE - 1);
+    return index;
+  }
+
+  private static String namespace(final int stream) {
+    return SyntheticRecordGenerator.NAMESPACE + "_" + stream / STREAMS_PER_NAMESPACE;
+  }
+
+  private static String stream(final int stream) {
+    return SyntheticRecordGenerator.STREAM + "_" + stream;
+  }
+
+}
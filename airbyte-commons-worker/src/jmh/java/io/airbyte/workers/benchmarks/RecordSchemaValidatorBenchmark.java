@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.benchmarks;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteStreamNameNamespacePair;
+import io.airbyte.workers.RecordSchemaValidator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Validation of records against the schema of their stream by {@link RecordSchemaValidator}.
+ * <p>
+ * The validation runs on the benchmark thread instead of the validator executor so that its cost
+ * is measured.
+ */
+@SuppressWarnings("MissingJavadocMethod")
+public class RecordSchemaValidatorBenchmark extends AbstractRecordBenchmark {
+
+  private static final AirbyteStreamNameNamespacePair STREAM =
+      new AirbyteStreamNameNamespacePair(SyntheticRecordGenerator.STREAM, SyntheticRecordGenerator.NAMESPACE);
+
+  private List<AirbyteMessage> records;
+  private RecordSchemaValidator recordSchemaValidator;
+  private final ConcurrentHashMap<AirbyteStreamNameNamespacePair, ImmutablePair<Set<String>, Integer>> validationErrors = new ConcurrentHashMap<>();
+
+  @Setup
+  public void setup() {
+    final SyntheticRecordGenerator generator = generator();
+    records = generator.records(RECORD_POOL_SIZE);
+    recordSchemaValidator = new RecordSchemaValidator(Map.of(STREAM, generator.jsonSchema()), MoreExecutors.newDirectExecutorService());
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    if (!validationErrors.isEmpty()) {
+      throw new IllegalStateException("Synthetic records are expected to be valid: " + validationErrors);
+    }
+    recordSchemaValidator.close();
+  }
+
+  @Benchmark
+  public void validateSchema() {
+    recordSchemaValidator.validateSchema(records.get(nextIndex()).getRecord(), STREAM, validationErrors);
+  }
+
+}
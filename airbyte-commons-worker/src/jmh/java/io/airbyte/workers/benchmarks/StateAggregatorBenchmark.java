@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.benchmarks;
+
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.workers.internal.state_aggregator.DefaultStateAggregator;
+import io.airbyte.workers.internal.state_aggregator.StateAggregator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Aggregation of per stream state messages by {@link DefaultStateAggregator}: ingesting a state
+ * message, and building the aggregated state of all the streams as done when states are persisted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings("MissingJavadocMethod")
+public class StateAggregatorBenchmark {
+
+  private static final int STATE_POOL_SIZE = 1024;
+
+  @Param({"1", "100", "1000"})
+  public int streamCount;
+
+  private List<AirbyteMessage> states;
+  private StateAggregator stateAggregator;
+  private int index;
+
+  @Setup
+  public void setup() {
+    states = new ArrayList<>(STATE_POOL_SIZE);
+    for (int i = 0; i < STATE_POOL_SIZE; i++) {
+      states.add(SyntheticRecordGenerator.streamState(i, streamCount));
+    }
+    stateAggregator = new DefaultStateAggregator(true);
+    // every stream has a state before the benchmark starts
+    for (int i = 0; i < streamCount; i++) {
+      stateAggregator.ingest(SyntheticRecordGenerator.streamState(i, streamCount).getState());
+    }
+  }
+
+  @Benchmark
+  public void ingest() {
+    index = (index + 1) % STATE_POOL_SIZE;
+    stateAggregator.ingest(states.get(index).getState());
+  }
+
+  @Benchmark
+  public io.airbyte.config.State getAggregated() {
+    return stateAggregator.getAggregated();
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.benchmarks;
+
+import io.airbyte.workers.process.MultiplexedStdioConnection;
+import io.airbyte.workers.process.StdioRelay;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of relaying connector output through the {@link StdioRelay} sidecar, compared to the plain
+ * socket copy made by the socat sidecars it replaces. Each operation sends one chunk of stdout over
+ * a loopback connection, drained by another thread like the worker does, so that the throughput in
+ * bytes per second is the operations per second times the chunk size.
+ * <p>
+ * Run with `-prof gc` or `-prof perfnorm` to compare the allocations and cpu cycles per chunk of
+ * the two transports, which size the resources requested by the relay sidecar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings("MissingJavadocMethod")
+public class StdioRelayBenchmark {
+
+  @Param({"4096", "65536"})
+  public int chunkSize;
+
+  private byte[] chunk;
+  private ServerSocket serverSocket;
+  private Socket plainSocket;
+  private OutputStream plainStdout;
+  private MultiplexedStdioConnection relaySide;
+  private MultiplexedStdioConnection workerSide;
+  private OutputStream multiplexedStdout;
+
+  @Setup
+  public void setup() throws IOException {
+    chunk = new byte[chunkSize];
+    ThreadLocalRandom.current().nextBytes(chunk);
+    serverSocket = new ServerSocket(0, 2, InetAddress.getLoopbackAddress());
+
+    plainSocket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+    drain(serverSocket.accept().getInputStream());
+    plainStdout = plainSocket.getOutputStream();
+
+    relaySide = new MultiplexedStdioConnection(new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()));
+    workerSide = new MultiplexedStdioConnection(serverSocket.accept());
+    drain(workerSide.getInputStream(MultiplexedStdioConnection.STDOUT));
+    multiplexedStdout = relaySide.getOutputStream(MultiplexedStdioConnection.STDOUT);
+  }
+
+  @TearDown
+  public void teardown() throws IOException {
+    plainSocket.close();
+    relaySide.close();
+    workerSide.close();
+    serverSocket.close();
+  }
+
+  @Benchmark
+  public void plainSocket() throws IOException {
+    plainStdout.write(chunk);
+  }
+
+  @Benchmark
+  public void multiplexed() throws IOException {
+    multiplexedStdout.write(chunk);
+  }
+
+  /**
+   * Read the stream until it ends, discarding what is read, like the worker consuming the stdout of
+   * a connector.
+   */
+  private static void drain(final InputStream stream) {
+    final Thread drainer = new Thread(() -> {
+      final byte[] buffer = new byte[64 * 1024];
+      try (stream) {
+        while (stream.read(buffer) >= 0) {
+          // discarded
+        }
+      } catch (final IOException e) {
+        // the connection is closed by the teardown
+      }
+    }, "stdout-drainer");
+    drainer.setDaemon(true);
+    drainer.start();
+  }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.benchmarks;
+
+import io.airbyte.workers.internal.VersionedAirbyteStreamFactory;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing of the lines emitted by a source into messages by {@link VersionedAirbyteStreamFactory}.
+ */
+@SuppressWarnings("MissingJavadocMethod")
+public class StreamFactoryBenchmark extends AbstractRecordBenchmark {
+
+  private String lines;
+
+  @Setup
+  public void setup() {
+    lines = String.join("\n", generator().lines(RECORD_POOL_SIZE));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORD_POOL_SIZE)
+  public void parseLines(final Blackhole blackhole) {
+    VersionedAirbyteStreamFactory.noMigrationVersionedAirbyteStreamFactory(false)
+        .create(new BufferedReader(new StringReader(lines)))
+        .forEach(blackhole::consume);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORD_POOL_SIZE)
+  public void parseLinesWithDeferredData(final Blackhole blackhole) {
+    VersionedAirbyteStreamFactory.noMigrationVersionedAirbyteStreamFactory(false)
+        .withDeferredRecordData(true)
+        .create(new BufferedReader(new StringReader(lines)))
+        .forEach(blackhole::consume);
+  }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import io.airbyte.protocol.models.AirbyteStateMessage;
+import io.airbyte.protocol.models.AirbyteStateMessage.AirbyteStateType;
+import io.airbyte.protocol.models.AirbyteStream;
+import io.airbyte.protocol.models.AirbyteStreamState;
+import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
+import io.airbyte.protocol.models.ConfiguredAirbyteStream;
+import io.airbyte.protocol.models.DestinationSyncMode;
+import io.airbyte.protocol.models.StreamDescriptor;
+import io.airbyte.protocol.models.SyncMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates records of a configurable shape, and the matching schema and catalog, to feed the
+ * pipeline stage benchmarks.
+ * <p>
+ * Every object of a record has {@code width} fields cycling through strings, integers, numbers and
+ * booleans. Records are {@code depth} objects deep: every object but the innermost one has an
+ * additional {@code nested} field holding the next level.
+ */
+public final class SyntheticRecordGenerator {
+
+  public static final String NAMESPACE = "benchmark_namespace";
+  public static final String STREAM = "benchmark_stream";
+
+  private static final String FIELD_PREFIX = "field_";
+  private static final String NESTED_FIELD = "nested";
+
+  private final int width;
+  private final int depth;
+  private final int stringLength;
+
+  /**
+   * Create a generator.
+   *
+   * @param width number of fields of every object of a record.
+   * @param depth number of nested objects of a record, 1 for a flat record.
+   * @param stringLength length of the string fields.
+   */
+  public SyntheticRecordGenerator(final int width, final int depth, final int stringLength) {
+    if (width < 1 || depth < 1 || stringLength < 0) {
+      throw new IllegalArgumentException(String.format("Invalid record shape, width: %s, depth: %s, string length: %s", width, depth, stringLength));
+    }
+    this.width = width;
+    this.depth = depth;
+    this.stringLength = stringLength;
+  }
+
+  /**
+   * Generate the data of a record, values vary with the index.
+   */
+  public JsonNode data(final int index) {
+    return object(index, depth);
+  }
+
+  /**
+   * Generate a record message of {@link #STREAM}.
+   */
+  public AirbyteMessage record(final int index) {
+    return new AirbyteMessage()
+        .withType(Type.RECORD)
+        .withRecord(new AirbyteRecordMessage()
+            .withNamespace(NAMESPACE)
+            .withStream(STREAM)
+            .withEmittedAt(1_700_000_000_000L + index)
+            .withData(data(index)));
+  }
+
+  /**
+   * Generate record messages.
+   */
+  public List<AirbyteMessage> records(final int count) {
+    final List<AirbyteMessage> records = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      records.add(record(i));
+    }
+    return records;
+  }
+
+  /**
+   * Generate serialized record messages, as a source would emit them.
+   */
+  public List<String> lines(final int count) {
+    return records(count).stream().map(Jsons::serialize).toList();
+  }
+
+  /**
+   * Generate a per stream state message, for one of {@code streamCount} streams.
+   */
+  public static AirbyteMessage streamState(final int index, final int streamCount) {
+    return new AirbyteMessage()
+        .withType(Type.STATE)
+        .withState(new AirbyteStateMessage()
+            .withType(AirbyteStateType.STREAM)
+            .withStream(new AirbyteStreamState()
+                .withStreamDescriptor(new StreamDescriptor().withNamespace(NAMESPACE).withName(STREAM + "_" + index % streamCount))
+                .withStreamState(Jsons.jsonNode(Map.of("cursor", index)))));
+  }
+
+  /**
+   * Returns the json schema of the generated records.
+   */
+  public JsonNode jsonSchema() {
+    return jsonSchema(width);
+  }
+
+  /**
+   * Returns the json schema of the generated records, declaring only the first
+   * {@code topLevelFields} fields of the top level object.
+   */
+  public JsonNode jsonSchema(final int topLevelFields) {
+    final ObjectNode schema = objectSchema(depth);
+    final ObjectNode properties = (ObjectNode) schema.get("properties");
+    for (int i = topLevelFields; i < width; i++) {
+      properties.remove(FIELD_PREFIX + i);
+    }
+    return schema;
+  }
+
+  /**
+   * Returns a catalog with the {@link #STREAM} stream, see {@link #jsonSchema(int)}.
+   */
+  public ConfiguredAirbyteCatalog catalog(final int topLevelFields) {
+    return new ConfiguredAirbyteCatalog().withStreams(List.of(new ConfiguredAirbyteStream()
+        .withStream(new AirbyteStream()
+            .withNamespace(NAMESPACE)
+            .withName(STREAM)
+            .withJsonSchema(jsonSchema(topLevelFields))
+            .withSupportedSyncModes(List.of(SyncMode.FULL_REFRESH)))
+        .withSyncMode(SyncMode.FULL_REFRESH)
+        .withDestinationSyncMode(DestinationSyncMode.APPEND)));
+  }
+
+  private ObjectNode object(final int index, final int level) {
+    final ObjectNode node = (ObjectNode) Jsons.emptyObject();
+    for (int i = 0; i < width; i++) {
+      final String field = FIELD_PREFIX + i;
+      switch (i % 4) {
+        case 0 -> node.put(field, string(index + i));
+        case 1 -> node.put(field, (long) index * width + i);
+        case 2 -> node.put(field, index + i / 100.0);
+        default -> node.put(field, (index + i) % 2 == 0);
+      }
+    }
+    if (level > 1) {
+      node.set(NESTED_FIELD, object(index, level - 1));
+    }
+    return node;
+  }
+
+  private ObjectNode objectSchema(final int level) {
+    final ObjectNode properties = (ObjectNode) Jsons.emptyObject();
+    for (int i = 0; i < width; i++) {
+      final String type = switch (i % 4) {
+        case 0 -> "string";
+        case 1 -> "integer";
+        case 2 -> "number";
+        default -> "boolean";
+      };
+      properties.set(FIELD_PREFIX + i, Jsons.jsonNode(Map.of("type", type)));
+    }
+    if (level > 1) {
+      properties.set(NESTED_FIELD, objectSchema(level - 1));
+    }
+    final ObjectNode schema = (ObjectNode) Jsons.jsonNode(Map.of("type", "object"));
+    schema.set("properties", properties);
+    return schema;
+  }
+
+  private String string(final int seed) {
+    final StringBuilder builder = new StringBuilder(stringLength);
+    for (int i = 0; i < stringLength; i++) {
+      builder.append((char) ('a' + (seed + i) % 26));
+    }
+    return builder.toString();
+  }
+
+}
@@ -5,6 +5,7 @@
 package io.airbyte.workers;
 
 import io.airbyte.config.Configs.WorkerEnvironment;
+import io.airbyte.workers.process.AsyncOrchestratorStatusTracker;
 import io.airbyte.workers.storage.DocumentStoreClient;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import java.util.Map;
@@ -25,6 +26,7 @@ import java.util.Map;
  * @param googleApplicationCredentials gcp creds
  * @param workerEnvironment worker env
  * @param serviceAccount kube service account for orchestrator pod
+ * @param statusTracker tracker of the orchestrator pod terminations, null to poll their status
  */
 public record ContainerOrchestratorConfig(
                                           String namespace,
@@ -39,4 +41,5 @@ public record ContainerOrchestratorConfig(
                                           String containerOrchestratorImagePullPolicy,
                                           String googleApplicationCredentials,
                                           WorkerEnvironment workerEnvironment,
-                                          String serviceAccount) {}
+                                          String serviceAccount,
+                                          AsyncOrchestratorStatusTracker statusTracker) {}
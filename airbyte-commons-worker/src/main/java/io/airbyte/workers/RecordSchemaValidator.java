@@ -7,30 +7,75 @@ package io.airbyte.workers;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
+import io.airbyte.metrics.lib.MetricClient;
+import io.airbyte.metrics.lib.MetricClientFactory;
+import io.airbyte.metrics.lib.OssMetricsRegistry;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
 import io.airbyte.protocol.models.AirbyteStreamNameNamespacePair;
 import io.airbyte.validation.json.JsonSchemaValidator;
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 
 /**
  * Validates that AirbyteRecordMessage data conforms to the JSON schema defined by the source's
  * configured catalog.
+ * <p>
+ * Records are validated by a pool of threads, they are submitted in order but the validations of
+ * several records may run concurrently. The data of a record is validated as is, without a copy, so
+ * it must not be mutated once the record is submitted: records are submitted after field selection,
+ * the mapping which follows only changes their stream. Callers can skip the validation of some
+ * records of a stream according to the {@link Sampling} of the validator.
  */
+@Slf4j
 public class RecordSchemaValidator implements Closeable {
 
+  /**
+   * Which records of each stream are validated: the first {@code fullRecords} records, then one
+   * record out of {@code sampleRate}.
+   *
+   * @param fullRecords number of records of each stream that are all validated.
+   * @param sampleRate validate one record out of sampleRate after the first fullRecords.
+   */
+  public record Sampling(long fullRecords, long sampleRate) {
+
+    public static final Sampling ALL_RECORDS = new Sampling(0, 1);
+
+    public Sampling {
+      if (fullRecords < 0 || sampleRate < 1) {
+        throw new IllegalArgumentException(String.format("Invalid schema validation sampling: %d full records, 1 in %d records.",
+            fullRecords, sampleRate));
+      }
+    }
+
+    boolean isSampled(final long recordIndex) {
+      return recordIndex < fullRecords || (recordIndex - fullRecords) % sampleRate == 0;
+    }
+
+  }
+
+  /**
+   * Maximum number of records with validation errors counted for each stream by
+   * {@link #validateSchema}, the errors of further records are dropped.
+   */
+  public static final int MAX_RECORDS_WITH_ERRORS_PER_STREAM = 10;
+
   private final JsonSchemaValidator validator;
   private final ExecutorService validationExecutor;
   private final Map<AirbyteStreamNameNamespacePair, JsonNode> streams;
+  private final Sampling sampling;
+  // number of records seen by shouldValidate for each stream.
+  private final Map<AirbyteStreamNameNamespacePair, AtomicLong> recordCounts = new ConcurrentHashMap<>();
+  private final AtomicLong skippedRecords = new AtomicLong();
 
   /**
    * Creates a RecordSchemaValidator.
@@ -38,7 +83,20 @@ public class RecordSchemaValidator implements Closeable {
    * @param streamNamesToSchemas Name of streams.
    */
   public RecordSchemaValidator(final Map<AirbyteStreamNameNamespacePair, JsonNode> streamNamesToSchemas) {
-    this(streamNamesToSchemas, Executors.newFixedThreadPool(1));
+    this(streamNamesToSchemas, 1, Sampling.ALL_RECORDS);
+  }
+
+  /**
+   * Creates a RecordSchemaValidator.
+   *
+   * @param streamNamesToSchemas Name of streams.
+   * @param validationThreads number of threads validating records.
+   * @param sampling which records of each stream should be validated.
+   */
+  public RecordSchemaValidator(final Map<AirbyteStreamNameNamespacePair, JsonNode> streamNamesToSchemas,
+                               final int validationThreads,
+                               final Sampling sampling) {
+    this(streamNamesToSchemas, Executors.newFixedThreadPool(validationThreads), new JsonSchemaValidator(), sampling);
   }
 
   @VisibleForTesting
@@ -50,11 +108,20 @@ public class RecordSchemaValidator implements Closeable {
   public RecordSchemaValidator(final Map<AirbyteStreamNameNamespacePair, JsonNode> streamNamesToSchemas,
                                final ExecutorService validationExecutor,
                                final JsonSchemaValidator jsonSchemaValidator) {
+    this(streamNamesToSchemas, validationExecutor, jsonSchemaValidator, Sampling.ALL_RECORDS);
+  }
+
+  @VisibleForTesting
+  public RecordSchemaValidator(final Map<AirbyteStreamNameNamespacePair, JsonNode> streamNamesToSchemas,
+                               final ExecutorService validationExecutor,
+                               final JsonSchemaValidator jsonSchemaValidator,
+                               final Sampling sampling) {
     // streams is Map of a stream source namespace + name mapped to the stream schema
     // for easy access when we check each record's schema
     this.streams = streamNamesToSchemas;
     this.validationExecutor = validationExecutor;
     this.validator = jsonSchemaValidator;
+    this.sampling = sampling;
     // initialize schema validator to avoid creating validators each time.
     for (final AirbyteStreamNameNamespacePair stream : streamNamesToSchemas.keySet()) {
       // We must choose a JSON validator version for validating the schema
@@ -65,16 +132,34 @@ public class RecordSchemaValidator implements Closeable {
     }
   }
 
+  /**
+   * Counts a record of a stream and tells whether it is part of the sample of records to validate.
+   * Must be called once for each record of the stream, in order.
+   *
+   * @param airbyteStream stream of the record.
+   * @return true if the record should be validated.
+   */
+  public boolean shouldValidate(final AirbyteStreamNameNamespacePair airbyteStream) {
+    final long recordIndex = recordCounts.computeIfAbsent(airbyteStream, k -> new AtomicLong()).getAndIncrement();
+    if (sampling.isSampled(recordIndex)) {
+      return true;
+    }
+    skippedRecords.incrementAndGet();
+    return false;
+  }
+
   /**
    * Takes an AirbyteRecordMessage and uses the JsonSchemaValidator to validate that its data conforms
-   * to the stream's schema. If it does not, an error is added to the validationErrors map.
+   * to the stream's schema. If it does not, an error is added to the validationErrors map, up to
+   * {@link #MAX_RECORDS_WITH_ERRORS_PER_STREAM} records with errors per stream.
    */
   public void validateSchema(
                              final AirbyteRecordMessage message,
                              final AirbyteStreamNameNamespacePair airbyteStream,
                              final ConcurrentHashMap<AirbyteStreamNameNamespacePair, ImmutablePair<Set<String>, Integer>> validationErrors) {
+    final JsonNode data = message.getData();
     validationExecutor.execute(() -> {
-      Set<String> errorMessages = validator.validateInitializedSchema(airbyteStream.toString(), message.getData());
+      final Set<String> errorMessages = validator.validateInitializedSchema(airbyteStream.toString(), data);
       if (!errorMessages.isEmpty()) {
         updateValidationErrors(errorMessages, airbyteStream, validationErrors);
       }
@@ -89,10 +174,12 @@ public class RecordSchemaValidator implements Closeable {
                                             final AirbyteRecordMessage message,
                                             final AirbyteStreamNameNamespacePair airbyteStream,
                                             final ConcurrentHashMap<AirbyteStreamNameNamespacePair, Set<String>> validationErrors) {
+    final JsonNode data = message.getData();
     validationExecutor.execute(() -> {
-      final Set<String> errorMessages = validator.validateInitializedSchema(airbyteStream.toString(), message.getData());
+      final Set<String> errorMessages = validator.validateInitializedSchema(airbyteStream.toString(), data);
       if (!errorMessages.isEmpty()) {
-        validationErrors.computeIfAbsent(airbyteStream, k -> new HashSet<>()).addAll(errorMessages);
+        // records of the same stream can be validated concurrently.
+        validationErrors.computeIfAbsent(airbyteStream, k -> ConcurrentHashMap.newKeySet()).addAll(errorMessages);
       }
     });
   }
@@ -100,9 +187,12 @@ public class RecordSchemaValidator implements Closeable {
   private void updateValidationErrors(final Set<String> errorMessages,
                                       final AirbyteStreamNameNamespacePair airbyteStream,
                                       final ConcurrentHashMap<AirbyteStreamNameNamespacePair, ImmutablePair<Set<String>, Integer>> validationErrors) {
+    // records of the same stream can be validated concurrently, the cap is enforced atomically.
     validationErrors.compute(airbyteStream, (k, v) -> {
       if (v == null) {
         return new ImmutablePair<>(errorMessages, 1);
+      } else if (v.getRight() >= MAX_RECORDS_WITH_ERRORS_PER_STREAM) {
+        return v;
       } else {
         final var updatedErrorMessages = Stream.concat(v.getLeft().stream(), errorMessages.stream()).collect(Collectors.toSet());
         final var updatedCount = v.getRight() + 1;
@@ -112,11 +202,20 @@ public class RecordSchemaValidator implements Closeable {
   }
 
   /**
-   * Shuts down the ExecutorService used by this validator.
+   * Shuts down the ExecutorService used by this validator and reports how many schemas it had to
+   * compile.
    */
   @Override
   public void close() throws IOException {
     validationExecutor.shutdownNow();
+    if (skippedRecords.get() > 0) {
+      log.info("Schema validation skipped {} records out of {} according to {}.", skippedRecords.get(),
+          recordCounts.values().stream().mapToLong(AtomicLong::get).sum(), sampling);
+    }
+    final JsonSchemaValidator.CacheStats cacheStats = validator.getCacheStats();
+    final MetricClient metricClient = MetricClientFactory.getMetricClient();
+    metricClient.count(OssMetricsRegistry.JSON_SCHEMA_VALIDATOR_CACHE_HITS, cacheStats.hitCount());
+    metricClient.count(OssMetricsRegistry.JSON_SCHEMA_VALIDATOR_CACHE_MISSES, cacheStats.missCount());
   }
 
 }
@@ -6,7 +6,11 @@ package io.airbyte.workers.context;
 
 /**
  * Feature flags to consider during a Replication job.
+ *
+ * @param bufferImpl the implementation of the buffers between the steps of a buffered replication.
+ * @param bufferMaxBytes the upper bound in bytes of each buffer, 0 if the buffers are only bounded
+ *        in number of messages.
  */
-public record ReplicationFeatureFlags() {
+public record ReplicationFeatureFlags(String bufferImpl, long bufferMaxBytes) {
 
 }
@@ -7,7 +7,11 @@ package io.airbyte.workers.general;
 import static io.airbyte.metrics.lib.ApmTraceConstants.WORKER_OPERATION_NAME;
 
 import datadog.trace.api.Trace;
+import io.airbyte.commons.concurrency.AdaptiveQueueCapacityPolicy;
 import io.airbyte.commons.concurrency.BoundedConcurrentLinkedQueue;
+import io.airbyte.commons.concurrency.ByteBoundedQueue;
+import io.airbyte.commons.concurrency.ClosableQueue;
+import io.airbyte.commons.concurrency.SpscRingBufferQueue;
 import io.airbyte.commons.concurrency.VoidCallable;
 import io.airbyte.commons.converters.ThreadedTimeTracker;
 import io.airbyte.commons.io.LineGobbler;
@@ -27,7 +31,9 @@ import io.airbyte.workers.RecordSchemaValidator;
 import io.airbyte.workers.context.ReplicationContext;
 import io.airbyte.workers.context.ReplicationFeatureFlags;
 import io.airbyte.workers.exception.WorkerException;
+import io.airbyte.workers.general.StageLatencyTracker.Stage;
 import io.airbyte.workers.helper.AirbyteMessageDataExtractor;
+import io.airbyte.workers.helper.AirbyteMessageSizeEstimator;
 import io.airbyte.workers.internal.AirbyteDestination;
 import io.airbyte.workers.internal.AirbyteMapper;
 import io.airbyte.workers.internal.AirbyteSource;
@@ -39,6 +45,7 @@ import io.airbyte.workers.internal.exception.DestinationException;
 import io.airbyte.workers.internal.exception.SourceException;
 import io.airbyte.workers.internal.syncpersistence.SyncPersistence;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -58,6 +65,15 @@ import org.slf4j.MDC;
  * <p>
  * There is one thread per IO/Transform and buffers in between the different steps to apply
  * backpressure.
+ * <p>
+ * The buffers are picked by the ReplicationBufferImpl feature flag: the default concurrent linked
+ * queues have idle steps spin, the ring buffers park them until there is work to do. When the
+ * ReplicationBufferMaxMegabytes feature flag is set, the buffers are also bounded in bytes and their
+ * limits adapt to how fast they are drained.
+ * <p>
+ * The time messages wait in each buffer, and spend being processed and written to the destination,
+ * is tracked by a {@link StageLatencyTracker}: reported as metrics while the sync runs and in the
+ * performance metrics of the output.
  */
 public class BufferedReplicationWorker implements ReplicationWorker {
 
@@ -72,8 +88,9 @@ public class BufferedReplicationWorker implements ReplicationWorker {
   private final RecordSchemaValidator recordSchemaValidator;
   private final SyncPersistence syncPersistence;
   private final HeartbeatTimeoutChaperone srcHeartbeatTimeoutChaperone;
-  private final BoundedConcurrentLinkedQueue<AirbyteMessage> messagesFromSourceQueue;
-  private final BoundedConcurrentLinkedQueue<AirbyteMessage> messagesForDestinationQueue;
+  // The queues are replaced at the start of the run depending on the feature flags.
+  private volatile ClosableQueue<QueuedMessage> messagesFromSourceQueue;
+  private volatile ClosableQueue<QueuedMessage> messagesForDestinationQueue;
   private final ExecutorService executors;
   private final ScheduledExecutorService scheduledExecutors;
 
@@ -90,11 +107,29 @@ public class BufferedReplicationWorker implements ReplicationWorker {
   private final Stopwatch writeToDestStopwatch;
   private final Stopwatch readFromDestStopwatch;
   private final Stopwatch processFromDestStopwatch;
+  private final StageLatencyTracker stageLatencyTracker;
 
   private static final int sourceMaxBufferSize = 1000;
   private static final int destinationMaxBufferSize = 1000;
   private static final int observabilityMetricsPeriodInSeconds = 1;
   private static final int executorShutdownGracePeriodInSeconds = 10;
+  // Bounds how long a step waiting on a queue takes to notice that the other steps are done.
+  private static final long queuePollTimeoutInMillis = 100;
+
+  // Bounds of the buffers when they are bounded in bytes, the upper byte bound comes from the flags.
+  // The buffers only hold more messages than without the byte bound when the byte bound allows it.
+  private static final int adaptiveMinBufferSize = 100;
+  private static final int adaptiveByteBudgetMaxBufferSize = 10_000;
+  private static final long adaptiveMinBufferBytes = 1024 * 1024;
+  private static final Duration adaptiveTargetDrainTime = Duration.ofSeconds(1);
+
+  static final String RING_BUFFER_IMPL = "ring-buffer";
+
+  /**
+   * A message in one of the buffers, with the time it was put in the buffer to measure how long it
+   * waited there.
+   */
+  private record QueuedMessage(AirbyteMessage message, long enqueuedAtNanos) {}
 
   public BufferedReplicationWorker(final String jobId,
                                    final int attempt,
@@ -137,6 +172,7 @@ public class BufferedReplicationWorker implements ReplicationWorker {
     this.writeToDestStopwatch = new Stopwatch();
     this.readFromDestStopwatch = new Stopwatch();
     this.processFromDestStopwatch = new Stopwatch();
+    this.stageLatencyTracker = new StageLatencyTracker();
   }
 
   @Trace(operationName = WORKER_OPERATION_NAME)
@@ -150,6 +186,8 @@ public class BufferedReplicationWorker implements ReplicationWorker {
       final ReplicationContext replicationContext = getReplicationContext(replicationInput);
       final ReplicationFeatureFlags flags = replicationFeatureFlagReader.readReplicationFeatureFlags(replicationInput);
       replicationWorkerHelper.initialize(replicationContext, flags, jobRoot);
+      messagesFromSourceQueue = createQueue(flags, sourceMaxBufferSize);
+      messagesForDestinationQueue = createQueue(flags, destinationMaxBufferSize);
 
       // note: resources are closed in the opposite order in which they are declared. thus source will be
       // closed first (which is what we want).
@@ -205,7 +243,8 @@ public class BufferedReplicationWorker implements ReplicationWorker {
           .withAdditionalProperty("processFromSource", processFromSourceStopwatch)
           .withAdditionalProperty("writeToDest", writeToDestStopwatch)
           .withAdditionalProperty("readFromDest", readFromDestStopwatch)
-          .withAdditionalProperty("processFromDest", processFromDestStopwatch);
+          .withAdditionalProperty("processFromDest", processFromDestStopwatch)
+          .withAdditionalProperty("stageLatencies", stageLatencyTracker.getReport());
       return replicationWorkerHelper.getReplicationOutput(perfMetrics);
     } catch (final Exception e) {
       ApmTraceUtils.addExceptionToTrace(e);
@@ -214,13 +253,44 @@ public class BufferedReplicationWorker implements ReplicationWorker {
 
   }
 
+  private static ClosableQueue<QueuedMessage> createQueue(final ReplicationFeatureFlags flags, final int maxSize) {
+    if (flags.bufferMaxBytes() > 0) {
+      final AdaptiveQueueCapacityPolicy capacityPolicy = new AdaptiveQueueCapacityPolicy(
+          Math.min(adaptiveMinBufferSize, maxSize),
+          maxSize,
+          Math.max(adaptiveByteBudgetMaxBufferSize, maxSize),
+          Math.min(adaptiveMinBufferBytes, flags.bufferMaxBytes()),
+          flags.bufferMaxBytes(),
+          adaptiveTargetDrainTime);
+      return new ByteBoundedQueue<>(getQueueFactory(flags), queued -> AirbyteMessageSizeEstimator.estimateSize(queued.message()), capacityPolicy);
+    }
+    return getQueueFactory(flags).create(maxSize);
+  }
+
+  private static ByteBoundedQueue.QueueFactory getQueueFactory(final ReplicationFeatureFlags flags) {
+    if (RING_BUFFER_IMPL.equals(flags.bufferImpl())) {
+      // Each queue has a single producer step and a single consumer step.
+      return SpscRingBufferQueue::new;
+    }
+    return BoundedConcurrentLinkedQueue::new;
+  }
+
   private void reportObservabilityMetrics() {
     final MetricClient metricClient = MetricClientFactory.getMetricClient();
     metricClient.gauge(OssMetricsRegistry.WORKER_DESTINATION_BUFFER_SIZE, messagesForDestinationQueue.size());
     metricClient.gauge(OssMetricsRegistry.WORKER_SOURCE_BUFFER_SIZE, messagesFromSourceQueue.size());
+    if (messagesForDestinationQueue instanceof ByteBoundedQueue<?> queue) {
+      metricClient.gauge(OssMetricsRegistry.WORKER_DESTINATION_BUFFER_BYTES, queue.getBytes());
+      metricClient.gauge(OssMetricsRegistry.WORKER_DESTINATION_BUFFER_FILL_RATIO, queue.getFillRatio());
+    }
+    if (messagesFromSourceQueue instanceof ByteBoundedQueue<?> queue) {
+      metricClient.gauge(OssMetricsRegistry.WORKER_SOURCE_BUFFER_BYTES, queue.getBytes());
+      metricClient.gauge(OssMetricsRegistry.WORKER_SOURCE_BUFFER_FILL_RATIO, queue.getFillRatio());
+    }
     metricClient.count(OssMetricsRegistry.WORKER_DESTINATION_MESSAGE_READ, destMessagesRead.getAndSet(0));
     metricClient.count(OssMetricsRegistry.WORKER_DESTINATION_MESSAGE_SENT, destMessagesSent.getAndSet(0));
     metricClient.count(OssMetricsRegistry.WORKER_SOURCE_MESSAGE_READ, sourceMessagesRead.getAndSet(0));
+    stageLatencyTracker.reportMetrics(metricClient);
   }
 
   private CompletableFuture<?> runAsync(final Runnable runnable, final Map<String, String> mdc) {
@@ -331,9 +401,8 @@ public class BufferedReplicationWorker implements ReplicationWorker {
         final Optional<AirbyteMessage> messageOptional = source.attemptRead();
         if (messageOptional.isPresent()) {
           sourceMessagesRead.incrementAndGet();
-          while (!messagesFromSourceQueue.add(messageOptional.get()) && !messagesFromSourceQueue.isClosed()) {
-            Thread.sleep(100);
-          }
+          // If the queue gets closed while we are waiting, the loop condition will stop the read.
+          messagesFromSourceQueue.put(new QueuedMessage(messageOptional.get(), System.nanoTime()));
         }
       }
 
@@ -347,7 +416,7 @@ public class BufferedReplicationWorker implements ReplicationWorker {
       throw e;
     } catch (final InterruptedException e) {
       LOGGER.info("readFromSource: interrupted", e);
-      // Getting interrupted during sleep, rethrowing to fail fast
+      // Getting interrupted while waiting on the queue, rethrowing to fail fast
       throw new RuntimeException(e);
     } catch (final Exception e) {
       LOGGER.info("readFromSource: exception caught", e);
@@ -364,29 +433,30 @@ public class BufferedReplicationWorker implements ReplicationWorker {
       LOGGER.info("processMessage: start");
 
       while (!messagesFromSourceQueue.isDone() && !messagesForDestinationQueue.isClosed()) {
-        final AirbyteMessage message;
-        message = messagesFromSourceQueue.poll();
-        if (message == null) {
+        final QueuedMessage queued = messagesFromSourceQueue.poll(queuePollTimeoutInMillis, TimeUnit.MILLISECONDS);
+        if (queued == null) {
           continue;
         }
+        final long processStart = System.nanoTime();
+        stageLatencyTracker.record(Stage.SOURCE_QUEUE_WAIT, processStart - queued.enqueuedAtNanos());
 
         final Optional<AirbyteMessage> processedMessageOpt;
         try (final var t = processFromSourceStopwatch.start()) {
-          processedMessageOpt = replicationWorkerHelper.processMessageFromSource(message);
+          processedMessageOpt = replicationWorkerHelper.processMessageFromSource(queued.message());
         }
+        final long processEnd = System.nanoTime();
+        stageLatencyTracker.record(Stage.PROCESS, processEnd - processStart);
         if (processedMessageOpt.isPresent()) {
           final AirbyteMessage m = processedMessageOpt.get();
           // TODO this check should move to the processMessageFromSource
           if (m.getType() == Type.RECORD || m.getType() == Type.STATE) {
-            while (!messagesForDestinationQueue.add(m) && !messagesForDestinationQueue.isClosed()) {
-              Thread.sleep(100);
-            }
+            messagesForDestinationQueue.put(new QueuedMessage(m, processEnd));
           }
         }
       }
 
     } catch (final InterruptedException e) {
-      // Getting interrupted during sleep, rethrowing to fail fast
+      // Getting interrupted while waiting on the queue, rethrowing to fail fast
       LOGGER.info("processMessage: interrupted", e);
       throw new RuntimeException(e);
     } catch (final Exception e) {
@@ -405,15 +475,17 @@ public class BufferedReplicationWorker implements ReplicationWorker {
       LOGGER.info("writeToDestination: start");
       try {
         while (!messagesForDestinationQueue.isDone() && isReadFromDestRunning) {
-          final AirbyteMessage message;
-          message = messagesForDestinationQueue.poll();
-          if (message == null) {
+          final QueuedMessage queued = messagesForDestinationQueue.poll(queuePollTimeoutInMillis, TimeUnit.MILLISECONDS);
+          if (queued == null) {
             continue;
           }
+          final long writeStart = System.nanoTime();
+          stageLatencyTracker.record(Stage.DESTINATION_QUEUE_WAIT, writeStart - queued.enqueuedAtNanos());
 
           try (final var t = writeToDestStopwatch.start()) {
-            destination.accept(message);
+            destination.accept(queued.message());
           }
+          stageLatencyTracker.recordSince(Stage.DESTINATION_WRITE, writeStart);
           destMessagesSent.incrementAndGet();
         }
       } finally {
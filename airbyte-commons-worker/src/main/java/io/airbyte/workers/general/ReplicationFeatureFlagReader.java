@@ -4,6 +4,10 @@
 
 package io.airbyte.workers.general;
 
+import io.airbyte.featureflag.Context;
+import io.airbyte.featureflag.FeatureFlagClient;
+import io.airbyte.featureflag.ReplicationBufferImpl;
+import io.airbyte.featureflag.ReplicationBufferMaxMegabytes;
 import io.airbyte.persistence.job.models.ReplicationInput;
 import io.airbyte.workers.context.ReplicationFeatureFlags;
 
@@ -12,6 +16,14 @@ import io.airbyte.workers.context.ReplicationFeatureFlags;
  */
 public class ReplicationFeatureFlagReader {
 
+  private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+  private final FeatureFlagClient featureFlagClient;
+
+  public ReplicationFeatureFlagReader(final FeatureFlagClient featureFlagClient) {
+    this.featureFlagClient = featureFlagClient;
+  }
+
   /**
    * Read Feature flags we need to consider during a sync.
    *
@@ -19,7 +31,10 @@ public class ReplicationFeatureFlagReader {
    * @return The flags.
    */
   public ReplicationFeatureFlags readReplicationFeatureFlags(final ReplicationInput replicationInput) {
-    return new ReplicationFeatureFlags();
+    final Context flagContext = ReplicationWorkerFactory.getFeatureFlagContext(replicationInput);
+    return new ReplicationFeatureFlags(
+        featureFlagClient.stringVariation(ReplicationBufferImpl.INSTANCE, flagContext),
+        Math.max(0, featureFlagClient.intVariation(ReplicationBufferMaxMegabytes.INSTANCE, flagContext)) * BYTES_PER_MEGABYTE);
   }
 
 }
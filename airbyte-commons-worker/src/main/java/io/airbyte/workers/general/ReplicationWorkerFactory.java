@@ -22,9 +22,15 @@ import io.airbyte.featureflag.FieldSelectionEnabled;
 import io.airbyte.featureflag.Multi;
 import io.airbyte.featureflag.RemoveValidationLimit;
 import io.airbyte.featureflag.ReplicationWorkerImpl;
+import io.airbyte.featureflag.SchemaValidationFullRecords;
+import io.airbyte.featureflag.SchemaValidationSampleRate;
+import io.airbyte.featureflag.SchemaValidationThreads;
 import io.airbyte.featureflag.Source;
 import io.airbyte.featureflag.SourceDefinition;
 import io.airbyte.featureflag.SourceType;
+import io.airbyte.featureflag.UnexpectedFieldsSampleRate;
+import io.airbyte.featureflag.UseRawRecordPassthrough;
+import io.airbyte.featureflag.UseSourceRecordSize;
 import io.airbyte.featureflag.Workspace;
 import io.airbyte.metrics.lib.MetricAttribute;
 import io.airbyte.metrics.lib.MetricClient;
@@ -45,6 +51,7 @@ import io.airbyte.workers.internal.FieldSelector;
 import io.airbyte.workers.internal.HeartbeatMonitor;
 import io.airbyte.workers.internal.HeartbeatTimeoutChaperone;
 import io.airbyte.workers.internal.NamespacingMapper;
+import io.airbyte.workers.internal.RawRecordPassthrough;
 import io.airbyte.workers.internal.bookkeeping.AirbyteMessageTracker;
 import io.airbyte.workers.internal.bookkeeping.events.ReplicationAirbyteMessageEventPublishingHelper;
 import io.airbyte.workers.internal.syncpersistence.SyncPersistence;
@@ -122,35 +129,53 @@ public class ReplicationWorkerFactory {
     final HeartbeatMonitor heartbeatMonitor = createHeartbeatMonitor(sourceDefinitionId, sourceDefinitionApi);
     final HeartbeatTimeoutChaperone heartbeatTimeoutChaperone = createHeartbeatTimeoutChaperone(heartbeatMonitor,
         featureFlagClient, replicationInput, metricClient);
-    final RecordSchemaValidator recordSchemaValidator = createRecordSchemaValidator(replicationInput);
+    final RecordSchemaValidator recordSchemaValidator = createRecordSchemaValidator(featureFlagClient, replicationInput);
 
     // Enable concurrent stream reads for testing purposes
     maybeEnableConcurrentStreamReads(sourceLauncherConfig, replicationInput);
 
+    final RawRecordPassthrough rawRecordPassthrough = createRawRecordPassthrough(featureFlagClient, replicationInput);
+
     log.info("Setting up source...");
     // reset jobs use an empty source to induce resetting all data in destination.
     final var airbyteSource = replicationInput.getIsReset()
         ? new EmptyAirbyteSource(featureFlags.useStreamCapableState())
         : airbyteIntegrationLauncherFactory.createAirbyteSource(sourceLauncherConfig,
-            replicationInput.getSyncResourceRequirements(), replicationInput.getCatalog(), heartbeatMonitor);
+            replicationInput.getSyncResourceRequirements(), replicationInput.getCatalog(), heartbeatMonitor, rawRecordPassthrough);
 
     log.info("Setting up destination...");
     final var airbyteDestination = airbyteIntegrationLauncherFactory.createAirbyteDestination(destinationLauncherConfig,
-        replicationInput.getSyncResourceRequirements(), replicationInput.getCatalog());
+        replicationInput.getSyncResourceRequirements(), replicationInput.getCatalog(), rawRecordPassthrough);
 
     final WorkerMetricReporter metricReporter = new WorkerMetricReporter(metricClient, sourceLauncherConfig.getDockerImage());
 
     final FieldSelector fieldSelector =
-        createFieldSelector(recordSchemaValidator, metricReporter, featureFlagClient, replicationInput.getWorkspaceId(), sourceDefinitionId);
+        createFieldSelector(recordSchemaValidator, metricReporter, featureFlagClient, replicationInput.getWorkspaceId(), sourceDefinitionId,
+            rawRecordPassthrough);
 
     log.info("Setting up replication worker...");
     final SyncPersistence syncPersistence = createSyncPersistence(syncPersistenceFactory, replicationInput, sourceLauncherConfig);
-    final AirbyteMessageTracker messageTracker = createMessageTracker(syncPersistence, featureFlags);
+    final AirbyteMessageTracker messageTracker = createMessageTracker(syncPersistence, featureFlags, rawRecordPassthrough);
 
     return createReplicationWorker(airbyteSource, airbyteDestination, messageTracker,
         syncPersistence, recordSchemaValidator, fieldSelector, heartbeatTimeoutChaperone,
         featureFlagClient, jobRunConfig, replicationInput, airbyteMessageDataExtractor, replicationAirbyteMessageEventPublishingHelper,
-        onReplicationRunning, metricClient);
+        onReplicationRunning, metricClient, rawRecordPassthrough);
+  }
+
+  /**
+   * Create the RawRecordPassthrough shared by the source, the processing steps and the destination of
+   * a sync. When enabled, records that are not modified during the sync are written to the
+   * destination without being serialized again and their size is measured on the line read from the
+   * source instead of being estimated by serializing their data.
+   */
+  private static RawRecordPassthrough createRawRecordPassthrough(final FeatureFlagClient featureFlagClient,
+                                                                 final ReplicationInput replicationInput) {
+    final Context flagContext = getFeatureFlagContext(replicationInput);
+    final boolean forwardRecords = featureFlagClient.boolVariation(UseRawRecordPassthrough.INSTANCE, flagContext);
+    final boolean trackRecordSizes = featureFlagClient.boolVariation(UseSourceRecordSize.INSTANCE, flagContext);
+    log.info("Raw record passthrough enabled? {}, source record size enabled? {}", forwardRecords, trackRecordSizes);
+    return forwardRecords || trackRecordSizes ? new RawRecordPassthrough(forwardRecords, trackRecordSizes) : RawRecordPassthrough.DISABLED;
   }
 
   /**
@@ -223,27 +248,39 @@ public class ReplicationWorkerFactory {
    * Create MessageTracker.
    */
   private static AirbyteMessageTracker createMessageTracker(final SyncPersistence syncPersistence,
-                                                            final FeatureFlags featureFlags) {
-    return new AirbyteMessageTracker(syncPersistence, featureFlags);
+                                                            final FeatureFlags featureFlags,
+                                                            final RawRecordPassthrough rawRecordPassthrough) {
+    return new AirbyteMessageTracker(syncPersistence, featureFlags, rawRecordPassthrough);
   }
 
   /**
    * Create RecordSchemaValidator.
    */
-  private static RecordSchemaValidator createRecordSchemaValidator(final ReplicationInput replicationInput) {
-    return new RecordSchemaValidator(WorkerUtils.mapStreamNamesToSchemas(replicationInput.getCatalog()));
+  private static RecordSchemaValidator createRecordSchemaValidator(final FeatureFlagClient featureFlagClient,
+                                                                   final ReplicationInput replicationInput) {
+    final Context flagContext = getFeatureFlagContext(replicationInput);
+    final int validationThreads = Math.max(1, featureFlagClient.intVariation(SchemaValidationThreads.INSTANCE, flagContext));
+    final RecordSchemaValidator.Sampling sampling = new RecordSchemaValidator.Sampling(
+        Math.max(0, featureFlagClient.intVariation(SchemaValidationFullRecords.INSTANCE, flagContext)),
+        Math.max(1, featureFlagClient.intVariation(SchemaValidationSampleRate.INSTANCE, flagContext)));
+    log.info("Schema validation threads: {}, sampling: {}", validationThreads, sampling);
+    return new RecordSchemaValidator(WorkerUtils.mapStreamNamesToSchemas(replicationInput.getCatalog()), validationThreads, sampling);
   }
 
   private static FieldSelector createFieldSelector(final RecordSchemaValidator recordSchemaValidator,
                                                    final WorkerMetricReporter metricReporter,
                                                    final FeatureFlagClient featureFlagClient,
                                                    final UUID workspaceId,
-                                                   final UUID sourceDefinitionId) {
+                                                   final UUID sourceDefinitionId,
+                                                   final RawRecordPassthrough rawRecordPassthrough) {
     final boolean fieldSelectionEnabled = workspaceId != null && featureFlagClient.boolVariation(FieldSelectionEnabled.INSTANCE, new Multi(
         List.of(new Workspace(workspaceId), new SourceDefinition(sourceDefinitionId))));
     final boolean removeValidationLimit =
         workspaceId != null && featureFlagClient.boolVariation(RemoveValidationLimit.INSTANCE, new Workspace(workspaceId));
-    return new FieldSelector(recordSchemaValidator, metricReporter, fieldSelectionEnabled, removeValidationLimit);
+    final int unexpectedFieldsSampleRate =
+        workspaceId != null ? Math.max(1, featureFlagClient.intVariation(UnexpectedFieldsSampleRate.INSTANCE, new Workspace(workspaceId))) : 1;
+    return new FieldSelector(recordSchemaValidator, metricReporter, fieldSelectionEnabled, removeValidationLimit, rawRecordPassthrough,
+        unexpectedFieldsSampleRate);
   }
 
   /**
@@ -262,7 +299,8 @@ public class ReplicationWorkerFactory {
                                                            final AirbyteMessageDataExtractor airbyteMessageDataExtractor,
                                                            final ReplicationAirbyteMessageEventPublishingHelper replicationEventPublishingHelper,
                                                            final VoidCallable onReplicationRunning,
-                                                           final MetricClient metricClient) {
+                                                           final MetricClient metricClient,
+                                                           final RawRecordPassthrough rawRecordPassthrough) {
     final Context flagContext = getFeatureFlagContext(replicationInput);
     final String workerImpl = featureFlagClient.stringVariation(ReplicationWorkerImpl.INSTANCE, flagContext);
     return buildReplicationWorkerInstance(
@@ -273,21 +311,22 @@ public class ReplicationWorkerFactory {
         new NamespacingMapper(
             replicationInput.getNamespaceDefinition(),
             replicationInput.getNamespaceFormat(),
-            replicationInput.getPrefix()),
+            replicationInput.getPrefix(),
+            rawRecordPassthrough),
         destination,
         messageTracker,
         syncPersistence,
         recordSchemaValidator,
         fieldSelector,
         heartbeatTimeoutChaperone,
-        new ReplicationFeatureFlagReader(),
+        new ReplicationFeatureFlagReader(featureFlagClient),
         airbyteMessageDataExtractor,
         replicationEventPublishingHelper,
         onReplicationRunning,
         metricClient);
   }
 
-  private static Context getFeatureFlagContext(final ReplicationInput replicationInput) {
+  static Context getFeatureFlagContext(final ReplicationInput replicationInput) {
     final List<Context> contexts = new ArrayList<>();
     if (replicationInput.getWorkspaceId() != null) {
       contexts.add(new Workspace(replicationInput.getWorkspaceId()));
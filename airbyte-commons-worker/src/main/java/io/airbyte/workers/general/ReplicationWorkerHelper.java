@@ -214,6 +214,7 @@ class ReplicationWorkerHelper {
 
   @VisibleForTesting
   AirbyteMessage internalProcessMessageFromSource(final AirbyteMessage sourceRawMessage) {
+    // records are validated concurrently, their data must not change once they are submitted
     fieldSelector.filterSelectedFields(sourceRawMessage);
     fieldSelector.validateSchema(sourceRawMessage);
 
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.general;
+
+import io.airbyte.metrics.lib.MetricAttribute;
+import io.airbyte.metrics.lib.MetricClient;
+import io.airbyte.metrics.lib.MetricGauge;
+import io.airbyte.metrics.lib.MetricTags;
+import io.airbyte.metrics.lib.OssMetricsRegistry;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency distributions of the stages of a replication: how long messages wait in the buffers
+ * between the steps, how long processing them takes and how long writing them to the destination
+ * takes. This tells where a slow sync spends its time.
+ * <p>
+ * Steps record from their own thread without locking. The distributions are collected
+ * periodically: the percentiles of each period are reported as metrics, and the whole sync is
+ * summarized by {@link #getReport()}.
+ */
+public class StageLatencyTracker {
+
+  /**
+   * Stages of the replication.
+   */
+  public enum Stage {
+
+    SOURCE_QUEUE_WAIT("sourceQueueWait"),
+    PROCESS("process"),
+    DESTINATION_QUEUE_WAIT("destinationQueueWait"),
+    DESTINATION_WRITE("destinationWrite");
+
+    private final String name;
+
+    Stage(final String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+  }
+
+  private static final int SIGNIFICANT_DIGITS = 2;
+  private static final List<Percentile> REPORTED_PERCENTILES = List.of(
+      new Percentile("p50", 50.0),
+      new Percentile("p90", 90.0),
+      new Percentile("p99", 99.0),
+      new Percentile("p999", 99.9));
+
+  private record Percentile(String name, double value) {}
+
+  private final Map<Stage, StageHistograms> stages = new EnumMap<>(Stage.class);
+
+  public StageLatencyTracker() {
+    for (final Stage stage : Stage.values()) {
+      stages.put(stage, new StageHistograms());
+    }
+  }
+
+  /**
+   * Record the time a message spent in a stage.
+   *
+   * @param stage the stage.
+   * @param startNanos when the message entered the stage, from {@link System#nanoTime()}.
+   */
+  public void recordSince(final Stage stage, final long startNanos) {
+    record(stage, System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Record the time a message spent in a stage.
+   *
+   * @param stage the stage.
+   * @param nanos the time spent in the stage.
+   */
+  public void record(final Stage stage, final long nanos) {
+    stages.get(stage).recorder.recordValue(Math.max(0, nanos));
+  }
+
+  /**
+   * Report the percentiles of every stage since the previous report as gauges, stages without any
+   * message in the period are skipped.
+   *
+   * @param metricClient the client to report to.
+   */
+  public synchronized void reportMetrics(final MetricClient metricClient) {
+    for (final Map.Entry<Stage, StageHistograms> entry : stages.entrySet()) {
+      final StageHistograms histograms = entry.getValue();
+      final Histogram interval = histograms.collect();
+      if (interval.getTotalCount() == 0) {
+        continue;
+      }
+      if (histograms.percentileGauges == null) {
+        // The gauges are bound once, the same ones are reported to every period.
+        final String stageName = entry.getKey().getName();
+        histograms.percentileGauges = REPORTED_PERCENTILES.stream()
+            .map(percentile -> latencyGauge(metricClient, stageName, percentile.name()))
+            .toList();
+        histograms.maxGauge = latencyGauge(metricClient, stageName, "max");
+      }
+      for (int i = 0; i < REPORTED_PERCENTILES.size(); i++) {
+        histograms.percentileGauges.get(i).set(toMicros(interval.getValueAtPercentile(REPORTED_PERCENTILES.get(i).value())));
+      }
+      histograms.maxGauge.set(toMicros(interval.getMaxValue()));
+    }
+  }
+
+  /**
+   * Summarize the latencies of every stage since the start of the sync, in microseconds.
+   *
+   * @return for each stage, the count of messages and the mean, percentiles and max latencies.
+   */
+  public synchronized Map<String, Map<String, Object>> getReport() {
+    final Map<String, Map<String, Object>> report = new LinkedHashMap<>();
+    for (final Map.Entry<Stage, StageHistograms> entry : stages.entrySet()) {
+      final StageHistograms histograms = entry.getValue();
+      histograms.collect();
+      final Histogram total = histograms.total;
+
+      final Map<String, Object> stageReport = new LinkedHashMap<>();
+      stageReport.put("count", total.getTotalCount());
+      if (total.getTotalCount() > 0) {
+        stageReport.put("meanMicros", toMicros(total.getMean()));
+        for (final Percentile percentile : REPORTED_PERCENTILES) {
+          stageReport.put(percentile.name() + "Micros", toMicros(total.getValueAtPercentile(percentile.value())));
+        }
+        stageReport.put("maxMicros", toMicros(total.getMaxValue()));
+      }
+      report.put(entry.getKey().getName(), stageReport);
+    }
+    return report;
+  }
+
+  private static MetricGauge latencyGauge(final MetricClient metricClient, final String stageName, final String percentileName) {
+    final MetricGauge gauge = metricClient.gaugeHandle(OssMetricsRegistry.WORKER_STAGE_LATENCY_MICROS,
+        new MetricAttribute(MetricTags.STAGE, stageName),
+        new MetricAttribute(MetricTags.PERCENTILE, percentileName));
+    // mocked clients return no handle
+    return gauge != null ? gauge : MetricGauge.NO_OP;
+  }
+
+  private static double toMicros(final double nanos) {
+    return nanos / TimeUnit.MICROSECONDS.toNanos(1);
+  }
+
+  /**
+   * The recorder the steps write to, and the histograms it is collected into.
+   */
+  private static class StageHistograms {
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+    private Histogram interval;
+    private List<MetricGauge> percentileGauges;
+    private MetricGauge maxGauge;
+
+    /**
+     * Swap the recorder's histogram, add it to the total and return it.
+     */
+    private Histogram collect() {
+      interval = interval == null ? recorder.getIntervalHistogram() : recorder.getIntervalHistogram(interval);
+      total.add(interval);
+      return interval;
+    }
+
+  }
+
+}
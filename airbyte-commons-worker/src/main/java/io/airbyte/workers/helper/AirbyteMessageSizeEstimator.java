@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.helper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.airbyte.protocol.models.AirbyteGlobalState;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import io.airbyte.protocol.models.AirbyteStateMessage;
+import io.airbyte.protocol.models.AirbyteStreamState;
+import io.airbyte.workers.internal.LazyAirbyteRecordMessage;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+/**
+ * Estimates how much memory an {@link AirbyteMessage} holds, to bound the replication buffers in
+ * bytes.
+ * <p>
+ * This walks the json payload of records and states, approximating the size of their serialized
+ * form without serializing them. Records whose data has not been deserialized yet are measured on
+ * their serialized data instead. Other messages are small and accounted for with a fixed size.
+ */
+public final class AirbyteMessageSizeEstimator {
+
+  // Envelope of the message: type, stream name, namespace, emitted at...
+  private static final long MESSAGE_OVERHEAD = 128;
+  private static final long NUMBER_SIZE = 8;
+
+  private AirbyteMessageSizeEstimator() {}
+
+  /**
+   * Estimate the size of a message.
+   *
+   * @param message the message.
+   * @return the estimated size in bytes.
+   */
+  public static long estimateSize(final AirbyteMessage message) {
+    return switch (message.getType()) {
+      case RECORD -> MESSAGE_OVERHEAD + estimateRecordDataSize(message.getRecord());
+      case STATE -> MESSAGE_OVERHEAD + estimateStateSize(message.getState());
+      default -> MESSAGE_OVERHEAD;
+    };
+  }
+
+  private static long estimateRecordDataSize(final AirbyteRecordMessage record) {
+    // lazy records are measured on their serialized data, estimating them must not deserialize it
+    if (record instanceof LazyAirbyteRecordMessage lazyRecord) {
+      final int rawDataLength = lazyRecord.getRawDataLength();
+      if (rawDataLength >= 0) {
+        return rawDataLength;
+      }
+    }
+    return estimateSize(record.getData());
+  }
+
+  private static long estimateStateSize(final AirbyteStateMessage state) {
+    long size = estimateSize(state.getData());
+    if (state.getStream() != null) {
+      size += estimateStreamStateSize(state.getStream());
+    }
+    final AirbyteGlobalState global = state.getGlobal();
+    if (global != null) {
+      size += estimateSize(global.getSharedState());
+      if (global.getStreamStates() != null) {
+        for (final AirbyteStreamState streamState : global.getStreamStates()) {
+          size += estimateStreamStateSize(streamState);
+        }
+      }
+    }
+    return size;
+  }
+
+  private static long estimateStreamStateSize(final AirbyteStreamState streamState) {
+    return MESSAGE_OVERHEAD + estimateSize(streamState.getStreamState());
+  }
+
+  /**
+   * Approximate the size of the serialized form of a json node.
+   */
+  static long estimateSize(final JsonNode node) {
+    if (node == null) {
+      return 0;
+    }
+    switch (node.getNodeType()) {
+      case OBJECT -> {
+        // braces
+        long size = 2;
+        final Iterator<Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+          final Entry<String, JsonNode> field = fields.next();
+          // quotes, colon and comma
+          size += field.getKey().length() + 4 + estimateSize(field.getValue());
+        }
+        return size;
+      }
+      case ARRAY -> {
+        // brackets
+        long size = 2;
+        for (final JsonNode element : node) {
+          // comma
+          size += 1 + estimateSize(element);
+        }
+        return size;
+      }
+      case STRING -> {
+        // quotes
+        return node.textValue().length() + 2;
+      }
+      case BINARY -> {
+        // base64 encoded
+        return node.asText().length() + 2;
+      }
+      case NUMBER -> {
+        return NUMBER_SIZE;
+      }
+      case BOOLEAN -> {
+        return node.booleanValue() ? 4 : 5;
+      }
+      default -> {
+        // null, missing or pojo nodes
+        return 4;
+      }
+    }
+  }
+
+}
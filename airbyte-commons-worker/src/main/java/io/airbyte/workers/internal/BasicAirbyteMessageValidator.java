@@ -5,6 +5,7 @@
 package io.airbyte.workers.internal;
 
 import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
 import java.util.Optional;
 
 /**
@@ -44,7 +45,7 @@ public class BasicAirbyteMessageValidator {
         }
         // required fields
         final var record = message.getRecord();
-        if (record.getStream() == null || record.getData() == null) {
+        if (record.getStream() == null || !hasData(record)) {
           return Optional.empty();
         }
       }
@@ -101,4 +102,14 @@ public class BasicAirbyteMessageValidator {
     return Optional.of(message);
   }
 
+  /**
+   * Checks the data of a record without deserializing it if it is lazy.
+   */
+  private static boolean hasData(final AirbyteRecordMessage record) {
+    if (record instanceof LazyAirbyteRecordMessage lazyRecord) {
+      return lazyRecord.hasData();
+    }
+    return record.getData() != null;
+  }
+
 }
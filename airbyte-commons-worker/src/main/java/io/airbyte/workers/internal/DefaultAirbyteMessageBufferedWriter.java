@@ -15,14 +15,21 @@ import java.io.IOException;
 public class DefaultAirbyteMessageBufferedWriter implements AirbyteMessageBufferedWriter {
 
   protected final BufferedWriter writer;
+  protected final RawRecordPassthrough rawRecordPassthrough;
 
   public DefaultAirbyteMessageBufferedWriter(final BufferedWriter writer) {
+    this(writer, RawRecordPassthrough.DISABLED);
+  }
+
+  public DefaultAirbyteMessageBufferedWriter(final BufferedWriter writer, final RawRecordPassthrough rawRecordPassthrough) {
     this.writer = writer;
+    this.rawRecordPassthrough = rawRecordPassthrough;
   }
 
   @Override
   public void write(final AirbyteMessage message) throws IOException {
-    writer.write(Jsons.serialize(message));
+    final String serializedMessage = rawRecordPassthrough.takeSerialized(message);
+    writer.write(serializedMessage != null ? serializedMessage : Jsons.serialize(message));
     writer.newLine();
   }
 
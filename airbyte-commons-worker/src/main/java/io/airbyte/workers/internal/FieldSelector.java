@@ -5,19 +5,16 @@
 package io.airbyte.workers.internal;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableSet;
 import io.airbyte.protocol.models.AirbyteMessage;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
 import io.airbyte.protocol.models.AirbyteStreamNameNamespacePair;
 import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
 import io.airbyte.workers.RecordSchemaValidator;
 import io.airbyte.workers.WorkerMetricReporter;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -27,6 +24,10 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 
 /**
  * Handles FieldSelection.
+ * <p>
+ * The top level fields of each stream are indexed once from the catalog. Filtering a record and
+ * looking for unexpected fields are then a single pass over the fields of the record which doesn't
+ * allocate anything unless it finds an unexpected field.
  */
 @Slf4j
 public class FieldSelector {
@@ -37,33 +38,83 @@ public class FieldSelector {
    */
   private final ConcurrentHashMap<AirbyteStreamNameNamespacePair, ImmutablePair<Set<String>, Integer>> validationErrors = new ConcurrentHashMap<>();
   private final ConcurrentHashMap<AirbyteStreamNameNamespacePair, Set<String>> uncountedValidationErrors = new ConcurrentHashMap<>();
-  private final Map<AirbyteStreamNameNamespacePair, List<String>> streamToSelectedFields = new HashMap<>();
-  private final Map<AirbyteStreamNameNamespacePair, Set<String>> streamToAllFields = new HashMap<>();
+  // The configured catalog only includes the selected fields: the fields of a stream are both the
+  // fields to keep when filtering and the fields that are expected in its records.
+  private final Map<AirbyteStreamNameNamespacePair, StreamFields> streamToFields = new HashMap<>();
   private final Map<AirbyteStreamNameNamespacePair, Set<String>> unexpectedFields = new HashMap<>();
 
   private final RecordSchemaValidator recordSchemaValidator;
   private final WorkerMetricReporter metricReporter;
   private final boolean fieldSelectionEnabled;
   private final boolean removeValidationLimit;
+  private final RawRecordPassthrough rawRecordPassthrough;
+  private final int unexpectedFieldsSampleRate;
+
+  /**
+   * Top level fields of a stream in the catalog.
+   */
+  private static final class StreamFields {
+
+    private final Set<String> fields;
+    // records of the stream that went through the unexpected field detection sampling.
+    private long sampledRecords;
+
+    private StreamFields(final Set<String> fields) {
+      this.fields = fields;
+    }
+
+  }
 
   public FieldSelector(final RecordSchemaValidator recordSchemaValidator,
                        final WorkerMetricReporter metricReporter,
                        final boolean fieldSelectionEnabled,
                        final boolean removeValidationLimit) {
+    this(recordSchemaValidator, metricReporter, fieldSelectionEnabled, removeValidationLimit, RawRecordPassthrough.DISABLED);
+  }
+
+  public FieldSelector(final RecordSchemaValidator recordSchemaValidator,
+                       final WorkerMetricReporter metricReporter,
+                       final boolean fieldSelectionEnabled,
+                       final boolean removeValidationLimit,
+                       final RawRecordPassthrough rawRecordPassthrough) {
+    this(recordSchemaValidator, metricReporter, fieldSelectionEnabled, removeValidationLimit, rawRecordPassthrough, 1);
+  }
+
+  /**
+   * Creates a FieldSelector.
+   *
+   * @param unexpectedFieldsSampleRate look for unexpected fields in one validated record out of
+   *        unexpectedFieldsSampleRate of each stream.
+   */
+  public FieldSelector(final RecordSchemaValidator recordSchemaValidator,
+                       final WorkerMetricReporter metricReporter,
+                       final boolean fieldSelectionEnabled,
+                       final boolean removeValidationLimit,
+                       final RawRecordPassthrough rawRecordPassthrough,
+                       final int unexpectedFieldsSampleRate) {
+    if (unexpectedFieldsSampleRate < 1) {
+      throw new IllegalArgumentException("Invalid unexpected fields sample rate: " + unexpectedFieldsSampleRate);
+    }
     this.recordSchemaValidator = recordSchemaValidator;
     this.metricReporter = metricReporter;
     this.fieldSelectionEnabled = fieldSelectionEnabled;
     this.removeValidationLimit = removeValidationLimit;
+    this.rawRecordPassthrough = rawRecordPassthrough;
+    this.unexpectedFieldsSampleRate = unexpectedFieldsSampleRate;
   }
 
   /**
    * Initialize the FieldSelector instance with the fields from the catalog.
    */
   public void populateFields(final ConfiguredAirbyteCatalog catalog) {
-    if (fieldSelectionEnabled) {
-      populatedStreamToSelectedFields(catalog);
+    for (final var s : catalog.getStreams()) {
+      final JsonNode propertiesNode = s.getStream().getJsonSchema().findPath("properties");
+      if (!propertiesNode.isObject()) {
+        throw new RuntimeException("No properties node in stream schema");
+      }
+      streamToFields.put(AirbyteStreamNameNamespacePair.fromConfiguredAirbyteSteam(s),
+          new StreamFields(ImmutableSet.copyOf(propertiesNode.fieldNames())));
     }
-    populateStreamToAllFields(catalog);
   }
 
   /**
@@ -97,10 +148,22 @@ public class FieldSelector {
     }
 
     final AirbyteStreamNameNamespacePair messageStream = AirbyteStreamNameNamespacePair.fromRecordMessage(record);
-    final List<String> selectedFields = streamToSelectedFields.getOrDefault(messageStream, Collections.emptyList());
+    final StreamFields streamFields = streamToFields.get(messageStream);
     final JsonNode data = record.getData();
     if (data.isObject()) {
-      ((ObjectNode) data).retain(selectedFields);
+      boolean removedFields = false;
+      final Iterator<String> fieldNames = data.fieldNames();
+      while (fieldNames.hasNext()) {
+        final String fieldName = fieldNames.next();
+        // streams which are not in the catalog have no selected fields.
+        if (streamFields == null || !streamFields.fields.contains(fieldName)) {
+          fieldNames.remove();
+          removedFields = true;
+        }
+      }
+      if (removedFields) {
+        rawRecordPassthrough.markDirty(airbyteMessage);
+      }
     } else {
       throw new RuntimeException(String.format("Unexpected data in record: %s", data.toString()));
     }
@@ -133,45 +196,6 @@ public class FieldSelector {
     });
   }
 
-  /**
-   * Generates a map from stream -> the explicit list of fields included for that stream, according to
-   * the configured catalog. Since the configured catalog only includes the selected fields, this lets
-   * us filter records to only the fields explicitly requested.
-   *
-   * @param catalog catalog
-   */
-  private void populatedStreamToSelectedFields(final ConfiguredAirbyteCatalog catalog) {
-    for (final var s : catalog.getStreams()) {
-      final List<String> selectedFields = new ArrayList<>();
-      final JsonNode propertiesNode = s.getStream().getJsonSchema().findPath("properties");
-      if (propertiesNode.isObject()) {
-        propertiesNode.fieldNames().forEachRemaining((fieldName) -> selectedFields.add(fieldName));
-      } else {
-        throw new RuntimeException("No properties node in stream schema");
-      }
-      streamToSelectedFields.put(AirbyteStreamNameNamespacePair.fromConfiguredAirbyteSteam(s), selectedFields);
-    }
-  }
-
-  /**
-   * Populates a map for stream -> all the top-level fields in the catalog. Used to identify any
-   * unexpected top-level fields in the records.
-   *
-   * @param catalog catalog
-   */
-  private void populateStreamToAllFields(final ConfiguredAirbyteCatalog catalog) {
-    for (final var s : catalog.getStreams()) {
-      final Set<String> fields = new HashSet<>();
-      final JsonNode propertiesNode = s.getStream().getJsonSchema().findPath("properties");
-      if (propertiesNode.isObject()) {
-        propertiesNode.fieldNames().forEachRemaining((fieldName) -> fields.add(fieldName));
-      } else {
-        throw new RuntimeException("No properties node in stream schema");
-      }
-      streamToAllFields.put(AirbyteStreamNameNamespacePair.fromConfiguredAirbyteSteam(s), fields);
-    }
-  }
-
   private void validateSchemaUncounted(final AirbyteMessage message) {
     if (message.getRecord() == null) {
       return;
@@ -179,12 +203,12 @@ public class FieldSelector {
 
     final AirbyteRecordMessage record = message.getRecord();
     final AirbyteStreamNameNamespacePair messageStream = AirbyteStreamNameNamespacePair.fromRecordMessage(record);
+    if (!recordSchemaValidator.shouldValidate(messageStream)) {
+      return;
+    }
 
     recordSchemaValidator.validateSchemaWithoutCounting(record, messageStream, uncountedValidationErrors);
-    final Set<String> unexpectedFieldNames = getUnexpectedFieldNames(record, streamToAllFields.get(messageStream));
-    if (!unexpectedFieldNames.isEmpty()) {
-      unexpectedFields.computeIfAbsent(messageStream, k -> new HashSet<>()).addAll(unexpectedFieldNames);
-    }
+    trackUnexpectedFields(record, messageStream);
   }
 
   private void validateSchemaWithCount(final AirbyteMessage message) {
@@ -194,33 +218,45 @@ public class FieldSelector {
 
     final AirbyteRecordMessage record = message.getRecord();
     final AirbyteStreamNameNamespacePair messageStream = AirbyteStreamNameNamespacePair.fromRecordMessage(record);
-    // avoid noise by validating only if the stream has less than 10 records with validation errors
-    final boolean streamHasLessThenTenErrs = validationErrors.get(messageStream) == null || validationErrors.get(messageStream).getRight() < 10;
+    if (!recordSchemaValidator.shouldValidate(messageStream)) {
+      return;
+    }
+    // avoid noise by validating only if the stream has less than 10 records with validation errors.
+    // this only skips needless validations, the cap is enforced by the validator.
+    final boolean streamHasLessThenTenErrs = validationErrors.get(messageStream) == null
+        || validationErrors.get(messageStream).getRight() < RecordSchemaValidator.MAX_RECORDS_WITH_ERRORS_PER_STREAM;
     if (streamHasLessThenTenErrs) {
       recordSchemaValidator.validateSchema(record, messageStream, validationErrors);
-      final Set<String> unexpectedFieldNames = getUnexpectedFieldNames(record, streamToAllFields.get(messageStream));
-      if (!unexpectedFieldNames.isEmpty()) {
-        unexpectedFields.computeIfAbsent(messageStream, k -> new HashSet<>()).addAll(unexpectedFieldNames);
-      }
+      trackUnexpectedFields(record, messageStream);
     }
   }
 
-  private static Set<String> getUnexpectedFieldNames(final AirbyteRecordMessage record,
-                                                     final Set<String> fieldsInCatalog) {
-    Set<String> unexpectedFieldNames = new HashSet<>();
+  /**
+   * Record the top level fields of a record which are not in the catalog, for the sampled records of
+   * each stream.
+   */
+  private void trackUnexpectedFields(final AirbyteRecordMessage record, final AirbyteStreamNameNamespacePair messageStream) {
+    final StreamFields streamFields = streamToFields.get(messageStream);
+    // Records of streams which are not in the catalog are reported by the validation.
+    if (streamFields == null || streamFields.sampledRecords++ % unexpectedFieldsSampleRate != 0) {
+      return;
+    }
     final JsonNode data = record.getData();
     // If it's not an object it's malformed, but we tolerate it here - it will be logged as an error by
     // the validation.
     if (data.isObject()) {
       final Iterator<String> fieldNamesInRecord = data.fieldNames();
+      Set<String> unexpectedFieldNames = null;
       while (fieldNamesInRecord.hasNext()) {
         final String fieldName = fieldNamesInRecord.next();
-        if (!fieldsInCatalog.contains(fieldName)) {
+        if (!streamFields.fields.contains(fieldName)) {
+          if (unexpectedFieldNames == null) {
+            unexpectedFieldNames = unexpectedFields.computeIfAbsent(messageStream, k -> new HashSet<>());
+          }
           unexpectedFieldNames.add(fieldName);
         }
       }
     }
-    return unexpectedFieldNames;
   }
 
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.internal;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+
+/**
+ * A record message whose data is kept in its serialized form until something reads it.
+ * <p>
+ * The data is a slice of the line the record was read from, it is deserialized the first time
+ * {@link #getData()} is called. Steps that only need the envelope of the record (stream, namespace,
+ * emitted at) never pay for the deserialization of the data.
+ * <p>
+ * Equality and serialization go through {@link #getData()}, a lazy record is equal to the same
+ * record fully deserialized as long as the lazy one is on the calling side (or has been
+ * materialized).
+ */
+public class LazyAirbyteRecordMessage extends AirbyteRecordMessage {
+
+  // The line the record was read from, null once the data has been deserialized.
+  private String rawLine;
+  private final int dataStart;
+  private final int dataEnd;
+
+  /**
+   * Create a lazy record.
+   *
+   * @param rawLine the line the record was read from.
+   * @param dataStart the index of the first char of the data in the line.
+   * @param dataEnd the index after the last char of the data in the line.
+   */
+  public LazyAirbyteRecordMessage(final String rawLine, final int dataStart, final int dataEnd) {
+    super();
+    this.rawLine = rawLine;
+    this.dataStart = dataStart;
+    this.dataEnd = dataEnd;
+  }
+
+  @Override
+  public synchronized JsonNode getData() {
+    materialize();
+    return super.getData();
+  }
+
+  @Override
+  public synchronized void setData(final JsonNode data) {
+    rawLine = null;
+    super.setData(data);
+  }
+
+  @Override
+  public LazyAirbyteRecordMessage withData(final JsonNode data) {
+    setData(data);
+    return this;
+  }
+
+  /**
+   * Returns whether the record has data, without deserializing it.
+   */
+  public synchronized boolean hasData() {
+    return rawLine != null || super.getData() != null;
+  }
+
+  /**
+   * Returns whether the data has been deserialized.
+   */
+  @JsonIgnore
+  public synchronized boolean isMaterialized() {
+    return rawLine == null;
+  }
+
+  /**
+   * Returns the length of the serialized data, without deserializing it.
+   *
+   * @return the length of the slice of the line holding the data, -1 once the data has been
+   *         deserialized.
+   */
+  @JsonIgnore
+  public synchronized int getRawDataLength() {
+    return rawLine != null ? dataEnd - dataStart : -1;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    materialize();
+    if (other instanceof LazyAirbyteRecordMessage lazyOther) {
+      lazyOther.materialize();
+    }
+    return super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    materialize();
+    return super.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    materialize();
+    return super.toString();
+  }
+
+  private synchronized void materialize() {
+    if (rawLine != null) {
+      super.setData(Jsons.deserialize(rawLine.substring(dataStart, dataEnd)));
+      rawLine = null;
+    }
+  }
+
+}
@@ -14,9 +14,8 @@ import io.airbyte.protocol.models.AirbyteStateMessage;
 import io.airbyte.protocol.models.AirbyteStream;
 import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
 import io.airbyte.protocol.models.StreamDescriptor;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.logging.log4j.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,11 +29,17 @@ import org.slf4j.LoggerFactory;
 public class NamespacingMapper implements AirbyteMapper {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NamespacingMapper.class);
+  private static final String SOURCE_NAMESPACE_VARIABLE = "${SOURCE_NAMESPACE}";
 
   private final NamespaceDefinitionType namespaceDefinition;
   private final String namespaceFormat;
   private final String streamPrefix;
   private final Map<NamespaceAndStreamName, NamespaceAndStreamName> destinationToSourceNamespaceAndStreamName;
+  // The destination names only depend on the source names: they are computed once per stream,
+  // mapping a message is then a lookup. Streams of the catalog are added by mapCatalog, others
+  // the first time they are seen.
+  private final Map<NamespaceAndStreamName, NamespaceAndStreamName> sourceToDestinationNamespaceAndStreamName = new ConcurrentHashMap<>();
+  private final RawRecordPassthrough rawRecordPassthrough;
 
   @VisibleForTesting
   record NamespaceAndStreamName(String namespace, String streamName) {}
@@ -43,7 +48,15 @@ public class NamespacingMapper implements AirbyteMapper {
                            final NamespaceDefinitionType namespaceDefinition,
                            final String namespaceFormat,
                            final String streamPrefix) {
-    this(namespaceDefinition, namespaceFormat, streamPrefix, new HashMap<>());
+    this(namespaceDefinition, namespaceFormat, streamPrefix, RawRecordPassthrough.DISABLED);
+  }
+
+  public NamespacingMapper(
+                           final NamespaceDefinitionType namespaceDefinition,
+                           final String namespaceFormat,
+                           final String streamPrefix,
+                           final RawRecordPassthrough rawRecordPassthrough) {
+    this(namespaceDefinition, namespaceFormat, streamPrefix, new ConcurrentHashMap<>(), rawRecordPassthrough);
   }
 
   @VisibleForTesting
@@ -52,10 +65,21 @@ public class NamespacingMapper implements AirbyteMapper {
                     final String namespaceFormat,
                     final String streamPrefix,
                     final Map<NamespaceAndStreamName, NamespaceAndStreamName> destinationToSourceNamespaceAndStreamName) {
+    this(namespaceDefinition, namespaceFormat, streamPrefix, destinationToSourceNamespaceAndStreamName, RawRecordPassthrough.DISABLED);
+  }
+
+  @VisibleForTesting
+  NamespacingMapper(
+                    final NamespaceDefinitionType namespaceDefinition,
+                    final String namespaceFormat,
+                    final String streamPrefix,
+                    final Map<NamespaceAndStreamName, NamespaceAndStreamName> destinationToSourceNamespaceAndStreamName,
+                    final RawRecordPassthrough rawRecordPassthrough) {
     this.namespaceDefinition = namespaceDefinition;
     this.namespaceFormat = namespaceFormat;
     this.streamPrefix = streamPrefix;
     this.destinationToSourceNamespaceAndStreamName = destinationToSourceNamespaceAndStreamName;
+    this.rawRecordPassthrough = rawRecordPassthrough;
   }
 
   @Override
@@ -63,19 +87,13 @@ public class NamespacingMapper implements AirbyteMapper {
     final ConfiguredAirbyteCatalog catalog = Jsons.clone(inputCatalog);
     catalog.getStreams().forEach(s -> {
       final AirbyteStream stream = s.getStream();
-      if (namespaceDefinition != null) {
-        if (namespaceDefinition.equals(NamespaceDefinitionType.DESTINATION)) {
-          stream.withNamespace(null);
-        } else if (namespaceDefinition.equals(NamespaceDefinitionType.CUSTOMFORMAT)) {
-          final String namespace = formatNamespace(stream.getNamespace(), namespaceFormat);
-          if (namespace == null) {
-            LOGGER.error("Namespace Format cannot be blank for Stream {}. Falling back to default namespace from destination settings",
-                stream.getName());
-          }
-          stream.withNamespace(namespace);
-        }
+      final NamespaceAndStreamName destination = getDestinationNamespaceAndStreamName(stream.getNamespace(), stream.getName());
+      if (NamespaceDefinitionType.CUSTOMFORMAT.equals(namespaceDefinition) && destination.namespace() == null) {
+        LOGGER.error("Namespace Format cannot be blank for Stream {}. Falling back to default namespace from destination settings",
+            stream.getName());
       }
-      stream.withName(transformStreamName(stream.getName(), streamPrefix));
+      stream.withNamespace(destination.namespace());
+      stream.withName(destination.streamName());
     });
     return catalog;
   }
@@ -85,12 +103,14 @@ public class NamespacingMapper implements AirbyteMapper {
     if (message.getType() == Type.RECORD) {
       final AirbyteRecordMessage recordMessage = message.getRecord();
 
-      final String sourceNamespace = recordMessage.getNamespace();
-      final String destinationNamespace = transformNamespace(sourceNamespace);
-      final String destinationStreamName = transformStreamName(recordMessage.getStream(), streamPrefix);
+      final NamespaceAndStreamName source = new NamespaceAndStreamName(recordMessage.getNamespace(), recordMessage.getStream());
+      final NamespaceAndStreamName destination = getDestinationNamespaceAndStreamName(source);
 
-      recordMessage.withNamespace(destinationNamespace);
-      recordMessage.setStream(destinationStreamName);
+      if (!source.equals(destination)) {
+        rawRecordPassthrough.markDirty(message);
+      }
+      recordMessage.withNamespace(destination.namespace());
+      recordMessage.setStream(destination.streamName());
     }
 
     if (message.getType() == Type.STATE) {
@@ -98,17 +118,15 @@ public class NamespacingMapper implements AirbyteMapper {
       if (state.getType() == AirbyteStateMessage.AirbyteStateType.STREAM) {
         final StreamDescriptor streamDescriptor = message.getState().getStream().getStreamDescriptor();
 
-        final String sourceNamespace = streamDescriptor.getNamespace();
-        final String sourceStreamName = streamDescriptor.getName();
-        final String destinationNamespace = transformNamespace(sourceNamespace);
-        final String destinationStreamName = transformStreamName(sourceStreamName, streamPrefix);
+        final NamespaceAndStreamName source = new NamespaceAndStreamName(streamDescriptor.getNamespace(), streamDescriptor.getName());
+        final NamespaceAndStreamName destination = getDestinationNamespaceAndStreamName(source);
 
-        destinationToSourceNamespaceAndStreamName.put(
-            new NamespaceAndStreamName(destinationNamespace, destinationStreamName),
-            new NamespaceAndStreamName(sourceNamespace, sourceStreamName));
+        // Several source streams can have the same destination, the last state seen decides which
+        // one the destination states are reverted to.
+        destinationToSourceNamespaceAndStreamName.put(destination, source);
 
-        streamDescriptor.setNamespace(destinationNamespace);
-        streamDescriptor.setName(destinationStreamName);
+        streamDescriptor.setNamespace(destination.namespace());
+        streamDescriptor.setName(destination.streamName());
       }
     }
     return message;
@@ -136,11 +154,20 @@ public class NamespacingMapper implements AirbyteMapper {
     return message;
   }
 
+  private NamespaceAndStreamName getDestinationNamespaceAndStreamName(final String sourceNamespace, final String sourceStreamName) {
+    return getDestinationNamespaceAndStreamName(new NamespaceAndStreamName(sourceNamespace, sourceStreamName));
+  }
+
+  private NamespaceAndStreamName getDestinationNamespaceAndStreamName(final NamespaceAndStreamName source) {
+    return sourceToDestinationNamespaceAndStreamName.computeIfAbsent(source, s -> new NamespaceAndStreamName(
+        transformNamespace(s.namespace()),
+        transformStreamName(s.streamName(), streamPrefix)));
+  }
+
   private static String formatNamespace(final String sourceNamespace, final String namespaceFormat) {
     String result = "";
     if (Strings.isNotBlank(namespaceFormat)) {
-      final String regex = Pattern.quote("${SOURCE_NAMESPACE}");
-      result = namespaceFormat.replaceAll(regex, Strings.isNotBlank(sourceNamespace) ? sourceNamespace : "");
+      result = namespaceFormat.replace(SOURCE_NAMESPACE_VARIABLE, Strings.isNotBlank(sourceNamespace) ? sourceNamespace : "");
     }
     if (Strings.isBlank(result)) {
       result = null;
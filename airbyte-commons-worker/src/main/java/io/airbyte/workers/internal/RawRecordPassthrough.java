@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.internal;
+
+import com.google.common.collect.MapMaker;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps track of the original serialized form of the record messages read from a source so that
+ * the later steps of the replication do not have to serialize them again.
+ * <p>
+ * Two features rely on it:
+ * <li>forwarding records: the destination writer emits the original line of a record instead of
+ * serializing it.</li>
+ * <li>tracking record sizes: the stats trackers use the size of the data measured on the original
+ * line instead of serializing the data to estimate its size.</li>
+ * <p>
+ * A record is only known while it is clean. Any step of the replication that modifies a record
+ * (field selection, namespace mapping...) must call {@link #markDirty(AirbyteMessage)} so that the
+ * consumers fall back to serializing the message.
+ * <p>
+ * Messages are tracked by identity and weakly referenced, messages that never reach the writer
+ * (filtered, failed sync...) do not leak.
+ */
+public class RawRecordPassthrough {
+
+  /**
+   * Instance to use when the passthrough mode is disabled, it never tracks anything.
+   */
+  public static final RawRecordPassthrough DISABLED = new RawRecordPassthrough(false, false);
+
+  /**
+   * What we know about the original form of a record. The line is null if records are not forwarded.
+   */
+  private record RawRecord(String line, long dataSize) {}
+
+  private final boolean forwardRecords;
+  private final boolean trackRecordSizes;
+  private final ConcurrentMap<AirbyteMessage, RawRecord> rawRecords;
+
+  public RawRecordPassthrough(final boolean forwardRecords) {
+    this(forwardRecords, false);
+  }
+
+  public RawRecordPassthrough(final boolean forwardRecords, final boolean trackRecordSizes) {
+    this.forwardRecords = forwardRecords;
+    this.trackRecordSizes = trackRecordSizes;
+    // MapMaker.weakKeys uses identity comparison for the keys, which is what we want here since
+    // AirbyteMessage equality would require walking the whole record.
+    this.rawRecords = new MapMaker().weakKeys().makeMap();
+  }
+
+  public boolean isEnabled() {
+    return forwardRecords || trackRecordSizes;
+  }
+
+  /**
+   * Attach the line a record message has been deserialized from.
+   *
+   * @param message the deserialized message.
+   * @param line the original line, it is only kept if it contains nothing but the message.
+   */
+  public void attach(final AirbyteMessage message, final String line) {
+    if (!isEnabled() || message.getType() != Type.RECORD || !isSingleMessageLine(line)) {
+      return;
+    }
+    final long dataSize = trackRecordSizes ? RecordDataSizeScanner.measureDataSize(line) : RecordDataSizeScanner.UNKNOWN_SIZE;
+    rawRecords.put(message, new RawRecord(forwardRecords ? line : null, dataSize));
+  }
+
+  /**
+   * Flag a message as modified, its original serialized form will not be used anymore.
+   *
+   * @param message the message that has been modified.
+   */
+  public void markDirty(final AirbyteMessage message) {
+    if (isEnabled()) {
+      rawRecords.remove(message);
+    }
+  }
+
+  /**
+   * Get the size of the data of a record, as measured on its original serialized form.
+   *
+   * @param message the record message.
+   * @return the size of the data in bytes, a negative value if the size is unknown or the message has
+   *         been modified.
+   */
+  public long getDataSize(final AirbyteMessage message) {
+    if (!trackRecordSizes) {
+      return RecordDataSizeScanner.UNKNOWN_SIZE;
+    }
+    // Nobody else needs the record if we do not forward it.
+    final RawRecord rawRecord = forwardRecords ? rawRecords.get(message) : rawRecords.remove(message);
+    return rawRecord != null ? rawRecord.dataSize() : RecordDataSizeScanner.UNKNOWN_SIZE;
+  }
+
+  /**
+   * Get the original serialized form of a message and stop tracking it.
+   *
+   * @param message the message to write.
+   * @return the original serialized form of the message, null if the message is unknown or has been
+   *         modified.
+   */
+  public String takeSerialized(final AirbyteMessage message) {
+    if (!forwardRecords) {
+      return null;
+    }
+    final RawRecord rawRecord = rawRecords.remove(message);
+    return rawRecord != null ? rawRecord.line() : null;
+  }
+
+  /**
+   * The stream factory tolerates trailing characters after a message, we only want to forward lines
+   * that look like a single json object.
+   */
+  private static boolean isSingleMessageLine(final String line) {
+    final String trimmed = line.strip();
+    return trimmed.startsWith("{") && trimmed.endsWith("}");
+  }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.internal;
+
+/**
+ * Measures the size of the data of a serialized record message without deserializing it.
+ * <p>
+ * The size is the number of UTF-8 bytes of {@code record.data} once whitespaces outside of strings
+ * are removed, which is what {@link io.airbyte.commons.json.Jsons#getEstimatedByteSize} would
+ * return for the deserialized data, minus the differences in number formatting. Escape sequences
+ * are counted as the data is serialized again: decoded, unless the character must stay escaped.
+ * <p>
+ * This is a single pass over the line that doesn't allocate, it is meant to replace serializing the
+ * data again just to know its size.
+ */
+final class RecordDataSizeScanner {
+
+  static final long UNKNOWN_SIZE = -1;
+
+  private static final String RECORD_FIELD = "record";
+  private static final String DATA_FIELD = "data";
+
+  private final String line;
+  private int pos;
+
+  private RecordDataSizeScanner(final String line) {
+    this.line = line;
+    this.pos = 0;
+  }
+
+  /**
+   * Measure the size of the data of a serialized record message.
+   *
+   * @param line a serialized AirbyteMessage of type RECORD.
+   * @return the size in bytes of the record data, {@link #UNKNOWN_SIZE} if the line isn't a record
+   *         we can measure.
+   */
+  static long measureDataSize(final String line) {
+    try {
+      return new RecordDataSizeScanner(line).scanMessage();
+    } catch (final IndexOutOfBoundsException | NumberFormatException e) {
+      // Truncated line or malformed escape sequence, let the caller fall back to another way of
+      // measuring.
+      return UNKNOWN_SIZE;
+    }
+  }
+
+  private long scanMessage() {
+    if (!enterObject()) {
+      return UNKNOWN_SIZE;
+    }
+    while (nextField()) {
+      if (fieldNameIs(RECORD_FIELD)) {
+        return enterObject() ? scanRecord() : UNKNOWN_SIZE;
+      }
+      skipValue(false);
+    }
+    return UNKNOWN_SIZE;
+  }
+
+  private long scanRecord() {
+    while (nextField()) {
+      if (fieldNameIs(DATA_FIELD)) {
+        return skipValue(true);
+      }
+      skipValue(false);
+    }
+    return UNKNOWN_SIZE;
+  }
+
+  private boolean enterObject() {
+    skipWhitespaces();
+    if (line.charAt(pos) != '{') {
+      return false;
+    }
+    pos++;
+    return true;
+  }
+
+  /**
+   * Moves to the next field of the current object and leaves the cursor on the opening quote of its
+   * name.
+   *
+   * @return false once the end of the object is reached.
+   */
+  private boolean nextField() {
+    skipWhitespaces();
+    if (line.charAt(pos) == ',') {
+      pos++;
+      skipWhitespaces();
+    }
+    return line.charAt(pos) == '"';
+  }
+
+  /**
+   * Compares the field name under the cursor and moves the cursor to the value of the field.
+   */
+  private boolean fieldNameIs(final String name) {
+    final int nameStart = pos + 1;
+    skipString(false);
+    final int nameEnd = pos - 1;
+    final boolean matches = nameEnd - nameStart == name.length() && line.startsWith(name, nameStart);
+    skipWhitespaces();
+    // skip the colon
+    pos++;
+    return matches;
+  }
+
+  /**
+   * Skips the value under the cursor.
+   *
+   * @param count whether to measure the value.
+   * @return the size of the value if count is true, 0 otherwise.
+   */
+  private long skipValue(final boolean count) {
+    skipWhitespaces();
+    long size = 0;
+    int depth = 0;
+    do {
+      final char c = line.charAt(pos);
+      if (c == '"') {
+        size += skipString(count);
+        continue;
+      }
+      if (c == '{' || c == '[') {
+        depth++;
+      } else if (c == '}' || c == ']') {
+        if (depth == 0) {
+          // end of the enclosing object, the value was a scalar
+          break;
+        }
+        depth--;
+      } else if (c == ',' && depth == 0) {
+        break;
+      } else if (Character.isWhitespace(c)) {
+        pos++;
+        continue;
+      }
+      size++;
+      pos++;
+    } while (depth > 0 || !isScalarEnd(line.charAt(pos)));
+    return count ? size : 0;
+  }
+
+  private boolean isScalarEnd(final char c) {
+    return c == ',' || c == '}' || c == ']' || c == '"' || Character.isWhitespace(c);
+  }
+
+  /**
+   * Skips the string under the cursor, including the quotes.
+   *
+   * @return the UTF-8 size of the string if count is true, 0 otherwise.
+   */
+  private long skipString(final boolean count) {
+    long size = 0;
+    // opening quote
+    pos++;
+    size++;
+    while (true) {
+      final char c = line.charAt(pos);
+      if (c == '\\') {
+        // the escaped char cannot close the string
+        final boolean unicode = line.charAt(pos + 1) == 'u';
+        if (count) {
+          // a short escape is kept as is, but for the slash which doesn't need one
+          size += unicode ? decodedSize((char) Integer.parseInt(line, pos + 2, pos + 6, 16)) : line.charAt(pos + 1) == '/' ? 1 : 2;
+        }
+        pos += unicode ? 6 : 2;
+        continue;
+      }
+      pos++;
+      if (c == '"') {
+        size++;
+        break;
+      }
+      if (count) {
+        size += utf8Size(c);
+      }
+    }
+    return count ? size : 0;
+  }
+
+  /**
+   * UTF-8 size of a char decoded from a unicode escape once serialized again, where only quotes,
+   * backslashes and control chars are escaped.
+   */
+  private static int decodedSize(final char c) {
+    return switch (c) {
+      case '"', '\\', '\b', '\f', '\n', '\r', '\t' -> 2;
+      default -> c < 0x20 ? 6 : utf8Size(c);
+    };
+  }
+
+  private static int utf8Size(final char c) {
+    if (c < 0x80) {
+      return 1;
+    } else if (c < 0x800) {
+      return 2;
+    } else if (Character.isSurrogate(c)) {
+      // each half of a surrogate pair accounts for half of the 4 bytes of the code point
+      return 2;
+    }
+    return 3;
+  }
+
+  private void skipWhitespaces() {
+    while (Character.isWhitespace(line.charAt(pos))) {
+      pos++;
+    }
+  }
+
+}
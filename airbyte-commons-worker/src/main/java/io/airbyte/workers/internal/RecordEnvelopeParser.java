@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Parses the envelope of a serialized record message with a streaming parser: the type, stream,
+ * namespace and emitted at are read, the data is only located in the line and left to be
+ * deserialized by {@link LazyAirbyteRecordMessage} when something needs it.
+ * <p>
+ * Only plain records are handled. Any other message, or a record with a field the envelope doesn't
+ * know about, is left to the regular deserializer so that nothing gets lost.
+ */
+final class RecordEnvelopeParser {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private static final String TYPE_FIELD = "type";
+  private static final String RECORD_FIELD = "record";
+  private static final String STREAM_FIELD = "stream";
+  private static final String NAMESPACE_FIELD = "namespace";
+  private static final String EMITTED_AT_FIELD = "emitted_at";
+  private static final String DATA_FIELD = "data";
+
+  private RecordEnvelopeParser() {}
+
+  /**
+   * Parse a line as a record message with lazy data.
+   *
+   * @param line a serialized AirbyteMessage.
+   * @return the record message, empty if the line must go through the regular deserializer.
+   */
+  static Optional<AirbyteMessage> tryParseRecord(final String line) {
+    try (final JsonParser parser = JSON_FACTORY.createParser(line)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return Optional.empty();
+      }
+      boolean isRecord = false;
+      LazyAirbyteRecordMessage record = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String fieldName = parser.getCurrentName();
+        final JsonToken valueToken = parser.nextToken();
+        switch (fieldName) {
+          case TYPE_FIELD -> {
+            if (valueToken != JsonToken.VALUE_STRING || !Type.RECORD.value().equals(parser.getText())) {
+              return Optional.empty();
+            }
+            isRecord = true;
+          }
+          case RECORD_FIELD -> {
+            record = parseRecord(parser, line);
+            if (record == null) {
+              return Optional.empty();
+            }
+          }
+          default -> {
+            return Optional.empty();
+          }
+        }
+      }
+      if (!isRecord || record == null) {
+        return Optional.empty();
+      }
+      return Optional.of(new AirbyteMessage().withType(Type.RECORD).withRecord(record));
+    } catch (final IOException e) {
+      // Malformed line, the regular deserializer decides what to do with it.
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Parse the record object the parser is on.
+   *
+   * @return the record, null if the record must go through the regular deserializer.
+   */
+  private static LazyAirbyteRecordMessage parseRecord(final JsonParser parser, final String line) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      return null;
+    }
+    String stream = null;
+    String namespace = null;
+    Long emittedAt = null;
+    int dataStart = -1;
+    int dataEnd = -1;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String fieldName = parser.getCurrentName();
+      final JsonToken valueToken = parser.nextToken();
+      switch (fieldName) {
+        case STREAM_FIELD, NAMESPACE_FIELD -> {
+          if (valueToken != JsonToken.VALUE_STRING && valueToken != JsonToken.VALUE_NULL) {
+            return null;
+          }
+          final String value = valueToken == JsonToken.VALUE_STRING ? parser.getText() : null;
+          if (STREAM_FIELD.equals(fieldName)) {
+            stream = value;
+          } else {
+            namespace = value;
+          }
+        }
+        case EMITTED_AT_FIELD -> {
+          if (valueToken == JsonToken.VALUE_NUMBER_INT) {
+            emittedAt = parser.getLongValue();
+          } else if (valueToken != JsonToken.VALUE_NULL) {
+            return null;
+          }
+        }
+        case DATA_FIELD -> {
+          // Scalars are not valid record data, let the regular path deal with them.
+          if (valueToken != JsonToken.START_OBJECT && valueToken != JsonToken.START_ARRAY) {
+            return null;
+          }
+          dataStart = (int) parser.getTokenLocation().getCharOffset();
+          parser.skipChildren();
+          dataEnd = (int) parser.getCurrentLocation().getCharOffset();
+        }
+        default -> {
+          return null;
+        }
+      }
+    }
+    if (dataStart < 0 || dataEnd <= dataStart) {
+      return null;
+    }
+    final LazyAirbyteRecordMessage record = new LazyAirbyteRecordMessage(line, dataStart, dataEnd);
+    record.setStream(stream);
+    record.setNamespace(namespace);
+    record.setEmittedAt(emittedAt);
+    return record;
+  }
+
+}
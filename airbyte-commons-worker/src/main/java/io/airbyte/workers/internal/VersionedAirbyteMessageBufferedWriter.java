@@ -27,7 +27,19 @@ public class VersionedAirbyteMessageBufferedWriter<T> extends DefaultAirbyteMess
                                                final AirbyteMessageSerializer<T> serializer,
                                                final AirbyteMessageVersionedMigrator<T> migrator,
                                                final Optional<ConfiguredAirbyteCatalog> configuredAirbyteCatalog) {
-    super(writer);
+    this(writer, serializer, migrator, configuredAirbyteCatalog, RawRecordPassthrough.DISABLED);
+  }
+
+  /**
+   * The rawRecordPassthrough should only be enabled if the messages do not need to be downgraded,
+   * records are forwarded as-is when their original form is available.
+   */
+  public VersionedAirbyteMessageBufferedWriter(final BufferedWriter writer,
+                                               final AirbyteMessageSerializer<T> serializer,
+                                               final AirbyteMessageVersionedMigrator<T> migrator,
+                                               final Optional<ConfiguredAirbyteCatalog> configuredAirbyteCatalog,
+                                               final RawRecordPassthrough rawRecordPassthrough) {
+    super(writer, rawRecordPassthrough);
     this.serializer = serializer;
     this.migrator = migrator;
     this.configuredAirbyteCatalog = configuredAirbyteCatalog;
@@ -35,6 +47,13 @@ public class VersionedAirbyteMessageBufferedWriter<T> extends DefaultAirbyteMess
 
   @Override
   public void write(final AirbyteMessage message) throws IOException {
+    final String serializedMessage = rawRecordPassthrough.takeSerialized(message);
+    if (serializedMessage != null) {
+      writer.write(serializedMessage);
+      writer.newLine();
+      return;
+    }
+
     final T downgradedMessage = migrator.downgrade(message, configuredAirbyteCatalog);
     writer.write(serializer.serialize(downgradedMessage));
     writer.newLine();
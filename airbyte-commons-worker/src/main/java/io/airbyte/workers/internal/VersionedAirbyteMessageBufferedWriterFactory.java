@@ -24,15 +24,25 @@ public class VersionedAirbyteMessageBufferedWriterFactory implements AirbyteMess
   private final AirbyteProtocolVersionedMigratorFactory migratorFactory;
   private final Version protocolVersion;
   private final Optional<ConfiguredAirbyteCatalog> configuredAirbyteCatalog;
+  private final RawRecordPassthrough rawRecordPassthrough;
 
   public VersionedAirbyteMessageBufferedWriterFactory(final AirbyteMessageSerDeProvider serDeProvider,
                                                       final AirbyteProtocolVersionedMigratorFactory migratorFactory,
                                                       final Version protocolVersion,
                                                       final Optional<ConfiguredAirbyteCatalog> configuredAirbyteCatalog) {
+    this(serDeProvider, migratorFactory, protocolVersion, configuredAirbyteCatalog, RawRecordPassthrough.DISABLED);
+  }
+
+  public VersionedAirbyteMessageBufferedWriterFactory(final AirbyteMessageSerDeProvider serDeProvider,
+                                                      final AirbyteProtocolVersionedMigratorFactory migratorFactory,
+                                                      final Version protocolVersion,
+                                                      final Optional<ConfiguredAirbyteCatalog> configuredAirbyteCatalog,
+                                                      final RawRecordPassthrough rawRecordPassthrough) {
     this.serDeProvider = serDeProvider;
     this.migratorFactory = migratorFactory;
     this.protocolVersion = protocolVersion;
     this.configuredAirbyteCatalog = configuredAirbyteCatalog;
+    this.rawRecordPassthrough = rawRecordPassthrough;
   }
 
   @Override
@@ -46,7 +56,10 @@ public class VersionedAirbyteMessageBufferedWriterFactory implements AirbyteMess
         bufferedWriter,
         serDeProvider.getSerializer(protocolVersion).orElseThrow(),
         migratorFactory.getAirbyteMessageMigrator(protocolVersion),
-        configuredAirbyteCatalog);
+        configuredAirbyteCatalog,
+        // Records read from the source are in the most recent version, they can only be forwarded as-is
+        // if the destination speaks the same version.
+        needMigration ? RawRecordPassthrough.DISABLED : rawRecordPassthrough);
   }
 
 }
@@ -7,6 +7,7 @@ package io.airbyte.workers.internal;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Utf8;
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.commons.logging.MdcScope;
 import io.airbyte.commons.protocol.AirbyteMessageMigrator;
@@ -22,6 +23,7 @@ import io.airbyte.commons.protocol.serde.AirbyteMessageV1Serializer;
 import io.airbyte.commons.version.AirbyteProtocolVersion;
 import io.airbyte.commons.version.Version;
 import io.airbyte.metrics.lib.MetricClientFactory;
+import io.airbyte.metrics.lib.MetricHistogram;
 import io.airbyte.metrics.lib.OssMetricsRegistry;
 import io.airbyte.protocol.models.AirbyteLogMessage;
 import io.airbyte.protocol.models.AirbyteMessage;
@@ -85,8 +87,11 @@ public class VersionedAirbyteStreamFactory<T> implements AirbyteStreamFactory {
   private AirbyteMessageDeserializer<AirbyteMessage> deserializer;
   private AirbyteMessageVersionedMigrator<AirbyteMessage> migrator;
   private Version protocolVersion;
+  private boolean needMigration;
 
   private boolean shouldDetectVersion = false;
+  private RawRecordPassthrough rawRecordPassthrough = RawRecordPassthrough.DISABLED;
+  private boolean deferRecordData = false;
 
   private final boolean failTooLongRecords;
 
@@ -182,7 +187,6 @@ public class VersionedAirbyteStreamFactory<T> implements AirbyteStreamFactory {
   @Override
   public Stream<AirbyteMessage> create(final BufferedReader bufferedReader) {
     detectAndInitialiseMigrators(bufferedReader);
-    final boolean needMigration = !protocolVersion.getMajorVersion().equals(migratorFactory.getMostRecentVersion().getMajorVersion());
     logger.info(
         "Reading messages from protocol version {}{}",
         protocolVersion.serialize(),
@@ -211,14 +215,16 @@ public class VersionedAirbyteStreamFactory<T> implements AirbyteStreamFactory {
   }
 
   private Stream<AirbyteMessage> addLineReadLogic(final BufferedReader bufferedReader) {
-    final var metricClient = MetricClientFactory.getMetricClient();
+    final MetricHistogram histogram = MetricClientFactory.getMetricClient().histogram(OssMetricsRegistry.JSON_STRING_LENGTH);
+    // mocked clients return no handle
+    final MetricHistogram jsonStringLength = histogram != null ? histogram : MetricHistogram.NO_OP;
     return bufferedReader
         .lines()
         .peek(str -> {
-          metricClient.distribution(OssMetricsRegistry.JSON_STRING_LENGTH, str.getBytes(StandardCharsets.UTF_8).length);
+          final long messageSize = utf8Length(str);
+          jsonStringLength.record(messageSize);
 
           if (exceptionClass.isPresent()) {
-            final long messageSize = str.getBytes(StandardCharsets.UTF_8).length;
             if (messageSize > maxMemory * MAX_SIZE_RATIO) {
               final String errorMessage = String.format(
                   "Airbyte has received a message at %s UTC which is larger than %s (size: %s). "
@@ -288,10 +294,30 @@ public class VersionedAirbyteStreamFactory<T> implements AirbyteStreamFactory {
     return this;
   }
 
+  /**
+   * Keep the original lines of the records read so that they can be forwarded as-is to the
+   * destination. Lines are only kept if the messages do not need to be upgraded.
+   */
+  public VersionedAirbyteStreamFactory<T> withRawRecordPassthrough(final RawRecordPassthrough rawRecordPassthrough) {
+    this.rawRecordPassthrough = rawRecordPassthrough;
+    return this;
+  }
+
+  /**
+   * Only parse the envelope of the records read and defer the deserialization of their data until
+   * something needs it, see {@link LazyAirbyteRecordMessage}. Only applies to messages that do not
+   * need to be upgraded.
+   */
+  public VersionedAirbyteStreamFactory<T> withDeferredRecordData(final boolean deferRecordData) {
+    this.deferRecordData = deferRecordData;
+    return this;
+  }
+
   protected final void initializeForProtocolVersion(final Version protocolVersion) {
     this.deserializer = (AirbyteMessageDeserializer<AirbyteMessage>) serDeProvider.getDeserializer(protocolVersion).orElseThrow();
     this.migrator = migratorFactory.getAirbyteMessageMigrator(protocolVersion);
     this.protocolVersion = protocolVersion;
+    this.needMigration = !protocolVersion.getMajorVersion().equals(migratorFactory.getMostRecentVersion().getMajorVersion());
   }
 
   protected boolean filterLog(final AirbyteMessage message) {
@@ -318,6 +344,18 @@ public class VersionedAirbyteStreamFactory<T> implements AirbyteStreamFactory {
     }
   }
 
+  /**
+   * Measures the UTF-8 size of a line without copying it into a byte array.
+   */
+  private static long utf8Length(final String line) {
+    try {
+      return Utf8.encodedLength(line);
+    } catch (final IllegalArgumentException e) {
+      // Unpaired surrogates, getBytes replaces them rather than failing.
+      return line.getBytes(StandardCharsets.UTF_8).length;
+    }
+  }
+
   // Human-readable byte size from
   // https://stackoverflow.com/questions/3758606/how-can-i-convert-byte-size-into-a-human-readable-format-in-java
   @SuppressWarnings("PMD.AvoidReassigningParameters")
@@ -336,7 +374,8 @@ public class VersionedAirbyteStreamFactory<T> implements AirbyteStreamFactory {
   /**
    * For every incoming message,
    * <p>
-   * 1. deserialize the incoming JSON string to {@link AirbyteMessage}.
+   * 1. deserialize the incoming JSON string to {@link AirbyteMessage}, possibly deferring the
+   * deserialization of the record data.
    * <p>
    * 2. validate the message.
    * <p>
@@ -344,7 +383,7 @@ public class VersionedAirbyteStreamFactory<T> implements AirbyteStreamFactory {
    */
   protected Stream<AirbyteMessage> toAirbyteMessage(final String line) {
     // put back the deserializer.
-    Optional<AirbyteMessage> m = deserializer.deserialize(line);
+    Optional<AirbyteMessage> m = deserialize(line);
 
     if (m.isPresent()) {
       m = BasicAirbyteMessageValidator.validate(m.get());
@@ -354,6 +393,9 @@ public class VersionedAirbyteStreamFactory<T> implements AirbyteStreamFactory {
         return m.stream();
       }
 
+      if (!needMigration) {
+        rawRecordPassthrough.attach(m.get(), line);
+      }
       return upgradeMessage(m.get());
     }
 
@@ -391,6 +433,16 @@ public class VersionedAirbyteStreamFactory<T> implements AirbyteStreamFactory {
     return m.stream();
   }
 
+  private Optional<AirbyteMessage> deserialize(final String line) {
+    if (deferRecordData && !needMigration) {
+      final Optional<AirbyteMessage> record = RecordEnvelopeParser.tryParseRecord(line);
+      if (record.isPresent()) {
+        return record;
+      }
+    }
+    return deserializer.deserialize(line);
+  }
+
   private void throwExceptionClass(final String message) {
     try {
       throw exceptionClass.get().getConstructor(String.class)
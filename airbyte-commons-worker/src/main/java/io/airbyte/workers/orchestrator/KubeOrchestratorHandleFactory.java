@@ -121,7 +121,8 @@ public class KubeOrchestratorHandleFactory implements OrchestratorHandleFactory
         containerOrchestratorConfig.containerOrchestratorImagePullPolicy(),
         containerOrchestratorConfig.googleApplicationCredentials(),
         containerOrchestratorConfig.workerEnvironment(),
-        containerOrchestratorConfig.serviceAccount());
+        containerOrchestratorConfig.serviceAccount(),
+        containerOrchestratorConfig.statusTracker());
   }
 
 }
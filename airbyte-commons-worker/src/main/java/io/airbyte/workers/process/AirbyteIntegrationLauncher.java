@@ -62,6 +62,12 @@ public class AirbyteIntegrationLauncher implements IntegrationLauncher {
       .withMemoryLimit(configs.getSidecarKubeMemoryLimit()).withMemoryRequest(configs.getSidecarMemoryRequest())
       .withCpuLimit("2").withCpuRequest("0.25");
 
+  // The stdio relay replaces the socat containers of a pod with a single JVM.
+  @VisibleForTesting
+  static final ResourceRequirements STDIO_RELAY_RESOURCES = new ResourceRequirements()
+      .withMemoryLimit(configs.getStdioRelayKubeMemoryLimit()).withMemoryRequest(configs.getStdioRelayKubeMemoryRequest())
+      .withCpuLimit(configs.getStdioRelayKubeCpuLimit()).withCpuRequest(configs.getStdioRelayKubeCpuRequest());
+
   private static final String CONFIG = "--config";
 
   private final String jobId;
@@ -306,14 +312,16 @@ public class AirbyteIntegrationLauncher implements IntegrationLauncher {
           syncResourceReqs.getHeartbeat(),
           syncResourceReqs.getDestinationStdErr(),
           syncResourceReqs.getDestinationStdIn(),
-          syncResourceReqs.getDestinationStdOut());
+          syncResourceReqs.getDestinationStdOut(),
+          STDIO_RELAY_RESOURCES);
     } else {
       return new ConnectorResourceRequirements(
           resourceRequirements,
           DEFAULT_SIDECAR_RESOURCES,
           LOW_SOCAT_RESOURCES,
           DEFAULT_SOCAT_RESOURCES,
-          DEFAULT_SOCAT_RESOURCES);
+          DEFAULT_SOCAT_RESOURCES,
+          STDIO_RELAY_RESOURCES);
     }
   }
 
@@ -327,7 +335,8 @@ public class AirbyteIntegrationLauncher implements IntegrationLauncher {
         DEFAULT_SIDECAR_RESOURCES,
         LOW_SOCAT_RESOURCES,
         DEFAULT_SOCAT_RESOURCES,
-        DEFAULT_SOCAT_RESOURCES);
+        DEFAULT_SOCAT_RESOURCES,
+        STDIO_RELAY_RESOURCES);
   }
 
   private static ConnectorResourceRequirements buildSourceConnectorResourceRequirements(final ResourceRequirements resourceRequirements,
@@ -340,14 +349,16 @@ public class AirbyteIntegrationLauncher implements IntegrationLauncher {
           // Req is null because we do create a StdIn container for sources.
           // This needs to be updated if we were to add one.
           null,
-          syncResourceRequirements.getSourceStdOut());
+          syncResourceRequirements.getSourceStdOut(),
+          STDIO_RELAY_RESOURCES);
     } else {
       return new ConnectorResourceRequirements(
           resourceRequirements,
           DEFAULT_SIDECAR_RESOURCES,
           LOW_SOCAT_RESOURCES,
           DEFAULT_SOCAT_RESOURCES,
-          DEFAULT_SOCAT_RESOURCES);
+          DEFAULT_SOCAT_RESOURCES,
+          STDIO_RELAY_RESOURCES);
     }
   }
 
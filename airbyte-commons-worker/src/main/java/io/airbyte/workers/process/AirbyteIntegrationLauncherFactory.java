@@ -11,6 +11,7 @@ import io.airbyte.commons.protocol.AirbyteProtocolVersionedMigratorFactory;
 import io.airbyte.commons.protocol.VersionedProtocolSerializer;
 import io.airbyte.config.SyncResourceRequirements;
 import io.airbyte.featureflag.Connection;
+import io.airbyte.featureflag.DeferRecordDataDeserialization;
 import io.airbyte.featureflag.FailSyncIfTooBig;
 import io.airbyte.featureflag.FeatureFlagClient;
 import io.airbyte.featureflag.Multi;
@@ -19,10 +20,10 @@ import io.airbyte.persistence.job.models.IntegrationLauncherConfig;
 import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
 import io.airbyte.workers.internal.AirbyteDestination;
 import io.airbyte.workers.internal.AirbyteSource;
-import io.airbyte.workers.internal.AirbyteStreamFactory;
 import io.airbyte.workers.internal.DefaultAirbyteDestination;
 import io.airbyte.workers.internal.DefaultAirbyteSource;
 import io.airbyte.workers.internal.HeartbeatMonitor;
+import io.airbyte.workers.internal.RawRecordPassthrough;
 import io.airbyte.workers.internal.VersionedAirbyteMessageBufferedWriterFactory;
 import io.airbyte.workers.internal.VersionedAirbyteStreamFactory;
 import io.airbyte.workers.internal.exception.DestinationException;
@@ -95,16 +96,37 @@ public class AirbyteIntegrationLauncherFactory {
                                            final SyncResourceRequirements syncResourceRequirements,
                                            final ConfiguredAirbyteCatalog configuredAirbyteCatalog,
                                            final HeartbeatMonitor heartbeatMonitor) {
+    return createAirbyteSource(sourceLauncherConfig, syncResourceRequirements, configuredAirbyteCatalog, heartbeatMonitor,
+        RawRecordPassthrough.DISABLED);
+  }
+
+  /**
+   * Create an AirbyteSource from a given configuration. *
+   *
+   * @param sourceLauncherConfig the configuration of the source.
+   * @param configuredAirbyteCatalog the configuredAirbyteCatalog of the Connection the source.
+   * @param heartbeatMonitor an instance of HeartbeatMonitor to use for the AirbyteSource.
+   * @param rawRecordPassthrough where to keep the original lines of the records read.
+   * @return an AirbyteSource.
+   */
+  public AirbyteSource createAirbyteSource(final IntegrationLauncherConfig sourceLauncherConfig,
+                                           final SyncResourceRequirements syncResourceRequirements,
+                                           final ConfiguredAirbyteCatalog configuredAirbyteCatalog,
+                                           final HeartbeatMonitor heartbeatMonitor,
+                                           final RawRecordPassthrough rawRecordPassthrough) {
     final IntegrationLauncher sourceLauncher = createIntegrationLauncher(sourceLauncherConfig, syncResourceRequirements);
 
-    final boolean failTooLongRecords = featureFlagClient.boolVariation(FailSyncIfTooBig.INSTANCE,
-        new Multi(List.of(
-            new Connection(sourceLauncherConfig.getConnectionId()),
-            new Workspace(sourceLauncherConfig.getWorkspaceId()))));
+    final Multi flagContext = new Multi(List.of(
+        new Connection(sourceLauncherConfig.getConnectionId()),
+        new Workspace(sourceLauncherConfig.getWorkspaceId())));
+    final boolean failTooLongRecords = featureFlagClient.boolVariation(FailSyncIfTooBig.INSTANCE, flagContext);
+    final boolean deferRecordData = featureFlagClient.boolVariation(DeferRecordDataDeserialization.INSTANCE, flagContext);
 
     return new DefaultAirbyteSource(sourceLauncher,
         getStreamFactory(sourceLauncherConfig, configuredAirbyteCatalog, SourceException.class, DefaultAirbyteSource.CONTAINER_LOG_MDC_BUILDER,
-            failTooLongRecords),
+            failTooLongRecords)
+                .withRawRecordPassthrough(rawRecordPassthrough)
+                .withDeferredRecordData(deferRecordData),
         heartbeatMonitor,
         getProtocolSerializer(sourceLauncherConfig),
         featureFlags);
@@ -120,12 +142,27 @@ public class AirbyteIntegrationLauncherFactory {
   public AirbyteDestination createAirbyteDestination(final IntegrationLauncherConfig destinationLauncherConfig,
                                                      final SyncResourceRequirements syncResourceRequirements,
                                                      final ConfiguredAirbyteCatalog configuredAirbyteCatalog) {
+    return createAirbyteDestination(destinationLauncherConfig, syncResourceRequirements, configuredAirbyteCatalog, RawRecordPassthrough.DISABLED);
+  }
+
+  /**
+   * Create an AirbyteDestination from a given configuration.
+   *
+   * @param destinationLauncherConfig the configuration of the destination.
+   * @param configuredAirbyteCatalog the configuredAirbyteCatalog of the Connection the destination.
+   * @param rawRecordPassthrough where to look up the original lines of the records to write.
+   * @return an AirbyteDestination.
+   */
+  public AirbyteDestination createAirbyteDestination(final IntegrationLauncherConfig destinationLauncherConfig,
+                                                     final SyncResourceRequirements syncResourceRequirements,
+                                                     final ConfiguredAirbyteCatalog configuredAirbyteCatalog,
+                                                     final RawRecordPassthrough rawRecordPassthrough) {
     final IntegrationLauncher destinationLauncher = createIntegrationLauncher(destinationLauncherConfig, syncResourceRequirements);
     return new DefaultAirbyteDestination(destinationLauncher,
         getStreamFactory(destinationLauncherConfig, configuredAirbyteCatalog, DestinationException.class,
             DefaultAirbyteDestination.CONTAINER_LOG_MDC_BUILDER, false),
         new VersionedAirbyteMessageBufferedWriterFactory(serDeProvider, migratorFactory, destinationLauncherConfig.getProtocolVersion(),
-            Optional.of(configuredAirbyteCatalog)),
+            Optional.of(configuredAirbyteCatalog), rawRecordPassthrough),
         getProtocolSerializer(destinationLauncherConfig));
   }
 
@@ -133,7 +170,7 @@ public class AirbyteIntegrationLauncherFactory {
     return migratorFactory.getProtocolSerializer(launcherConfig.getProtocolVersion());
   }
 
-  private AirbyteStreamFactory getStreamFactory(final IntegrationLauncherConfig launcherConfig,
+  private VersionedAirbyteStreamFactory<?> getStreamFactory(final IntegrationLauncherConfig launcherConfig,
                                                 final ConfiguredAirbyteCatalog configuredAirbyteCatalog,
                                                 final Class<? extends RuntimeException> exceptionClass,
                                                 final MdcScope.Builder mdcScopeBuilder,
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.process;
+
+/**
+ * Status of an async orchestrator pod, stored as a single document which the pod overwrites every
+ * time its status changes.
+ *
+ * @param status status of the pod
+ * @param sequence incremented by every write of the document, so that readers can order them
+ * @param output output of the pod once it succeeded, null otherwise
+ */
+public record AsyncKubePodStatusDocument(AsyncKubePodStatus status, long sequence, String output) {
+
+  private static final String STATUS_DOCUMENT_NAME = "STATUS";
+
+  /**
+   * IMPORTANT: Changing the storage location will orphan already existing kube pods when the new
+   * version is deployed.
+   *
+   * @param kubePodInfo pod of the status
+   * @return id of the status document of the pod
+   */
+  public static String getDocumentStoreKey(final KubePodInfo kubePodInfo) {
+    return kubePodInfo.namespace() + "/" + kubePodInfo.name() + "/" + STATUS_DOCUMENT_NAME;
+  }
+
+}
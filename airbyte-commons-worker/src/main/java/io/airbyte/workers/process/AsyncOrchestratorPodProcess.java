@@ -4,11 +4,11 @@
 
 package io.airbyte.workers.process;
 
-import io.airbyte.commons.io.IOs;
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.config.ResourceRequirements;
 import io.airbyte.config.helpers.LogClientSingleton;
 import io.airbyte.workers.storage.DocumentStoreClient;
+import io.airbyte.workers.storage.DocumentStoreClient.VersionedDocument;
 import io.fabric8.kubernetes.api.model.ContainerBuilder;
 import io.fabric8.kubernetes.api.model.ContainerPort;
 import io.fabric8.kubernetes.api.model.DeletionPropagation;
@@ -30,15 +30,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
-import java.nio.file.Path;
-import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -60,7 +63,18 @@ public class AsyncOrchestratorPodProcess implements KubePod {
   public static final String NO_OP = "NO_OP";
   // TODO Ths frequency should be configured and injected rather hard coded here.
   public static final long JOB_STATUS_POLLING_FREQUENCY_IN_MILLIS = 5000;
+  // When the pod terminations are tracked, the document store is only polled in case a termination
+  // is missed, e.g. while the pod informer reconnects.
+  public static final long TRACKED_JOB_STATUS_POLLING_FREQUENCY_IN_MILLIS = 60000;
   private static final String JAVA_OOM_EXCEPTION_STRING = "java.lang.OutOfMemoryError";
+  private static final List<AsyncKubePodStatus> STATUS_CHECK_ORDER = List.of(
+      // terminal states first
+      AsyncKubePodStatus.FAILED,
+      AsyncKubePodStatus.SUCCEEDED,
+      // then check in progress state
+      AsyncKubePodStatus.RUNNING,
+      // then check for initialization state
+      AsyncKubePodStatus.INITIALIZING);
 
   private final KubePodInfo kubePodInfo;
   private final DocumentStoreClient documentStoreClient;
@@ -71,11 +85,14 @@ public class AsyncOrchestratorPodProcess implements KubePod {
   private final String dataPlaneCredsSecretName;
   private final String dataPlaneCredsSecretMountPath;
   private final AtomicReference<Optional<Integer>> cachedExitValue;
+  // latest status document read, so that polling only downloads it again once it changed
+  private final AtomicReference<VersionedDocument> cachedStatusDocument = new AtomicReference<>();
   private final Map<String, String> environmentVariables;
   private final Map<String, String> annotations;
   private final Integer serverPort;
   private final String serviceAccount;
   private final String schedulerName;
+  private final AsyncOrchestratorStatusTracker statusTracker;
 
   public AsyncOrchestratorPodProcess(
                                      final KubePodInfo kubePodInfo,
@@ -90,7 +107,8 @@ public class AsyncOrchestratorPodProcess implements KubePod {
                                      final Map<String, String> annotations,
                                      final Integer serverPort,
                                      final String serviceAccount,
-                                     final String schedulerName) {
+                                     final String schedulerName,
+                                     final AsyncOrchestratorStatusTracker statusTracker) {
     this.kubePodInfo = kubePodInfo;
     this.documentStoreClient = documentStoreClient;
     this.kubernetesClient = kubernetesClient;
@@ -105,6 +123,7 @@ public class AsyncOrchestratorPodProcess implements KubePod {
     this.serverPort = serverPort;
     this.serviceAccount = serviceAccount;
     this.schedulerName = schedulerName;
+    this.statusTracker = statusTracker;
   }
 
   /**
@@ -113,7 +132,10 @@ public class AsyncOrchestratorPodProcess implements KubePod {
    * @return output, if exists.
    */
   public Optional<String> getOutput() {
-    final var possibleOutput = getDocument(AsyncKubePodStatus.SUCCEEDED.name());
+    final Optional<AsyncKubePodStatusDocument> statusDocument = getStatusDocument();
+    final var possibleOutput = statusDocument.isPresent()
+        ? statusDocument.filter(document -> document.status() == AsyncKubePodStatus.SUCCEEDED).map(AsyncKubePodStatusDocument::output)
+        : getDocument(AsyncKubePodStatus.SUCCEEDED.name());
 
     if (possibleOutput.isPresent() && possibleOutput.get().isBlank()) {
       return Optional.empty();
@@ -259,7 +281,8 @@ public class AsyncOrchestratorPodProcess implements KubePod {
   }
 
   /**
-   * Wait for pod process to complete.
+   * Wait for pod process to complete. If a status tracker is provided, the status is read as soon
+   * as the pod terminates, otherwise it is polled.
    *
    * @param timeout timeout magnitude
    * @param unit timeout unit
@@ -277,24 +300,50 @@ public class AsyncOrchestratorPodProcess implements KubePod {
     }
 
     final long deadline = System.nanoTime() + remainingNanos;
-    do {
-      // The remainingNanos bit is about calculating how much time left for the actual timeout.
-      // Most of the time we should be sleeping for 500ms except when we get to the actual timeout.
-      // We are waiting polling every 5000ms for status. The trade-off here is between how often
-      // we poll our status storage (GCS) and how reactive we are to detect that a process is done.
-      // Setting the polling time bellow 5000ms is putting us at risk of increasing the load on the
-      // kubeApi which might
-      // lead to 429 errors
-      Thread.sleep(Math.min(TimeUnit.NANOSECONDS.toMillis(remainingNanos) + 1, JOB_STATUS_POLLING_FREQUENCY_IN_MILLIS));
-      if (hasExited()) {
-        return true;
+    final CompletableFuture<Void> termination = statusTracker == null ? null : statusTracker.onTermination(getInfo().name());
+    try {
+      do {
+        // The remainingNanos bit is about calculating how much time left for the actual timeout.
+        // Without a status tracker, we are polling every 5000ms for status. The trade-off here is
+        // between how often we poll our status storage (GCS) and how reactive we are to detect that a
+        // process is done. Setting the polling time bellow 5000ms is putting us at risk of increasing
+        // the load on the kubeApi which might lead to 429 errors
+        final long waitMillis = TimeUnit.NANOSECONDS.toMillis(remainingNanos) + 1;
+        if (statusTracker == null) {
+          Thread.sleep(Math.min(waitMillis, JOB_STATUS_POLLING_FREQUENCY_IN_MILLIS));
+        } else {
+          awaitTermination(termination, Math.min(waitMillis, TRACKED_JOB_STATUS_POLLING_FREQUENCY_IN_MILLIS));
+        }
+        if (hasExited()) {
+          return true;
+        }
+        remainingNanos = deadline - System.nanoTime();
+      } while (remainingNanos > 0);
+    } finally {
+      if (statusTracker != null) {
+        statusTracker.untrack(getInfo().name(), termination);
       }
-      remainingNanos = deadline - System.nanoTime();
-    } while (remainingNanos > 0);
+    }
 
     return false;
   }
 
+  private void awaitTermination(final CompletableFuture<Void> termination, final long timeoutMillis) throws InterruptedException {
+    if (termination.isDone()) {
+      // the pod terminated before its status was readable, poll it
+      Thread.sleep(Math.min(timeoutMillis, JOB_STATUS_POLLING_FREQUENCY_IN_MILLIS));
+      return;
+    }
+    try {
+      termination.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (final TimeoutException e) {
+      // poll the status in case the termination was missed
+    } catch (final ExecutionException e) {
+      log.warn("Failed to track the termination of orchestrator pod {}", getInfo().name(), e);
+      Thread.sleep(Math.min(timeoutMillis, JOB_STATUS_POLLING_FREQUENCY_IN_MILLIS));
+    }
+  }
+
   @Override
   public int waitFor() throws InterruptedException {
     final boolean exited = waitFor(10, TimeUnit.DAYS);
@@ -365,27 +414,41 @@ public class AsyncOrchestratorPodProcess implements KubePod {
     return documentStoreClient.read(getInfo().namespace() + "/" + getInfo().name() + "/" + key);
   }
 
-  private boolean checkStatus(final AsyncKubePodStatus status) {
-    return getDocument(status.name()).isPresent();
-  }
-
   /**
-   * Checks terminal states first, then running, then initialized. Defaults to not started.
+   * Read the status of the pod from its status document, with a single read.
    * <p>
-   * The order matters here!
+   * Pods started by previous versions write one document per status instead. For them, checks
+   * terminal states first, then running, then initialized. Defaults to not started. The order
+   * matters here! These status documents are listed in a single request.
    */
   public AsyncKubePodStatus getDocStoreStatus() {
-    if (checkStatus(AsyncKubePodStatus.FAILED)) {
-      return AsyncKubePodStatus.FAILED;
-    } else if (checkStatus(AsyncKubePodStatus.SUCCEEDED)) {
-      return AsyncKubePodStatus.SUCCEEDED;
-    } else if (checkStatus(AsyncKubePodStatus.RUNNING)) {
-      return AsyncKubePodStatus.RUNNING;
-    } else if (checkStatus(AsyncKubePodStatus.INITIALIZING)) {
-      return AsyncKubePodStatus.INITIALIZING;
-    } else {
-      return AsyncKubePodStatus.NOT_STARTED;
+    final Optional<AsyncKubePodStatusDocument> statusDocument = getStatusDocument();
+    if (statusDocument.isPresent()) {
+      return statusDocument.get().status();
     }
+
+    final String prefix = getInfo().namespace() + "/" + getInfo().name() + "/";
+    final Set<String> statuses = documentStoreClient.list(prefix).stream()
+        .map(id -> id.substring(prefix.length()))
+        .collect(Collectors.toSet());
+    return STATUS_CHECK_ORDER.stream()
+        .filter(status -> statuses.contains(status.name()))
+        .findFirst()
+        .orElse(AsyncKubePodStatus.NOT_STARTED);
+  }
+
+  /**
+   * Read the status document of the pod. It is only downloaded again once it changed since the
+   * previous read.
+   */
+  private Optional<AsyncKubePodStatusDocument> getStatusDocument() {
+    final VersionedDocument cached = cachedStatusDocument.get();
+    final Optional<VersionedDocument> changed = documentStoreClient.readIfNoneMatch(
+        AsyncKubePodStatusDocument.getDocumentStoreKey(getInfo()),
+        cached == null ? null : cached.version());
+    changed.ifPresent(cachedStatusDocument::set);
+    return changed.or(() -> Optional.ofNullable(cached))
+        .map(document -> Jsons.deserialize(document.document(), AsyncKubePodStatusDocument.class));
   }
 
   /**
@@ -552,46 +615,15 @@ public class AsyncOrchestratorPodProcess implements KubePod {
   }
 
   private static void copyFilesToKubeConfigVolumeMain(final Pod podDefinition, final Map<String, String> files) {
-    final List<Map.Entry<String, String>> fileEntries = new ArrayList<>(files.entrySet());
-
-    // copy this file last to indicate that the copy has completed
-    fileEntries.add(new AbstractMap.SimpleEntry<>(KubePodProcess.SUCCESS_FILE_NAME, ""));
-
-    Path tmpFile = null;
-    Process proc = null;
-    for (final Map.Entry<String, String> file : fileEntries) {
-      try {
-        tmpFile = Path.of(IOs.writeFileToRandomTmpDir(file.getKey(), file.getValue()));
-
-        log.info("Uploading file: " + file.getKey());
-        final var containerPath = Path.of(KubePodProcess.CONFIG_DIR + "/" + file.getKey());
-
-        // using kubectl cp directly here, because both fabric and the official kube client APIs have
-        // several issues with copying files. See https://github.com/airbytehq/airbyte/issues/8643 for
-        // details.
-        final String command = String.format("kubectl cp %s %s/%s:%s -c %s", tmpFile, podDefinition.getMetadata().getNamespace(),
-            podDefinition.getMetadata().getName(), containerPath, KubePodProcess.INIT_CONTAINER_NAME);
-        log.info(command);
-
-        proc = Runtime.getRuntime().exec(command);
-        log.info("Waiting for kubectl cp to complete");
-        final int exitCode = proc.waitFor();
-
-        if (exitCode != 0) {
-          throw new IOException("kubectl cp failed with exit code " + exitCode);
-        }
-
-        log.info("kubectl cp complete, closing process");
-      } catch (final IOException | InterruptedException e) {
-        throw new RuntimeException(e);
-      } finally {
-        if (tmpFile != null) {
-          tmpFile.toFile().delete();
-        }
-        if (proc != null) {
-          proc.destroy();
-        }
+    try {
+      final int exitCode = new KubeConfigFileTransfer()
+          .transfer(podDefinition, KubePodProcess.INIT_CONTAINER_NAME, KubePodProcess.CONFIG_DIR, files, KubePodProcess.SUCCESS_FILE_NAME);
+      if (exitCode != 0) {
+        throw new IOException("Config file transfer failed with exit code " + exitCode);
       }
+      log.info("Config file transfer complete");
+    } catch (final IOException | InterruptedException e) {
+      throw new RuntimeException(e);
     }
   }
 
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.process;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks the orchestrator pods of a namespace with a single pod informer, so that the processes
+ * waiting for them are notified as soon as they terminate instead of polling the document store.
+ * <p>
+ * Orchestrator pods write their status to the document store before they terminate, so a pod
+ * termination is the signal to read its status. The informer is only started when the first pod is
+ * tracked.
+ */
+@Slf4j
+public class AsyncOrchestratorStatusTracker implements AutoCloseable {
+
+  private final KubernetesClient kubernetesClient;
+  private final String namespace;
+  private final Map<String, Termination> terminations = new ConcurrentHashMap<>();
+  private SharedIndexInformer<Pod> podInformer;
+
+  /**
+   * Termination of a pod, shared by its waiters. The waiters are only counted within
+   * {@link ConcurrentHashMap#compute}, which locks the pod of the termination.
+   */
+  private static final class Termination {
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private int waiters;
+
+  }
+
+  public AsyncOrchestratorStatusTracker(final KubernetesClient kubernetesClient, final String namespace) {
+    this.kubernetesClient = kubernetesClient;
+    this.namespace = namespace;
+  }
+
+  /**
+   * Get a future completed once the pod terminates or is deleted. The future is shared by every
+   * waiter of the pod and is completed right away if the pod is known to be terminated already.
+   * Every waiter must {@link #untrack} the pod once it stops waiting for it.
+   *
+   * @param podName name of the orchestrator pod
+   * @return future completed on the termination of the pod
+   */
+  public CompletableFuture<Void> onTermination(final String podName) {
+    final SharedIndexInformer<Pod> informer = getPodInformer();
+    final Termination termination = terminations.compute(podName, (name, tracked) -> {
+      final Termination waited = tracked == null ? new Termination() : tracked;
+      waited.waiters++;
+      return waited;
+    });
+
+    // the pod may have terminated before it was tracked
+    final Pod pod = informer.getStore().getByKey(namespace + "/" + podName);
+    if (pod != null && KubePodResourceHelper.isTerminal(pod)) {
+      onPodTerminated(podName);
+    }
+    return termination.future;
+  }
+
+  /**
+   * Stop waiting for a pod. The pod is no longer tracked once none of the waiters of its termination
+   * waits for it anymore, the termination of a pod which terminated already isn't tracked anymore.
+   *
+   * @param podName name of the orchestrator pod
+   * @param termination future returned by {@link #onTermination} to the waiter
+   */
+  public void untrack(final String podName, final CompletableFuture<Void> termination) {
+    terminations.computeIfPresent(podName, (name, tracked) -> tracked.future == termination && --tracked.waiters == 0 ? null : tracked);
+  }
+
+  @Override
+  public synchronized void close() {
+    if (podInformer != null) {
+      podInformer.close();
+      podInformer = null;
+    }
+  }
+
+  private synchronized SharedIndexInformer<Pod> getPodInformer() {
+    if (podInformer == null) {
+      log.info("Starting the orchestrator pod informer of namespace {}", namespace);
+      podInformer = kubernetesClient.pods()
+          .inNamespace(namespace)
+          .withLabelIn(Metadata.SYNC_STEP_KEY,
+              Metadata.ORCHESTRATOR_REPLICATION_STEP,
+              Metadata.ORCHESTRATOR_NORMALIZATION_STEP,
+              Metadata.ORCHESTRATOR_DBT_NORMALIZATION_STEP)
+          .inform(new TerminationHandler());
+    }
+    return podInformer;
+  }
+
+  @VisibleForTesting
+  void onPodTerminated(final String podName) {
+    final Termination termination = terminations.remove(podName);
+    if (termination != null) {
+      log.info("Orchestrator pod {}/{} terminated", namespace, podName);
+      termination.future.complete(null);
+    }
+  }
+
+  /**
+   * Completes the terminations of the pods which reach a terminal state or are deleted.
+   */
+  @VisibleForTesting
+  class TerminationHandler implements ResourceEventHandler<Pod> {
+
+    @Override
+    public void onAdd(final Pod pod) {
+      onPodEvent(pod);
+    }
+
+    @Override
+    public void onUpdate(final Pod oldPod, final Pod newPod) {
+      onPodEvent(newPod);
+    }
+
+    @Override
+    public void onDelete(final Pod pod, final boolean deletedFinalStateUnknown) {
+      onPodTerminated(pod.getMetadata().getName());
+    }
+
+    private void onPodEvent(final Pod pod) {
+      if (KubePodResourceHelper.isTerminal(pod)) {
+        onPodTerminated(pod.getMetadata().getName());
+      }
+    }
+
+  }
+
+}
@@ -19,11 +19,13 @@ import io.airbyte.config.ResourceRequirements;
  * @param stdErr resource requirements for the stderr container if applicable
  * @param stdIn resource requirements for the stdin container if applicable
  * @param stdOut resource requirements for the stdout container if applicable
+ * @param stdioRelay resource requirements for the stdio relay container if applicable
  */
 public record ConnectorResourceRequirements(ResourceRequirements main,
                                             ResourceRequirements heartbeat,
                                             ResourceRequirements stdErr,
                                             ResourceRequirements stdIn,
-                                            ResourceRequirements stdOut) {
+                                            ResourceRequirements stdOut,
+                                            ResourceRequirements stdioRelay) {
 
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.process;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import io.fabric8.kubernetes.api.model.Pod;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+
+/**
+ * Transfers the config files of a pod to the config volume of one of its containers, usually the
+ * init container. The files are packed in a single tar stream, along with their checksums, and
+ * extracted by a single exec in the container. The files are only moved to the target directory
+ * once their checksums are verified, and the completion file is created last.
+ * <p>
+ * The exec is made by a {@link Transport}, kubectl by default.
+ */
+@Slf4j
+public class KubeConfigFileTransfer {
+
+  @VisibleForTesting
+  static final String CHECKSUMS_FILE_NAME = "CHECKSUMS";
+  @VisibleForTesting
+  static final int CHECKSUM_MISMATCH_EXIT_CODE = 3;
+  private static final String STAGING_DIR_NAME = ".transfer";
+
+  /**
+   * Runs a shell command in a container of a pod, writing the given input to its stdin.
+   */
+  @FunctionalInterface
+  public interface Transport {
+
+    /**
+     * Run the command and wait for it to complete.
+     *
+     * @return exit code of the command
+     */
+    int exec(Pod pod, String containerName, String command, InputStream stdin) throws IOException, InterruptedException;
+
+  }
+
+  private final Transport transport;
+
+  public KubeConfigFileTransfer() {
+    this(new KubectlExecTransport());
+  }
+
+  public KubeConfigFileTransfer(final Transport transport) {
+    this.transport = transport;
+  }
+
+  /**
+   * Transfer the files to the target directory of the container.
+   *
+   * @param pod pod to copy to
+   * @param containerName container of the pod to copy to
+   * @param targetDir directory of the container to copy the files to
+   * @param files contents of the files to copy, by file name
+   * @param completionFileName empty file created once every file is copied
+   * @return exit code of the exec, 0 if the files were copied
+   * @throws IOException if the copied files don't match their checksums or the exec fails to run
+   */
+  public int transfer(final Pod pod,
+                      final String containerName,
+                      final String targetDir,
+                      final Map<String, String> files,
+                      final String completionFileName)
+      throws IOException, InterruptedException {
+    final byte[] archive = pack(files);
+    log.info("Uploading {} files ({} bytes) to {}/{}:{}", files.size(), archive.length, pod.getMetadata().getNamespace(),
+        pod.getMetadata().getName(), targetDir);
+
+    final int exitCode = transport.exec(pod, containerName, unpackCommand(targetDir, completionFileName), new ByteArrayInputStream(archive));
+    if (exitCode == CHECKSUM_MISMATCH_EXIT_CODE) {
+      throw new IOException("Config files copied to " + pod.getMetadata().getName() + " don't match their checksums");
+    }
+    return exitCode;
+  }
+
+  /**
+   * Pack the files and a checksums file, in the format of sha256sum, in a tar archive.
+   */
+  @VisibleForTesting
+  static byte[] pack(final Map<String, String> files) throws IOException {
+    final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+    final StringBuilder checksums = new StringBuilder();
+    try (final TarArchiveOutputStream tar = new TarArchiveOutputStream(archive)) {
+      tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+      for (final Map.Entry<String, String> file : files.entrySet()) {
+        final byte[] content = file.getValue().getBytes(StandardCharsets.UTF_8);
+        addEntry(tar, file.getKey(), content);
+        checksums.append(Hashing.sha256().hashBytes(content)).append("  ").append(file.getKey()).append('\n');
+      }
+      addEntry(tar, CHECKSUMS_FILE_NAME, checksums.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    return archive.toByteArray();
+  }
+
+  private static void addEntry(final TarArchiveOutputStream tar, final String name, final byte[] content) throws IOException {
+    final TarArchiveEntry entry = new TarArchiveEntry(name);
+    entry.setSize(content.length);
+    tar.putArchiveEntry(entry);
+    tar.write(content);
+    tar.closeArchiveEntry();
+  }
+
+  /**
+   * Shell command extracting the archive read from stdin to a staging directory, verifying the
+   * checksums of the files and moving them to the target directory.
+   */
+  @VisibleForTesting
+  static String unpackCommand(final String targetDir, final String completionFileName) {
+    final String stagingDir = targetDir + "/" + STAGING_DIR_NAME;
+    return String.format("""
+                         set -e
+                         rm -rf '%1$s' && mkdir -p '%1$s'
+                         tar -xf - -C '%1$s'
+                         cd '%1$s'
+                         sha256sum -c %2$s > /dev/null || exit %3$d
+                         rm %2$s
+                         for file in *; do if [ -e "$file" ]; then mv -f "$file" '%4$s/'; fi; done
+                         cd '%4$s' && rmdir '%1$s'
+                         touch '%4$s/%5$s'
+                         """,
+        stagingDir, CHECKSUMS_FILE_NAME, CHECKSUM_MISMATCH_EXIT_CODE, targetDir, completionFileName);
+  }
+
+  /**
+   * Runs the command with kubectl exec. Both fabric and the official kube client APIs have several
+   * issues with copying files, see https://github.com/airbytehq/airbyte/issues/8643 for details.
+   */
+  static class KubectlExecTransport implements Transport {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    @Override
+    public int exec(final Pod pod, final String containerName, final String command, final InputStream stdin)
+        throws IOException, InterruptedException {
+      return run(List.of("kubectl", "exec", "-i",
+          "-n", pod.getMetadata().getNamespace(), pod.getMetadata().getName(),
+          "-c", containerName,
+          "--", "sh", "-c", command), stdin, TIMEOUT);
+    }
+
+    /**
+     * Run the command, killing it if it does not complete in time. Its input is written by a separate
+     * thread, so that a command not reading it can't block past the timeout, and its output goes to a
+     * file rather than a pipe, so that waiting for it to complete is not blocked by reading its output.
+     */
+    @VisibleForTesting
+    static int run(final List<String> command, final InputStream stdin, final Duration timeout) throws IOException, InterruptedException {
+      final long deadline = System.nanoTime() + timeout.toNanos();
+      final Path output = Files.createTempFile("kubectl-exec", ".log");
+      final Process proc = new ProcessBuilder(command)
+          .redirectErrorStream(true)
+          .redirectOutput(output.toFile())
+          .start();
+      final AtomicReference<IOException> stdinFailure = new AtomicReference<>();
+      final Thread stdinWriter = new Thread(() -> {
+        try (final OutputStream procStdin = proc.getOutputStream()) {
+          stdin.transferTo(procStdin);
+        } catch (final IOException e) {
+          stdinFailure.set(e);
+        }
+      }, command.get(0) + "-stdin-writer");
+      stdinWriter.setDaemon(true);
+      stdinWriter.start();
+      try {
+        if (!proc.waitFor(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+          proc.destroyForcibly();
+          throw new IOException(command.get(0) + " did not complete within " + timeout);
+        }
+        // the writer is only left blocked if a child of the command still holds its stdin open
+        stdinWriter.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        if (stdinWriter.isAlive()) {
+          stdinFailure.compareAndSet(null, new IOException("input still not consumed"));
+        }
+        if (proc.exitValue() != 0) {
+          log.info("{} exited with code {}: {}", command.get(0), proc.exitValue(), Files.readString(output));
+        } else if (stdinFailure.get() != null) {
+          throw new IOException("Failed to write the input of " + command.get(0), stdinFailure.get());
+        }
+        return proc.exitValue();
+      } finally {
+        proc.destroy();
+        Files.deleteIfExists(output);
+      }
+    }
+
+  }
+
+}
@@ -4,7 +4,6 @@
 
 package io.airbyte.workers.process;
 
-import io.airbyte.commons.io.IOs;
 import io.airbyte.commons.lang.Exceptions;
 import io.airbyte.commons.list.Lists;
 import io.airbyte.commons.resources.MoreResources;
@@ -37,16 +36,14 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.PodResource;
 import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
 import io.fabric8.kubernetes.client.readiness.Readiness;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.ProcessHandle.Info;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.nio.file.Path;
 import java.time.Duration;
-import java.util.AbstractMap;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -57,7 +54,9 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
@@ -95,6 +94,11 @@ import org.slf4j.MDC;
  * <li>8) A heartbeat sidecar checks if the worker that launched the pod is still alive. If not, the
  * pod will fail.</li>
  * </ul>
+ * When given a stdio relay image, the socat sidecars of 4) are replaced by a single
+ * {@link StdioRelay} sidecar, which connects to the stdout port of the parent process and carries
+ * the three streams over that one {@link MultiplexedStdioConnection}. The stderr port is then
+ * unused.
+ * <p>
  * The docker image used for this pod process must expose a AIRBYTE_ENTRYPOINT which contains the
  * entrypoint we will wrap when creating the main container in the pod.
  * <p>
@@ -128,8 +132,22 @@ public class KubePodProcess implements KubePod {
   private static final String TERMINATION_FILE_CHECK = TERMINATION_DIR + "/check";
   public static final String SUCCESS_FILE_NAME = "FINISHED_UPLOADING";
 
+  private static final KubeConfigFileTransfer CONFIG_FILE_TRANSFER = new KubeConfigFileTransfer();
+
   private static final int STDIN_REMOTE_PORT = 9001;
 
+  /**
+   * Passed as the stderr port of pods using the multiplexed stdio transport, which only need one
+   * port.
+   */
+  public static final int UNUSED_PORT = -1;
+
+  private static final String STDIO_RELAY_CONTAINER_NAME = "stdio-relay";
+  // where airbyte application images, e.g. the container orchestrator, keep their libraries
+  private static final String STDIO_RELAY_CLASSPATH = "/app/airbyte-app/lib/*";
+  private static final long STDIO_RELAY_CONNECT_TIMEOUT_MINUTES = 5;
+  private static final String STDIO_RELAY_MAX_RAM_PERCENTAGE = "50.0";
+
   // 143 is the typical SIGTERM exit code.
   // Used when the process is destroyed and the exit code can't be retrieved.
   private static final int KILLED_EXIT_CODE = 143;
@@ -159,6 +177,7 @@ public class KubePodProcess implements KubePod {
   private final int stdoutLocalPort;
   private final ServerSocket stderrServerSocket;
   private final int stderrLocalPort;
+  private MultiplexedStdioConnection stdioConnection;
   private final ExecutorService executorService;
   private final CompletableFuture<Integer> exitCodeFuture;
   private final SharedIndexInformer<Pod> podInformer;
@@ -279,7 +298,7 @@ public class KubePodProcess implements KubePod {
   }
 
   /**
-   * Copy files to kube pod.
+   * Copy files to the config volume of the init container of a kube pod, in a single transfer.
    *
    * @param client kube client
    * @param podDefinition pod to copy to
@@ -288,57 +307,21 @@ public class KubePodProcess implements KubePod {
   public static void copyFilesToKubeConfigVolume(final KubernetesClient client,
                                                  final Pod podDefinition,
                                                  final Map<String, String> files) {
-    final List<Map.Entry<String, String>> fileEntries = new ArrayList<>(files.entrySet());
-
-    // copy this file last to indicate that the copy has completed
-    fileEntries.add(new AbstractMap.SimpleEntry<>(SUCCESS_FILE_NAME, ""));
-
-    Path tmpFile = null;
-    Process proc = null;
-    for (final Map.Entry<String, String> file : fileEntries) {
-      try {
-        tmpFile = Path.of(IOs.writeFileToRandomTmpDir(file.getKey(), file.getValue()));
-
-        LOGGER.info("Uploading file: " + file.getKey());
-        final var containerPath = Path.of(CONFIG_DIR + "/" + file.getKey());
-
-        // using kubectl cp directly here, because both fabric and the official kube client APIs have
-        // several issues with copying files. See https://github.com/airbytehq/airbyte/issues/8643 for
-        // details.
-        final String command = String.format("kubectl cp %s %s/%s:%s -c %s", tmpFile, podDefinition.getMetadata().getNamespace(),
-            podDefinition.getMetadata().getName(), containerPath, INIT_CONTAINER_NAME);
-        LOGGER.info(command);
-
-        proc = Runtime.getRuntime().exec(command);
-        LOGGER.info("Waiting for kubectl cp to complete");
-        final int exitCode = proc.waitFor();
-
-        if (exitCode != 0) {
-          // Copying the success indicator file to the init container causes the container to immediately
-          // exit, causing the `kubectl cp` command to exit with code 137. This check ensures that an error is
-          // not thrown in this case if the init container exits successfully.
-          if (SUCCESS_FILE_NAME.equals(file.getKey()) && waitForInitPodToTerminate(client, podDefinition, 5, TimeUnit.MINUTES) == 0) {
-            LOGGER.info("Init was successful; ignoring non-zero kubectl cp exit code for success indicator file.");
-          } else {
-            throw new IOException("kubectl cp failed with exit code " + exitCode);
-          }
-        }
-
-        LOGGER.info("kubectl cp complete, closing process");
-      } catch (final IOException | InterruptedException e) {
-        throw new RuntimeException(e);
-      } finally {
-        if (tmpFile != null) {
-          try {
-            tmpFile.toFile().delete();
-          } catch (final Exception e) {
-            LOGGER.info("Caught exception when deleting temp file but continuing to allow process deletion.", e);
-          }
-        }
-        if (proc != null) {
-          proc.destroy();
+    try {
+      final int exitCode = CONFIG_FILE_TRANSFER.transfer(podDefinition, INIT_CONTAINER_NAME, CONFIG_DIR, files, SUCCESS_FILE_NAME);
+      if (exitCode != 0) {
+        // Creating the success indicator file causes the init container to exit, which can kill the
+        // exec before it completes with exit code 137. This check ensures that an error is not thrown
+        // in this case if the init container exits successfully.
+        if (waitForInitPodToTerminate(client, podDefinition, 5, TimeUnit.MINUTES) == 0) {
+          LOGGER.info("Init was successful; ignoring non-zero config file transfer exit code.");
+        } else {
+          throw new IOException("Config file transfer failed with exit code " + exitCode);
         }
       }
+      LOGGER.info("Config file transfer complete");
+    } catch (final IOException | InterruptedException e) {
+      throw new RuntimeException(e);
     }
   }
 
@@ -416,6 +399,7 @@ public class KubePodProcess implements KubePod {
                         final String busyboxImage,
                         final String curlImage,
                         final boolean runSocatInMainContainer,
+                        final String stdioRelayImage,
                         final Map<String, String> envMap,
                         final Map<Integer, Integer> internalToExternalPorts,
                         final String... args)
@@ -425,9 +409,22 @@ public class KubePodProcess implements KubePod {
       this.stdoutLocalPort = stdoutLocalPort;
       this.stderrLocalPort = stderrLocalPort;
       this.stdoutServerSocket = new ServerSocket(stdoutLocalPort);
-      this.stderrServerSocket = new ServerSocket(stderrLocalPort);
       this.executorService = Executors.newFixedThreadPool(2);
-      setupStdOutAndStdErrListeners();
+      final Future<MultiplexedStdioConnection> pendingStdioConnection;
+      if (stdioRelayImage != null) {
+        this.stderrServerSocket = null;
+        pendingStdioConnection = setupStdioConnectionListener();
+      } else {
+        this.stderrServerSocket = new ServerSocket(stderrLocalPort);
+        pendingStdioConnection = null;
+        setupStdOutAndStdErrListeners();
+      }
+      // if this process is never closed, closing it is how its leaked ports get reclaimed
+      final Closeable portResources = this::close;
+      KubePortManagerSingleton.getInstance().attach(stdoutLocalPort, portResources);
+      if (stderrLocalPort != UNUSED_PORT) {
+        KubePortManagerSingleton.getInstance().attach(stderrLocalPort, portResources);
+      }
 
       if (entrypointOverride != null) {
         LOGGER.info("Found entrypoint override: {}", entrypointOverride);
@@ -508,11 +505,29 @@ public class KubePodProcess implements KubePod {
           .withImagePullPolicy(sidecarImagePullPolicy)
           .build();
 
-      final List<Container> socatContainers;
+      final List<Container> stdioContainers;
       final String socatCommands;
 
-      if (runSocatInMainContainer) {
-        socatContainers = List.of();
+      if (stdioRelayImage != null) {
+        // a single sidecar relays every stream over one connection opened by the pod
+        final Container stdioRelay = new ContainerBuilder()
+            .withName(STDIO_RELAY_CONTAINER_NAME)
+            .withImage(stdioRelayImage)
+            // the heap is sized from the memory limit of the container, leaving room for the rest of the JVM, whose
+            // code cache, metaspace and thread stacks are kept to what the few JDK classes of the relay need
+            .withCommand("java", "-XX:+UseSerialGC", "-XX:TieredStopAtLevel=1", "-XX:MaxRAMPercentage=" + STDIO_RELAY_MAX_RAM_PERCENTAGE,
+                "-XX:ReservedCodeCacheSize=16m", "-XX:MaxMetaspaceSize=32m", "-Xss256k", "-XX:+ExitOnOutOfMemoryError", "-cp", STDIO_RELAY_CLASSPATH, StdioRelay.class.getName(),
+                processRunnerHost, String.valueOf(stdoutLocalPort), usesStdin ? STDIN_PIPE_FILE : StdioRelay.NO_STDIN, STDOUT_PIPE_FILE,
+                STDERR_PIPE_FILE)
+            .withVolumeMounts(pipeVolumeMount, terminationVolumeMount)
+            .withResources(getResourceRequirementsBuilder(podResourceRequirements.stdioRelay()).build())
+            .withImagePullPolicy(sidecarImagePullPolicy)
+            .build();
+
+        stdioContainers = List.of(stdioRelay);
+        socatCommands = "";
+      } else if (runSocatInMainContainer) {
+        stdioContainers = List.of();
 
         final var socatStdinCmd = usesStdin ? String.format("socat -d -d TCP-L:9001 STDOUT > %s &", STDIN_PIPE_FILE) : "";
         final var socatStdoutCmd = String.format("(cat %s | socat -d -d -t 60 - TCP:%s:%s &)", STDOUT_PIPE_FILE, processRunnerHost, stdoutLocalPort);
@@ -521,7 +536,7 @@ public class KubePodProcess implements KubePod {
         socatCommands = String.join(System.lineSeparator(), socatStdinCmd, socatStdoutCmd, socatStderrCmd);
 
       } else {
-        socatContainers = usesStdin ? List.of(remoteStdin, relayStdout, relayStderr) : List.of(relayStdout, relayStderr);
+        stdioContainers = usesStdin ? List.of(remoteStdin, relayStdout, relayStderr) : List.of(relayStdout, relayStderr);
         socatCommands = "";
       }
 
@@ -560,7 +575,7 @@ public class KubePodProcess implements KubePod {
           .withImagePullPolicy(sidecarImagePullPolicy)
           .build();
 
-      final List<Container> containers = Lists.concat(List.of(main, callHeartbeatServer), socatContainers);
+      final List<Container> containers = Lists.concat(List.of(main, callHeartbeatServer), stdioContainers);
 
       final PodFluent.SpecNested<PodBuilder> podBuilder = new PodBuilder()
           .withApiVersion("v1")
@@ -644,7 +659,13 @@ public class KubePodProcess implements KubePod {
       final var podIp = getPodIP(fabricClient, podName, namespace);
       LOGGER.info("Pod IP: {}", podIp);
 
-      if (usesStdin) {
+      if (pendingStdioConnection != null) {
+        LOGGER.info("Waiting for the stdio relay to connect...");
+        this.stdioConnection = awaitStdioConnection(pendingStdioConnection);
+        this.stdout = stdioConnection.getInputStream(MultiplexedStdioConnection.STDOUT);
+        this.stderr = stdioConnection.getInputStream(MultiplexedStdioConnection.STDERR);
+        this.stdin = usesStdin ? stdioConnection.getOutputStream(MultiplexedStdioConnection.STDIN) : NullOutputStream.NULL_OUTPUT_STREAM;
+      } else if (usesStdin) {
         LOGGER.info("Creating stdin socket...");
         final var socketToDestStdIo = new Socket(podIp, STDIN_REMOTE_PORT);
         this.stdin = socketToDestStdIo.getOutputStream();
@@ -659,6 +680,27 @@ public class KubePodProcess implements KubePod {
     }
   }
 
+  private Future<MultiplexedStdioConnection> setupStdioConnectionListener() {
+    final var context = MDC.getCopyOfContextMap();
+    return executorService.submit(() -> {
+      MDC.setContextMap(context);
+      LOGGER.info("Creating stdio socket server...");
+      final var socket = stdoutServerSocket.accept(); // blocks until connected
+      socket.setKeepAlive(true);
+      LOGGER.info("Stdio relay connected");
+      return new MultiplexedStdioConnection(socket);
+    });
+  }
+
+  private static MultiplexedStdioConnection awaitStdioConnection(final Future<MultiplexedStdioConnection> pendingStdioConnection)
+      throws IOException, InterruptedException {
+    try {
+      return pendingStdioConnection.get(STDIO_RELAY_CONNECT_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    } catch (final ExecutionException | TimeoutException e) {
+      throw new IOException("Stdio relay failed to connect", e);
+    }
+  }
+
   private void setupStdOutAndStdErrListeners() {
     final var context = MDC.getCopyOfContextMap();
     executorService.submit(() -> {
@@ -794,6 +836,9 @@ public class KubePodProcess implements KubePod {
     if (this.stderrServerSocket != null) {
       Exceptions.swallow(this.stderrServerSocket::close);
     }
+    if (this.stdioConnection != null) {
+      Exceptions.swallow(this.stdioConnection::close);
+    }
     if (this.podInformer != null) {
       Exceptions.swallow(this.podInformer::close);
     }
@@ -802,7 +847,9 @@ public class KubePodProcess implements KubePod {
     }
 
     KubePortManagerSingleton.getInstance().offer(stdoutLocalPort);
-    KubePortManagerSingleton.getInstance().offer(stderrLocalPort);
+    if (stderrLocalPort != UNUSED_PORT) {
+      KubePortManagerSingleton.getInstance().offer(stderrLocalPort);
+    }
 
     if (podDefinition != null) {
       LOGGER.info(prependPodInfo("Closed all resources for pod", podDefinition.getMetadata().getNamespace(), podDefinition.getMetadata().getName()));
@@ -6,21 +6,38 @@ package io.airbyte.workers.process;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
+import io.airbyte.metrics.lib.MetricClient;
+import io.airbyte.metrics.lib.MetricClientFactory;
+import io.airbyte.metrics.lib.OssMetricsRegistry;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Convenience wrapper around a thread-safe BlockingQueue. Keeps track of available ports for Kube
- * Pod Processes.
+ * Keeps track of the ports available to Kube Pod Processes, and of the ones leased by them.
  *
- * Although this data structure can do without the wrapper class, this class allows easier testing
- * via the {@link #getNumAvailablePorts()} function.
+ * Every port taken is leased to its owner (the pod it is used for) until it is offered back. Leases
+ * which are never returned, e.g. because the process of a dead pod was never closed, can be
+ * reclaimed with {@link #reclaimLeakedPorts(Predicate)}: the resources {@link #attach attached} to
+ * them, which keep the port bound, are closed.
+ *
+ * The ports are configured when the instance is initialized, and can be changed at runtime with
+ * {@link #applyPortRange(String)}.
  *
  * The singleton pattern clarifies that only one copy of this class is intended to exist per
  * scheduler deployment.
@@ -31,12 +48,41 @@ public class KubePortManagerSingleton {
 
   private static KubePortManagerSingleton instance;
 
-  private static final int MAX_PORTS_PER_WORKER = 4; // A sync has two workers. Each worker requires 2 ports.
-  private final BlockingQueue<Integer> workerPorts;
+  private static final int PODS_PER_SYNC = 2; // A sync has a source and a destination pod.
+  private static final Duration TAKE_TIMEOUT = Duration.ofMinutes(10);
+  // a pod may take as long as the take timeout to be created after its ports are leased
+  private static final Duration LEAK_GRACE_PERIOD = TAKE_TIMEOUT.plusMinutes(5);
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition portOffered = lock.newCondition();
+  // ports configured at startup, used when no port range is applied at runtime
+  private final Set<Integer> configuredPorts;
+  private final Set<Integer> ports;
+  private final Deque<Integer> availablePorts;
+  private final Map<Integer, PortLease> leases = new HashMap<>();
+  private final Duration leakGracePeriod;
+  private String appliedPortRange = "";
+
+  /**
+   * Lease of a port.
+   *
+   * @param owner name of the pod the port is leased to, null if unknown
+   * @param leasedAt when the port was leased
+   * @param resources resources using the port, closed if the lease is reclaimed, null if unknown
+   */
+  private record PortLease(@Nullable String owner, Instant leasedAt, @Nullable Closeable resources) {}
 
   private KubePortManagerSingleton(final Set<Integer> ports) {
-    LOGGER.debug("Initializing KubePortManagerSingleton instance with ports: %s", ports);
-    workerPorts = new LinkedBlockingDeque<>(ports);
+    this(ports, LEAK_GRACE_PERIOD);
+  }
+
+  @VisibleForTesting
+  KubePortManagerSingleton(final Set<Integer> ports, final Duration leakGracePeriod) {
+    LOGGER.debug("Initializing KubePortManagerSingleton instance with ports: {}", ports);
+    this.configuredPorts = Set.copyOf(ports);
+    this.ports = new HashSet<>(ports);
+    this.availablePorts = new ArrayDeque<>(ports);
+    this.leakGracePeriod = leakGracePeriod;
   }
 
   /**
@@ -57,44 +103,311 @@ public class KubePortManagerSingleton {
   public static synchronized void init(final Set<Integer> ports) {
     if (instance == null) {
       instance = new KubePortManagerSingleton(ports);
-    } else if (Sets.intersection(instance.getAllPorts(), ports).size() == ports.size()) {
+    } else if (Sets.intersection(instance.configuredPorts, ports).size() == ports.size()) {
       LOGGER.info("Skipping initializing KubePortManagerSingleton since ports specified are the same.");
     } else {
       throw new RuntimeException("Cannot initialize twice with different ports!");
     }
   }
 
-  public Integer take() throws InterruptedException {
-    LOGGER.debug("workerPorts remaining capacity: %s", workerPorts.remainingCapacity());
-    return workerPorts.poll(10, TimeUnit.MINUTES);
+  /**
+   * Lease a port, waiting up to 10 minutes for one to be available.
+   *
+   * @param owner name of the pod the port is used for
+   * @return the leased port, null if none was available in time
+   */
+  public @Nullable Integer take(final String owner) throws InterruptedException {
+    return take(owner, TAKE_TIMEOUT);
+  }
+
+  /**
+   * Lease a port.
+   *
+   * @param owner name of the pod the port is used for
+   * @param timeout how long to wait for a port to be available
+   * @return the leased port, null if none was available in time
+   */
+  public @Nullable Integer take(final String owner, final Duration timeout) throws InterruptedException {
+    final long start = System.nanoTime();
+    final Integer port;
+    lock.lock();
+    try {
+      long remainingNanos = timeout.toNanos();
+      while (availablePorts.isEmpty() && remainingNanos > 0) {
+        remainingNanos = portOffered.awaitNanos(remainingNanos);
+      }
+      port = lease(owner);
+    } finally {
+      lock.unlock();
+    }
+
+    getMetricClient().distribution(OssMetricsRegistry.KUBE_PORT_POOL_WAIT_TIME_MILLISECS,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    if (port == null) {
+      LOGGER.warn("No port was available for {} after {}", owner, timeout);
+    }
+    reportOccupancy();
+    return port;
   }
 
   @VisibleForTesting
   public @Nullable Integer takeImmediately() {
-    return workerPorts.poll();
+    final Integer port;
+    lock.lock();
+    try {
+      port = lease(null);
+    } finally {
+      lock.unlock();
+    }
+    reportOccupancy();
+    return port;
+  }
+
+  /**
+   * Attach the resources using a leased port, e.g. the process listening on it, to its lease. They
+   * are closed if the lease is reclaimed.
+   *
+   * @param port leased port
+   * @param resources resources to close when reclaiming the port, must offer it back
+   */
+  public void attach(final Integer port, final Closeable resources) {
+    lock.lock();
+    try {
+      leases.computeIfPresent(port, (p, lease) -> new PortLease(lease.owner(), lease.leasedAt(), resources));
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
-   * Add used port.
+   * Return a leased port.
    *
    * @param port port to add
    */
   public void offer(final Integer port) {
-    if (!workerPorts.contains(port)) {
-      workerPorts.add(port);
+    lock.lock();
+    try {
+      leases.remove(port);
+      if (!ports.contains(port)) {
+        LOGGER.info("Dropping port {} since it was removed from the port range", port);
+      } else if (!availablePorts.contains(port)) {
+        availablePorts.add(port);
+        portOffered.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+    reportOccupancy();
+  }
+
+  /**
+   * Reclaim the ports leased for longer than the grace period by pods which are gone. The resources
+   * attached to these leases are closed, the ports without attached resources are only reclaimed
+   * once nothing is listening on them anymore.
+   *
+   * @param isPodGone whether the pod of the given name terminated or no longer exists
+   * @return the number of reclaimed ports
+   */
+  public int reclaimLeakedPorts(final Predicate<String> isPodGone) {
+    final Instant leakedBefore = Instant.now().minus(leakGracePeriod);
+    final Map<Integer, PortLease> candidates = new HashMap<>();
+    lock.lock();
+    try {
+      leases.forEach((port, lease) -> {
+        if (lease.owner() != null && lease.leasedAt().isBefore(leakedBefore)) {
+          candidates.put(port, lease);
+        }
+      });
+    } finally {
+      lock.unlock();
+    }
+
+    // checking the pods and closing their resources is slow, so do it without holding the lock
+    final Map<String, Boolean> goneOwners = new HashMap<>();
+    final Set<Closeable> closedResources = new HashSet<>();
+    int reclaimed = 0;
+    for (final Map.Entry<Integer, PortLease> candidate : candidates.entrySet()) {
+      final Integer port = candidate.getKey();
+      final PortLease lease = candidate.getValue();
+      if (!goneOwners.computeIfAbsent(lease.owner(), isPodGone::test)) {
+        continue;
+      }
+      if (lease.resources() != null) {
+        // resources are usually attached to every port of their pod, only close them once
+        if (closedResources.add(lease.resources())) {
+          LOGGER.warn("Closing the resources of pod {} which is gone, leased port {} at {}", lease.owner(), port, lease.leasedAt());
+          closeQuietly(lease.resources());
+        }
+      } else if (!isUnbound(port)) {
+        continue;
+      }
+      // closing the resources offers their ports back
+      if (offerIfStillLeased(port, lease) || lease.resources() != null) {
+        LOGGER.warn("Reclaimed port {} leased at {} by pod {} which is gone", port, lease.leasedAt(), lease.owner());
+        reclaimed++;
+      }
+    }
+    if (reclaimed > 0) {
+      getMetricClient().count(OssMetricsRegistry.KUBE_PORT_POOL_LEAKED_PORTS, reclaimed);
+    }
+    return reclaimed;
+  }
+
+  /**
+   * Offer a port back, unless it was already offered back, and maybe leased again, since the given
+   * lease.
+   */
+  private boolean offerIfStillLeased(final Integer port, final PortLease lease) {
+    lock.lock();
+    try {
+      if (lease.equals(leases.get(port))) {
+        offer(port);
+        return true;
+      }
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Change the ports at runtime. Added ports are available right away, removed ones are dropped once
+   * they are offered back.
+   *
+   * @param newPorts ports to use from now on
+   */
+  public void resize(final Set<Integer> newPorts) {
+    lock.lock();
+    try {
+      LOGGER.info("Resizing the port range from {} to {} ports", ports.size(), newPorts.size());
+      ports.clear();
+      ports.addAll(newPorts);
+      availablePorts.removeIf(port -> !ports.contains(port));
+      for (final Integer port : ports) {
+        if (!leases.containsKey(port) && !availablePorts.contains(port)) {
+          availablePorts.add(port);
+          portOffered.signal();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    reportOccupancy();
+  }
+
+  /**
+   * Resize to the given port range, unless it is already applied. A blank range resizes back to the
+   * ports configured at startup.
+   *
+   * @param portRange comma separated ports and inclusive ranges of ports, e.g. 9001,9010-9020
+   * @throws IllegalArgumentException if the range is malformed
+   */
+  public void applyPortRange(final String portRange) {
+    final String range = portRange == null ? "" : portRange.strip();
+    lock.lock();
+    try {
+      if (range.equals(appliedPortRange)) {
+        return;
+      }
+      resize(range.isEmpty() ? configuredPorts : parsePortRange(range));
+      appliedPortRange = range;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @VisibleForTesting
+  static Set<Integer> parsePortRange(final String portRange) {
+    final Set<Integer> parsedPorts = new HashSet<>();
+    for (final String part : portRange.split(",")) {
+      final String[] bounds = part.strip().split("-", 2);
+      try {
+        final int first = Integer.parseInt(bounds[0].strip());
+        final int last = bounds.length == 2 ? Integer.parseInt(bounds[1].strip()) : first;
+        if (first < 1 || last > 65_535 || first > last) {
+          throw new IllegalArgumentException("Invalid port range " + part + " in " + portRange);
+        }
+        for (int port = first; port <= last; port++) {
+          parsedPorts.add(port);
+        }
+      } catch (final NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid port range " + part + " in " + portRange, e);
+      }
     }
+    return parsedPorts;
   }
 
   protected Set<Integer> getAllPorts() {
-    return new HashSet<>(workerPorts);
+    lock.lock();
+    try {
+      return new HashSet<>(ports);
+    } finally {
+      lock.unlock();
+    }
   }
 
   public int getNumAvailablePorts() {
-    return workerPorts.size();
+    lock.lock();
+    try {
+      return availablePorts.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getNumLeasedPorts() {
+    lock.lock();
+    try {
+      return leases.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Number of syncs the available ports can support.
+   *
+   * @param portsPerPod number of ports taken by each pod of a sync
+   */
+  public int getSupportedWorkers(final int portsPerPod) {
+    return getNumAvailablePorts() / (PODS_PER_SYNC * portsPerPod);
+  }
+
+  /**
+   * Must be called with the lock held.
+   */
+  private @Nullable Integer lease(@Nullable final String owner) {
+    final Integer port = availablePorts.poll();
+    if (port != null) {
+      leases.put(port, new PortLease(owner, Instant.now(), null));
+    }
+    return port;
+  }
+
+  private void reportOccupancy() {
+    final MetricClient metricClient = getMetricClient();
+    metricClient.gauge(OssMetricsRegistry.KUBE_PORT_POOL_AVAILABLE_PORTS, getNumAvailablePorts());
+    metricClient.gauge(OssMetricsRegistry.KUBE_PORT_POOL_LEASED_PORTS, getNumLeasedPorts());
+  }
+
+  private static void closeQuietly(final Closeable resources) {
+    try {
+      resources.close();
+    } catch (final Exception e) {
+      LOGGER.warn("Could not close the resources of a leaked port", e);
+    }
+  }
+
+  private static boolean isUnbound(final int port) {
+    try (final ServerSocket ignored = new ServerSocket(port)) {
+      return true;
+    } catch (final IOException e) {
+      return false;
+    }
   }
 
-  public int getSupportedWorkers() {
-    return workerPorts.size() / MAX_PORTS_PER_WORKER;
+  private static MetricClient getMetricClient() {
+    return MetricClientFactory.getMetricClient();
   }
 
 }
@@ -4,6 +4,8 @@
 
 package io.airbyte.workers.process;
 
+import static io.airbyte.featureflag.ContextKt.ANONYMOUS;
+
 import autovalue.shaded.org.jetbrains.annotations.NotNull;
 import com.google.common.annotations.VisibleForTesting;
 import io.airbyte.commons.helper.DockerImageNameHelper;
@@ -17,11 +19,14 @@ import io.airbyte.featureflag.Connection;
 import io.airbyte.featureflag.FeatureFlagClient;
 import io.airbyte.featureflag.ImageName;
 import io.airbyte.featureflag.ImageVersion;
+import io.airbyte.featureflag.KubePortRange;
 import io.airbyte.featureflag.Multi;
 import io.airbyte.featureflag.RunSocatInConnectorContainer;
+import io.airbyte.featureflag.StdioRelayImage;
 import io.airbyte.featureflag.UseCustomK8sScheduler;
 import io.airbyte.featureflag.Workspace;
 import io.airbyte.workers.exception.WorkerException;
+import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import java.net.InetAddress;
 import java.nio.file.Path;
@@ -125,11 +130,30 @@ public class KubeProcessFactory implements ProcessFactory {
       LOGGER.info("Attempting to start pod = {} for {} with resources {} and allowedHosts {}", podName, imageName, resourceRequirements,
           allowedHosts);
 
-      final int stdoutLocalPort = KubePortManagerSingleton.getInstance().take();
+      final String stdioRelayImage = getStdioRelayImage(connectionId, workspaceId);
+
+      final KubePortManagerSingleton portManager = KubePortManagerSingleton.getInstance();
+      applyPortRange(portManager);
+      if (portManager.getNumAvailablePorts() < getPortsPerPod(stdioRelayImage != null)) {
+        portManager.reclaimLeakedPorts(this::isPodGone);
+      }
+
+      final int stdoutLocalPort = takePort(portManager, podName);
       LOGGER.info("{} stdoutLocalPort = {}", podName, stdoutLocalPort);
 
-      final int stderrLocalPort = KubePortManagerSingleton.getInstance().take();
-      LOGGER.info("{} stderrLocalPort = {}", podName, stderrLocalPort);
+      final int stderrLocalPort;
+      if (stdioRelayImage != null) {
+        // the stdio relay carries stderr over the stdout connection
+        stderrLocalPort = KubePodProcess.UNUSED_PORT;
+      } else {
+        try {
+          stderrLocalPort = takePort(portManager, podName);
+        } catch (final Exception e) {
+          portManager.offer(stdoutLocalPort);
+          throw e;
+        }
+        LOGGER.info("{} stderrLocalPort = {}", podName, stderrLocalPort);
+      }
 
       final WorkerConfigs workerConfigs = workerConfigsProvider.getConfig(resourceType);
 
@@ -174,6 +198,7 @@ public class KubeProcessFactory implements ProcessFactory {
           workerConfigs.getJobBusyboxImage(),
           workerConfigs.getJobCurlImage(),
           runSocatInMainContainer,
+          stdioRelayImage,
           MoreMaps.merge(jobMetadata, workerConfigs.getEnvMap(), additionalEnvironmentVariables),
           internalToExternalPorts,
           args).toProcess();
@@ -182,6 +207,40 @@ public class KubeProcessFactory implements ProcessFactory {
     }
   }
 
+  /**
+   * Number of ports the worker listens on for each pod: one for stdout and one for stderr, or a
+   * single one for every stream with the stdio relay.
+   */
+  public static int getPortsPerPod(final boolean usesStdioRelay) {
+    return usesStdioRelay ? 1 : 2;
+  }
+
+  private void applyPortRange(final KubePortManagerSingleton portManager) {
+    try {
+      portManager.applyPortRange(featureFlagClient.stringVariation(KubePortRange.INSTANCE, new Workspace(ANONYMOUS)));
+    } catch (final IllegalArgumentException e) {
+      LOGGER.error("Keeping the current port range since the one of the {} flag is invalid", KubePortRange.INSTANCE.getKey(), e);
+    }
+  }
+
+  private static int takePort(final KubePortManagerSingleton portManager, final String podName) throws InterruptedException, WorkerException {
+    final Integer port = portManager.take(podName);
+    if (port == null) {
+      throw new WorkerException("Timed out waiting for a port to be available for pod " + podName);
+    }
+    return port;
+  }
+
+  private boolean isPodGone(final String podName) {
+    try {
+      final Pod pod = fabricClient.pods().inNamespace(namespace).withName(podName).get();
+      return pod == null || KubePodResourceHelper.isTerminal(pod);
+    } catch (final Exception e) {
+      LOGGER.warn("Could not check whether pod {} is gone", podName, e);
+      return false;
+    }
+  }
+
   /**
    * Returns general labels to be applied to all Kubernetes pods. All general labels should be added
    * here.
@@ -216,6 +275,14 @@ public class KubeProcessFactory implements ProcessFactory {
     return allLabels;
   }
 
+  private String getStdioRelayImage(final UUID connectionId, final UUID workspaceId) {
+    final String stdioRelayImage = featureFlagClient.stringVariation(StdioRelayImage.INSTANCE,
+        new Multi(List.of(
+            new Connection(connectionId != null ? connectionId : UUID_EMPTY),
+            new Workspace(workspaceId != null ? workspaceId : UUID_EMPTY))));
+    return stdioRelayImage.isBlank() ? null : stdioRelayImage;
+  }
+
   private boolean shouldRunSocatInMainContainer(String imageName, UUID connectionId, UUID workspaceId) {
     final String imageNameWithoutVersion;
     final String imageVersion;
@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.process;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * Carries the stdin, stdout and stderr of a process over a single TCP connection.
+ * <p>
+ * Each chunk of a stream is sent as a frame made of the id of the stream, the type of the frame and
+ * a length, followed by the payload of data frames. A side may only send as many bytes of a stream
+ * as the other side granted it credit for, and credit is granted back as the stream is read. A slow
+ * reader of one stream therefore throttles its writer, without blocking the other streams nor
+ * buffering more than {@link #WINDOW_SIZE} bytes per stream.
+ * <p>
+ * This class only depends on the JDK, since {@link StdioRelay} runs it in the connector pods.
+ */
+public class MultiplexedStdioConnection implements AutoCloseable {
+
+  public static final int STDIN = 0;
+  public static final int STDOUT = 1;
+  public static final int STDERR = 2;
+  private static final int STREAM_COUNT = 3;
+
+  private static final byte DATA = 0;
+  private static final byte CLOSE = 1;
+  private static final byte CREDIT = 2;
+
+  static final int WINDOW_SIZE = 1024 * 1024;
+  private static final int MAX_FRAME_SIZE = 64 * 1024;
+
+  private final Socket socket;
+  private final DataInputStream in;
+  private final DataOutputStream out;
+  private final InboundStream[] inboundStreams = new InboundStream[STREAM_COUNT];
+  private final OutboundStream[] outboundStreams = new OutboundStream[STREAM_COUNT];
+  private final Thread frameReader;
+  private volatile IOException failure;
+
+  public MultiplexedStdioConnection(final Socket socket) throws IOException {
+    this.socket = socket;
+    this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), MAX_FRAME_SIZE));
+    this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), MAX_FRAME_SIZE));
+    for (int stream = 0; stream < STREAM_COUNT; stream++) {
+      inboundStreams[stream] = new InboundStream(stream);
+      outboundStreams[stream] = new OutboundStream(stream);
+    }
+    this.frameReader = new Thread(this::readFrames, "multiplexed-stdio-reader");
+    frameReader.setDaemon(true);
+    frameReader.start();
+  }
+
+  /**
+   * Get a stream sent by the other side of the connection.
+   *
+   * @param stream id of the stream, one of {@link #STDIN}, {@link #STDOUT} or {@link #STDERR}
+   * @return the stream, which ends once the other side closes it
+   */
+  public InputStream getInputStream(final int stream) {
+    return inboundStreams[stream];
+  }
+
+  /**
+   * Get a stream sent to the other side of the connection.
+   *
+   * @param stream id of the stream, one of {@link #STDIN}, {@link #STDOUT} or {@link #STDERR}
+   * @return the stream, which must be closed to end it on the other side
+   */
+  public OutputStream getOutputStream(final int stream) {
+    return outboundStreams[stream];
+  }
+
+  /**
+   * Stop sending on the connection, once every stream sent to the other side is closed, and wait
+   * for the other side to close the connection.
+   *
+   * @param timeoutMillis how long to wait for the other side to close the connection
+   */
+  public void shutdown(final long timeoutMillis) throws IOException, InterruptedException {
+    socket.shutdownOutput();
+    frameReader.join(timeoutMillis);
+  }
+
+  @Override
+  public void close() throws IOException {
+    socket.close();
+  }
+
+  private void readFrames() {
+    try {
+      while (true) {
+        final int stream;
+        try {
+          stream = in.readUnsignedByte();
+        } catch (final EOFException e) {
+          break;
+        }
+        final byte type = in.readByte();
+        final int length = in.readInt();
+        if (stream >= STREAM_COUNT || length < 0) {
+          throw new IOException("Invalid frame for stream " + stream + " with length " + length);
+        }
+        switch (type) {
+          case DATA -> {
+            final byte[] payload = new byte[length];
+            in.readFully(payload);
+            inboundStreams[stream].receive(payload);
+          }
+          case CLOSE -> inboundStreams[stream].receiveClose();
+          case CREDIT -> outboundStreams[stream].grant(length);
+          default -> throw new IOException("Unknown frame type " + type);
+        }
+      }
+      // the other side closed the connection, so nothing else will be received
+      for (final InboundStream inboundStream : inboundStreams) {
+        inboundStream.receiveClose();
+      }
+      fail(new EOFException("Connection closed by the other side"));
+    } catch (final IOException e) {
+      fail(e);
+    }
+  }
+
+  private void fail(final IOException e) {
+    if (failure == null) {
+      failure = e;
+    }
+    for (int stream = 0; stream < STREAM_COUNT; stream++) {
+      inboundStreams[stream].fail(e);
+      outboundStreams[stream].fail();
+    }
+  }
+
+  private void sendFrame(final int stream, final byte type, final int length, final byte[] payload, final int offset) throws IOException {
+    try {
+      synchronized (out) {
+        out.writeByte(stream);
+        out.writeByte(type);
+        out.writeInt(length);
+        if (type == DATA) {
+          out.write(payload, offset, length);
+        }
+        out.flush();
+      }
+    } catch (final IOException e) {
+      fail(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Buffers the frames received for a stream until they are read.
+   */
+  private final class InboundStream extends InputStream {
+
+    private final int stream;
+    private final Deque<byte[]> chunks = new ArrayDeque<>();
+    private int chunkOffset;
+    private int buffered;
+    private int uncredited;
+    private boolean ended;
+    private boolean discarding;
+    private IOException streamFailure;
+
+    InboundStream(final int stream) {
+      this.stream = stream;
+    }
+
+    void receive(final byte[] payload) throws IOException {
+      synchronized (this) {
+        if (buffered + payload.length > WINDOW_SIZE) {
+          throw new IOException("Stream " + stream + " was sent more than its credit");
+        }
+        if (!discarding) {
+          if (payload.length > 0) {
+            chunks.add(payload);
+            buffered += payload.length;
+            notifyAll();
+          }
+          return;
+        }
+      }
+      // keep the other side from blocking on a stream nobody reads anymore
+      grantCredit(payload.length);
+    }
+
+    synchronized void receiveClose() {
+      ended = true;
+      notifyAll();
+    }
+
+    synchronized void fail(final IOException e) {
+      if (!ended) {
+        streamFailure = e;
+        ended = true;
+      }
+      notifyAll();
+    }
+
+    @Override
+    public int read() throws IOException {
+      final byte[] b = new byte[1];
+      return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      Objects.checkFromIndexSize(off, len, b.length);
+      if (len == 0) {
+        return 0;
+      }
+      final int read;
+      final int credit;
+      synchronized (this) {
+        while (chunks.isEmpty()) {
+          if (streamFailure != null) {
+            throw new IOException("Stream " + stream + " failed", streamFailure);
+          }
+          if (ended || discarding) {
+            return -1;
+          }
+          try {
+            wait();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+          }
+        }
+        final byte[] chunk = chunks.peek();
+        read = Math.min(len, chunk.length - chunkOffset);
+        System.arraycopy(chunk, chunkOffset, b, off, read);
+        chunkOffset += read;
+        if (chunkOffset == chunk.length) {
+          chunks.poll();
+          chunkOffset = 0;
+        }
+        buffered -= read;
+        uncredited += read;
+        // granting credit in batches keeps the number of credit frames low
+        if (uncredited >= WINDOW_SIZE / 2) {
+          credit = uncredited;
+          uncredited = 0;
+        } else {
+          credit = 0;
+        }
+      }
+      if (credit > 0) {
+        grantCredit(credit);
+      }
+      return read;
+    }
+
+    @Override
+    public synchronized int available() {
+      return buffered;
+    }
+
+    @Override
+    public void close() {
+      final int credit;
+      synchronized (this) {
+        discarding = true;
+        credit = buffered + uncredited;
+        chunks.clear();
+        buffered = 0;
+        uncredited = 0;
+        notifyAll();
+      }
+      if (credit > 0) {
+        grantCredit(credit);
+      }
+    }
+
+    private void grantCredit(final int credit) {
+      try {
+        sendFrame(stream, CREDIT, credit, null, 0);
+      } catch (final IOException e) {
+        // the connection failed, which the frame reader reports to every stream
+      }
+    }
+
+  }
+
+  /**
+   * Sends the data written to a stream as frames, within the credit granted by the other side.
+   */
+  private final class OutboundStream extends OutputStream {
+
+    private final int stream;
+    private int credit = WINDOW_SIZE;
+    private boolean closed;
+
+    OutboundStream(final int stream) {
+      this.stream = stream;
+    }
+
+    synchronized void grant(final int amount) {
+      credit += amount;
+      notifyAll();
+    }
+
+    synchronized void fail() {
+      notifyAll();
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      Objects.checkFromIndexSize(off, len, b.length);
+      int offset = off;
+      int remaining = len;
+      while (remaining > 0) {
+        final int size;
+        synchronized (this) {
+          while (credit == 0 && failure == null && !closed) {
+            try {
+              wait();
+            } catch (final InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new InterruptedIOException();
+            }
+          }
+          ensureOpen();
+          size = Math.min(Math.min(remaining, credit), MAX_FRAME_SIZE);
+          credit -= size;
+        }
+        sendFrame(stream, DATA, size, b, offset);
+        offset += size;
+        remaining -= size;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        notifyAll();
+      }
+      if (failure == null) {
+        sendFrame(stream, CLOSE, 0, null, 0);
+      }
+    }
+
+    private void ensureOpen() throws IOException {
+      if (closed) {
+        throw new IOException("Stream " + stream + " is closed");
+      }
+      if (failure != null) {
+        throw new IOException("Stream " + stream + " failed", failure);
+      }
+    }
+
+  }
+
+}
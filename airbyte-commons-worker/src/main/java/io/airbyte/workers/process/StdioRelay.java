@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.process;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Relays the stdio of a connector to the worker which launched its pod, over a single
+ * {@link MultiplexedStdioConnection} opened by the pod.
+ * <p>
+ * Runs as the only stdio sidecar of the pods using the multiplexed stdio transport, in place of
+ * the socat sidecars: it reads the stdout and stderr named pipes of the main container and writes
+ * its stdin named pipe. Like the connection, it only depends on the JDK.
+ */
+public final class StdioRelay {
+
+  /**
+   * Passed instead of the stdin pipe when the connector does not use stdin.
+   */
+  public static final String NO_STDIN = "-";
+
+  // like the socat sidecars, wait up to 60 seconds for the worker to close the connection
+  private static final long SHUTDOWN_TIMEOUT_MILLIS = 60_000;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private StdioRelay() {}
+
+  /**
+   * Relay the stdio of a connector until it closes its stdout and stderr.
+   *
+   * @param args host and port of the worker, then the stdin (or {@link #NO_STDIN}), stdout and
+   *        stderr named pipes
+   */
+  public static void main(final String[] args) throws IOException, InterruptedException {
+    if (args.length != 5) {
+      System.err.println("Usage: StdioRelay <worker host> <worker port> <stdin pipe or -> <stdout pipe> <stderr pipe>");
+      System.exit(2);
+    }
+    try (final Socket socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+      socket.setKeepAlive(true);
+      relay(socket, NO_STDIN.equals(args[2]) ? null : Path.of(args[2]), Path.of(args[3]), Path.of(args[4]));
+    }
+  }
+
+  /**
+   * Relay the stdio of a connector over a connection to the worker.
+   *
+   * @param socket connection to the worker
+   * @param stdinPipe stdin pipe of the connector, null if it does not use stdin
+   * @param stdoutPipe stdout pipe of the connector
+   * @param stderrPipe stderr pipe of the connector
+   */
+  static void relay(final Socket socket, final Path stdinPipe, final Path stdoutPipe, final Path stderrPipe)
+      throws IOException, InterruptedException {
+    final MultiplexedStdioConnection connection = new MultiplexedStdioConnection(socket);
+    final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    if (stdinPipe != null) {
+      // opening the pipe blocks until the connector opens it, and the connector may exit without
+      // reading all of its stdin, so nothing waits for this relay to complete
+      final Thread stdinRelay = new Thread(() -> {
+        final InputStream stdin = connection.getInputStream(MultiplexedStdioConnection.STDIN);
+        try (stdin; final OutputStream pipe = new FileOutputStream(stdinPipe.toFile())) {
+          copy(stdin, pipe);
+        } catch (final IOException e) {
+          System.err.println("Stopped relaying stdin: " + e.getMessage());
+        }
+      }, "stdin-relay");
+      stdinRelay.setDaemon(true);
+      stdinRelay.start();
+    }
+
+    final List<Thread> outputRelays = new ArrayList<>();
+    outputRelays.add(relayOutput(stdoutPipe, connection.getOutputStream(MultiplexedStdioConnection.STDOUT), failure));
+    outputRelays.add(relayOutput(stderrPipe, connection.getOutputStream(MultiplexedStdioConnection.STDERR), failure));
+    for (final Thread outputRelay : outputRelays) {
+      outputRelay.join();
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    connection.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+  }
+
+  private static Thread relayOutput(final Path pipe, final OutputStream stream, final AtomicReference<IOException> failure) {
+    final Thread relay = new Thread(() -> {
+      try (final InputStream in = new FileInputStream(pipe.toFile()); stream) {
+        copy(in, stream);
+      } catch (final IOException e) {
+        failure.compareAndSet(null, e);
+      }
+    }, "relay-" + pipe.getFileName());
+    relay.start();
+    return relay;
+  }
+
+  private static void copy(final InputStream in, final OutputStream out) throws IOException {
+    final byte[] buffer = new byte[BUFFER_SIZE];
+    int read;
+    while ((read = in.read(buffer)) >= 0) {
+      out.write(buffer, 0, read);
+    }
+  }
+
+}
@@ -4,11 +4,15 @@
 
 package io.airbyte.workers.storage;
 
+import com.google.common.hash.Hashing;
 import io.airbyte.commons.io.IOs;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Document store for when all we have is an FS. This should only be used in the docker-compose
@@ -17,6 +21,9 @@ import java.util.Optional;
 public class DockerComposeDocumentStoreClient implements DocumentStoreClient {
 
   private static final Path STATE_PATH = Path.of("document_store");
+  private static final String EXTENSION = ".yaml";
+  // conditional writes are only atomic within a single process, which is all docker-compose runs
+  private static final Object CONDITIONAL_WRITE_LOCK = new Object();
   private final Path workspaceMount;
 
   public static DockerComposeDocumentStoreClient create(final Path workspaceMount) {
@@ -32,7 +39,7 @@ public class DockerComposeDocumentStoreClient implements DocumentStoreClient {
   }
 
   private Path getPath(final String id) {
-    return getRoot().resolve(String.format("%s.yaml", id));
+    return getRoot().resolve(id + EXTENSION);
   }
 
   @Override
@@ -70,4 +77,52 @@ public class DockerComposeDocumentStoreClient implements DocumentStoreClient {
     }
   }
 
+  @Override
+  public List<String> list(final String idPrefix) {
+    // only walk the deepest directory that the prefix designates
+    final int lastSeparator = idPrefix.lastIndexOf('/');
+    final Path directory = lastSeparator < 0 ? getRoot() : getRoot().resolve(idPrefix.substring(0, lastSeparator));
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+
+    try (final Stream<Path> paths = Files.walk(directory)) {
+      return paths
+          .filter(Files::isRegularFile)
+          .map(path -> getRoot().relativize(path).toString())
+          .filter(id -> id.endsWith(EXTENSION))
+          .map(id -> id.substring(0, id.length() - EXTENSION.length()))
+          .filter(id -> id.startsWith(idPrefix))
+          .toList();
+    } catch (final IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public Optional<VersionedDocument> readIfNoneMatch(final String id, final String knownVersion) {
+    return read(id)
+        .map(document -> new VersionedDocument(document, getVersion(document)))
+        .filter(document -> !document.version().equals(knownVersion));
+  }
+
+  @Override
+  public Optional<String> writeIfMatch(final String id, final String document, final String expectedVersion) {
+    synchronized (CONDITIONAL_WRITE_LOCK) {
+      final Optional<String> currentVersion = read(id).map(DockerComposeDocumentStoreClient::getVersion);
+      if (!currentVersion.equals(Optional.ofNullable(expectedVersion))) {
+        return Optional.empty();
+      }
+      write(id, document);
+      return Optional.of(getVersion(document));
+    }
+  }
+
+  /**
+   * Files don't have versions, their content hash is used instead.
+   */
+  private static String getVersion(final String document) {
+    return Hashing.sha256().hashString(document, StandardCharsets.UTF_8).toString();
+  }
+
 }
@@ -4,6 +4,7 @@
 
 package io.airbyte.workers.storage;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -11,6 +12,15 @@ import java.util.Optional;
  */
 public interface DocumentStoreClient {
 
+  /**
+   * A document and the version it was read or written at. Versions are opaque, they change every
+   * time the document is written.
+   *
+   * @param document content of the document
+   * @param version version of the document
+   */
+  record VersionedDocument(String document, String version) {}
+
   /**
    * Writes a document with a given id. If a document already exists at this id it will be
    * overwritten.
@@ -36,4 +46,35 @@ public interface DocumentStoreClient {
    */
   boolean delete(String id);
 
+  /**
+   * Lists the ids of the documents whose id starts with a prefix, in a single request when the
+   * store allows it.
+   *
+   * @param idPrefix prefix of the ids to list
+   * @return ids of the documents
+   */
+  List<String> list(String idPrefix);
+
+  /**
+   * Reads a document unless it is still at a known version, like an If-None-Match request, so that
+   * polling an unchanged document is cheap.
+   *
+   * @param id of the document to read
+   * @param knownVersion version of the document already known by the caller, null to always read
+   *        the document
+   * @return the document and its version, empty if it doesn't exist or is still at the known version
+   */
+  Optional<VersionedDocument> readIfNoneMatch(String id, String knownVersion);
+
+  /**
+   * Writes a document only if it is at an expected version, like an If-Match request, so that
+   * concurrent writes don't overwrite each other.
+   *
+   * @param id of the document to write
+   * @param document to write
+   * @param expectedVersion version the document must be at, null if it must not exist yet
+   * @return version of the written document, empty if the document wasn't at the expected version
+   */
+  Optional<String> writeIfMatch(String id, String document, String expectedVersion);
+
 }
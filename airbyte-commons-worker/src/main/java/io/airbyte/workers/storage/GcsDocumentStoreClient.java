@@ -8,17 +8,22 @@ import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
 import io.airbyte.config.storage.CloudStorageConfigs.GcsConfig;
 import io.airbyte.config.storage.DefaultGcsClientFactory;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.StreamSupport;
 
 /**
  * Document store on top of the GCS Client (Storage).
  */
 public class GcsDocumentStoreClient implements DocumentStoreClient {
 
+  private static final int PRECONDITION_FAILED = 412;
+
   private final String bucketName;
   private final Path root;
   private final Storage gcsClient;
@@ -72,4 +77,60 @@ public class GcsDocumentStoreClient implements DocumentStoreClient {
     return gcsClient.delete(BlobId.of(bucketName, getKey(id)));
   }
 
+  @Override
+  public List<String> list(final String idPrefix) {
+    final int rootLength = getKey("").length();
+    return StreamSupport.stream(gcsClient.list(bucketName, Storage.BlobListOption.prefix(getKey(idPrefix))).iterateAll().spliterator(), false)
+        .map(blob -> blob.getName().substring(rootLength))
+        .toList();
+  }
+
+  /**
+   * Versions are blob generations. The metadata of the blob is fetched first, its content is only
+   * downloaded if its generation changed.
+   */
+  @Override
+  public Optional<VersionedDocument> readIfNoneMatch(final String id, final String knownVersion) {
+    final Blob blob = gcsClient.get(getBlobId(id));
+    if (blob == null || !blob.exists()) {
+      return Optional.empty();
+    }
+    final String version = String.valueOf(blob.getGeneration());
+    if (version.equals(knownVersion)) {
+      return Optional.empty();
+    }
+
+    try {
+      final byte[] content = gcsClient.readAllBytes(getBlobId(id), Storage.BlobSourceOption.generationMatch(blob.getGeneration()));
+      return Optional.of(new VersionedDocument(new String(content, StandardCharsets.UTF_8), version));
+    } catch (final StorageException e) {
+      if (e.getCode() == PRECONDITION_FAILED) {
+        // the blob was written in between, read its latest generation
+        return readIfNoneMatch(id, knownVersion);
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public Optional<String> writeIfMatch(final String id, final String document, final String expectedVersion) {
+    try {
+      final Blob blob;
+      if (expectedVersion == null) {
+        blob = gcsClient.create(BlobInfo.newBuilder(getBlobId(id)).build(), document.getBytes(StandardCharsets.UTF_8),
+            Storage.BlobTargetOption.doesNotExist());
+      } else {
+        blob = gcsClient.create(BlobInfo.newBuilder(BlobId.of(bucketName, getKey(id), Long.parseLong(expectedVersion))).build(),
+            document.getBytes(StandardCharsets.UTF_8),
+            Storage.BlobTargetOption.generationMatch());
+      }
+      return Optional.of(String.valueOf(blob.getGeneration()));
+    } catch (final StorageException e) {
+      if (e.getCode() == PRECONDITION_FAILED) {
+        return Optional.empty();
+      }
+      throw e;
+    }
+  }
+
 }
@@ -10,6 +10,7 @@ import io.airbyte.config.storage.DefaultS3ClientFactory;
 import io.airbyte.config.storage.MinioS3ClientFactory;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,8 +21,11 @@ import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
 /**
  * Document store on top of the S3Client.
@@ -29,6 +33,9 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 public class S3DocumentStoreClient implements DocumentStoreClient {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(S3DocumentStoreClient.class);
+  private static final int NOT_MODIFIED = 304;
+  private static final int CONFLICT = 409;
+  private static final int PRECONDITION_FAILED = 412;
 
   private final String bucketName;
   private final Path root;
@@ -109,4 +116,68 @@ public class S3DocumentStoreClient implements DocumentStoreClient {
     return keyExists;
   }
 
+  @Override
+  public List<String> list(final String idPrefix) {
+    final int rootLength = getKey("").length();
+    return s3Client.listObjectsV2Paginator(ListObjectsV2Request.builder()
+        .bucket(bucketName)
+        .prefix(getKey(idPrefix))
+        .build())
+        .contents()
+        .stream()
+        .map(object -> object.key().substring(rootLength))
+        .toList();
+  }
+
+  @Override
+  public Optional<VersionedDocument> readIfNoneMatch(final String id, final String knownVersion) {
+    try {
+      final ResponseBytes<GetObjectResponse> objectAsBytes = s3Client.getObjectAsBytes(GetObjectRequest.builder()
+          .bucket(bucketName)
+          .key(getKey(id))
+          .ifNoneMatch(knownVersion)
+          .build());
+      return Optional.of(new VersionedDocument(objectAsBytes.asString(StandardCharsets.UTF_8), objectAsBytes.response().eTag()));
+    } catch (final NoSuchKeyException e) {
+      LOGGER.debug("Could not find record with id {}", id);
+      return Optional.empty();
+    } catch (final S3Exception e) {
+      if (e.statusCode() == NOT_MODIFIED) {
+        return Optional.empty();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * The conditions are passed as If-Match and If-None-Match headers, which S3 supports on writes.
+   * S3 compatible stores which don't support them write the document unconditionally.
+   */
+  @Override
+  public Optional<String> writeIfMatch(final String id, final String document, final String expectedVersion) {
+    final PutObjectRequest request = PutObjectRequest.builder()
+        .bucket(bucketName)
+        .key(getKey(id))
+        .overrideConfiguration(config -> {
+          if (expectedVersion == null) {
+            config.putHeader("If-None-Match", "*");
+          } else {
+            config.putHeader("If-Match", expectedVersion);
+          }
+        })
+        .build();
+
+    try {
+      final PutObjectResponse response = s3Client.putObject(request, RequestBody.fromString(document));
+      return Optional.of(response.eTag());
+    } catch (final S3Exception e) {
+      // S3 answers with a conflict when a conditional write races with another write
+      if (e.statusCode() == PRECONDITION_FAILED || e.statusCode() == CONFLICT) {
+        LOGGER.debug("Record with id {} isn't at version {}", id, expectedVersion);
+        return Optional.empty();
+      }
+      throw e;
+    }
+  }
+
 }
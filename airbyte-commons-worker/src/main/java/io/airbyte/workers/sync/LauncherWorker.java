@@ -181,7 +181,8 @@ public abstract class LauncherWorker<INPUT, OUTPUT> implements Worker<INPUT, OUT
           workerConfigs.getWorkerKubeAnnotations(),
           serverPort,
           containerOrchestratorConfig.serviceAccount(),
-          schedulerName.isBlank() ? null : schedulerName);
+          schedulerName.isBlank() ? null : schedulerName,
+          containerOrchestratorConfig.statusTracker());
 
       // only kill running pods and create process if it is not already running.
       if (process.getDocStoreStatus().equals(AsyncKubePodStatus.NOT_STARTED)) {
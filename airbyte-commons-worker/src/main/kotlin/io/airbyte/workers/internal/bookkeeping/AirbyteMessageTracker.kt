@@ -6,6 +6,7 @@ import io.airbyte.config.FailureReason
 import io.airbyte.protocol.models.AirbyteMessage
 import io.airbyte.protocol.models.AirbyteTraceMessage
 import io.airbyte.workers.helper.FailureHelper
+import io.airbyte.workers.internal.RawRecordPassthrough
 import io.airbyte.workers.internal.state_aggregator.DefaultStateAggregator
 import io.airbyte.workers.internal.state_aggregator.StateAggregator
 import io.github.oshai.kotlinlogging.KotlinLogging
@@ -21,7 +22,11 @@ private val logger = KotlinLogging.logger {}
 class AirbyteMessageTracker(
   val syncStatsTracker: SyncStatsTracker,
   featureFlags: FeatureFlags,
+  private val rawRecordPassthrough: RawRecordPassthrough,
 ) {
+  constructor(syncStatsTracker: SyncStatsTracker, featureFlags: FeatureFlags) :
+    this(syncStatsTracker, featureFlags, RawRecordPassthrough.DISABLED)
+
   private val dstErrorTraceMsgs = ArrayList<AirbyteTraceMessage>()
   private val srcErrorTraceMsgs = ArrayList<AirbyteTraceMessage>()
   private val logConnectorMsgs: Boolean = featureFlags.logConnectorMessages()
@@ -38,13 +43,26 @@ class AirbyteMessageTracker(
 
     when (msg.type) {
       AirbyteMessage.Type.TRACE -> handleEmittedTrace(msg.trace, AirbyteMessageOrigin.SOURCE)
-      AirbyteMessage.Type.RECORD -> syncStatsTracker.updateStats(msg.record)
+      AirbyteMessage.Type.RECORD -> trackRecord(msg)
       AirbyteMessage.Type.STATE -> syncStatsTracker.updateSourceStatesStats(msg.state)
       AirbyteMessage.Type.CONTROL -> logger.debug { "Control message not currently tracked." }
       else -> logger.warn { "Invalid message type for message: $msg" }
     }
   }
 
+  /**
+   * Use the size measured on the original line of the record when we have it, the stats tracker would
+   * otherwise have to serialize the record data to estimate its size.
+   */
+  private fun trackRecord(msg: AirbyteMessage) {
+    val dataSize = rawRecordPassthrough.getDataSize(msg)
+    if (dataSize >= 0) {
+      syncStatsTracker.updateStats(msg.record, dataSize)
+    } else {
+      syncStatsTracker.updateStats(msg.record)
+    }
+  }
+
   /**
    * Accepts an AirbyteMessage emitted from a destination and tracks any metadata about it that is
    * required by the Platform.
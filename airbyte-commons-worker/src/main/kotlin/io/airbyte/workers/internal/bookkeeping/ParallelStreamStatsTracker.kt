@@ -36,6 +36,11 @@ class ParallelStreamStatsTracker(private val metricClient: MetricClient) : SyncS
       .trackRecord(recordMessage)
   }
 
+  override fun updateStats(recordMessage: AirbyteRecordMessage, dataSize: Long) {
+    getOrCreateStreamStatsTracker(getNameNamespacePair(recordMessage))
+      .trackRecord(recordMessage, dataSize)
+  }
+
   override fun updateEstimates(estimate: AirbyteEstimateTraceMessage) {
     if (hasEstimatesErrors) {
       return
@@ -80,6 +80,8 @@ private data class StagedStats(
 
 private val logger = KotlinLogging.logger { }
 
+private const val UNKNOWN_SIZE: Long = -1
+
 /**
  * Track Stats for a specific stream.
  * <p>
@@ -108,9 +110,12 @@ class StreamStatsTracker(
    * We update emitted records count on both emittedStats and streamStats. emittedStats is the tracker
    * for what is going to become committed once the state is acked. We update the global count to
    * avoid having to traverse the map to get the global count.
+   *
+   * If the size of the record data is already known, it should be passed as dataSize to avoid
+   * serializing the data to estimate its size.
    */
-  fun trackRecord(recordMessage: AirbyteRecordMessage) {
-    val estimatedBytesSize: Long = Jsons.getEstimatedByteSize(recordMessage.data).toLong()
+  fun trackRecord(recordMessage: AirbyteRecordMessage, dataSize: Long = UNKNOWN_SIZE) {
+    val estimatedBytesSize: Long = if (dataSize >= 0) dataSize else Jsons.getEstimatedByteSize(recordMessage.data).toLong()
 
     // Update the current emitted stats
     // We do a local copy of the reference to emittedStats to ensure all the stats are
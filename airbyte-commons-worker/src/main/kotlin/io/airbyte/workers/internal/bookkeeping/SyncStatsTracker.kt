@@ -17,6 +17,12 @@ interface SyncStatsTracker {
    */
   fun updateStats(recordMessage: AirbyteRecordMessage)
 
+  /**
+   * Update the stats count with data from recordMessage, the size of the record data has already
+   * been measured and doesn't need to be estimated.
+   */
+  fun updateStats(recordMessage: AirbyteRecordMessage, dataSize: Long)
+
   /**
    * There are several assumptions here:
    *
@@ -1,5 +1,6 @@
 package io.airbyte.workers.internal.syncpersistence
 
+import com.fasterxml.jackson.databind.JsonNode
 import datadog.trace.api.Trace
 import io.airbyte.api.client.AirbyteApiClient
 import io.airbyte.api.client.generated.AttemptApi
@@ -23,10 +24,12 @@ import io.airbyte.metrics.lib.MetricClientFactory
 import io.airbyte.metrics.lib.MetricTags
 import io.airbyte.metrics.lib.OssMetricsRegistry
 import io.airbyte.protocol.models.AirbyteEstimateTraceMessage
+import io.airbyte.protocol.models.AirbyteGlobalState
 import io.airbyte.protocol.models.AirbyteRecordMessage
 import io.airbyte.protocol.models.AirbyteStateMessage
 import io.airbyte.protocol.models.CatalogHelpers
 import io.airbyte.protocol.models.ConfiguredAirbyteCatalog
+import io.airbyte.protocol.models.StreamDescriptor
 import io.airbyte.workers.internal.bookkeeping.SyncStatsTracker
 import io.airbyte.workers.internal.bookkeeping.getPerStreamStats
 import io.airbyte.workers.internal.bookkeeping.getTotalStats
@@ -85,6 +88,10 @@ class SyncPersistenceImpl
     private var statsToPersist: SaveStatsRequestBody? = null
     private var retryWithJitterConfig: RetryWithJitterConfig? = null
 
+    // Stream states of the GLOBAL state as of the last successful flush. A GLOBAL state message carries
+    // the states of every stream, this is used to only send the streams that changed since then.
+    private val persistedGlobalStreamStates: MutableMap<StreamDescriptor, JsonNode?> = HashMap()
+
     protected constructor(
       stateApi: StateApi,
       attemptApi: AttemptApi,
@@ -299,15 +306,18 @@ class SyncPersistenceImpl
 
       val state = stateToFlush?.getAggregated() ?: return
       val maybeStateWrapper = StateMessageHelper.getTypedState(state.state, true).getOrNull() ?: return
+      val changedState = removeUnchangedStreamStates(maybeStateWrapper)
 
       metricClient.count(OssMetricsRegistry.STATE_COMMIT_ATTEMPT, 1)
 
+      // The server merges the streams of the request into the stored state, streams that aren't part of
+      // the request keep their current state.
       val stateApiRequest = ConnectionStateCreateOrUpdate()
         .connectionId(connectionId)
-        .connectionState(StateConverter.toClient(connectionId, maybeStateWrapper))
+        .connectionState(StateConverter.toClient(connectionId, changedState))
 
       try {
-        stateApi.createOrUpdateState(stateApiRequest)
+        stateApi.mergeState(stateApiRequest)
       } catch (e: Exception) {
         metricClient.count(OssMetricsRegistry.STATE_COMMIT_ATTEMPT_FAILED, 1)
         throw e
@@ -315,9 +325,44 @@ class SyncPersistenceImpl
 
       // Only reset stateToFlush if the API call was successful
       stateToFlush = null
+      if (changedState.stateType == StateType.GLOBAL) {
+        changedState.global.global.streamStates.forEach { persistedGlobalStreamStates[it.streamDescriptor] = it.streamState }
+      }
       metricClient.count(OssMetricsRegistry.STATE_COMMIT_ATTEMPT_SUCCESSFUL, 1)
     }
 
+    /**
+     * STREAM states only contain the streams which received a state since the last successful flush
+     * because the state buffer is renewed on every flush. A GLOBAL state however always contains the
+     * states of every stream, only the shared state and the stream states which changed since the last
+     * successful flush are kept.
+     */
+    private fun removeUnchangedStreamStates(state: StateWrapper): StateWrapper {
+      if (state.stateType != StateType.GLOBAL) {
+        return state
+      }
+
+      val globalState = state.global.global
+      val changedStreamStates = globalState.streamStates.filter {
+        !persistedGlobalStreamStates.containsKey(it.streamDescriptor) || persistedGlobalStreamStates[it.streamDescriptor] != it.streamState
+      }
+      if (changedStreamStates.size == globalState.streamStates.size) {
+        return state
+      }
+
+      return StateWrapper()
+        .withStateType(StateType.GLOBAL)
+        .withGlobal(
+          AirbyteStateMessage()
+            .withType(AirbyteStateMessage.AirbyteStateType.GLOBAL)
+            .withGlobal(
+              AirbyteGlobalState()
+                .withSharedState(globalState.sharedState)
+                .withStreamStates(changedStreamStates),
+            ),
+        )
+    }
+
     private fun isMigration(currentPersistedState: ConnectionState?, stateMessage: AirbyteStateMessage): Boolean {
       return (
         !isStateEmpty(currentPersistedState) && currentPersistedState?.stateType == ConnectionStateType.LEGACY &&
@@ -375,6 +420,11 @@ class SyncPersistenceImpl
       syncStatsTracker.updateStats(recordMessage)
     }
 
+    override fun updateStats(recordMessage: AirbyteRecordMessage, dataSize: Long) {
+      isReceivingStats = true
+      syncStatsTracker.updateStats(recordMessage, dataSize)
+    }
+
     override fun updateEstimates(estimate: AirbyteEstimateTraceMessage) {
       isReceivingStats = true
       syncStatsTracker.updateEstimates(estimate)
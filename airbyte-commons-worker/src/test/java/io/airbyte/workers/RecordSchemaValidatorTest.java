@@ -5,17 +5,23 @@
 package io.airbyte.workers;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.common.collect.ImmutableMap;
 import io.airbyte.config.StandardSync;
 import io.airbyte.persistence.job.models.ReplicationInput;
 import io.airbyte.protocol.models.AirbyteMessage;
 import io.airbyte.protocol.models.AirbyteStreamNameNamespacePair;
+import io.airbyte.validation.json.JsonSchemaValidator;
+import io.airbyte.workers.RecordSchemaValidator.Sampling;
 import io.airbyte.workers.test_utils.AirbyteMessageUtils;
 import io.airbyte.workers.test_utils.TestConfigHelpers;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
@@ -96,4 +102,52 @@ class RecordSchemaValidatorTest {
     assertEquals(2, uncountedValidationErrors.get(AIRBYTE_STREAM_NAME_NAMESPACE_PAIR).size());
   }
 
+  @Test
+  void testValidateInvalidSchemaWithSeveralThreads() throws InterruptedException {
+    final var executorService = Executors.newFixedThreadPool(4);
+    final var recordSchemaValidator = new RecordSchemaValidator(WorkerUtils.mapStreamNamesToSchemas(replicationInput.getCatalog()), executorService);
+
+    for (int i = 0; i < 100; i++) {
+      recordSchemaValidator.validateSchema(INVALID_RECORD_1.getRecord(), AIRBYTE_STREAM_NAME_NAMESPACE_PAIR, validationErrors);
+      recordSchemaValidator.validateSchemaWithoutCounting(INVALID_RECORD_2.getRecord(), AIRBYTE_STREAM_NAME_NAMESPACE_PAIR,
+          uncountedValidationErrors);
+    }
+
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(RecordSchemaValidator.MAX_RECORDS_WITH_ERRORS_PER_STREAM, (int) validationErrors.get(AIRBYTE_STREAM_NAME_NAMESPACE_PAIR).getRight());
+    assertEquals(1, uncountedValidationErrors.get(AIRBYTE_STREAM_NAME_NAMESPACE_PAIR).size());
+  }
+
+  @Test
+  void testShouldValidateSamplesEachStream() {
+    final AirbyteStreamNameNamespacePair otherStream = new AirbyteStreamNameNamespacePair("other", "");
+    final var recordSchemaValidator = new RecordSchemaValidator(Map.of(), Executors.newSingleThreadExecutor(), new JsonSchemaValidator(),
+        new Sampling(2, 3));
+
+    final List<Boolean> sampled = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      sampled.add(recordSchemaValidator.shouldValidate(AIRBYTE_STREAM_NAME_NAMESPACE_PAIR));
+    }
+
+    assertEquals(List.of(true, true, true, false, false, true, false, false), sampled);
+    assertTrue(recordSchemaValidator.shouldValidate(otherStream));
+  }
+
+  @Test
+  void testAllRecordsAreValidatedByDefault() {
+    final var recordSchemaValidator = new RecordSchemaValidator(WorkerUtils.mapStreamNamesToSchemas(replicationInput.getCatalog()));
+
+    for (int i = 0; i < 100; i++) {
+      assertTrue(recordSchemaValidator.shouldValidate(AIRBYTE_STREAM_NAME_NAMESPACE_PAIR));
+    }
+  }
+
+  @Test
+  void testInvalidSampling() {
+    assertThrows(IllegalArgumentException.class, () -> new Sampling(-1, 1));
+    assertThrows(IllegalArgumentException.class, () -> new Sampling(0, 0));
+    assertFalse(new Sampling(0, 2).isSampled(1));
+  }
+
 }
@@ -11,6 +11,7 @@ import static org.mockito.Mockito.doThrow;
 
 import io.airbyte.config.ReplicationOutput;
 import io.airbyte.config.StandardSyncSummary.ReplicationStatus;
+import io.airbyte.featureflag.TestClient;
 import io.airbyte.workers.internal.FieldSelector;
 import org.junit.jupiter.api.Test;
 
@@ -34,12 +35,16 @@ class BufferedReplicationWorkerTest extends ReplicationWorkerTest {
         recordSchemaValidator,
         fieldSelector,
         heartbeatTimeoutChaperone,
-        new ReplicationFeatureFlagReader(),
+        getReplicationFeatureFlagReader(),
         airbyteMessageDataExtractor,
         replicationAirbyteMessageEventPublishingHelper,
         onReplicationRunning);
   }
 
+  ReplicationFeatureFlagReader getReplicationFeatureFlagReader() {
+    return new ReplicationFeatureFlagReader(new TestClient());
+  }
+
   // BufferedReplicationWorkerTests.
   // Tests in this class should be implementation specific, general behavior tests should be added to
   // the ReplicationWorkerTest.
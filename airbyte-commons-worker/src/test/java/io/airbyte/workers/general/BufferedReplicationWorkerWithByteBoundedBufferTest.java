@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.general;
+
+import io.airbyte.featureflag.ReplicationBufferMaxMegabytes;
+import io.airbyte.featureflag.TestClient;
+import java.util.Map;
+
+/**
+ * Runs the BufferedReplicationWorker tests with buffers bounded in bytes.
+ */
+class BufferedReplicationWorkerWithByteBoundedBufferTest extends BufferedReplicationWorkerTest {
+
+  @Override
+  ReplicationFeatureFlagReader getReplicationFeatureFlagReader() {
+    return new ReplicationFeatureFlagReader(new TestClient(Map.of(ReplicationBufferMaxMegabytes.INSTANCE.getKey(), 1)));
+  }
+
+}
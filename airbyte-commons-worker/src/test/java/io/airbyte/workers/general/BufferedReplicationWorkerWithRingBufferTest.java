@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.general;
+
+import io.airbyte.featureflag.ReplicationBufferImpl;
+import io.airbyte.featureflag.TestClient;
+import java.util.Map;
+
+/**
+ * Runs the BufferedReplicationWorker tests with the ring buffer queues.
+ */
+class BufferedReplicationWorkerWithRingBufferTest extends BufferedReplicationWorkerTest {
+
+  @Override
+  ReplicationFeatureFlagReader getReplicationFeatureFlagReader() {
+    return new ReplicationFeatureFlagReader(
+        new TestClient(Map.of(ReplicationBufferImpl.INSTANCE.getKey(), BufferedReplicationWorker.RING_BUFFER_IMPL)));
+  }
+
+}
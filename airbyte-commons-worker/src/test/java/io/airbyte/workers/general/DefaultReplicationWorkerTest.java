@@ -6,6 +6,7 @@ package io.airbyte.workers.general;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.airbyte.featureflag.TestClient;
 import io.airbyte.workers.internal.FieldSelector;
 
 /**
@@ -28,7 +29,7 @@ class DefaultReplicationWorkerTest extends ReplicationWorkerTest {
         recordSchemaValidator,
         fieldSelector,
         heartbeatTimeoutChaperone,
-        new ReplicationFeatureFlagReader(),
+        new ReplicationFeatureFlagReader(new TestClient()),
         airbyteMessageDataExtractor,
         replicationAirbyteMessageEventPublishingHelper,
         onReplicationRunning);
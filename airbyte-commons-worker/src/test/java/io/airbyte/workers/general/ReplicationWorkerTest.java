@@ -190,6 +190,7 @@ abstract class ReplicationWorkerTest {
     syncStatsTracker = mock(SyncStatsTracker.class);
     syncPersistence = mock(SyncPersistence.class);
     recordSchemaValidator = mock(RecordSchemaValidator.class);
+    when(recordSchemaValidator.shouldValidate(any())).thenReturn(true);
     connectorConfigUpdater = mock(ConnectorConfigUpdater.class);
     metricClient = MetricClientFactory.getMetricClient();
     workerMetricReporter = new WorkerMetricReporter(metricClient, "docker_image:v1.0.0");
@@ -438,6 +439,7 @@ abstract class ReplicationWorkerTest {
     final String streamNamespace = sourceConfig.getCatalog().getStreams().get(0).getStream().getNamespace();
     final ExecutorService executorService = Executors.newFixedThreadPool(1);
     final JsonSchemaValidator jsonSchemaValidator = mock(JsonSchemaValidator.class);
+    when(jsonSchemaValidator.getCacheStats()).thenReturn(new JsonSchemaValidator.CacheStats(0, 0, 0));
     recordSchemaValidator = new RecordSchemaValidator(Map.of(new AirbyteStreamNameNamespacePair(streamName, streamNamespace),
         sourceConfig.getCatalog().getStreams().get(0).getStream().getJsonSchema()), executorService, jsonSchemaValidator);
 
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.general;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.airbyte.metrics.lib.MetricAttribute;
+import io.airbyte.metrics.lib.MetricGauge;
+import io.airbyte.metrics.lib.MetricTags;
+import io.airbyte.metrics.lib.MetricsRegistry;
+import io.airbyte.metrics.lib.NotImplementedMetricClient;
+import io.airbyte.metrics.lib.OssMetricsRegistry;
+import io.airbyte.workers.general.StageLatencyTracker.Stage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class StageLatencyTrackerTest {
+
+  @Test
+  void testReportSummarizesEveryStage() {
+    final StageLatencyTracker tracker = new StageLatencyTracker();
+    for (int i = 1; i <= 100; i++) {
+      tracker.record(Stage.PROCESS, TimeUnit.MICROSECONDS.toNanos(i));
+    }
+    tracker.record(Stage.DESTINATION_WRITE, TimeUnit.MILLISECONDS.toNanos(5));
+
+    final Map<String, Map<String, Object>> report = tracker.getReport();
+
+    assertEquals(Stage.values().length, report.size());
+    final Map<String, Object> process = report.get(Stage.PROCESS.getName());
+    assertEquals(100L, process.get("count"));
+    assertEquals(50.0, (double) process.get("p50Micros"), 1.0);
+    assertEquals(100.0, (double) process.get("maxMicros"), 1.0);
+    assertEquals(5000.0, (double) report.get(Stage.DESTINATION_WRITE.getName()).get("p99Micros"), 50.0);
+
+    final Map<String, Object> sourceQueueWait = report.get(Stage.SOURCE_QUEUE_WAIT.getName());
+    assertEquals(0L, sourceQueueWait.get("count"));
+    assertFalse(sourceQueueWait.containsKey("p50Micros"));
+  }
+
+  @Test
+  void testReportCoversTheWholeSyncAcrossMetricReports() {
+    final StageLatencyTracker tracker = new StageLatencyTracker();
+    final RecordingMetricClient metricClient = new RecordingMetricClient();
+
+    tracker.record(Stage.SOURCE_QUEUE_WAIT, 1000);
+    tracker.reportMetrics(metricClient);
+    tracker.record(Stage.SOURCE_QUEUE_WAIT, 2000);
+    tracker.reportMetrics(metricClient);
+
+    assertEquals(2L, tracker.getReport().get(Stage.SOURCE_QUEUE_WAIT.getName()).get("count"));
+  }
+
+  @Test
+  void testMetricsAreReportedForStagesWithMessagesInThePeriod() {
+    final StageLatencyTracker tracker = new StageLatencyTracker();
+    final RecordingMetricClient metricClient = new RecordingMetricClient();
+
+    tracker.record(Stage.DESTINATION_QUEUE_WAIT, TimeUnit.MICROSECONDS.toNanos(10));
+    tracker.reportMetrics(metricClient);
+
+    assertEquals(10.0, metricClient.gauges.get(List.of(
+        new MetricAttribute(MetricTags.STAGE, Stage.DESTINATION_QUEUE_WAIT.getName()),
+        new MetricAttribute(MetricTags.PERCENTILE, "max"))), 0.1);
+    assertTrue(metricClient.gauges.containsKey(List.of(
+        new MetricAttribute(MetricTags.STAGE, Stage.DESTINATION_QUEUE_WAIT.getName()),
+        new MetricAttribute(MetricTags.PERCENTILE, "p99"))));
+    assertTrue(metricClient.gauges.keySet().stream()
+        .noneMatch(attributes -> attributes.contains(new MetricAttribute(MetricTags.STAGE, Stage.PROCESS.getName()))));
+  }
+
+  /**
+   * Keeps the latest value of the stage latency gauges, by attributes.
+   */
+  private static class RecordingMetricClient extends NotImplementedMetricClient {
+
+    private final Map<List<MetricAttribute>, Double> gauges = new HashMap<>();
+
+    @Override
+    public void gauge(final MetricsRegistry metric, final double val, final MetricAttribute... attributes) {
+      assertEquals(OssMetricsRegistry.WORKER_STAGE_LATENCY_MICROS, metric);
+      gauges.put(List.of(attributes), val);
+    }
+
+    @Override
+    public MetricGauge gaugeHandle(final MetricsRegistry metric, final MetricAttribute... attributes) {
+      return val -> gauge(metric, val, attributes);
+    }
+
+  }
+
+}
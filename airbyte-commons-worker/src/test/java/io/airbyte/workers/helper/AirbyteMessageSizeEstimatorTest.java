@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.airbyte.commons.concurrency.AdaptiveQueueCapacityPolicy;
+import io.airbyte.commons.concurrency.BoundedConcurrentLinkedQueue;
+import io.airbyte.commons.concurrency.ByteBoundedQueue;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import io.airbyte.workers.internal.LazyAirbyteRecordMessage;
+import io.airbyte.workers.test_utils.AirbyteMessageUtils;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class AirbyteMessageSizeEstimatorTest {
+
+  @Test
+  void testEstimateMatchesSerializedSizeWithoutNumbers() {
+    final JsonNode data = Jsons.deserialize("{\"name\":\"blue\",\"tags\":[\"a\",\"b\"],\"nested\":{\"flag\":true,\"missing\":null}}");
+
+    // the estimate counts a comma after each field or element, so one extra comma per container
+    final long extraCommas = 3;
+    assertEquals(Jsons.serialize(data).length() + extraCommas, AirbyteMessageSizeEstimator.estimateSize(data));
+  }
+
+  @Test
+  void testEstimateGrowsWithTheRecord() {
+    final AirbyteMessage small = AirbyteMessageUtils.createRecordMessage("stream", "field", "value");
+    final AirbyteMessage large = AirbyteMessageUtils.createRecordMessage("stream", "field", "value".repeat(1000));
+
+    assertTrue(AirbyteMessageSizeEstimator.estimateSize(large) - AirbyteMessageSizeEstimator.estimateSize(small) >= 4995);
+  }
+
+  @Test
+  void testStateIsEstimated() {
+    final AirbyteMessage state = AirbyteMessageUtils.createStateMessage("stream", "cursor", "value".repeat(1000));
+
+    assertTrue(AirbyteMessageSizeEstimator.estimateSize(state) > 5000);
+  }
+
+  @Test
+  void testLazyRecordIsEstimatedWithoutDeserializingIt() {
+    final String data = "{\"field\":\"" + "value".repeat(1000) + "\"}";
+    final LazyAirbyteRecordMessage record = lazyRecord(data);
+
+    assertTrue(AirbyteMessageSizeEstimator.estimateSize(new AirbyteMessage().withType(Type.RECORD).withRecord(record)) > data.length());
+    assertFalse(record.isMaterialized());
+  }
+
+  @Test
+  void testEnqueueingALazyRecordDoesNotDeserializeIt() throws InterruptedException {
+    final ByteBoundedQueue<AirbyteMessage> queue = new ByteBoundedQueue<>(BoundedConcurrentLinkedQueue::new,
+        AirbyteMessageSizeEstimator::estimateSize,
+        new AdaptiveQueueCapacityPolicy(1, 10, 1, 1_000_000, Duration.ofSeconds(1)));
+    final LazyAirbyteRecordMessage record = lazyRecord("{\"field\":\"value\"}");
+
+    queue.put(new AirbyteMessage().withType(Type.RECORD).withRecord(record));
+
+    assertEquals(1, queue.size());
+    assertTrue(queue.getBytes() > 0);
+    assertFalse(record.isMaterialized());
+  }
+
+  private static LazyAirbyteRecordMessage lazyRecord(final String data) {
+    final String line = "{\"type\":\"RECORD\",\"record\":{\"stream\":\"stream\",\"data\":" + data + "}}";
+    final int dataStart = line.indexOf(data);
+    return new LazyAirbyteRecordMessage(line, dataStart, dataStart + data.length());
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteStreamNameNamespacePair;
+import io.airbyte.protocol.models.CatalogHelpers;
+import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
+import io.airbyte.protocol.models.Field;
+import io.airbyte.protocol.models.JsonSchemaType;
+import io.airbyte.workers.RecordSchemaValidator;
+import io.airbyte.workers.WorkerMetricReporter;
+import io.airbyte.workers.WorkerUtils;
+import io.airbyte.workers.test_utils.AirbyteMessageUtils;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FieldSelectorTest {
+
+  private static final String STREAM_NAME = "users";
+  private static final AirbyteStreamNameNamespacePair STREAM = new AirbyteStreamNameNamespacePair(STREAM_NAME, null);
+  private static final ConfiguredAirbyteCatalog CATALOG = CatalogHelpers.createConfiguredAirbyteCatalog(
+      STREAM_NAME,
+      null,
+      Field.of("id", JsonSchemaType.INTEGER),
+      Field.of("name", JsonSchemaType.STRING));
+
+  private RecordSchemaValidator recordSchemaValidator;
+  private WorkerMetricReporter metricReporter;
+
+  @BeforeEach
+  void setup() {
+    recordSchemaValidator = new RecordSchemaValidator(WorkerUtils.mapStreamNamesToSchemas(CATALOG), MoreExecutors.newDirectExecutorService());
+    metricReporter = mock(WorkerMetricReporter.class);
+  }
+
+  @Test
+  void testFilterSelectedFields() {
+    final FieldSelector fieldSelector = new FieldSelector(recordSchemaValidator, metricReporter, true, false);
+    fieldSelector.populateFields(CATALOG);
+    final AirbyteMessage record = AirbyteMessageUtils.createRecordMessage(STREAM_NAME, Map.of("id", 1, "name", "a", "email", "b", "age", 2));
+
+    fieldSelector.filterSelectedFields(record);
+
+    assertEquals(Jsons.jsonNode(Map.of("id", 1, "name", "a")), record.getRecord().getData());
+  }
+
+  @Test
+  void testFilterRemovesEveryFieldOfUnknownStreams() {
+    final FieldSelector fieldSelector = new FieldSelector(recordSchemaValidator, metricReporter, true, false);
+    fieldSelector.populateFields(CATALOG);
+    final AirbyteMessage record = AirbyteMessageUtils.createRecordMessage("other", Map.of("id", 1));
+
+    fieldSelector.filterSelectedFields(record);
+
+    assertEquals(Jsons.emptyObject(), record.getRecord().getData());
+  }
+
+  @Test
+  void testUnexpectedFieldsAreReported() {
+    final FieldSelector fieldSelector = new FieldSelector(recordSchemaValidator, metricReporter, false, false);
+    fieldSelector.populateFields(CATALOG);
+
+    fieldSelector.validateSchema(AirbyteMessageUtils.createRecordMessage(STREAM_NAME, Map.of("id", 1, "email", "b")));
+    fieldSelector.validateSchema(AirbyteMessageUtils.createRecordMessage(STREAM_NAME, Map.of("id", 2, "age", 3)));
+    fieldSelector.reportMetrics(UUID.randomUUID());
+
+    verify(metricReporter).trackUnexpectedFields(STREAM, Set.of("email", "age"));
+  }
+
+  @Test
+  void testUnexpectedFieldsAreSampled() {
+    final FieldSelector fieldSelector = new FieldSelector(recordSchemaValidator, metricReporter, false, false, RawRecordPassthrough.DISABLED, 2);
+    fieldSelector.populateFields(CATALOG);
+
+    fieldSelector.validateSchema(AirbyteMessageUtils.createRecordMessage(STREAM_NAME, Map.of("id", 1)));
+    fieldSelector.validateSchema(AirbyteMessageUtils.createRecordMessage(STREAM_NAME, Map.of("id", 2, "email", "b")));
+    fieldSelector.reportMetrics(UUID.randomUUID());
+
+    verify(metricReporter, never()).trackUnexpectedFields(any(), any());
+  }
+
+}
@@ -294,4 +294,24 @@ class NamespacingMapperTest {
     assertEquals(expectedMessage, actualMessage);
   }
 
+  @Test
+  void testCustomFormatWithSpecialCharactersInSourceNamespace() {
+    final NamespacingMapper mapper = new NamespacingMapper(
+        NamespaceDefinitionType.CUSTOMFORMAT,
+        "${SOURCE_NAMESPACE}_suffix",
+        OUTPUT_PREFIX,
+        destinationToSourceNamespaceAndStreamName);
+    final String sourceNamespace = "source_$1_\\namespace";
+
+    for (int i = 0; i < 2; i++) {
+      final AirbyteMessage message = createRecordMessage();
+      message.getRecord().withNamespace(sourceNamespace);
+
+      final AirbyteMessage actualMessage = mapper.mapMessage(message);
+
+      assertEquals(sourceNamespace + "_suffix", actualMessage.getRecord().getNamespace());
+      assertEquals(OUTPUT_PREFIX + STREAM_NAME, actualMessage.getRecord().getStream());
+    }
+  }
+
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.workers.test_utils.AirbyteMessageUtils;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RawRecordPassthroughTest {
+
+  private static final String STREAM_NAME = "user_preferences";
+  private static final String FIELD_NAME = "favorite_color";
+  // Not the way Jsons.serialize would format it, so we can tell whether the line has been forwarded.
+  private static final String RAW_RECORD =
+      "{ \"type\": \"RECORD\", \"record\": { \"stream\": \"user_preferences\", \"data\": { \"favorite_color\": \"blue\" }, \"emitted_at\": 1 } }";
+
+  @Test
+  void testCleanRecordIsForwardedAsIs() throws IOException {
+    final RawRecordPassthrough passthrough = new RawRecordPassthrough(true);
+    final AirbyteMessage message = readSingleMessage(RAW_RECORD, passthrough);
+
+    assertEquals(RAW_RECORD + System.lineSeparator(), write(message, passthrough));
+    // The line is only used once
+    assertNull(passthrough.takeSerialized(message));
+  }
+
+  @Test
+  void testDirtyRecordIsSerialized() throws IOException {
+    final RawRecordPassthrough passthrough = new RawRecordPassthrough(true);
+    final AirbyteMessage message = readSingleMessage(RAW_RECORD, passthrough);
+
+    new NamespacingMapper(null, null, "prefix_", passthrough).mapMessage(message);
+
+    assertEquals(Jsons.serialize(message) + System.lineSeparator(), write(message, passthrough));
+  }
+
+  @Test
+  void testUnchangedRecordStaysClean() throws IOException {
+    final RawRecordPassthrough passthrough = new RawRecordPassthrough(true);
+    final AirbyteMessage message = readSingleMessage(RAW_RECORD, passthrough);
+
+    new NamespacingMapper(null, null, null, passthrough).mapMessage(message);
+
+    assertEquals(RAW_RECORD + System.lineSeparator(), write(message, passthrough));
+  }
+
+  @Test
+  void testLineWithTrailingContentIsNotTracked() {
+    final RawRecordPassthrough passthrough = new RawRecordPassthrough(true);
+    final AirbyteMessage message = AirbyteMessageUtils.createRecordMessage(STREAM_NAME, FIELD_NAME, "blue");
+
+    passthrough.attach(message, Jsons.serialize(message) + " trailing");
+
+    assertNull(passthrough.takeSerialized(message));
+  }
+
+  @Test
+  void testNonRecordIsNotTracked() {
+    final RawRecordPassthrough passthrough = new RawRecordPassthrough(true);
+    final AirbyteMessage message = AirbyteMessageUtils.createStateMessage(STREAM_NAME, FIELD_NAME, "blue");
+
+    passthrough.attach(message, Jsons.serialize(message));
+
+    assertNull(passthrough.takeSerialized(message));
+  }
+
+  @Test
+  void testDisabled() {
+    final RawRecordPassthrough passthrough = RawRecordPassthrough.DISABLED;
+    final AirbyteMessage message = AirbyteMessageUtils.createRecordMessage(STREAM_NAME, FIELD_NAME, "blue");
+
+    passthrough.attach(message, RAW_RECORD);
+
+    assertFalse(passthrough.isEnabled());
+    assertNull(passthrough.takeSerialized(message));
+  }
+
+  private static AirbyteMessage readSingleMessage(final String line, final RawRecordPassthrough passthrough) {
+    final List<AirbyteMessage> messages = VersionedAirbyteStreamFactory.noMigrationVersionedAirbyteStreamFactory(false)
+        .withRawRecordPassthrough(passthrough)
+        .create(new BufferedReader(new StringReader(line)))
+        .toList();
+    assertEquals(1, messages.size());
+    return messages.get(0);
+  }
+
+  private static String write(final AirbyteMessage message, final RawRecordPassthrough passthrough) throws IOException {
+    final StringWriter output = new StringWriter();
+    final DefaultAirbyteMessageBufferedWriter writer = new DefaultAirbyteMessageBufferedWriter(new BufferedWriter(output), passthrough);
+    writer.write(message);
+    writer.flush();
+    return output.toString();
+  }
+
+}
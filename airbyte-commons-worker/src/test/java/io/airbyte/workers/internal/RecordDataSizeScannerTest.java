@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RecordDataSizeScannerTest {
+
+  // The measured size differs from the estimate on non-ascii content (bytes vs chars).
+  private static final double PARITY_TOLERANCE = 0.05;
+  private static final String[] STRING_VALUES = {"blue", "with \"quotes\"", "back\\slash", "café", "naïve résumé", "日本語", "emoji 🎉", ""};
+
+  @Test
+  void testMeasureCompactRecord() {
+    final AirbyteMessage message = createRecord(Jsons.deserialize("{\"name\":\"blue\",\"count\":12,\"nested\":{\"list\":[1,2,{\"a\":null}]}}"));
+
+    assertEquals(Jsons.getEstimatedByteSize(message.getRecord().getData()), RecordDataSizeScanner.measureDataSize(Jsons.serialize(message)));
+  }
+
+  @Test
+  void testWhitespacesAreIgnored() {
+    final String compact = "{\"type\":\"RECORD\",\"record\":{\"stream\":\"s\",\"data\":{\"a\":1,\"b\":[true,false],\"c\":\"x y\"},\"emitted_at\":1}}";
+    final String spaced =
+        "{ \"type\": \"RECORD\", \"record\": { \"stream\": \"s\", \"data\": { \"a\": 1, \"b\": [ true, false ], \"c\": \"x y\" }, \"emitted_at\": 1 } }";
+
+    assertEquals(RecordDataSizeScanner.measureDataSize(compact), RecordDataSizeScanner.measureDataSize(spaced));
+    assertEquals(34, RecordDataSizeScanner.measureDataSize(compact));
+  }
+
+  @Test
+  void testDataIsNotTheLastField() {
+    final String line = "{\"record\":{\"data\":{\"a\":\"b\"},\"stream\":\"s\",\"emitted_at\":1},\"type\":\"RECORD\"}";
+
+    assertEquals(9, RecordDataSizeScanner.measureDataSize(line));
+  }
+
+  @Test
+  void testEscapeSequencesAreMeasuredAsSerializedAgain() {
+    final String line = "{\"type\":\"RECORD\",\"record\":{\"stream\":\"s\",\"data\":"
+        + "{\"a\":\"caf\\u00e9 \\u65e5 \\ud83c\\udf89\",\"b\":\"\\\"\\\\\\/\\n\\u000a\\u0001\\u0041\"},\"emitted_at\":1}}";
+    final AirbyteMessage message = Jsons.deserialize(line, AirbyteMessage.class);
+
+    assertEquals(Jsons.toBytes(message.getRecord().getData()).length, RecordDataSizeScanner.measureDataSize(line));
+  }
+
+  @Test
+  void testUnmeasurableLines() {
+    assertEquals(RecordDataSizeScanner.UNKNOWN_SIZE, RecordDataSizeScanner.measureDataSize("{\"type\":\"STATE\",\"state\":{}}"));
+    assertEquals(RecordDataSizeScanner.UNKNOWN_SIZE, RecordDataSizeScanner.measureDataSize("{\"type\":\"RECORD\",\"record\":{\"stream\":\"s\"}}"));
+    assertEquals(RecordDataSizeScanner.UNKNOWN_SIZE, RecordDataSizeScanner.measureDataSize("{\"type\":\"RECORD\",\"record\":{\"data\":{\"a\":"));
+    assertEquals(RecordDataSizeScanner.UNKNOWN_SIZE, RecordDataSizeScanner.measureDataSize("not json"));
+    assertEquals(RecordDataSizeScanner.UNKNOWN_SIZE,
+        RecordDataSizeScanner.measureDataSize("{\"type\":\"RECORD\",\"record\":{\"data\":{\"a\":\"\\uzzzz\"}}}"));
+  }
+
+  /**
+   * The measured sizes replace the estimates computed from the serialized data, they need to stay
+   * close to one another for the stats to remain comparable.
+   */
+  @Test
+  void testParityWithEstimatedByteSize() {
+    final Random random = new Random(42);
+    long totalEstimate = 0;
+    long totalMeasured = 0;
+    for (int i = 0; i < 500; i++) {
+      final JsonNode data = createData(random, 1 + random.nextInt(50), 3);
+      final AirbyteMessage message = createRecord(data);
+
+      final long compactSize = RecordDataSizeScanner.measureDataSize(Jsons.serialize(message));
+      final long prettySize = RecordDataSizeScanner.measureDataSize(Jsons.toPrettyString(Jsons.jsonNode(message)));
+
+      // The measure is exact, the estimate counts chars rather than bytes.
+      assertEquals(Jsons.toBytes(data).length, compactSize);
+      assertEquals(compactSize, prettySize);
+
+      totalEstimate += Jsons.getEstimatedByteSize(data);
+      totalMeasured += compactSize;
+    }
+    assertTrue(Math.abs(totalMeasured - totalEstimate) <= totalEstimate * PARITY_TOLERANCE,
+        String.format("measured %d bytes, estimated %d bytes", totalMeasured, totalEstimate));
+  }
+
+  private static AirbyteMessage createRecord(final JsonNode data) {
+    return new AirbyteMessage()
+        .withType(Type.RECORD)
+        .withRecord(new AirbyteRecordMessage().withStream("stream").withNamespace("namespace").withEmittedAt(1L).withData(data));
+  }
+
+  private static JsonNode createData(final Random random, final int width, final int depth) {
+    final ObjectNode data = (ObjectNode) Jsons.emptyObject();
+    for (int i = 0; i < width; i++) {
+      final String field = "field_" + i;
+      switch (random.nextInt(depth > 0 ? 6 : 4)) {
+        case 0 -> data.put(field, random.nextLong());
+        case 1 -> data.put(field, random.nextBoolean());
+        case 2 -> data.putNull(field);
+        case 3 -> data.put(field, "value_" + random.nextInt() + STRING_VALUES[random.nextInt(STRING_VALUES.length)]);
+        case 4 -> data.set(field, createData(random, 1 + random.nextInt(5), depth - 1));
+        default -> {
+          final ArrayNode array = data.putArray(field);
+          for (int j = 0; j < random.nextInt(5); j++) {
+            array.add(random.nextInt());
+          }
+        }
+      }
+    }
+    return data;
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RecordEnvelopeParserTest {
+
+  private static final String RECORD =
+      "{\"type\":\"RECORD\",\"record\":{\"namespace\":\"ns\",\"stream\":\"s\",\"data\":{\"name\":\"café\",\"list\":[1,{\"a\":null}]},\"emitted_at\":12}}";
+
+  @Test
+  void testRecordIsParsedLazily() {
+    final AirbyteMessage message = RecordEnvelopeParser.tryParseRecord(RECORD).orElseThrow();
+    final LazyAirbyteRecordMessage record = assertInstanceOf(LazyAirbyteRecordMessage.class, message.getRecord());
+
+    assertEquals(AirbyteMessage.Type.RECORD, message.getType());
+    assertEquals("s", record.getStream());
+    assertEquals("ns", record.getNamespace());
+    assertEquals(12L, record.getEmittedAt());
+    assertTrue(record.hasData());
+    assertFalse(record.isMaterialized());
+
+    assertEquals(Jsons.deserialize("{\"name\":\"café\",\"list\":[1,{\"a\":null}]}"), record.getData());
+    assertTrue(record.isMaterialized());
+  }
+
+  @Test
+  void testLazyRecordEqualsTheFullyDeserializedRecord() {
+    final AirbyteMessage lazy = RecordEnvelopeParser.tryParseRecord(RECORD).orElseThrow();
+    final AirbyteMessage full = Jsons.deserialize(RECORD, AirbyteMessage.class);
+
+    assertEquals(lazy, full);
+    assertEquals(full.hashCode(), lazy.hashCode());
+    assertEquals(Jsons.serialize(full), Jsons.serialize(lazy));
+  }
+
+  @Test
+  void testLazyRecordIsSerializedAsTheFullyDeserializedRecord() {
+    final String lazy = Jsons.serialize(RecordEnvelopeParser.tryParseRecord(RECORD).orElseThrow());
+    final String full = Jsons.serialize(Jsons.deserialize(RECORD, AirbyteMessage.class));
+
+    // only the fields of the protocol are written, whether the data was read or not
+    assertEquals(full, lazy);
+  }
+
+  @Test
+  void testFieldOrderAndWhitespaces() {
+    final String line = "{ \"record\": { \"data\": [ 1, 2 ] , \"stream\": \"s\" }, \"type\": \"RECORD\" } trailing";
+
+    final AirbyteRecordMessage record = RecordEnvelopeParser.tryParseRecord(line).orElseThrow().getRecord();
+
+    assertEquals("s", record.getStream());
+    assertEquals(Jsons.deserialize("[1,2]"), record.getData());
+  }
+
+  @Test
+  void testSetDataReplacesTheRawData() {
+    final AirbyteRecordMessage record = RecordEnvelopeParser.tryParseRecord(RECORD).orElseThrow().getRecord();
+
+    record.setData(Jsons.emptyObject());
+
+    assertEquals(Jsons.emptyObject(), record.getData());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "{\"type\":\"STATE\",\"state\":{\"data\":{}}}",
+    "{\"type\":\"RECORD\",\"record\":{\"stream\":\"s\",\"data\":null}}",
+    "{\"type\":\"RECORD\",\"record\":{\"stream\":\"s\",\"data\":\"string\"}}",
+    "{\"type\":\"RECORD\",\"record\":{\"stream\":\"s\"}}",
+    "{\"type\":\"RECORD\",\"record\":{\"stream\":\"s\",\"data\":{},\"unknown\":1}}",
+    "{\"type\":\"RECORD\",\"record\":{\"stream\":\"s\",\"data\":{},\"emitted_at\":1.5}}",
+    "{\"type\":\"RECORD\",\"unknown\":true,\"record\":{\"stream\":\"s\",\"data\":{}}}",
+    "{\"type\":\"RECORD\",\"record\":{\"stream\":\"s\",\"data\":{\"a\":",
+    "not json"
+  })
+  void testUnhandledLinesAreLeftToTheDeserializer(final String line) {
+    assertEquals(Optional.empty(), RecordEnvelopeParser.tryParseRecord(line));
+  }
+
+  @Test
+  void testStreamFactoryDefersRecordData() {
+    final String state = "{\"type\":\"STATE\",\"state\":{\"data\":{\"cursor\":1}}}";
+    final List<AirbyteMessage> messages = VersionedAirbyteStreamFactory.noMigrationVersionedAirbyteStreamFactory(false)
+        .withDeferredRecordData(true)
+        .create(new BufferedReader(new StringReader(RECORD + "\n" + state)))
+        .toList();
+
+    assertEquals(2, messages.size());
+    final LazyAirbyteRecordMessage record = assertInstanceOf(LazyAirbyteRecordMessage.class, messages.get(0).getRecord());
+    // the validation of the stream factory doesn't need the data
+    assertFalse(record.isMaterialized());
+    assertEquals(Jsons.deserialize(state, AirbyteMessage.class), messages.get(1));
+  }
+
+}
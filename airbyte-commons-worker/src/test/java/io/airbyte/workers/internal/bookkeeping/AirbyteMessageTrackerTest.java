@@ -11,12 +11,14 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
 import io.airbyte.commons.features.EnvVariableFeatureFlags;
+import io.airbyte.commons.json.Jsons;
 import io.airbyte.config.FailureReason;
 import io.airbyte.protocol.models.AirbyteMessage;
 import io.airbyte.protocol.models.AirbyteTraceMessage.Type;
 import io.airbyte.protocol.models.Config;
 import io.airbyte.protocol.models.StreamDescriptor;
 import io.airbyte.workers.helper.FailureHelper;
+import io.airbyte.workers.internal.RawRecordPassthrough;
 import io.airbyte.workers.test_utils.AirbyteMessageUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -81,6 +83,19 @@ class AirbyteMessageTrackerTest {
     verify(syncStatsTracker).updateStats(record.getRecord());
   }
 
+  @Test
+  void testAcceptFromSourceRecordWithKnownSize() {
+    final RawRecordPassthrough rawRecordPassthrough = new RawRecordPassthrough(false, true);
+    final AirbyteMessageTracker tracker = new AirbyteMessageTracker(syncStatsTracker, new EnvVariableFeatureFlags(), rawRecordPassthrough);
+    final AirbyteMessage record = AirbyteMessageUtils.createRecordMessage("stream 1", 123);
+    final String line = Jsons.serialize(record);
+    rawRecordPassthrough.attach(record, line);
+
+    tracker.acceptFromSource(record);
+
+    verify(syncStatsTracker).updateStats(record.getRecord(), (long) Jsons.getEstimatedByteSize(record.getRecord().getData()));
+  }
+
   @Test
   void testAcceptFromSourceState() {
     final AirbyteMessage state = AirbyteMessageUtils.createStateMessage(2);
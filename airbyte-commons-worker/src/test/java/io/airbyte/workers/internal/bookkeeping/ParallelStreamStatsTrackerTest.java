@@ -338,6 +338,16 @@ class ParallelStreamStatsTrackerTest {
     assertEquals(2L * MESSAGE_SIZE, statsTracker.getTotalBytesCommitted());
   }
 
+  @Test
+  void testKnownRecordSizeIsUsedInsteadOfEstimate() {
+    final long knownSize = 42L;
+    statsTracker.updateStats(S1_MESSAGE1, knownSize);
+    statsTracker.updateStats(S1_MESSAGE2);
+
+    assertEquals(Map.of(STREAM1, 2L), statsTracker.getStreamToEmittedRecords());
+    assertEquals(Map.of(STREAM1, knownSize + MESSAGE_SIZE), statsTracker.getStreamToEmittedBytes());
+  }
+
   @Test
   void testGettersDontCrashWhenThereIsNoData() {
     // Looking for null pointers so no exceptions means all good for most part.
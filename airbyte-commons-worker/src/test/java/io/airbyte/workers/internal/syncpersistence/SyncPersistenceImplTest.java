@@ -28,6 +28,7 @@ import io.airbyte.api.client.model.generated.ConnectionIdRequestBody;
 import io.airbyte.api.client.model.generated.ConnectionState;
 import io.airbyte.api.client.model.generated.ConnectionStateCreateOrUpdate;
 import io.airbyte.api.client.model.generated.ConnectionStateType;
+import io.airbyte.api.client.model.generated.GlobalState;
 import io.airbyte.api.client.model.generated.StreamState;
 import io.airbyte.commons.features.FeatureFlags;
 import io.airbyte.commons.json.Jsons;
@@ -132,7 +133,7 @@ class SyncPersistenceImplTest {
 
     // Forcing another flush without data to flush
     actualFlushMethod.getValue().run();
-    verify(stateApi, never()).createOrUpdateState(any());
+    verify(stateApi, never()).mergeState(any());
     clearInvocations(stateApi);
 
     // scheduleAtFixedRate should not have received any other calls
@@ -145,7 +146,7 @@ class SyncPersistenceImplTest {
     syncPersistence.persist(connectionId, stateF1);
 
     // Set API call to fail
-    when(stateApi.createOrUpdateState(any())).thenThrow(new ApiException());
+    when(stateApi.mergeState(any())).thenThrow(new ApiException());
 
     // Flushing
     actualFlushMethod.getValue().run();
@@ -181,7 +182,7 @@ class SyncPersistenceImplTest {
     // Sanity check Flushing again should not trigger an API call since all the data has been
     // successfully flushed
     actualFlushMethod.getValue().run();
-    verify(stateApi, never()).createOrUpdateState(any());
+    verify(stateApi, never()).mergeState(any());
   }
 
   @Test
@@ -190,14 +191,14 @@ class SyncPersistenceImplTest {
     syncPersistence.persist(connectionId, getStreamState("a", 1));
 
     actualFlushMethod.getValue().run();
-    verify(stateApi).createOrUpdateState(any());
+    verify(stateApi).mergeState(any());
     verify(attemptApi).saveStats(any());
     clearInvocations(stateApi, attemptApi);
 
     // We should not emit stats if there is no state to persist
     syncPersistence.updateStats(new AirbyteRecordMessage());
     actualFlushMethod.getValue().run();
-    verify(stateApi, never()).createOrUpdateState(any());
+    verify(stateApi, never()).mergeState(any());
     verify(attemptApi, never()).saveStats(any());
   }
 
@@ -206,16 +207,16 @@ class SyncPersistenceImplTest {
     // We should not save stats if persist state failed
     syncPersistence.updateStats(new AirbyteRecordMessage());
     syncPersistence.persist(connectionId, getStreamState("b", 2));
-    when(stateApi.createOrUpdateState(any())).thenThrow(new ApiException());
+    when(stateApi.mergeState(any())).thenThrow(new ApiException());
     actualFlushMethod.getValue().run();
-    verify(stateApi).createOrUpdateState(any());
+    verify(stateApi).mergeState(any());
     verify(attemptApi, never()).saveStats(any());
     clearInvocations(stateApi, attemptApi);
     reset(stateApi);
 
     // Next sync should attempt to flush everything
     actualFlushMethod.getValue().run();
-    verify(stateApi).createOrUpdateState(any());
+    verify(stateApi).mergeState(any());
     verify(attemptApi).saveStats(any());
   }
 
@@ -226,14 +227,14 @@ class SyncPersistenceImplTest {
     syncPersistence.persist(connectionId, getStreamState("a", 3));
     when(attemptApi.saveStats(any())).thenThrow(new ApiException());
     actualFlushMethod.getValue().run();
-    verify(stateApi).createOrUpdateState(any());
+    verify(stateApi).mergeState(any());
     verify(attemptApi).saveStats(any());
 
     clearInvocations(stateApi, attemptApi);
     reset(attemptApi);
 
     actualFlushMethod.getValue().run();
-    verify(stateApi, never()).createOrUpdateState(any());
+    verify(stateApi, never()).mergeState(any());
     verify(attemptApi).saveStats(any());
   }
 
@@ -259,7 +260,7 @@ class SyncPersistenceImplTest {
     syncPersistence.persist(connectionId, stateA2);
 
     // Trigger a failure
-    when(stateApi.createOrUpdateState(any())).thenThrow(new ApiException());
+    when(stateApi.mergeState(any())).thenThrow(new ApiException());
     actualFlushMethod.getValue().run();
 
     final AirbyteStateMessage stateB1 = getStreamState("closeB", 1);
@@ -279,21 +280,21 @@ class SyncPersistenceImplTest {
     syncPersistence.persist(connectionId, state);
 
     // Setup some API failures
-    when(stateApi.createOrUpdateState(any()))
+    when(stateApi.mergeState(any()))
         .thenThrow(new ApiException())
         .thenReturn(mock(ConnectionState.class));
 
     // Final flush
     when(executorService.awaitTermination(anyLong(), any())).thenReturn(true);
     syncPersistence.close();
-    verify(stateApi, times(2)).createOrUpdateState(buildStateRequest(connectionId, List.of(state)));
+    verify(stateApi, times(2)).mergeState(buildStateRequest(connectionId, List.of(state)));
     verify(attemptApi, times(1)).saveStats(any());
   }
 
   @Test
   void testBadFinalStateFlushThrowsAnException() throws ApiException, InterruptedException {
     // Setup some API failures
-    when(stateApi.createOrUpdateState(any()))
+    when(stateApi.mergeState(any()))
         .thenThrow(new ApiException())
         .thenThrow(new ApiException())
         .thenThrow(new ApiException())
@@ -306,7 +307,7 @@ class SyncPersistenceImplTest {
     // Final flush
     when(executorService.awaitTermination(anyLong(), any())).thenReturn(true);
     assertThrows(Exception.class, () -> syncPersistence.close());
-    verify(stateApi, times(4)).createOrUpdateState(buildStateRequest(connectionId, List.of(state)));
+    verify(stateApi, times(4)).mergeState(buildStateRequest(connectionId, List.of(state)));
     verify(attemptApi, never()).saveStats(any());
   }
 
@@ -326,7 +327,7 @@ class SyncPersistenceImplTest {
     // Final flush
     when(executorService.awaitTermination(anyLong(), any())).thenReturn(true);
     assertThrows(Exception.class, () -> syncPersistence.close());
-    verify(stateApi).createOrUpdateState(buildStateRequest(connectionId, List.of(state)));
+    verify(stateApi).mergeState(buildStateRequest(connectionId, List.of(state)));
     verify(attemptApi, times(4)).saveStats(any());
   }
 
@@ -340,7 +341,7 @@ class SyncPersistenceImplTest {
     syncPersistence.close();
     verify(executorService).shutdown();
     // Since the previous write has an unknown state, we do not attempt to persist after the close
-    verify(stateApi, never()).createOrUpdateState(any());
+    verify(stateApi, never()).mergeState(any());
   }
 
   @Test
@@ -353,7 +354,7 @@ class SyncPersistenceImplTest {
     syncPersistence.close();
     verify(executorService).shutdown();
     // Since the previous write has an unknown state, we do not attempt to persist after the close
-    verify(stateApi, never()).createOrUpdateState(any());
+    verify(stateApi, never()).mergeState(any());
   }
 
   @Test
@@ -362,7 +363,7 @@ class SyncPersistenceImplTest {
     when(executorService.awaitTermination(anyLong(), any())).thenReturn(true);
     syncPersistence.close();
     verify(executorService).shutdown();
-    verify(stateApi, never()).createOrUpdateState(any());
+    verify(stateApi, never()).mergeState(any());
   }
 
   @Test
@@ -382,7 +383,7 @@ class SyncPersistenceImplTest {
 
     verify(executorService).scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
     actualFlushMethod.getValue().run();
-    verify(stateApi).createOrUpdateState(captor.capture());
+    verify(stateApi).mergeState(captor.capture());
     assertTrue(Jsons.serialize(captor.getValue()).contains("myFirstState"));
     clearInvocations(stateApi);
 
@@ -392,7 +393,7 @@ class SyncPersistenceImplTest {
     syncPersistence.persist(connectionId, otherMessage2);
     when(executorService.awaitTermination(anyLong(), any())).thenReturn(true);
     syncPersistence.close();
-    verify(stateApi).createOrUpdateState(captor.capture());
+    verify(stateApi).mergeState(captor.capture());
     assertTrue(Jsons.serialize(captor.getValue()).contains("myOtherState2"));
   }
 
@@ -438,6 +439,42 @@ class SyncPersistenceImplTest {
     verify(executorService).scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
   }
 
+  @Test
+  void testGlobalStateFlushesOnlyChangedStreams() throws ApiException {
+    final ArgumentCaptor<ConnectionStateCreateOrUpdate> captor = ArgumentCaptor.forClass(ConnectionStateCreateOrUpdate.class);
+
+    syncPersistence.persist(connectionId, getGlobalState(1, List.of(getStreamState("A", 1), getStreamState("B", 1))));
+    actualFlushMethod.getValue().run();
+    verify(stateApi).mergeState(captor.capture());
+    assertEquals(2, captor.getValue().getConnectionState().getGlobalState().getStreamStates().size());
+    clearInvocations(stateApi);
+
+    // Only B moved forward, A shouldn't be sent again
+    syncPersistence.persist(connectionId, getGlobalState(2, List.of(getStreamState("A", 1), getStreamState("B", 2))));
+    actualFlushMethod.getValue().run();
+    verify(stateApi).mergeState(captor.capture());
+    final GlobalState globalState = captor.getValue().getConnectionState().getGlobalState();
+    assertEquals(Jsons.deserialize("{\"globalState\":2}"), globalState.getSharedState());
+    assertEquals(List.of(new StreamState()
+        .streamDescriptor(new io.airbyte.api.client.model.generated.StreamDescriptor().name("B"))
+        .streamState(Jsons.jsonNode(2))), globalState.getStreamStates());
+  }
+
+  @Test
+  void testGlobalStateChangesAreResentAfterAFailedFlush() throws ApiException {
+    final ArgumentCaptor<ConnectionStateCreateOrUpdate> captor = ArgumentCaptor.forClass(ConnectionStateCreateOrUpdate.class);
+
+    syncPersistence.persist(connectionId, getGlobalState(1, List.of(getStreamState("A", 1), getStreamState("B", 1))));
+    when(stateApi.mergeState(any())).thenThrow(new ApiException());
+    actualFlushMethod.getValue().run();
+    reset(stateApi);
+
+    // The previous flush failed, both streams still need to be sent
+    actualFlushMethod.getValue().run();
+    verify(stateApi).mergeState(captor.capture());
+    assertEquals(2, captor.getValue().getConnectionState().getGlobalState().getStreamStates().size());
+  }
+
   @Test
   void testDoNotStartThreadUntilStateCheckSucceeds() throws ApiException {
     when(stateApi.getState(any()))
@@ -448,7 +485,7 @@ class SyncPersistenceImplTest {
     syncPersistence.persist(connectionId, s1);
     // First getState failed, we should not have started the thread or persisted states
     verify(executorService, never()).scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
-    verify(stateApi, never()).createOrUpdateState(any());
+    verify(stateApi, never()).mergeState(any());
 
     final AirbyteStateMessage s2 = getStreamState("stream 2", 19);
     syncPersistence.persist(connectionId, s2);
@@ -560,7 +597,7 @@ class SyncPersistenceImplTest {
     final ArgumentCaptor<ConnectionStateCreateOrUpdate> captor = ArgumentCaptor.forClass(ConnectionStateCreateOrUpdate.class);
 
     try {
-      verify(stateApi).createOrUpdateState(captor.capture());
+      verify(stateApi).mergeState(captor.capture());
     } catch (ApiException e) {
       throw new RuntimeException(e);
     }
@@ -605,6 +642,12 @@ class SyncPersistenceImplTest {
         .withGlobal(new AirbyteGlobalState().withSharedState(Jsons.deserialize("{\"globalState\":" + stateValue + "}")));
   }
 
+  private AirbyteStateMessage getGlobalState(final int stateValue, final List<AirbyteStateMessage> streamStates) {
+    final AirbyteStateMessage globalState = getGlobalState(stateValue);
+    globalState.getGlobal().withStreamStates(streamStates.stream().map(AirbyteStateMessage::getStream).toList());
+    return globalState;
+  }
+
   private AirbyteStateMessage getLegacyState(final String stateValue) {
     return new AirbyteStateMessage().withType(LEGACY)
         .withData(Jsons.deserialize("{\"state\":\"" + stateValue + "\"}"));
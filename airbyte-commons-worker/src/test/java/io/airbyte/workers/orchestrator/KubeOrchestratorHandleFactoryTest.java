@@ -39,7 +39,7 @@ class KubeOrchestratorHandleFactoryTest {
       final ContainerOrchestratorConfig config =
           new ContainerOrchestratorConfig(expNamespace, null, Map.of("a", "b"), null, expSecret,
               "path", "dataplane secrets", "dataplane path",
-              "image 0", "pull policy", "gcp creds", null, "airbyte-admin");
+              "image 0", "pull policy", "gcp creds", null, "airbyte-admin", null);
 
       final ContainerOrchestratorConfig actual = KubeOrchestratorHandleFactory.injectContainerOrchestratorConfig(client, config, correctUuid);
 
@@ -58,7 +58,7 @@ class KubeOrchestratorHandleFactoryTest {
       final ContainerOrchestratorConfig config =
           new ContainerOrchestratorConfig("ns 1", null, Map.of("a", "b"), null, "secret",
               "path", "dataplane secrets", "dataplane path",
-              "image 0", "pull policy", "gcp creds", null, "airbyte-admin");
+              "image 0", "pull policy", "gcp creds", null, "airbyte-admin", null);
 
       final ContainerOrchestratorConfig actual = KubeOrchestratorHandleFactory.injectContainerOrchestratorConfig(client, config, badUuid);
 
@@ -83,7 +83,7 @@ class KubeOrchestratorHandleFactoryTest {
       final ContainerOrchestratorConfig config =
           new ContainerOrchestratorConfig(expNamespace, null, orgMap, null, expSecret,
               "path", "dataplane secrets", "dataplane path",
-              "image 0", "pull policy", "gcp creds", null, "airbyte-admin");
+              "image 0", "pull policy", "gcp creds", null, "airbyte-admin", null);
 
       final ContainerOrchestratorConfig actual = KubeOrchestratorHandleFactory.injectContainerOrchestratorConfig(client, config, correctUuid);
 
@@ -103,7 +103,7 @@ class KubeOrchestratorHandleFactoryTest {
       final ContainerOrchestratorConfig config =
           new ContainerOrchestratorConfig("ns 1", null, Map.of("a", "b"), null, "secret",
               "path", "dataplane secrets", "dataplane path",
-              "image 0", "pull policy", "gcp creds", null, "airbyte-admin");
+              "image 0", "pull policy", "gcp creds", null, "airbyte-admin", null);
 
       final ContainerOrchestratorConfig actual = KubeOrchestratorHandleFactory.injectContainerOrchestratorConfig(client, config, badUuid);
 
@@ -184,7 +184,8 @@ class AirbyteIntegrationLauncherTest {
         rssReqHeartbeat,
         rssReqSourceStdErr,
         null,
-        rssReqSourceStdOut);
+        rssReqSourceStdOut,
+        AirbyteIntegrationLauncher.STDIO_RELAY_RESOURCES);
     Mockito.verify(processFactory).create(ResourceType.REPLICATION, READ_STEP, JOB_ID, JOB_ATTEMPT, CONNECTION_ID, WORKSPACE_ID, JOB_ROOT, FAKE_IMAGE,
         false, false,
         CONFIG_CATALOG_STATE_FILES,
@@ -235,7 +236,8 @@ class AirbyteIntegrationLauncherTest {
         rssReqHeartbeat,
         rssReqDestinationStdErr,
         rssReqDestinationStdIn,
-        rssReqDestinationStdOut);
+        rssReqDestinationStdOut,
+        AirbyteIntegrationLauncher.STDIO_RELAY_RESOURCES);
     Mockito.verify(processFactory).create(ResourceType.REPLICATION, WRITE_STEP, JOB_ID, JOB_ATTEMPT, CONNECTION_ID, WORKSPACE_ID, JOB_ROOT,
         FAKE_IMAGE, false, true,
         CONFIG_CATALOG_FILES, null,
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.process;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.fabric8.kubernetes.api.model.ContainerState;
+import io.fabric8.kubernetes.api.model.ContainerStateBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Store;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AsyncOrchestratorStatusTrackerTest {
+
+  private static final String NAMESPACE = "jobs";
+  private static final String POD_NAME = "orchestrator-repl-job-1-attempt-0";
+
+  private FilterWatchListDeletable<Pod, PodList, PodResource> orchestratorPods;
+  private Store<Pod> store;
+  private AsyncOrchestratorStatusTracker tracker;
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setup() {
+    final KubernetesClient kubernetesClient = mock(KubernetesClient.class);
+    final MixedOperation<Pod, PodList, PodResource> pods = mock(MixedOperation.class);
+    final NonNamespaceOperation<Pod, PodList, PodResource> namespacedPods = mock(NonNamespaceOperation.class);
+    orchestratorPods = mock(FilterWatchListDeletable.class);
+    final SharedIndexInformer<Pod> informer = mock(SharedIndexInformer.class);
+    store = mock(Store.class);
+    when(kubernetesClient.pods()).thenReturn(pods);
+    when(pods.inNamespace(NAMESPACE)).thenReturn(namespacedPods);
+    when(namespacedPods.withLabelIn(eq(Metadata.SYNC_STEP_KEY), any())).thenReturn(orchestratorPods);
+    when(orchestratorPods.inform(any(ResourceEventHandler.class))).thenReturn(informer);
+    when(informer.getStore()).thenReturn(store);
+    tracker = new AsyncOrchestratorStatusTracker(kubernetesClient, NAMESPACE);
+  }
+
+  @Test
+  void testTerminationIsNotifiedOnPodUpdate() {
+    final CompletableFuture<Void> termination = tracker.onTermination(POD_NAME);
+    final ResourceEventHandler<Pod> handler = captureHandler();
+
+    handler.onUpdate(pod(POD_NAME, false), pod(POD_NAME, false));
+    handler.onUpdate(pod(POD_NAME, false), pod("another-pod", true));
+    assertFalse(termination.isDone());
+
+    handler.onUpdate(pod(POD_NAME, false), pod(POD_NAME, true));
+    assertTrue(termination.isDone());
+  }
+
+  @Test
+  void testTerminationIsNotifiedOnPodDeletion() {
+    final CompletableFuture<Void> termination = tracker.onTermination(POD_NAME);
+
+    captureHandler().onDelete(pod(POD_NAME, false), false);
+
+    assertTrue(termination.isDone());
+  }
+
+  @Test
+  void testTerminatedPodsAreNotifiedRightAway() {
+    when(store.getByKey(NAMESPACE + "/" + POD_NAME)).thenReturn(pod(POD_NAME, true));
+
+    assertTrue(tracker.onTermination(POD_NAME).isDone());
+  }
+
+  @Test
+  void testWaitersShareASingleInformer() {
+    final CompletableFuture<Void> termination = tracker.onTermination(POD_NAME);
+    assertSame(termination, tracker.onTermination(POD_NAME));
+    tracker.untrack(POD_NAME, termination);
+    tracker.untrack(POD_NAME, termination);
+    assertNotSame(termination, tracker.onTermination(POD_NAME));
+
+    verify(orchestratorPods, times(1)).inform(any(ResourceEventHandler.class));
+  }
+
+  @Test
+  void testTerminationIsNotifiedToTheRemainingWaiters() {
+    final CompletableFuture<Void> termination = tracker.onTermination(POD_NAME);
+    tracker.onTermination(POD_NAME);
+    // the first waiter gave up
+    tracker.untrack(POD_NAME, termination);
+
+    captureHandler().onDelete(pod(POD_NAME, false), false);
+
+    assertTrue(termination.isDone());
+  }
+
+  @Test
+  void testUntrackingATerminatedPodKeepsTheNextTermination() {
+    final CompletableFuture<Void> termination = tracker.onTermination(POD_NAME);
+    final ResourceEventHandler<Pod> handler = captureHandler();
+    handler.onUpdate(pod(POD_NAME, false), pod(POD_NAME, true));
+    final CompletableFuture<Void> nextTermination = tracker.onTermination(POD_NAME);
+
+    tracker.untrack(POD_NAME, termination);
+    handler.onDelete(pod(POD_NAME, true), false);
+
+    assertTrue(nextTermination.isDone());
+  }
+
+  @SuppressWarnings("unchecked")
+  private ResourceEventHandler<Pod> captureHandler() {
+    final ArgumentCaptor<ResourceEventHandler<Pod>> handler = ArgumentCaptor.forClass(ResourceEventHandler.class);
+    verify(orchestratorPods).inform(handler.capture());
+    return handler.getValue();
+  }
+
+  private static Pod pod(final String name, final boolean terminated) {
+    final ContainerState state = terminated
+        ? new ContainerStateBuilder().withNewTerminated().withExitCode(0).endTerminated().build()
+        : new ContainerStateBuilder().withNewRunning().endRunning().build();
+    return new PodBuilder()
+        .withNewMetadata()
+        .withName(name)
+        .withNamespace(NAMESPACE)
+        .endMetadata()
+        .withNewStatus()
+        .addNewContainerStatus()
+        .withName(KubePodProcess.MAIN_CONTAINER_NAME)
+        .withState(state)
+        .endContainerStatus()
+        .endStatus()
+        .build();
+  }
+
+}
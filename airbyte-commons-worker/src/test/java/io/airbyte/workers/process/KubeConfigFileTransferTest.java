@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.process;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class KubeConfigFileTransferTest {
+
+  private static final String SUCCESS_FILE = "FINISHED_UPLOADING";
+  private static final Map<String, String> FILES = Map.of(
+      "source_config.json", "{\"host\": \"localhost\"}",
+      "source_catalog.json", "{\"streams\": [\"users\", \"orders\"]}",
+      "empty.txt", "");
+  private static final Pod POD = new PodBuilder()
+      .withNewMetadata()
+      .withName("pod")
+      .withNamespace("default")
+      .endMetadata()
+      .build();
+
+  @TempDir
+  private Path targetDir;
+  private AtomicInteger execs;
+
+  @BeforeEach
+  void setup() {
+    execs = new AtomicInteger();
+  }
+
+  @Test
+  void testFilesAreTransferredInASingleExec() throws IOException, InterruptedException {
+    final KubeConfigFileTransfer transfer = new KubeConfigFileTransfer(localExec(UnaryOperator.identity()));
+
+    assertEquals(0, transfer.transfer(POD, KubePodProcess.INIT_CONTAINER_NAME, targetDir.toString(), FILES, SUCCESS_FILE));
+
+    assertEquals(1, execs.get());
+    for (final Map.Entry<String, String> file : FILES.entrySet()) {
+      assertEquals(file.getValue(), Files.readString(targetDir.resolve(file.getKey())));
+    }
+    assertTrue(Files.exists(targetDir.resolve(SUCCESS_FILE)));
+    // only the transferred files are left in the target directory
+    try (final var files = Files.list(targetDir)) {
+      assertEquals(FILES.size() + 1, files.count());
+    }
+  }
+
+  @Test
+  void testCorruptedFilesAreNotMovedToTheTargetDirectory() throws IOException {
+    final String corrupted = "\"orders\"";
+    final KubeConfigFileTransfer transfer = new KubeConfigFileTransfer(localExec(archive -> replace(archive, corrupted, "\"orderz\"")));
+
+    assertThrows(IOException.class,
+        () -> transfer.transfer(POD, KubePodProcess.INIT_CONTAINER_NAME, targetDir.toString(), FILES, SUCCESS_FILE));
+
+    assertFalse(Files.exists(targetDir.resolve("source_catalog.json")));
+    assertFalse(Files.exists(targetDir.resolve(SUCCESS_FILE)));
+  }
+
+  @Test
+  void testExecExitCodeIsReturned() throws IOException, InterruptedException {
+    final KubeConfigFileTransfer transfer = new KubeConfigFileTransfer((pod, containerName, command, stdin) -> 137);
+
+    assertEquals(137, transfer.transfer(POD, KubePodProcess.INIT_CONTAINER_NAME, targetDir.toString(), FILES, SUCCESS_FILE));
+  }
+
+  @Test
+  void testExecIsKilledOnTimeout() {
+    final long start = System.nanoTime();
+
+    assertThrows(IOException.class, () -> KubeConfigFileTransfer.KubectlExecTransport.run(List.of("sh", "-c", "cat > /dev/null; sleep 60"),
+        new ByteArrayInputStream(new byte[0]), Duration.ofMillis(500)));
+
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(30)) < 0);
+  }
+
+  @Test
+  void testExecNotReadingItsInputIsKilledOnTimeout() {
+    final long start = System.nanoTime();
+
+    // more input than a pipe buffer holds, never read by the command
+    assertThrows(IOException.class, () -> KubeConfigFileTransfer.KubectlExecTransport.run(List.of("sh", "-c", "exec sleep 60"),
+        new ByteArrayInputStream(new byte[1_000_000]), Duration.ofMillis(500)));
+
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(30)) < 0);
+  }
+
+  @Test
+  void testExecOutputDoesNotBlockIt() throws IOException, InterruptedException {
+    // more output than a pipe buffer holds
+    assertEquals(3, KubeConfigFileTransfer.KubectlExecTransport.run(List.of("sh", "-c", "cat; head -c 1000000 /dev/zero; exit 3"),
+        new ByteArrayInputStream("archive".getBytes(StandardCharsets.UTF_8)), Duration.ofMinutes(1)));
+  }
+
+  /**
+   * Runs the command with a local shell instead of in the pod, optionally altering the archive on
+   * its way.
+   */
+  private KubeConfigFileTransfer.Transport localExec(final UnaryOperator<byte[]> archiveAlteration) {
+    return (pod, containerName, command, stdin) -> {
+      execs.incrementAndGet();
+      final Process proc = new ProcessBuilder(List.of("sh", "-c", command)).redirectErrorStream(true).start();
+      try (final OutputStream procStdin = proc.getOutputStream();
+          final InputStream archive = new ByteArrayInputStream(archiveAlteration.apply(stdin.readAllBytes()))) {
+        archive.transferTo(procStdin);
+      }
+      proc.getInputStream().readAllBytes();
+      return proc.waitFor();
+    };
+  }
+
+  private static byte[] replace(final byte[] archive, final String target, final String replacement) {
+    final String content = new String(archive, StandardCharsets.ISO_8859_1);
+    assertTrue(content.contains(target));
+    return content.replace(target, replacement).getBytes(StandardCharsets.ISO_8859_1);
+  }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.process;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KubePortManagerSingletonTest {
+
+  private static final String POD_NAME = "source-postgres-read-1-0-abcde";
+
+  private Set<Integer> ports;
+  private KubePortManagerSingleton portManager;
+
+  @BeforeEach
+  void setup() throws IOException {
+    ports = Set.of(freePort(), freePort());
+    portManager = new KubePortManagerSingleton(ports, Duration.ZERO);
+  }
+
+  @Test
+  void testTakeAndOffer() throws InterruptedException {
+    final Integer port = portManager.take(POD_NAME);
+
+    assertEquals(1, portManager.getNumAvailablePorts());
+    assertEquals(1, portManager.getNumLeasedPorts());
+
+    portManager.offer(port);
+    // offering a port twice does not duplicate it
+    portManager.offer(port);
+
+    assertEquals(2, portManager.getNumAvailablePorts());
+    assertEquals(0, portManager.getNumLeasedPorts());
+  }
+
+  @Test
+  void testTakeTimesOutWhenNoPortIsAvailable() throws InterruptedException {
+    portManager.take(POD_NAME);
+    portManager.take(POD_NAME);
+
+    assertNull(portManager.take(POD_NAME, Duration.ofMillis(10)));
+  }
+
+  @Test
+  void testTakeWaitsForAPortToBeOffered() throws Exception {
+    final Integer port = portManager.take(POD_NAME);
+    portManager.take(POD_NAME);
+
+    final CompletableFuture<Integer> waitingTake = CompletableFuture.supplyAsync(() -> {
+      try {
+        return portManager.take(POD_NAME, Duration.ofMinutes(1));
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    portManager.offer(port);
+
+    assertEquals(port, waitingTake.get(1, TimeUnit.MINUTES));
+  }
+
+  @Test
+  void testLeakedPortsAreReclaimed() throws InterruptedException, IOException {
+    final Integer leakedPort = portManager.take("dead-pod");
+    final Integer boundPort = portManager.take("dead-pod-still-closing");
+    assertNotNull(leakedPort);
+
+    // the process of the second pod is still listening on its port
+    try (final ServerSocket ignored = new ServerSocket(boundPort)) {
+      assertEquals(1, portManager.reclaimLeakedPorts(podName -> true));
+    }
+
+    assertEquals(leakedPort, portManager.takeImmediately());
+    assertEquals(0, portManager.reclaimLeakedPorts(podName -> false));
+  }
+
+  @Test
+  void testLeasesWithinTheGracePeriodAreNotReclaimed() throws InterruptedException {
+    final KubePortManagerSingleton patientPortManager = new KubePortManagerSingleton(ports, Duration.ofHours(1));
+    patientPortManager.take(POD_NAME);
+
+    assertEquals(0, patientPortManager.reclaimLeakedPorts(podName -> true));
+  }
+
+  @Test
+  void testPortsOfUnclosedProcessesAreReclaimed() throws InterruptedException, IOException {
+    final Integer stdoutPort = portManager.take("dead-pod");
+    final Integer stderrPort = portManager.take("dead-pod");
+    // the process of the pod was never closed, so it is still listening on its ports
+    final ServerSocket stdoutServerSocket = new ServerSocket(stdoutPort);
+    final ServerSocket stderrServerSocket = new ServerSocket(stderrPort);
+    final AtomicInteger closes = new AtomicInteger();
+    final Closeable process = () -> {
+      closes.incrementAndGet();
+      stdoutServerSocket.close();
+      stderrServerSocket.close();
+      portManager.offer(stdoutPort);
+      portManager.offer(stderrPort);
+    };
+    portManager.attach(stdoutPort, process);
+    portManager.attach(stderrPort, process);
+
+    assertEquals(0, portManager.reclaimLeakedPorts(podName -> false));
+    assertEquals(2, portManager.reclaimLeakedPorts(podName -> true));
+
+    assertEquals(1, closes.get());
+    assertTrue(stdoutServerSocket.isClosed());
+    assertTrue(stderrServerSocket.isClosed());
+    assertEquals(2, portManager.getNumAvailablePorts());
+    assertEquals(0, portManager.getNumLeasedPorts());
+  }
+
+  @Test
+  void testSupportedWorkers() throws InterruptedException, IOException {
+    final KubePortManagerSingleton largePortManager = new KubePortManagerSingleton(Set.of(freePort(), freePort(), freePort(), freePort()),
+        Duration.ZERO);
+
+    assertEquals(1, largePortManager.getSupportedWorkers(KubeProcessFactory.getPortsPerPod(false)));
+    assertEquals(2, largePortManager.getSupportedWorkers(KubeProcessFactory.getPortsPerPod(true)));
+
+    largePortManager.take(POD_NAME);
+    assertEquals(0, largePortManager.getSupportedWorkers(KubeProcessFactory.getPortsPerPod(false)));
+    assertEquals(1, largePortManager.getSupportedWorkers(KubeProcessFactory.getPortsPerPod(true)));
+  }
+
+  @Test
+  void testResize() throws InterruptedException, IOException {
+    final Integer leasedPort = portManager.take(POD_NAME);
+    final int addedPort = freePort();
+
+    portManager.resize(Set.of(addedPort));
+
+    assertEquals(1, portManager.getNumAvailablePorts());
+    assertEquals(Set.of(addedPort), portManager.getAllPorts());
+
+    // ports removed from the range are dropped once returned
+    portManager.offer(leasedPort);
+    assertEquals(1, portManager.getNumAvailablePorts());
+
+    final Set<Integer> grownPorts = new HashSet<>(ports);
+    grownPorts.add(addedPort);
+    portManager.resize(grownPorts);
+    assertEquals(3, portManager.getNumAvailablePorts());
+  }
+
+  @Test
+  void testApplyPortRange() {
+    portManager.applyPortRange("9001, 9010-9012");
+    assertEquals(Set.of(9001, 9010, 9011, 9012), portManager.getAllPorts());
+    assertEquals(4, portManager.getNumAvailablePorts());
+
+    // a blank range goes back to the configured ports
+    portManager.applyPortRange("");
+    assertEquals(ports, portManager.getAllPorts());
+    assertEquals(2, portManager.getNumAvailablePorts());
+  }
+
+  @Test
+  void testInvalidPortRangeIsNotApplied() {
+    assertThrows(IllegalArgumentException.class, () -> portManager.applyPortRange("9012-9010"));
+    assertThrows(IllegalArgumentException.class, () -> portManager.applyPortRange("9001,abc"));
+
+    assertEquals(ports, portManager.getAllPorts());
+  }
+
+  private static int freePort() throws IOException {
+    try (final ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.process;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MultiplexedStdioConnectionTest {
+
+  private MultiplexedStdioConnection worker;
+  private MultiplexedStdioConnection pod;
+
+  @BeforeEach
+  void setup() throws IOException {
+    try (final ServerSocket serverSocket = new ServerSocket(0)) {
+      final Socket podSocket = new Socket("localhost", serverSocket.getLocalPort());
+      worker = new MultiplexedStdioConnection(serverSocket.accept());
+      pod = new MultiplexedStdioConnection(podSocket);
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    worker.close();
+    pod.close();
+  }
+
+  @Test
+  void testStreamsAreCarriedOverOneConnection() throws IOException {
+    try (final OutputStream stdin = worker.getOutputStream(MultiplexedStdioConnection.STDIN)) {
+      stdin.write(bytes("{\"type\": \"STATE\"}\n"));
+    }
+    try (final OutputStream stdout = pod.getOutputStream(MultiplexedStdioConnection.STDOUT);
+        final OutputStream stderr = pod.getOutputStream(MultiplexedStdioConnection.STDERR)) {
+      stdout.write(bytes("{\"type\": \"RECORD\"}\n"));
+      stderr.write(bytes("starting\n"));
+    }
+
+    assertEquals("{\"type\": \"STATE\"}\n", read(pod, MultiplexedStdioConnection.STDIN));
+    assertEquals("{\"type\": \"RECORD\"}\n", read(worker, MultiplexedStdioConnection.STDOUT));
+    assertEquals("starting\n", read(worker, MultiplexedStdioConnection.STDERR));
+  }
+
+  @Test
+  void testUnreadStreamOnlyBlocksItsOwnWriter() throws Exception {
+    final byte[] records = new byte[3 * MultiplexedStdioConnection.WINDOW_SIZE];
+    new Random(42).nextBytes(records);
+
+    final CompletableFuture<Void> stdoutWrite = CompletableFuture.runAsync(() -> {
+      try (final OutputStream stdout = pod.getOutputStream(MultiplexedStdioConnection.STDOUT)) {
+        stdout.write(records);
+      } catch (final IOException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    try (final OutputStream stderr = pod.getOutputStream(MultiplexedStdioConnection.STDERR)) {
+      stderr.write(bytes("still logging\n"));
+    }
+
+    // stdout is out of credit until the worker reads it, which does not hold stderr back
+    assertEquals("still logging\n", read(worker, MultiplexedStdioConnection.STDERR));
+    assertFalse(stdoutWrite.isDone());
+
+    assertArrayEquals(records, worker.getInputStream(MultiplexedStdioConnection.STDOUT).readAllBytes());
+    stdoutWrite.get(1, TimeUnit.MINUTES);
+  }
+
+  @Test
+  void testClosingAnInputStreamDiscardsItsData() throws Exception {
+    worker.getInputStream(MultiplexedStdioConnection.STDERR).close();
+
+    // the writer keeps getting credit back for the discarded data
+    final byte[] logs = new byte[2 * MultiplexedStdioConnection.WINDOW_SIZE];
+    try (final OutputStream stderr = pod.getOutputStream(MultiplexedStdioConnection.STDERR)) {
+      CompletableFuture.runAsync(() -> {
+        try {
+          stderr.write(logs);
+        } catch (final IOException e) {
+          throw new RuntimeException(e);
+        }
+      }).get(1, TimeUnit.MINUTES);
+    }
+  }
+
+  @Test
+  void testWritesFailOnceTheConnectionIsClosed() throws IOException {
+    worker.close();
+
+    assertEquals(-1, pod.getInputStream(MultiplexedStdioConnection.STDIN).read());
+    assertThrows(IOException.class, () -> pod.getOutputStream(MultiplexedStdioConnection.STDOUT).write(bytes("too late\n")));
+  }
+
+  private static byte[] bytes(final String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String read(final MultiplexedStdioConnection connection, final int stream) throws IOException {
+    return new String(connection.getInputStream(stream).readAllBytes(), StandardCharsets.UTF_8);
+  }
+
+}
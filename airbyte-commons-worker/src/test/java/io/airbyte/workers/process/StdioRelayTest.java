@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.process;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs the relay against a fake pod made of local processes: a connector wired to named pipes like
+ * the main container, and the relay itself.
+ */
+class StdioRelayTest {
+
+  private static final String STDIN = "stdin";
+  private static final String STDOUT = "stdout";
+  private static final String STDERR = "stderr";
+
+  @TempDir
+  private Path pipesDir;
+
+  @Test
+  void testConnectorStdioIsRelayedOverOneConnection() throws Exception {
+    try (final ServerSocket serverSocket = new ServerSocket(0)) {
+      final Process connector = startConnector("(tr a-z A-Z; echo 'connector exited' >&2) < stdin > stdout 2> stderr", STDIN, STDOUT, STDERR);
+      final Process relay = startRelay(serverSocket.getLocalPort(), pipesDir.resolve(STDIN).toString());
+
+      try (final MultiplexedStdioConnection connection = new MultiplexedStdioConnection(serverSocket.accept())) {
+        try (final OutputStream stdin = connection.getOutputStream(MultiplexedStdioConnection.STDIN)) {
+          stdin.write("record 1\nrecord 2\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals("RECORD 1\nRECORD 2\n", read(connection, MultiplexedStdioConnection.STDOUT));
+        assertEquals("connector exited\n", read(connection, MultiplexedStdioConnection.STDERR));
+        assertEquals(0, connector.waitFor());
+      }
+
+      // the relay exits once the worker closes the connection
+      assertTrue(relay.waitFor(1, TimeUnit.MINUTES));
+      assertEquals(0, relay.exitValue());
+    }
+  }
+
+  @Test
+  void testConnectorWithoutStdin() throws Exception {
+    try (final ServerSocket serverSocket = new ServerSocket(0)) {
+      final Process connector = startConnector("(echo '{\"type\": \"SPEC\"}'; echo 'spec done' >&2) > stdout 2> stderr", STDOUT, STDERR);
+      final Process relay = startRelay(serverSocket.getLocalPort(), StdioRelay.NO_STDIN);
+
+      try (final MultiplexedStdioConnection connection = new MultiplexedStdioConnection(serverSocket.accept())) {
+        assertEquals("{\"type\": \"SPEC\"}\n", read(connection, MultiplexedStdioConnection.STDOUT));
+        assertEquals("spec done\n", read(connection, MultiplexedStdioConnection.STDERR));
+        assertEquals(0, connector.waitFor());
+      }
+
+      assertTrue(relay.waitFor(1, TimeUnit.MINUTES));
+      assertEquals(0, relay.exitValue());
+    }
+  }
+
+  private Process startConnector(final String command, final String... pipes) throws IOException, InterruptedException {
+    for (final String pipe : pipes) {
+      assertEquals(0, new ProcessBuilder("mkfifo", pipesDir.resolve(pipe).toString()).start().waitFor());
+    }
+    return new ProcessBuilder("sh", "-c", command)
+        .directory(pipesDir.toFile())
+        .redirectError(Redirect.INHERIT)
+        .start();
+  }
+
+  private Process startRelay(final int port, final String stdinPipe) throws IOException {
+    return new ProcessBuilder(
+        Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+        "-cp",
+        System.getProperty("java.class.path"),
+        StdioRelay.class.getName(),
+        "localhost",
+        String.valueOf(port),
+        stdinPipe,
+        pipesDir.resolve(STDOUT).toString(),
+        pipesDir.resolve(STDERR).toString())
+        .inheritIO()
+        .start();
+  }
+
+  private static String read(final MultiplexedStdioConnection connection, final int stream) throws IOException {
+    return new String(connection.getInputStream(stream).readAllBytes(), StandardCharsets.UTF_8);
+  }
+
+}
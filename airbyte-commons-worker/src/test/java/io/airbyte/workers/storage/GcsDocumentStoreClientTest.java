@@ -10,8 +10,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
+import io.airbyte.workers.storage.DocumentStoreClient.VersionedDocument;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -57,4 +60,31 @@ class GcsDocumentStoreClientTest {
     assertFalse(emptyResponseAfterDeletion.isPresent());
   }
 
+  @Test
+  void testList() {
+    client.write("ns/pod/SUCCEEDED", DOCUMENT);
+    client.write("ns/pod/RUNNING", "");
+    client.write("ns/pod-2/RUNNING", "");
+
+    assertEquals(Set.of("ns/pod/SUCCEEDED", "ns/pod/RUNNING"), Set.copyOf(client.list("ns/pod/")));
+    assertEquals(List.of(), client.list("ns/other/"));
+  }
+
+  @Test
+  void testConditionalReadsAndWrites() {
+    final String version = client.writeIfMatch(KEY, DOCUMENT, null).orElseThrow();
+    // the document exists already
+    assertTrue(client.writeIfMatch(KEY, DOCUMENT2, null).isEmpty());
+
+    assertEquals(Optional.of(new VersionedDocument(DOCUMENT, version)), client.readIfNoneMatch(KEY, null));
+    assertTrue(client.readIfNoneMatch(KEY, version).isEmpty());
+
+    final String updatedVersion = client.writeIfMatch(KEY, DOCUMENT2, version).orElseThrow();
+    // the document isn't at this version anymore
+    assertTrue(client.writeIfMatch(KEY, DOCUMENT, version).isEmpty());
+    assertEquals(Optional.of(new VersionedDocument(DOCUMENT2, updatedVersion)), client.readIfNoneMatch(KEY, version));
+
+    assertTrue(client.delete(KEY));
+  }
+
 }
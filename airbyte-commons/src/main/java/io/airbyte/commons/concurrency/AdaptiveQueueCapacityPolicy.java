@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.concurrency;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Capacity limits of a queue, in number of elements and in bytes, adapted to how fast the consumer
+ * drains the queue.
+ * <p>
+ * The goal is to buffer about {@code targetDrainTime} worth of work: a fast consumer of small
+ * elements gets a deep queue, a slow consumer of large elements gets a shallow one. The limits
+ * always stay within the configured bounds, the byte upper bound being what keeps the memory usage
+ * predictable. The count limit only goes past {@code maxCount}, up to {@code byteBudgetMaxCount},
+ * when that many elements of the average size drained fit in the byte limit.
+ * <p>
+ * The limits start at {@code maxCount} and the byte upper bound. They are re-evaluated at most once
+ * per {@code targetDrainTime}, checked every time a fraction of the byte lower bound is drained, and
+ * smoothed with the previous limits to avoid oscillating.
+ */
+public class AdaptiveQueueCapacityPolicy {
+
+  // How much of the byte lower bound is drained between clock checks, reading the clock on every
+  // drain would be wasteful.
+  private static final int CLOCK_CHECKS_PER_MIN_BYTES = 16;
+
+  private final int minCount;
+  private final int maxCount;
+  private final int byteBudgetMaxCount;
+  private final long minBytes;
+  private final long maxBytes;
+  private final long clockCheckBytes;
+  private final long targetDrainTimeNanos;
+  private final LongSupplier nanoClock;
+
+  private final AtomicLong drainedCount;
+  private final AtomicLong drainedBytes;
+  private final AtomicLong bytesSinceClockCheck;
+  private final AtomicLong windowStartNanos;
+
+  private volatile int countLimit;
+  private volatile long byteLimit;
+
+  public AdaptiveQueueCapacityPolicy(final int minCount,
+                                     final int maxCount,
+                                     final long minBytes,
+                                     final long maxBytes,
+                                     final Duration targetDrainTime) {
+    this(minCount, maxCount, maxCount, minBytes, maxBytes, targetDrainTime);
+  }
+
+  public AdaptiveQueueCapacityPolicy(final int minCount,
+                                     final int maxCount,
+                                     final int byteBudgetMaxCount,
+                                     final long minBytes,
+                                     final long maxBytes,
+                                     final Duration targetDrainTime) {
+    this(minCount, maxCount, byteBudgetMaxCount, minBytes, maxBytes, targetDrainTime, System::nanoTime);
+  }
+
+  @VisibleForTesting
+  AdaptiveQueueCapacityPolicy(final int minCount,
+                              final int maxCount,
+                              final int byteBudgetMaxCount,
+                              final long minBytes,
+                              final long maxBytes,
+                              final Duration targetDrainTime,
+                              final LongSupplier nanoClock) {
+    if (minCount <= 0 || minCount > maxCount || maxCount > byteBudgetMaxCount || minBytes <= 0 || minBytes > maxBytes) {
+      throw new IllegalArgumentException(String.format("Invalid capacity bounds: count [%d, %d], up to %d within the byte limit, bytes [%d, %d]",
+          minCount, maxCount, byteBudgetMaxCount, minBytes, maxBytes));
+    }
+    this.minCount = minCount;
+    this.maxCount = maxCount;
+    this.byteBudgetMaxCount = byteBudgetMaxCount;
+    this.minBytes = minBytes;
+    this.maxBytes = maxBytes;
+    this.clockCheckBytes = Math.max(1, minBytes / CLOCK_CHECKS_PER_MIN_BYTES);
+    this.targetDrainTimeNanos = targetDrainTime.toNanos();
+    this.nanoClock = nanoClock;
+    this.drainedCount = new AtomicLong();
+    this.drainedBytes = new AtomicLong();
+    this.bytesSinceClockCheck = new AtomicLong();
+    this.windowStartNanos = new AtomicLong(nanoClock.getAsLong());
+    this.countLimit = maxCount;
+    this.byteLimit = maxBytes;
+  }
+
+  public int getCountLimit() {
+    return countLimit;
+  }
+
+  public long getByteLimit() {
+    return byteLimit;
+  }
+
+  /**
+   * Upper bound of the count limit.
+   */
+  public int getMaxCount() {
+    return byteBudgetMaxCount;
+  }
+
+  /**
+   * Record that an element has been taken out of the queue.
+   *
+   * @param bytes the estimated size of the element.
+   */
+  public void onDrain(final long bytes) {
+    drainedCount.incrementAndGet();
+    drainedBytes.addAndGet(bytes);
+    if (bytesSinceClockCheck.addAndGet(bytes) >= clockCheckBytes) {
+      bytesSinceClockCheck.set(0);
+      maybeAdapt();
+    }
+  }
+
+  private void maybeAdapt() {
+    final long now = nanoClock.getAsLong();
+    final long windowStart = windowStartNanos.get();
+    final long elapsed = now - windowStart;
+    // only one thread gets to close the window
+    if (elapsed < targetDrainTimeNanos || !windowStartNanos.compareAndSet(windowStart, now)) {
+      return;
+    }
+    final double windowsPerTarget = (double) targetDrainTimeNanos / elapsed;
+    final long windowCount = drainedCount.getAndSet(0);
+    final long windowBytes = drainedBytes.getAndSet(0);
+    final long targetCount = (long) (windowCount * windowsPerTarget);
+    final long targetBytes = (long) (windowBytes * windowsPerTarget);
+
+    byteLimit = clamp((byteLimit + targetBytes) / 2, minBytes, maxBytes);
+    // past maxCount, only as many elements of the average size as fit in the byte limit
+    final long averageBytes = windowCount > 0 ? Math.max(1, windowBytes / windowCount) : byteLimit;
+    final long countUpperBound = clamp(byteLimit / averageBytes, maxCount, byteBudgetMaxCount);
+    countLimit = (int) clamp((countLimit + targetCount) / 2, minCount, countUpperBound);
+  }
+
+  private static long clamp(final long value, final long min, final long max) {
+    return Math.max(min, Math.min(max, value));
+  }
+
+}
@@ -6,6 +6,7 @@ package io.airbyte.commons.concurrency;
 
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -18,8 +19,14 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * We are using a ConcurrentLinkedQueue over a BlockingQueue due to the performance impact. The
  * default implementation of a BlockingQueue has a single lock while the ConcurrentLinkedQueue has
  * two locks, one each end of the queue hence reducing the contention.
+ * <p>
+ * This queue does not support waiting, {@link #poll(long, TimeUnit)} returns immediately and
+ * {@link #put(Object)} retries with a fixed backoff. See {@link SpscRingBufferQueue} for a queue
+ * that parks idle threads.
  */
-public class BoundedConcurrentLinkedQueue<T> {
+public class BoundedConcurrentLinkedQueue<T> implements ClosableQueue<T> {
+
+  private static final long PUT_BACKOFF_MS = 100;
 
   private final Queue<T> queue;
   private final AtomicInteger size;
@@ -40,6 +47,7 @@ public class BoundedConcurrentLinkedQueue<T> {
    *
    * @return the head of this queue, or null if this queue is empty
    */
+  @Override
   public T poll() {
     final T e = queue.poll();
     if (e != null) {
@@ -48,6 +56,14 @@ public class BoundedConcurrentLinkedQueue<T> {
     return e;
   }
 
+  /**
+   * Same as {@link #poll()}, this queue does not wait for elements.
+   */
+  @Override
+  public T poll(final long timeout, final TimeUnit unit) {
+    return poll();
+  }
+
   /**
    * Inserts the specified element into this queue if it is possible to do so immediately without
    * violating capacity restrictions, returning true upon success. Throws: IllegalStateException – if
@@ -60,6 +76,7 @@ public class BoundedConcurrentLinkedQueue<T> {
    * @param e the element to add
    * @return true if the insertion was successful
    */
+  @Override
   public boolean add(final T e) {
     try {
       // We use a ReadWriteLock to make sure we are not adding to the queue while attempting to close
@@ -81,6 +98,18 @@ public class BoundedConcurrentLinkedQueue<T> {
     }
   }
 
+  @Override
+  public boolean put(final T e) throws InterruptedException {
+    while (!add(e)) {
+      if (isClosed()) {
+        return false;
+      }
+      Thread.sleep(PUT_BACKOFF_MS);
+    }
+    return true;
+  }
+
+  @Override
   public int size() {
     return size.get();
   }
@@ -88,6 +117,7 @@ public class BoundedConcurrentLinkedQueue<T> {
   /**
    * Returns true if the queue is done. A queue is done when closed and empty.
    */
+  @Override
   public boolean isDone() {
     try {
       closedLock.readLock().lock();
@@ -100,6 +130,7 @@ public class BoundedConcurrentLinkedQueue<T> {
   /**
    * Close the queue.
    */
+  @Override
   public void close() {
     try {
       closedLock.writeLock().lock();
@@ -112,6 +143,7 @@ public class BoundedConcurrentLinkedQueue<T> {
   /**
    * Returns true if the queue is closed.
    */
+  @Override
   public boolean isClosed() {
     try {
       // Acquiring this lock for safety. closed being an atomic boolean, we may not need this.
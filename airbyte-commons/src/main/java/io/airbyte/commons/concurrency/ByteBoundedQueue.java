@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * A queue bounded by the estimated size of its elements in bytes as well as by their number, the
+ * limits are provided by an {@link AdaptiveQueueCapacityPolicy}.
+ * <p>
+ * An element is always accepted by an empty queue, even if it is larger than the byte limit, so
+ * that a single large element cannot block the producer forever.
+ * <p>
+ * The elements are stored in a delegate queue along with their estimated size, so the size of each
+ * element is only estimated once.
+ *
+ * @param <T> the type of the elements.
+ */
+public class ByteBoundedQueue<T> implements ClosableQueue<T> {
+
+  // Upper bound on how long a producer waits before checking the limits again, in case it missed a
+  // notification.
+  private static final long MAX_WAIT_FOR_SPACE_MS = 10;
+
+  /**
+   * Creates the underlying queue of a {@link ByteBoundedQueue}.
+   */
+  @FunctionalInterface
+  public interface QueueFactory {
+
+    <E> ClosableQueue<E> create(int maxSize);
+
+  }
+
+  private record SizedElement<T>(T element, long size) {}
+
+  private final ClosableQueue<SizedElement<T>> delegate;
+  private final ToLongFunction<T> sizeEstimator;
+  private final AdaptiveQueueCapacityPolicy capacityPolicy;
+  private final AtomicLong bytes;
+  private final Object spaceAvailable;
+  private volatile boolean producerWaiting;
+
+  /**
+   * Create a byte bounded queue.
+   *
+   * @param queueFactory creates the underlying queue given a maximum number of elements.
+   * @param sizeEstimator estimates the size of an element in bytes.
+   * @param capacityPolicy provides the count and byte limits.
+   */
+  public ByteBoundedQueue(final QueueFactory queueFactory,
+                          final ToLongFunction<T> sizeEstimator,
+                          final AdaptiveQueueCapacityPolicy capacityPolicy) {
+    this.delegate = queueFactory.create(capacityPolicy.getMaxCount());
+    this.sizeEstimator = sizeEstimator;
+    this.capacityPolicy = capacityPolicy;
+    this.bytes = new AtomicLong();
+    this.spaceAvailable = new Object();
+    this.producerWaiting = false;
+  }
+
+  @Override
+  public T poll() {
+    return onPolled(delegate.poll());
+  }
+
+  @Override
+  public T poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return onPolled(delegate.poll(timeout, unit));
+  }
+
+  @Override
+  public boolean add(final T e) {
+    return tryAdd(new SizedElement<>(e, sizeEstimator.applyAsLong(e)));
+  }
+
+  @Override
+  public boolean put(final T e) throws InterruptedException {
+    final SizedElement<T> sizedElement = new SizedElement<>(e, sizeEstimator.applyAsLong(e));
+    while (!tryAdd(sizedElement)) {
+      if (isClosed()) {
+        return false;
+      }
+      synchronized (spaceAvailable) {
+        producerWaiting = true;
+        try {
+          if (!hasRoomFor(sizedElement.size()) && !isClosed()) {
+            spaceAvailable.wait(MAX_WAIT_FOR_SPACE_MS);
+          }
+        } finally {
+          producerWaiting = false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+
+  /**
+   * Returns the estimated size in bytes of the elements in the queue.
+   */
+  public long getBytes() {
+    return bytes.get();
+  }
+
+  /**
+   * Returns how full the queue is relative to its current byte limit, 1.0 meaning full.
+   */
+  public double getFillRatio() {
+    return (double) bytes.get() / capacityPolicy.getByteLimit();
+  }
+
+  @Override
+  public boolean isDone() {
+    return delegate.isDone();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+    signalSpaceAvailable();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return delegate.isClosed();
+  }
+
+  private boolean tryAdd(final SizedElement<T> sizedElement) {
+    if (!hasRoomFor(sizedElement.size())) {
+      return false;
+    }
+    // Count the bytes first so that concurrent polls never see a negative total.
+    bytes.addAndGet(sizedElement.size());
+    if (!delegate.add(sizedElement)) {
+      bytes.addAndGet(-sizedElement.size());
+      return false;
+    }
+    return true;
+  }
+
+  private boolean hasRoomFor(final long size) {
+    final int count = delegate.size();
+    if (count == 0) {
+      return true;
+    }
+    return count < capacityPolicy.getCountLimit() && bytes.get() + size <= capacityPolicy.getByteLimit();
+  }
+
+  private T onPolled(final SizedElement<T> sizedElement) {
+    if (sizedElement == null) {
+      return null;
+    }
+    bytes.addAndGet(-sizedElement.size());
+    capacityPolicy.onDrain(sizedElement.size());
+    signalSpaceAvailable();
+    return sizedElement.element();
+  }
+
+  private void signalSpaceAvailable() {
+    if (producerWaiting) {
+      synchronized (spaceAvailable) {
+        spaceAvailable.notifyAll();
+      }
+    }
+  }
+
+}
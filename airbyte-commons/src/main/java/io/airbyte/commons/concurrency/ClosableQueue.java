@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.concurrency;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded queue that can be closed to signal the consumer that no more elements will be added.
+ * <p>
+ * The close protocol is: producers stop adding once the queue is closed, consumers keep polling
+ * until the queue is done, meaning closed and drained.
+ *
+ * @param <T> the type of the elements.
+ */
+public interface ClosableQueue<T> {
+
+  /**
+   * Retrieves and removes the head of this queue, or returns null if this queue is empty.
+   *
+   * @return the head of this queue, or null if this queue is empty
+   */
+  T poll();
+
+  /**
+   * Retrieves and removes the head of this queue, waiting up to the specified wait time if necessary
+   * for an element to become available.
+   *
+   * @param timeout how long to wait before giving up
+   * @param unit the unit of the timeout
+   * @return the head of this queue, or null if the timeout elapsed or the queue is done
+   * @throws InterruptedException if interrupted while waiting
+   */
+  T poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+  /**
+   * Inserts the specified element into this queue if it is possible to do so immediately.
+   *
+   * @param e the element to add
+   * @return true if the insertion was successful, false if the queue is full or closed
+   */
+  boolean add(T e);
+
+  /**
+   * Inserts the specified element into this queue, waiting if necessary for space to become
+   * available.
+   *
+   * @param e the element to add
+   * @return true if the insertion was successful, false if the queue has been closed before the
+   *         element could be added
+   * @throws InterruptedException if interrupted while waiting
+   */
+  boolean put(T e) throws InterruptedException;
+
+  int size();
+
+  /**
+   * Returns true if the queue is done. A queue is done when closed and empty.
+   */
+  boolean isDone();
+
+  /**
+   * Close the queue.
+   */
+  void close();
+
+  /**
+   * Returns true if the queue is closed.
+   */
+  boolean isClosed();
+
+}
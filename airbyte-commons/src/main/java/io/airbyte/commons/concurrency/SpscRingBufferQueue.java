@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A bounded single-producer/single-consumer queue backed by a preallocated ring buffer.
+ * <p>
+ * Only one thread may add to the queue and only one thread may poll from it, any thread may close
+ * it. Adding and polling do not lock, a consumer waiting for elements or a producer waiting for
+ * space spins briefly and is then parked until the other side makes progress or the queue gets
+ * closed.
+ * <p>
+ * Closing the queue from the producer thread guarantees that every element added beforehand is
+ * delivered. An element added concurrently with a close coming from another thread may be dropped,
+ * which is fine since closing from another thread means the pipeline is shutting down.
+ *
+ * @param <T> the type of the elements.
+ */
+public class SpscRingBufferQueue<T> implements ClosableQueue<T> {
+
+  // Parking is expensive compared to a queue operation, spin a little before giving up the cpu.
+  private static final int SPIN_TRIES = 100;
+
+  private final Object[] buffer;
+  private final int mask;
+  private final int capacity;
+
+  // index of the next element to poll, only written by the consumer
+  private final AtomicLong head;
+  // index of the next slot to fill, only written by the producer
+  private final AtomicLong tail;
+  private volatile boolean closed;
+
+  private volatile Thread waitingConsumer;
+  private volatile Thread waitingProducer;
+
+  /**
+   * Create a ring buffer queue.
+   *
+   * @param maxSize the maximum number of elements in the queue, the underlying buffer is rounded up
+   *        to the next power of two.
+   */
+  public SpscRingBufferQueue(final int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be positive, got " + maxSize);
+    }
+    this.capacity = maxSize;
+    final int bufferSize = maxSize == 1 ? 1 : Integer.highestOneBit(maxSize - 1) << 1;
+    this.buffer = new Object[bufferSize];
+    this.mask = bufferSize - 1;
+    this.head = new AtomicLong();
+    this.tail = new AtomicLong();
+    this.closed = false;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T poll() {
+    final long currentHead = head.get();
+    if (currentHead == tail.get()) {
+      return null;
+    }
+    final int index = (int) (currentHead & mask);
+    final T e = (T) buffer[index];
+    // release the slot so that the buffer doesn't keep the element alive
+    buffer[index] = null;
+    head.set(currentHead + 1);
+    wakeUp(waitingProducer);
+    return e;
+  }
+
+  @Override
+  public T poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (true) {
+      final T e = poll();
+      if (e != null) {
+        return e;
+      }
+      if (closed) {
+        // an element may have been added right before the close
+        return poll();
+      }
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return null;
+      }
+      if (spinWhile(this::isEmpty)) {
+        continue;
+      }
+      waitingConsumer = Thread.currentThread();
+      try {
+        // re-check after publishing ourselves as a waiter, the producer may have missed us
+        if (isEmpty() && !closed) {
+          LockSupport.parkNanos(this, remaining);
+        }
+      } finally {
+        waitingConsumer = null;
+      }
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  @Override
+  public boolean add(final T e) {
+    if (e == null) {
+      throw new NullPointerException();
+    }
+    if (closed) {
+      return false;
+    }
+    final long currentTail = tail.get();
+    if (currentTail - head.get() >= capacity) {
+      return false;
+    }
+    buffer[(int) (currentTail & mask)] = e;
+    tail.set(currentTail + 1);
+    wakeUp(waitingConsumer);
+    return true;
+  }
+
+  @Override
+  public boolean put(final T e) throws InterruptedException {
+    while (true) {
+      if (add(e)) {
+        return true;
+      }
+      if (closed) {
+        return false;
+      }
+      if (spinWhile(this::isFull)) {
+        continue;
+      }
+      waitingProducer = Thread.currentThread();
+      try {
+        // re-check after publishing ourselves as a waiter, the consumer may have missed us
+        if (isFull() && !closed) {
+          LockSupport.park(this);
+        }
+      } finally {
+        waitingProducer = null;
+      }
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return (int) (tail.get() - head.get());
+  }
+
+  @Override
+  public boolean isDone() {
+    return closed && isEmpty();
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    wakeUp(waitingConsumer);
+    wakeUp(waitingProducer);
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+
+  private boolean isEmpty() {
+    return head.get() == tail.get();
+  }
+
+  private boolean isFull() {
+    return tail.get() - head.get() >= capacity;
+  }
+
+  /**
+   * Spins while the condition holds and the queue is open.
+   *
+   * @return true if the condition stopped holding before running out of tries.
+   */
+  private boolean spinWhile(final BooleanSupplier condition) {
+    for (int i = 0; i < SPIN_TRIES; i++) {
+      if (!condition.getAsBoolean() || closed) {
+        return true;
+      }
+      Thread.onSpinWait();
+    }
+    return false;
+  }
+
+  private static void wakeUp(final Thread thread) {
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+}
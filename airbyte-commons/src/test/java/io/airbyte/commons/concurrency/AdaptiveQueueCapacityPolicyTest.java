@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveQueueCapacityPolicyTest {
+
+  private static final Duration TARGET_DRAIN_TIME = Duration.ofSeconds(1);
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private AdaptiveQueueCapacityPolicy getPolicy() {
+    return new AdaptiveQueueCapacityPolicy(10, 1_000, 10_000, 1_000, 1_000_000, TARGET_DRAIN_TIME, clock::get);
+  }
+
+  @Test
+  void testStartsAtTheCountCapAndTheByteUpperBound() {
+    final AdaptiveQueueCapacityPolicy policy = getPolicy();
+
+    assertEquals(1_000, policy.getCountLimit());
+    assertEquals(10_000, policy.getMaxCount());
+    assertEquals(1_000_000, policy.getByteLimit());
+  }
+
+  @Test
+  void testLimitsDoNotChangeWithinTheTargetDrainTime() {
+    final AdaptiveQueueCapacityPolicy policy = getPolicy();
+
+    drain(policy, 128, 10);
+    clock.addAndGet(TARGET_DRAIN_TIME.toNanos() / 2);
+    drain(policy, 128, 10);
+
+    assertEquals(1_000, policy.getCountLimit());
+    assertEquals(1_000_000, policy.getByteLimit());
+  }
+
+  @Test
+  void testSlowConsumerShrinksTheLimits() {
+    final AdaptiveQueueCapacityPolicy policy = getPolicy();
+
+    // 128 elements of 1000 bytes per second
+    for (int i = 0; i < 20; i++) {
+      clock.addAndGet(TARGET_DRAIN_TIME.toNanos());
+      drain(policy, 128, 1000);
+    }
+
+    assertEquals(128, policy.getCountLimit(), 10);
+    assertEquals(128_000, policy.getByteLimit(), 10_000);
+  }
+
+  @Test
+  void testLimitsStayWithinBounds() {
+    final AdaptiveQueueCapacityPolicy policy = getPolicy();
+
+    for (int i = 0; i < 10; i++) {
+      clock.addAndGet(TARGET_DRAIN_TIME.toNanos() * 100);
+      drain(policy, 64, 1);
+    }
+    assertEquals(10, policy.getCountLimit());
+    assertEquals(1_000, policy.getByteLimit());
+
+    for (int i = 0; i < 20; i++) {
+      clock.addAndGet(TARGET_DRAIN_TIME.toNanos());
+      drain(policy, 100_032, 10);
+    }
+    assertEquals(10_000, policy.getCountLimit());
+    assertEquals(1_000_000, policy.getByteLimit());
+  }
+
+  @Test
+  void testCountCapIsOnlyExceededWithinTheByteLimit() {
+    final AdaptiveQueueCapacityPolicy policy = getPolicy();
+
+    // 10_000 elements of 1000 bytes per second, only 1000 of them fit in the byte limit
+    for (int i = 0; i < 20; i++) {
+      clock.addAndGet(TARGET_DRAIN_TIME.toNanos());
+      drain(policy, 10_000, 1_000);
+    }
+
+    assertEquals(1_000, policy.getCountLimit());
+    assertEquals(1_000_000, policy.getByteLimit());
+  }
+
+  @Test
+  void testLimitsAdaptAfterFewLargeElements() {
+    final AdaptiveQueueCapacityPolicy policy = getPolicy();
+
+    clock.addAndGet(TARGET_DRAIN_TIME.toNanos());
+    drain(policy, 1, 100_000);
+
+    assertEquals(500, policy.getCountLimit());
+    assertEquals(550_000, policy.getByteLimit());
+  }
+
+  @Test
+  void testInvalidBounds() {
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveQueueCapacityPolicy(10, 1, 1, 10, TARGET_DRAIN_TIME));
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveQueueCapacityPolicy(1, 10, 0, 10, TARGET_DRAIN_TIME));
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveQueueCapacityPolicy(1, 10, 5, 1, 10, TARGET_DRAIN_TIME));
+  }
+
+  private static void drain(final AdaptiveQueueCapacityPolicy policy, final int count, final long bytes) {
+    for (int i = 0; i < count; i++) {
+      policy.onDrain(bytes);
+    }
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class ByteBoundedQueueTest {
+
+  private static final Duration TARGET_DRAIN_TIME = Duration.ofSeconds(1);
+
+  private static ByteBoundedQueue<String> getQueue(final int maxCount, final long maxBytes) {
+    return new ByteBoundedQueue<>(SpscRingBufferQueue::new, String::length,
+        new AdaptiveQueueCapacityPolicy(1, maxCount, 1, maxBytes, TARGET_DRAIN_TIME));
+  }
+
+  @Test
+  void testBoundedByBytes() {
+    final ByteBoundedQueue<String> queue = getQueue(10, 10);
+
+    assertTrue(queue.add("aaaa"));
+    assertTrue(queue.add("bbbb"));
+    assertFalse(queue.add("cccc"));
+    assertTrue(queue.add("dd"));
+    assertEquals(10, queue.getBytes());
+    assertEquals(1.0, queue.getFillRatio());
+
+    assertEquals("aaaa", queue.poll());
+    assertEquals(6, queue.getBytes());
+    assertTrue(queue.add("cccc"));
+  }
+
+  @Test
+  void testBoundedByCount() {
+    final ByteBoundedQueue<String> queue = getQueue(2, 100);
+
+    assertTrue(queue.add("a"));
+    assertTrue(queue.add("b"));
+    assertFalse(queue.add("c"));
+    assertEquals(2, queue.size());
+  }
+
+  @Test
+  void testLargeElementIsAcceptedByEmptyQueue() {
+    final ByteBoundedQueue<String> queue = getQueue(10, 10);
+
+    assertTrue(queue.add("larger than the byte limit"));
+    assertFalse(queue.add("a"));
+    assertEquals("larger than the byte limit", queue.poll());
+    assertEquals(0, queue.getBytes());
+  }
+
+  @Test
+  void testCloseAndDrain() {
+    final ByteBoundedQueue<String> queue = new ByteBoundedQueue<>(BoundedConcurrentLinkedQueue::new, String::length,
+        new AdaptiveQueueCapacityPolicy(1, 10, 1, 10, TARGET_DRAIN_TIME));
+    queue.add("a");
+    queue.close();
+
+    assertFalse(queue.add("b"));
+    assertFalse(queue.isDone());
+    assertEquals("a", queue.poll());
+    assertTrue(queue.isDone());
+  }
+
+  @Test
+  @Timeout(10)
+  void testPutWaitsForBytesToBeDrained() throws Exception {
+    final ByteBoundedQueue<String> queue = getQueue(10, 10);
+    queue.add("aaaaaaaa");
+
+    final CompletableFuture<Boolean> producer = CompletableFuture.supplyAsync(() -> {
+      try {
+        return queue.put("bbbbbbbb");
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    assertEquals("aaaaaaaa", queue.poll(1, TimeUnit.SECONDS));
+    assertTrue(producer.get());
+    assertEquals("bbbbbbbb", queue.poll(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @Timeout(10)
+  void testCloseUnblocksPut() throws Exception {
+    final ByteBoundedQueue<String> queue = getQueue(10, 10);
+    queue.add("aaaaaaaa");
+
+    final CompletableFuture<Boolean> producer = CompletableFuture.supplyAsync(() -> {
+      try {
+        return queue.put("bbbbbbbb");
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    queue.close();
+
+    assertFalse(producer.get());
+  }
+
+}
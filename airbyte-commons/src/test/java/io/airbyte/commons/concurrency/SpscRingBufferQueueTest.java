@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class SpscRingBufferQueueTest {
+
+  private record Record(int value) {}
+
+  @Test
+  void testBasicAddPoll() {
+    final SpscRingBufferQueue<Record> queue = new SpscRingBufferQueue<>(2);
+
+    assertEquals(0, queue.size());
+    assertTrue(queue.add(new Record(1)));
+    assertTrue(queue.add(new Record(2)));
+    assertEquals(2, queue.size());
+
+    assertEquals(new Record(1), queue.poll());
+    assertEquals(new Record(2), queue.poll());
+    assertNull(queue.poll());
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  void testCapacityIsNotRoundedUp() {
+    final SpscRingBufferQueue<Record> queue = new SpscRingBufferQueue<>(3);
+
+    assertTrue(queue.add(new Record(1)));
+    assertTrue(queue.add(new Record(2)));
+    assertTrue(queue.add(new Record(3)));
+    assertFalse(queue.add(new Record(4)));
+
+    // wrap around the buffer
+    assertEquals(new Record(1), queue.poll());
+    assertTrue(queue.add(new Record(4)));
+    assertEquals(List.of(new Record(2), new Record(3), new Record(4)), List.of(queue.poll(), queue.poll(), queue.poll()));
+  }
+
+  @Test
+  void testInvalidSize() {
+    assertThrows(IllegalArgumentException.class, () -> new SpscRingBufferQueue<Record>(0));
+  }
+
+  @Test
+  void testCloseAndDrain() {
+    final SpscRingBufferQueue<Record> queue = new SpscRingBufferQueue<>(3);
+    queue.add(new Record(1));
+    queue.close();
+
+    assertFalse(queue.add(new Record(2)));
+    assertTrue(queue.isClosed());
+    assertFalse(queue.isDone());
+    assertEquals(new Record(1), queue.poll());
+    assertTrue(queue.isDone());
+  }
+
+  @Test
+  @Timeout(10)
+  void testPollWithTimeoutReturnsNullWhenEmpty() throws InterruptedException {
+    final SpscRingBufferQueue<Record> queue = new SpscRingBufferQueue<>(3);
+
+    assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  @Timeout(10)
+  void testCloseWakesUpWaitingThreads() throws Exception {
+    final SpscRingBufferQueue<Record> emptyQueue = new SpscRingBufferQueue<>(1);
+    final SpscRingBufferQueue<Record> fullQueue = new SpscRingBufferQueue<>(1);
+    fullQueue.add(new Record(1));
+
+    final CompletableFuture<Record> consumer = CompletableFuture.supplyAsync(() -> {
+      try {
+        return emptyQueue.poll(1, TimeUnit.HOURS);
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    final CompletableFuture<Boolean> producer = CompletableFuture.supplyAsync(() -> {
+      try {
+        return fullQueue.put(new Record(2));
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    emptyQueue.close();
+    fullQueue.close();
+
+    assertNull(consumer.get());
+    assertFalse(producer.get());
+  }
+
+  @Test
+  @Timeout(30)
+  void testProducerConsumer() throws Exception {
+    final int count = 100_000;
+    final SpscRingBufferQueue<Record> queue = new SpscRingBufferQueue<>(16);
+
+    final CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+      try {
+        for (int i = 0; i < count; i++) {
+          assertTrue(queue.put(new Record(i)));
+        }
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      } finally {
+        queue.close();
+      }
+    });
+
+    final List<Record> records = new ArrayList<>(count);
+    while (!queue.isDone()) {
+      final Record record = queue.poll(1, TimeUnit.SECONDS);
+      if (record != null) {
+        records.add(record);
+      }
+    }
+    producer.get();
+
+    assertEquals(count, records.size());
+    for (int i = 0; i < count; i++) {
+      assertEquals(i, records.get(i).value());
+    }
+  }
+
+}
@@ -527,6 +527,26 @@ public interface Configs {
    */
   String getSocatSidecarKubeCpuRequest();
 
+  /**
+   * Define the Memory request for the stdio relay Sidecar.
+   */
+  String getStdioRelayKubeMemoryRequest();
+
+  /**
+   * Define the Memory limit for the stdio relay Sidecar.
+   */
+  String getStdioRelayKubeMemoryLimit();
+
+  /**
+   * Define the CPU request for the stdio relay Sidecar.
+   */
+  String getStdioRelayKubeCpuRequest();
+
+  /**
+   * Define the CPU limit for the stdio relay Sidecar.
+   */
+  String getStdioRelayKubeCpuLimit();
+
   /**
    * Define the Job pod busybox image.
    */
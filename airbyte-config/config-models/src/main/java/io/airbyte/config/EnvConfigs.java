@@ -92,6 +92,15 @@ public class EnvConfigs implements Configs {
   // affect scheduling.
   private static final String DEFAULT_SIDECAR_KUBE_CPU_LIMIT = "2.0";
   private static final String SIDECAR_KUBE_CPU_LIMIT = "SIDECAR_KUBE_CPU_LIMIT";
+  // The stdio relay replaces up to three socat sidecars of 25Mi each. It is a JVM with a trimmed
+  // footprint, see StdioRelayBenchmark for its cpu cost, and defaults to the cpu request of a socat
+  // sidecar.
+  private static final String DEFAULT_STDIO_RELAY_KUBE_MEMORY_REQUEST = "64Mi";
+  private static final String STDIO_RELAY_KUBE_MEMORY_REQUEST = "STDIO_RELAY_KUBE_MEMORY_REQUEST";
+  private static final String DEFAULT_STDIO_RELAY_KUBE_MEMORY_LIMIT = "128Mi";
+  private static final String STDIO_RELAY_KUBE_MEMORY_LIMIT = "STDIO_RELAY_KUBE_MEMORY_LIMIT";
+  private static final String STDIO_RELAY_KUBE_CPU_REQUEST = "STDIO_RELAY_KUBE_CPU_REQUEST";
+  private static final String STDIO_RELAY_KUBE_CPU_LIMIT = "STDIO_RELAY_KUBE_CPU_LIMIT";
   public static final String JOB_KUBE_SOCAT_IMAGE = "JOB_KUBE_SOCAT_IMAGE";
   public static final String SOCAT_KUBE_CPU_LIMIT = "SOCAT_KUBE_CPU_LIMIT";
   public static final String SOCAT_KUBE_CPU_REQUEST = "SOCAT_KUBE_CPU_REQUEST";
@@ -819,6 +828,26 @@ public class EnvConfigs implements Configs {
     return getEnvOrDefault(SOCAT_KUBE_CPU_LIMIT, getSidecarKubeCpuLimit());
   }
 
+  @Override
+  public String getStdioRelayKubeMemoryRequest() {
+    return getEnvOrDefault(STDIO_RELAY_KUBE_MEMORY_REQUEST, DEFAULT_STDIO_RELAY_KUBE_MEMORY_REQUEST);
+  }
+
+  @Override
+  public String getStdioRelayKubeMemoryLimit() {
+    return getEnvOrDefault(STDIO_RELAY_KUBE_MEMORY_LIMIT, DEFAULT_STDIO_RELAY_KUBE_MEMORY_LIMIT);
+  }
+
+  @Override
+  public String getStdioRelayKubeCpuRequest() {
+    return getEnvOrDefault(STDIO_RELAY_KUBE_CPU_REQUEST, getSocatSidecarKubeCpuRequest());
+  }
+
+  @Override
+  public String getStdioRelayKubeCpuLimit() {
+    return getEnvOrDefault(STDIO_RELAY_KUBE_CPU_LIMIT, getSidecarKubeCpuLimit());
+  }
+
   @Override
   public String getJobKubeBusyboxImage() {
     return getEnvOrDefault(JOB_KUBE_BUSYBOX_IMAGE, DEFAULT_JOB_KUBE_BUSYBOX_IMAGE);
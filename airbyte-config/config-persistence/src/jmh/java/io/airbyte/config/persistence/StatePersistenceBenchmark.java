@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.config.persistence;
+
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.config.ActorDefinitionVersion;
+import io.airbyte.config.StandardDestinationDefinition;
+import io.airbyte.config.StandardSourceDefinition;
+import io.airbyte.config.StandardSync;
+import io.airbyte.config.StateType;
+import io.airbyte.config.StateWrapper;
+import io.airbyte.protocol.models.AirbyteStateMessage;
+import io.airbyte.protocol.models.AirbyteStateMessage.AirbyteStateType;
+import io.airbyte.protocol.models.AirbyteStreamState;
+import io.airbyte.protocol.models.StreamDescriptor;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link StatePersistence#updateOrCreateState} against the test container database of
+ * {@link BaseConfigDatabaseTest}, for connections with many streams: updating every stream, as a
+ * GLOBAL state flush used to do, and updating a single stream.
+ * <p>
+ * It is in the package of the tests to reuse their database fixtures, and needs docker to start the
+ * database container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@SuppressWarnings("MissingJavadocMethod")
+public class StatePersistenceBenchmark {
+
+  @Param({"1000", "10000"})
+  public int streamCount;
+
+  private StatePersistence statePersistence;
+  private UUID connectionId;
+  private StateWrapper allStreams;
+  private StateWrapper oneStream;
+
+  @Setup
+  public void setup() throws Exception {
+    BaseConfigDatabaseTest.dbSetup();
+    BaseConfigDatabaseTest.truncateAllTables();
+    connectionId = writeConnection();
+    statePersistence = new StatePersistence(BaseConfigDatabaseTest.database);
+
+    allStreams = streamStates(IntStream.range(0, streamCount).boxed().toList());
+    oneStream = streamStates(List.of(streamCount / 2));
+    statePersistence.updateOrCreateState(connectionId, allStreams);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    BaseConfigDatabaseTest.dbDown();
+  }
+
+  @Benchmark
+  public void updateAllStreams() throws Exception {
+    statePersistence.updateOrCreateState(connectionId, allStreams);
+  }
+
+  @Benchmark
+  public void updateOneStream() throws Exception {
+    statePersistence.updateOrCreateState(connectionId, oneStream);
+  }
+
+  private static UUID writeConnection() throws Exception {
+    final ConfigRepository configRepository = new ConfigRepository(BaseConfigDatabaseTest.database, MockData.MAX_SECONDS_BETWEEN_MESSAGE_SUPPLIER);
+    final StandardSourceDefinition sourceDefinition = MockData.publicSourceDefinition();
+    final StandardDestinationDefinition destinationDefinition = MockData.publicDestinationDefinition();
+    final ActorDefinitionVersion sourceVersion = MockData.actorDefinitionVersion()
+        .withActorDefinitionId(sourceDefinition.getSourceDefinitionId())
+        .withVersionId(sourceDefinition.getDefaultVersionId());
+    final ActorDefinitionVersion destinationVersion = MockData.actorDefinitionVersion()
+        .withActorDefinitionId(destinationDefinition.getDestinationDefinitionId())
+        .withVersionId(destinationDefinition.getDefaultVersionId());
+    final StandardSync sync = Jsons.clone(MockData.standardSyncs().get(0)).withOperationIds(Collections.emptyList());
+
+    configRepository.writeStandardWorkspaceNoSecrets(MockData.standardWorkspaces().get(0));
+    configRepository.writeConnectorMetadata(sourceDefinition, sourceVersion);
+    configRepository.writeSourceConnectionNoSecrets(MockData.sourceConnections().get(0));
+    configRepository.writeConnectorMetadata(destinationDefinition, destinationVersion);
+    configRepository.writeDestinationConnectionNoSecrets(MockData.destinationConnections().get(0));
+    configRepository.writeStandardSync(sync);
+    return sync.getConnectionId();
+  }
+
+  private static StateWrapper streamStates(final List<Integer> streams) {
+    return new StateWrapper()
+        .withStateType(StateType.STREAM)
+        .withStateMessages(streams.stream()
+            .map(i -> new AirbyteStateMessage()
+                .withType(AirbyteStateType.STREAM)
+                .withStream(new AirbyteStreamState()
+                    .withStreamDescriptor(new StreamDescriptor().withNamespace("namespace").withName("stream_" + i))
+                    .withStreamState(Jsons.jsonNode(List.of("cursor", i)))))
+            .toList());
+  }
+
+}
@@ -118,7 +118,6 @@ import org.jooq.JoinType;
 import org.jooq.Query;
 import org.jooq.Record;
 import org.jooq.Record1;
-import org.jooq.Record2;
 import org.jooq.Record4;
 import org.jooq.RecordMapper;
 import org.jooq.Result;
@@ -233,18 +232,42 @@ public class ConfigRepository {
   private final StandardSyncPersistence standardSyncPersistence;
 
   private final Supplier<Long> heartbeatMaxSecondBetweenMessageSupplier;
+  private final PayloadCompression catalogCompression;
 
   public ConfigRepository(final Database database, final Supplier<Long> heartbeatMaxSecondBetweenMessageSupplier) {
-    this(database, new StandardSyncPersistence(database), heartbeatMaxSecondBetweenMessageSupplier);
+    this(database, heartbeatMaxSecondBetweenMessageSupplier, PayloadCompression.NONE);
+  }
+
+  /**
+   * Create a ConfigRepository which writes the actor catalogs in the given format. Catalogs are read
+   * in whichever format they were written.
+   *
+   * @param database config database
+   * @param heartbeatMaxSecondBetweenMessageSupplier default heartbeat configuration
+   * @param catalogCompression format of the written catalogs
+   */
+  public ConfigRepository(final Database database,
+                          final Supplier<Long> heartbeatMaxSecondBetweenMessageSupplier,
+                          final PayloadCompression catalogCompression) {
+    this(database, new StandardSyncPersistence(database), heartbeatMaxSecondBetweenMessageSupplier, catalogCompression);
   }
 
   @VisibleForTesting
   public ConfigRepository(final Database database,
                           final StandardSyncPersistence standardSyncPersistence,
                           final Supplier<Long> heartbeatMaxSecondBetweenMessageSupplier) {
+    this(database, standardSyncPersistence, heartbeatMaxSecondBetweenMessageSupplier, PayloadCompression.NONE);
+  }
+
+  @VisibleForTesting
+  ConfigRepository(final Database database,
+                   final StandardSyncPersistence standardSyncPersistence,
+                   final Supplier<Long> heartbeatMaxSecondBetweenMessageSupplier,
+                   final PayloadCompression catalogCompression) {
     this.database = new ExceptionWrappingDatabase(database);
     this.standardSyncPersistence = standardSyncPersistence;
     this.heartbeatMaxSecondBetweenMessageSupplier = heartbeatMaxSecondBetweenMessageSupplier;
+    this.catalogCompression = catalogCompression;
   }
 
   /**
@@ -2373,7 +2396,8 @@ public class ConfigRepository {
   }
 
   private Map<UUID, AirbyteCatalog> findCatalogByHash(final String catalogHash, final DSLContext context) {
-    final Result<Record2<UUID, JSONB>> records = context.select(ACTOR_CATALOG.ID, ACTOR_CATALOG.CATALOG)
+    final Result<Record4<UUID, JSONB, byte[], String>> records = context
+        .select(ACTOR_CATALOG.ID, ACTOR_CATALOG.CATALOG, ACTOR_CATALOG.COMPRESSED_CATALOG, ACTOR_CATALOG.COMPRESSION)
         .from(ACTOR_CATALOG)
         .where(ACTOR_CATALOG.CATALOG_HASH.eq(catalogHash)).fetch();
 
@@ -2382,7 +2406,11 @@ public class ConfigRepository {
       // We do not apply the on-the-fly migration here because the only caller is getOrInsertActorCatalog
       // which is using this to figure out if the catalog has already been inserted. Migrating on the fly
       // here will cause us to add a duplicate each time we check for existence of a catalog.
-      final AirbyteCatalog catalog = Jsons.deserialize(record.get(ACTOR_CATALOG.CATALOG).toString(), AirbyteCatalog.class);
+      final AirbyteCatalog catalog = PayloadCompression.readPayload(PayloadCompression.CATALOG_PAYLOAD,
+          record.get(ACTOR_CATALOG.CATALOG),
+          record.get(ACTOR_CATALOG.COMPRESSED_CATALOG),
+          record.get(ACTOR_CATALOG.COMPRESSION),
+          json -> Jsons.deserialize(json, AirbyteCatalog.class));
       result.put(record.get(ACTOR_CATALOG.ID), catalog);
     }
     return result;
@@ -2545,9 +2573,13 @@ public class ConfigRepository {
                              final DSLContext context,
                              final OffsetDateTime timestamp) {
     final UUID catalogId = UUID.randomUUID();
+    final String catalog = Jsons.serialize(airbyteCatalog);
+    final boolean compressed = catalogCompression != PayloadCompression.NONE;
     context.insertInto(ACTOR_CATALOG)
         .set(ACTOR_CATALOG.ID, catalogId)
-        .set(ACTOR_CATALOG.CATALOG, JSONB.valueOf(Jsons.serialize(airbyteCatalog)))
+        .set(ACTOR_CATALOG.CATALOG, compressed ? null : JSONB.valueOf(catalog))
+        .set(ACTOR_CATALOG.COMPRESSED_CATALOG, compressed ? catalogCompression.compress(PayloadCompression.CATALOG_PAYLOAD, catalog) : null)
+        .set(ACTOR_CATALOG.COMPRESSION, catalogCompression.getMarker())
         .set(ACTOR_CATALOG.CATALOG_HASH, catalogHash)
         .set(ACTOR_CATALOG.CREATED_AT, timestamp)
         .set(ACTOR_CATALOG.MODIFIED_AT, timestamp).execute();
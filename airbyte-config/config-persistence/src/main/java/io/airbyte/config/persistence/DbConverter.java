@@ -315,7 +315,7 @@ public class DbConverter {
   public static ActorCatalog buildActorCatalog(final Record record) {
     return new ActorCatalog()
         .withId(record.get(ACTOR_CATALOG.ID))
-        .withCatalog(Jsons.jsonNode(parseAirbyteCatalog(record.get(ACTOR_CATALOG.CATALOG).toString())))
+        .withCatalog(Jsons.jsonNode(readActorCatalog(record)))
         .withCatalogHash(record.get(ACTOR_CATALOG.CATALOG_HASH));
   }
 
@@ -328,11 +328,25 @@ public class DbConverter {
   public static ActorCatalogWithUpdatedAt buildActorCatalogWithUpdatedAt(final Record record) {
     return new ActorCatalogWithUpdatedAt()
         .withId(record.get(ACTOR_CATALOG.ID))
-        .withCatalog(Jsons.jsonNode(parseAirbyteCatalog(record.get(ACTOR_CATALOG.CATALOG).toString())))
+        .withCatalog(Jsons.jsonNode(readActorCatalog(record)))
         .withCatalogHash(record.get(ACTOR_CATALOG.CATALOG_HASH))
         .withUpdatedAt(record.get(ACTOR_CATALOG_FETCH_EVENT.CREATED_AT, LocalDateTime.class).toEpochSecond(ZoneOffset.UTC));
   }
 
+  /**
+   * Read the airbyte catalog of an actor catalog record, whether it is stored compressed or not.
+   *
+   * @param record db record with the catalog, compressed catalog and compression columns
+   * @return airbyte catalog
+   */
+  private static AirbyteCatalog readActorCatalog(final Record record) {
+    return PayloadCompression.readPayload(PayloadCompression.CATALOG_PAYLOAD,
+        record.get(ACTOR_CATALOG.CATALOG),
+        record.get(ACTOR_CATALOG.COMPRESSED_CATALOG),
+        record.get(ACTOR_CATALOG.COMPRESSION),
+        DbConverter::parseAirbyteCatalog);
+  }
+
   /**
    * Parse airbyte catalog from JSON string.
    *
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.config.persistence;
+
+import io.airbyte.metrics.lib.MetricAttribute;
+import io.airbyte.metrics.lib.MetricClientFactory;
+import io.airbyte.metrics.lib.MetricTags;
+import io.airbyte.metrics.lib.OssMetricsRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+import org.jooq.JSONB;
+
+/**
+ * Storage formats of the connection states and actor catalogs in the config database, which can
+ * reach tens of megabytes for big sources.
+ * <p>
+ * Uncompressed payloads are stored in the jsonb column of their table with a null compression
+ * marker. Compressed payloads are stored in the bytea column next to it, with the marker of their
+ * compression in the compression column. Reads handle every format, the format only selects how new
+ * payloads are written.
+ */
+public enum PayloadCompression {
+
+  NONE(null),
+  GZIP("gzip");
+
+  static final String STATE_PAYLOAD = "state";
+  static final String CATALOG_PAYLOAD = "catalog";
+
+  private final String marker;
+
+  PayloadCompression(@Nullable final String marker) {
+    this.marker = marker;
+  }
+
+  /**
+   * Value of the compression column of the payloads written in this format.
+   *
+   * @return the marker, null for uncompressed payloads
+   */
+  @Nullable
+  public String getMarker() {
+    return marker;
+  }
+
+  /**
+   * Get the format of a payload from the value of its compression column.
+   *
+   * @param marker value of the compression column
+   * @return the format of the payload
+   * @throws IllegalStateException if the marker isn't known, for example if the payload was written
+   *         by a newer version
+   */
+  public static PayloadCompression fromMarker(@Nullable final String marker) {
+    if (marker == null) {
+      return NONE;
+    }
+    for (final PayloadCompression compression : values()) {
+      if (marker.equals(compression.marker)) {
+        return compression;
+      }
+    }
+    throw new IllegalStateException("Unknown payload compression: " + marker);
+  }
+
+  /**
+   * Get a format from its configuration value, "none" or "gzip".
+   *
+   * @param value configuration value, case-insensitive
+   * @return the format
+   */
+  public static PayloadCompression fromConfiguration(final String value) {
+    return valueOf(value.trim().toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * Compress a payload. Must not be called on {@link #NONE}.
+   *
+   * @param payloadType type of the payload, for metrics
+   * @param json serialized payload
+   * @return compressed payload
+   */
+  byte[] compress(final String payloadType, final String json) {
+    if (this != GZIP) {
+      throw new IllegalStateException("Payloads can't be compressed with " + this);
+    }
+
+    final byte[] uncompressed = json.getBytes(StandardCharsets.UTF_8);
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(uncompressed.length / 4, 64));
+    try (final GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(uncompressed);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    final byte[] result = compressed.toByteArray();
+    MetricClientFactory.getMetricClient().distribution(OssMetricsRegistry.PAYLOAD_COMPRESSION_RATIO,
+        (double) uncompressed.length / result.length,
+        new MetricAttribute(MetricTags.PAYLOAD_TYPE, payloadType));
+    return result;
+  }
+
+  private String decompress(final byte[] compressed) {
+    if (this != GZIP) {
+      throw new IllegalStateException("Payloads can't be decompressed with " + this);
+    }
+
+    try (final GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Read a payload stored in any format, and record the time spent decompressing and parsing the
+   * compressed ones.
+   *
+   * @param payloadType type of the payload, for metrics
+   * @param json value of the jsonb column
+   * @param compressed value of the bytea column
+   * @param marker value of the compression column
+   * @param parser parser of the serialized payload
+   * @param <T> type of the parsed payload
+   * @return the parsed payload
+   */
+  static <T> T readPayload(final String payloadType,
+                           @Nullable final JSONB json,
+                           @Nullable final byte[] compressed,
+                           @Nullable final String marker,
+                           final Function<String, T> parser) {
+    final PayloadCompression compression = fromMarker(marker);
+    if (compression == NONE) {
+      return parser.apply(json.data());
+    }
+
+    final long start = System.nanoTime();
+    final T payload = parser.apply(compression.decompress(compressed));
+    MetricClientFactory.getMetricClient().distribution(OssMetricsRegistry.PAYLOAD_READ_TIME_MILLISECS,
+        (System.nanoTime() - start) / 1_000_000.0,
+        new MetricAttribute(MetricTags.PAYLOAD_TYPE, payloadType),
+        new MetricAttribute(MetricTags.PAYLOAD_COMPRESSION, compression.name().toLowerCase(Locale.ROOT)));
+    return payload;
+  }
+
+}
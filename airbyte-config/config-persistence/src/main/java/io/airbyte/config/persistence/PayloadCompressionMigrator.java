@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.config.persistence;
+
+import static io.airbyte.db.instance.configs.jooq.generated.Tables.ACTOR_CATALOG;
+import static io.airbyte.db.instance.configs.jooq.generated.Tables.STATE;
+
+import com.google.common.base.Preconditions;
+import io.airbyte.db.Database;
+import io.airbyte.db.ExceptionWrappingDatabase;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import org.jooq.JSONB;
+import org.jooq.Query;
+import org.jooq.Record2;
+
+/**
+ * Compresses the connection states and actor catalogs which were stored uncompressed, before the
+ * compression was enabled. Rows are migrated in small batches so that it can run in the background
+ * without holding locks for long.
+ */
+public class PayloadCompressionMigrator {
+
+  private final ExceptionWrappingDatabase database;
+  private final PayloadCompression payloadCompression;
+
+  public PayloadCompressionMigrator(final Database database, final PayloadCompression payloadCompression) {
+    Preconditions.checkArgument(payloadCompression != PayloadCompression.NONE, "Payloads can't be migrated to %s", payloadCompression);
+    this.database = new ExceptionWrappingDatabase(database);
+    this.payloadCompression = payloadCompression;
+  }
+
+  /**
+   * Compress a batch of uncompressed states. The rows are locked until they are compressed, so that
+   * concurrent state updates aren't overwritten, and rows locked by someone else are skipped.
+   *
+   * @param batchSize maximum number of states to compress
+   * @return number of compressed states, 0 once every state is compressed
+   * @throws IOException if there is an issue while interacting with the db.
+   */
+  public int compressStates(final int batchSize) throws IOException {
+    return database.transaction(ctx -> {
+      final List<Record2<UUID, JSONB>> states = ctx.select(STATE.ID, STATE.STATE_)
+          .from(STATE)
+          .where(STATE.COMPRESSION.isNull(), STATE.STATE_.isNotNull())
+          .limit(batchSize)
+          .forUpdate()
+          .skipLocked()
+          .fetch();
+      if (states.isEmpty()) {
+        return 0;
+      }
+
+      final List<Query> updates = states.stream()
+          .map(state -> (Query) ctx.update(STATE)
+              .set(STATE.STATE_, (JSONB) null)
+              .set(STATE.COMPRESSED_STATE, payloadCompression.compress(PayloadCompression.STATE_PAYLOAD, state.value2().data()))
+              .set(STATE.COMPRESSION, payloadCompression.getMarker())
+              .where(STATE.ID.eq(state.value1())))
+          .toList();
+      ctx.batch(updates).execute();
+      return states.size();
+    });
+  }
+
+  /**
+   * Compress a batch of uncompressed actor catalogs. Catalogs are never updated, they are only locked
+   * so that concurrent migrations don't compress them twice.
+   *
+   * @param batchSize maximum number of catalogs to compress
+   * @return number of compressed catalogs, 0 once every catalog is compressed
+   * @throws IOException if there is an issue while interacting with the db.
+   */
+  public int compressCatalogs(final int batchSize) throws IOException {
+    return database.transaction(ctx -> {
+      final List<Record2<UUID, JSONB>> catalogs = ctx.select(ACTOR_CATALOG.ID, ACTOR_CATALOG.CATALOG)
+          .from(ACTOR_CATALOG)
+          .where(ACTOR_CATALOG.COMPRESSION.isNull(), ACTOR_CATALOG.CATALOG.isNotNull())
+          .limit(batchSize)
+          .forUpdate()
+          .skipLocked()
+          .fetch();
+      if (catalogs.isEmpty()) {
+        return 0;
+      }
+
+      final List<Query> updates = catalogs.stream()
+          .map(catalog -> (Query) ctx.update(ACTOR_CATALOG)
+              .set(ACTOR_CATALOG.CATALOG, (JSONB) null)
+              .set(ACTOR_CATALOG.COMPRESSED_CATALOG,
+                  payloadCompression.compress(PayloadCompression.CATALOG_PAYLOAD, catalog.value2().data()))
+              .set(ACTOR_CATALOG.COMPRESSION, payloadCompression.getMarker())
+              .where(ACTOR_CATALOG.ID.eq(catalog.value1())))
+          .toList();
+      ctx.batch(updates).execute();
+      return catalogs.size();
+    });
+  }
+
+}
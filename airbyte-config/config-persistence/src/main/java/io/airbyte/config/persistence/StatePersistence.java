@@ -21,7 +21,6 @@ import io.airbyte.protocol.models.AirbyteStateMessage.AirbyteStateType;
 import io.airbyte.protocol.models.AirbyteStreamState;
 import io.airbyte.protocol.models.StreamDescriptor;
 import java.io.IOException;
-import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -29,7 +28,6 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.jooq.DSLContext;
-import org.jooq.JSONB;
 import org.jooq.Record;
 import org.jooq.RecordMapper;
 import org.jooq.impl.DSL;
@@ -45,9 +43,22 @@ import org.jooq.impl.DSL;
 public class StatePersistence {
 
   private final ExceptionWrappingDatabase database;
+  private final PayloadCompression payloadCompression;
 
   public StatePersistence(final Database database) {
+    this(database, PayloadCompression.NONE);
+  }
+
+  /**
+   * Create a StatePersistence which writes the states in the given format. States are read in
+   * whichever format they were written.
+   *
+   * @param database config database
+   * @param payloadCompression format of the written states
+   */
+  public StatePersistence(final Database database, final PayloadCompression payloadCompression) {
     this.database = new ExceptionWrappingDatabase(database);
+    this.payloadCompression = payloadCompression;
   }
 
   /**
@@ -74,6 +85,10 @@ public class StatePersistence {
   /**
    * Create or update the states described in the StateWrapper. Null states will be deleted.
    *
+   * Streams that aren't part of the StateWrapper keep their stored state, which makes it possible to
+   * only send the streams which changed since the previous update. All the writes happen in a single
+   * transaction.
+   *
    * The only state migrations supported are going from a Legacy state to either a Global or Stream
    * state. Other state type migrations should go through an explicit reset. An exception will be
    * thrown to prevent the system from getting into a bad state.
@@ -84,14 +99,16 @@ public class StatePersistence {
    */
   public void updateOrCreateState(final UUID connectionId, final StateWrapper state)
       throws IOException {
-    final Optional<StateWrapper> previousState = getCurrentState(connectionId);
+    // Only the type of the stored state is needed here, loading the whole state would make every
+    // update scale with the number of streams of the connection.
+    final Optional<StateType> previousStateType = getCurrentStateType(connectionId);
     final StateType currentStateType = state.getStateType();
-    final boolean isMigration = StateMessageHelper.isMigration(currentStateType, previousState);
+    final boolean isMigration = StateMessageHelper.isMigration(currentStateType, previousStateType.orElse(null));
 
     // The only case where we allow a state migration is moving from LEGACY.
     // We expect any other migration to go through an explicit reset.
-    if (!isMigration && previousState.isPresent() && previousState.get().getStateType() != currentStateType) {
-      throw new IllegalStateException("Unexpected type migration from '" + previousState.get().getStateType() + "' to '" + currentStateType
+    if (!isMigration && previousStateType.isPresent() && previousStateType.get() != currentStateType) {
+      throw new IllegalStateException("Unexpected type migration from '" + previousStateType.get() + "' to '" + currentStateType
           + "'. Migration of StateType need to go through an explicit reset.");
     }
 
@@ -111,115 +128,42 @@ public class StatePersistence {
     });
   }
 
-  private static void clearLegacyState(final DSLContext ctx, final UUID connectionId) {
-    final StateUpdateBatch stateUpdateBatch = new StateUpdateBatch();
-    writeStateToDb(ctx, connectionId, null, null, StateType.LEGACY, null, stateUpdateBatch);
+  private void clearLegacyState(final DSLContext ctx, final UUID connectionId) {
+    final StateUpdateBatch stateUpdateBatch = new StateUpdateBatch(connectionId, payloadCompression, StateType.LEGACY);
+    stateUpdateBatch.add(null, null, null);
     stateUpdateBatch.save(ctx);
   }
 
-  private static void saveGlobalState(final DSLContext ctx, final UUID connectionId, final AirbyteGlobalState globalState) {
-    final StateUpdateBatch stateUpdateBatch = new StateUpdateBatch();
-    writeStateToDb(ctx, connectionId, null, null, StateType.GLOBAL, globalState.getSharedState(), stateUpdateBatch);
+  private void saveGlobalState(final DSLContext ctx, final UUID connectionId, final AirbyteGlobalState globalState) {
+    final StateUpdateBatch stateUpdateBatch = new StateUpdateBatch(connectionId, payloadCompression, StateType.GLOBAL);
+    stateUpdateBatch.add(null, null, globalState.getSharedState());
     for (final AirbyteStreamState streamState : globalState.getStreamStates()) {
-      writeStateToDb(ctx,
-          connectionId,
+      stateUpdateBatch.add(
           streamState.getStreamDescriptor().getName(),
           streamState.getStreamDescriptor().getNamespace(),
-          StateType.GLOBAL,
-          streamState.getStreamState(),
-          stateUpdateBatch);
+          streamState.getStreamState());
     }
     stateUpdateBatch.save(ctx);
   }
 
-  private static void saveStreamState(final DSLContext ctx, final UUID connectionId, final List<AirbyteStateMessage> stateMessages) {
-    final StateUpdateBatch stateUpdateBatch = new StateUpdateBatch();
+  private void saveStreamState(final DSLContext ctx, final UUID connectionId, final List<AirbyteStateMessage> stateMessages) {
+    final StateUpdateBatch stateUpdateBatch = new StateUpdateBatch(connectionId, payloadCompression, StateType.STREAM);
     for (final AirbyteStateMessage stateMessage : stateMessages) {
       final AirbyteStreamState streamState = stateMessage.getStream();
-      writeStateToDb(ctx,
-          connectionId,
+      stateUpdateBatch.add(
           streamState.getStreamDescriptor().getName(),
           streamState.getStreamDescriptor().getNamespace(),
-          StateType.STREAM,
-          streamState.getStreamState(),
-          stateUpdateBatch);
+          streamState.getStreamState());
     }
     stateUpdateBatch.save(ctx);
   }
 
-  private static void saveLegacyState(final DSLContext ctx, final UUID connectionId, final JsonNode state) {
-    final StateUpdateBatch stateUpdateBatch = new StateUpdateBatch();
-    writeStateToDb(ctx, connectionId, null, null, StateType.LEGACY, state, stateUpdateBatch);
+  private void saveLegacyState(final DSLContext ctx, final UUID connectionId, final JsonNode state) {
+    final StateUpdateBatch stateUpdateBatch = new StateUpdateBatch(connectionId, payloadCompression, StateType.LEGACY);
+    stateUpdateBatch.add(null, null, state);
     stateUpdateBatch.save(ctx);
   }
 
-  /**
-   * Performs the actual SQL operation depending on the state.
-   *
-   * If the state is null, it will delete the row, otherwise do an insert or update on conflict
-   */
-  static void writeStateToDb(final DSLContext ctx,
-                             final UUID connectionId,
-                             final String streamName,
-                             final String namespace,
-                             final StateType stateType,
-                             final JsonNode state,
-                             final StateUpdateBatch stateUpdateBatch) {
-    if (state != null) {
-      final boolean hasState = ctx.fetchExists(STATE,
-          STATE.CONNECTION_ID.eq(connectionId),
-          PersistenceHelpers.isNullOrEquals(STATE.STREAM_NAME, streamName),
-          PersistenceHelpers.isNullOrEquals(STATE.NAMESPACE, namespace));
-
-      // NOTE: the legacy code was storing a State object instead of just the State data field. We kept
-      // the same behavior for consistency.
-      final JSONB jsonbState = JSONB.valueOf(Jsons.serialize(stateType != StateType.LEGACY ? state : new State().withState(state)));
-      final OffsetDateTime now = OffsetDateTime.now();
-
-      if (!hasState) {
-        stateUpdateBatch.getCreatedStreamStates().add(
-            ctx.insertInto(STATE)
-                .columns(
-                    STATE.ID,
-                    STATE.CREATED_AT,
-                    STATE.UPDATED_AT,
-                    STATE.CONNECTION_ID,
-                    STATE.STREAM_NAME,
-                    STATE.NAMESPACE,
-                    STATE.STATE_,
-                    STATE.TYPE)
-                .values(
-                    UUID.randomUUID(),
-                    now,
-                    now,
-                    connectionId,
-                    streamName,
-                    namespace,
-                    jsonbState,
-                    Enums.convertTo(stateType, io.airbyte.db.instance.configs.jooq.generated.enums.StateType.class)));
-
-      } else {
-        stateUpdateBatch.getUpdatedStreamStates().add(
-            ctx.update(STATE)
-                .set(STATE.UPDATED_AT, now)
-                .set(STATE.STATE_, jsonbState)
-                .where(
-                    STATE.CONNECTION_ID.eq(connectionId),
-                    PersistenceHelpers.isNullOrEquals(STATE.STREAM_NAME, streamName),
-                    PersistenceHelpers.isNullOrEquals(STATE.NAMESPACE, namespace)));
-      }
-
-    } else {
-      // If the state is null, we remove the state instead of keeping a null row
-      stateUpdateBatch.getDeletedStreamStates().add(
-          ctx.deleteFrom(STATE)
-              .where(
-                  STATE.CONNECTION_ID.eq(connectionId),
-                  PersistenceHelpers.isNullOrEquals(STATE.STREAM_NAME, streamName),
-                  PersistenceHelpers.isNullOrEquals(STATE.NAMESPACE, namespace)));
-    }
-  }
-
   /**
    * Get the StateType for a given list of StateRecords.
    *
@@ -243,6 +187,28 @@ public class StatePersistence {
         + " (" + String.join(", ", types.stream().map(stateType -> stateType.getLiteral()).toList()) + ")");
   }
 
+  /**
+   * Get the StateType of the state currently stored for a connection, without reading the states.
+   *
+   * @param connectionId the ID of the connection
+   * @return the StateType of the stored state, empty if there is no state
+   * @throws IOException if there is an issue while interacting with the db.
+   * @throws IllegalStateException If the stored states have inconsistent types
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private Optional<StateType> getCurrentStateType(final UUID connectionId) throws IOException {
+    final List<StateType> types = this.database.query(ctx -> ctx.selectDistinct(STATE.TYPE)
+        .from(STATE)
+        .where(STATE.CONNECTION_ID.eq(connectionId))
+        .fetch(record -> Enums.convertTo(record.value1(), StateType.class)));
+
+    if (types.size() > 1) {
+      throw new IllegalStateException("Inconsistent StateTypes for connectionId " + connectionId + " (" + types + ")");
+    }
+
+    return types.stream().findFirst();
+  }
+
   /**
    * Get the state records from the DB.
    *
@@ -324,7 +290,11 @@ public class StatePersistence {
         record.get(STATE.TYPE, io.airbyte.db.instance.configs.jooq.generated.enums.StateType.class),
         record.get(STATE.STREAM_NAME, String.class),
         record.get(STATE.NAMESPACE, String.class),
-        Jsons.deserialize(record.get(STATE.STATE_).data()));
+        PayloadCompression.readPayload(PayloadCompression.STATE_PAYLOAD,
+            record.get(STATE.STATE_),
+            record.get(STATE.COMPRESSED_STATE),
+            record.get(STATE.COMPRESSION),
+            Jsons::deserialize));
   }
 
   private record StateRecord(
@@ -4,23 +4,193 @@
 
 package io.airbyte.config.persistence;
 
+import static io.airbyte.db.instance.configs.jooq.generated.Tables.STATE;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.Lists;
+import io.airbyte.commons.enums.Enums;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.config.State;
+import io.airbyte.config.StateType;
+import io.airbyte.protocol.models.StreamDescriptor;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import lombok.Getter;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.JSONB;
 import org.jooq.Query;
+import org.jooq.Row2;
+import org.jooq.impl.DSL;
 
-@Getter
+/**
+ * The writes of a state update of a connection, saved with a number of statements that doesn't
+ * depend on the number of streams.
+ * <p>
+ * Upserts with an ON CONFLICT clause can't be used since the unique constraint of the state table
+ * considers null stream names and namespaces as distinct, which is how shared, legacy and
+ * namespace-less stream states are stored. This requires Postgres 15 and NULLS NOT DISTINCT.
+ * Instead, which of the streams of the update already exist is fetched once and existence checks are
+ * done in memory, the same way stream stats are saved.
+ */
 class StateUpdateBatch {
 
-  private final List<Query> updatedStreamStates = new ArrayList<>();
-  private final List<Query> createdStreamStates = new ArrayList<>();
-  private final List<Query> deletedStreamStates = new ArrayList<>();
+  // Rows are inserted in chunks to keep the statements at a reasonable size with many streams.
+  private static final int INSERT_CHUNK_SIZE = 1000;
+
+  private final UUID connectionId;
+  private final PayloadCompression payloadCompression;
+  private final StateType stateType;
+  // keyed by stream so that the last state of a stream wins if it is written more than once
+  private final Map<StreamDescriptor, JsonNode> streamStates = new LinkedHashMap<>();
+
+  StateUpdateBatch(final UUID connectionId, final PayloadCompression payloadCompression, final StateType stateType) {
+    this.connectionId = connectionId;
+    this.payloadCompression = payloadCompression;
+    this.stateType = stateType;
+  }
+
+  /**
+   * Add a state to write. If the state is null, the row is removed instead of keeping a null row.
+   * Shared and legacy states have neither a stream name nor a namespace.
+   */
+  void add(final String streamName, final String namespace, final JsonNode state) {
+    streamStates.put(new StreamDescriptor().withName(streamName).withNamespace(namespace), state);
+  }
 
   void save(final DSLContext ctx) {
-    ctx.batch(updatedStreamStates).execute();
-    ctx.batch(createdStreamStates).execute();
-    ctx.batch(deletedStreamStates).execute();
+    if (streamStates.isEmpty()) {
+      return;
+    }
+
+    final Set<StreamDescriptor> existingStreams = fetchExistingStreams(ctx);
+
+    final OffsetDateTime now = OffsetDateTime.now();
+    final List<Query> updatedStreamStates = new ArrayList<>();
+    final List<Entry<StreamDescriptor, StatePayload>> createdStreamStates = new ArrayList<>();
+    final List<Condition> deletedStreamStates = new ArrayList<>();
+
+    for (final Entry<StreamDescriptor, JsonNode> streamState : streamStates.entrySet()) {
+      final StreamDescriptor stream = streamState.getKey();
+      if (streamState.getValue() == null) {
+        deletedStreamStates.add(isStream(stream));
+      } else if (existingStreams.contains(stream)) {
+        final StatePayload payload = toPayload(streamState.getValue());
+        updatedStreamStates.add(ctx.update(STATE)
+            .set(STATE.UPDATED_AT, now)
+            .set(STATE.STATE_, payload.json())
+            .set(STATE.COMPRESSED_STATE, payload.compressed())
+            .set(STATE.COMPRESSION, payload.compression())
+            .where(STATE.CONNECTION_ID.eq(connectionId), isStream(stream)));
+      } else {
+        createdStreamStates.add(Map.entry(stream, toPayload(streamState.getValue())));
+      }
+    }
+
+    if (!updatedStreamStates.isEmpty()) {
+      ctx.batch(updatedStreamStates).execute();
+    }
+    if (!createdStreamStates.isEmpty()) {
+      ctx.batch(Lists.partition(createdStreamStates, INSERT_CHUNK_SIZE).stream()
+          .map(chunk -> insertStreamStates(ctx, chunk, now))
+          .toList())
+          .execute();
+    }
+    if (!deletedStreamStates.isEmpty()) {
+      ctx.deleteFrom(STATE)
+          .where(STATE.CONNECTION_ID.eq(connectionId), DSL.or(deletedStreamStates))
+          .execute();
+    }
   }
 
+  /**
+   * Fetch which of the written streams already have a state. Only the rows of these streams are read,
+   * so that saving a few streams doesn't depend on the number of streams of the connection.
+   */
+  private Set<StreamDescriptor> fetchExistingStreams(final DSLContext ctx) {
+    final List<Row2<String, String>> streamsWithNamespace = new ArrayList<>();
+    final List<String> streamsWithoutNamespace = new ArrayList<>();
+    final List<Condition> streamConditions = new ArrayList<>();
+    streamStates.forEach((stream, state) -> {
+      // removed states don't need to exist
+      if (state == null) {
+        return;
+      }
+      if (stream.getName() == null) {
+        // shared and legacy states
+        streamConditions.add(isStream(stream));
+      } else if (stream.getNamespace() == null) {
+        streamsWithoutNamespace.add(stream.getName());
+      } else {
+        streamsWithNamespace.add(DSL.row(stream.getName(), stream.getNamespace()));
+      }
+    });
+    // a row comparison never matches null namespaces
+    if (!streamsWithNamespace.isEmpty()) {
+      streamConditions.add(DSL.row(STATE.STREAM_NAME, STATE.NAMESPACE).in(streamsWithNamespace));
+    }
+    if (!streamsWithoutNamespace.isEmpty()) {
+      streamConditions.add(STATE.NAMESPACE.isNull().and(STATE.STREAM_NAME.in(streamsWithoutNamespace)));
+    }
+    if (streamConditions.isEmpty()) {
+      return Set.of();
+    }
+
+    return ctx.select(STATE.STREAM_NAME, STATE.NAMESPACE)
+        .from(STATE)
+        .where(STATE.CONNECTION_ID.eq(connectionId), DSL.or(streamConditions))
+        .fetchSet(r -> new StreamDescriptor().withName(r.get(STATE.STREAM_NAME)).withNamespace(r.get(STATE.NAMESPACE)));
+  }
+
+  private Query insertStreamStates(final DSLContext ctx,
+                                   final List<Entry<StreamDescriptor, StatePayload>> streamStates,
+                                   final OffsetDateTime now) {
+    final io.airbyte.db.instance.configs.jooq.generated.enums.StateType type =
+        Enums.convertTo(stateType, io.airbyte.db.instance.configs.jooq.generated.enums.StateType.class);
+    final var insert = ctx.insertInto(STATE)
+        .columns(
+            STATE.ID,
+            STATE.CREATED_AT,
+            STATE.UPDATED_AT,
+            STATE.CONNECTION_ID,
+            STATE.STREAM_NAME,
+            STATE.NAMESPACE,
+            STATE.STATE_,
+            STATE.COMPRESSED_STATE,
+            STATE.COMPRESSION,
+            STATE.TYPE);
+    for (final Entry<StreamDescriptor, StatePayload> streamState : streamStates) {
+      final StatePayload payload = streamState.getValue();
+      insert.values(UUID.randomUUID(), now, now, connectionId, streamState.getKey().getName(), streamState.getKey().getNamespace(),
+          payload.json(), payload.compressed(), payload.compression(), type);
+    }
+    return insert;
+  }
+
+  private StatePayload toPayload(final JsonNode state) {
+    // NOTE: the legacy code was storing a State object instead of just the State data field. We kept
+    // the same behavior for consistency.
+    final String json = Jsons.serialize(stateType != StateType.LEGACY ? state : new State().withState(state));
+    if (payloadCompression == PayloadCompression.NONE) {
+      return new StatePayload(JSONB.valueOf(json), null, null);
+    }
+    return new StatePayload(null, payloadCompression.compress(PayloadCompression.STATE_PAYLOAD, json), payloadCompression.getMarker());
+  }
+
+  private static Condition isStream(final StreamDescriptor stream) {
+    return PersistenceHelpers.isNullOrEquals(STATE.STREAM_NAME, stream.getName())
+        .and(PersistenceHelpers.isNullOrEquals(STATE.NAMESPACE, stream.getNamespace()));
+  }
+
+  /**
+   * Columns of a stored state, the other format's columns are cleared so that a row has a single
+   * payload.
+   */
+  private record StatePayload(JSONB json, byte[] compressed, String compression) {}
+
 }
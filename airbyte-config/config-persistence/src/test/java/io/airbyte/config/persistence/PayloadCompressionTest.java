@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.config.persistence;
+
+import static io.airbyte.db.instance.configs.jooq.generated.Tables.ACTOR_CATALOG;
+import static io.airbyte.db.instance.configs.jooq.generated.Tables.STATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.config.ActorCatalog;
+import io.airbyte.config.ActorDefinitionVersion;
+import io.airbyte.config.SourceConnection;
+import io.airbyte.config.StandardDestinationDefinition;
+import io.airbyte.config.StandardSourceDefinition;
+import io.airbyte.config.StandardSync;
+import io.airbyte.config.StateType;
+import io.airbyte.config.StateWrapper;
+import io.airbyte.protocol.models.AirbyteCatalog;
+import io.airbyte.protocol.models.AirbyteStateMessage;
+import io.airbyte.protocol.models.AirbyteStateMessage.AirbyteStateType;
+import io.airbyte.protocol.models.AirbyteStreamState;
+import io.airbyte.protocol.models.CatalogHelpers;
+import io.airbyte.protocol.models.Field;
+import io.airbyte.protocol.models.JsonSchemaType;
+import io.airbyte.protocol.models.StreamDescriptor;
+import io.airbyte.validation.json.JsonValidationException;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PayloadCompressionTest extends BaseConfigDatabaseTest {
+
+  private static final String DOCKER_IMAGE_TAG = "1.2.0";
+  private static final String CONFIG_HASH = "ConfigHash";
+  private static final String GZIP = "gzip";
+
+  private UUID connectionId;
+  private SourceConnection source;
+
+  @BeforeEach
+  void beforeEach() throws IOException, JsonValidationException, SQLException {
+    truncateAllTables();
+
+    final ConfigRepository configRepository = new ConfigRepository(database, MockData.MAX_SECONDS_BETWEEN_MESSAGE_SUPPLIER);
+    final StandardSourceDefinition sourceDefinition = MockData.publicSourceDefinition();
+    final StandardDestinationDefinition destinationDefinition = MockData.publicDestinationDefinition();
+    final ActorDefinitionVersion sourceVersion = MockData.actorDefinitionVersion()
+        .withActorDefinitionId(sourceDefinition.getSourceDefinitionId())
+        .withVersionId(sourceDefinition.getDefaultVersionId());
+    final ActorDefinitionVersion destinationVersion = MockData.actorDefinitionVersion()
+        .withActorDefinitionId(destinationDefinition.getDestinationDefinitionId())
+        .withVersionId(destinationDefinition.getDefaultVersionId());
+    // we don't need sync operations in this test suite, zero them out.
+    final StandardSync sync = Jsons.clone(MockData.standardSyncs().get(0)).withOperationIds(Collections.emptyList());
+    source = MockData.sourceConnections().get(0);
+
+    configRepository.writeStandardWorkspaceNoSecrets(MockData.standardWorkspaces().get(0));
+    configRepository.writeConnectorMetadata(sourceDefinition, sourceVersion);
+    configRepository.writeSourceConnectionNoSecrets(source);
+    configRepository.writeConnectorMetadata(destinationDefinition, destinationVersion);
+    configRepository.writeDestinationConnectionNoSecrets(MockData.destinationConnections().get(0));
+    configRepository.writeStandardSync(sync);
+
+    connectionId = sync.getConnectionId();
+  }
+
+  @Test
+  void testCompressedStatesRoundTrip() throws IOException, SQLException {
+    final StatePersistence statePersistence = new StatePersistence(database, PayloadCompression.GZIP);
+    final StateWrapper state = streamStates(
+        streamStateMessage("s1", "{\"cursor\": 1}"),
+        streamStateMessage("s2", "{\"cursor\": 2}"));
+
+    statePersistence.updateOrCreateState(connectionId, state);
+
+    final Result<Record> rows = database.query(ctx -> ctx.select().from(STATE).where(STATE.CONNECTION_ID.eq(connectionId)).fetch());
+    assertEquals(2, rows.size());
+    for (final Record row : rows) {
+      assertNull(row.get(STATE.STATE_));
+      assertNotNull(row.get(STATE.COMPRESSED_STATE));
+      assertEquals(GZIP, row.get(STATE.COMPRESSION));
+    }
+    assertEquals(new HashSet<>(state.getStateMessages()), readStreamStates(statePersistence));
+  }
+
+  @Test
+  void testStatesAreReadInEitherFormat() throws IOException {
+    new StatePersistence(database).updateOrCreateState(connectionId, streamStates(
+        streamStateMessage("s1", "{\"cursor\": 1}"),
+        streamStateMessage("s2", "{\"cursor\": 2}")));
+    final StatePersistence statePersistence = new StatePersistence(database, PayloadCompression.GZIP);
+    statePersistence.updateOrCreateState(connectionId, streamStates(streamStateMessage("s2", "{\"cursor\": 3}")));
+
+    assertEquals(Set.of(streamStateMessage("s1", "{\"cursor\": 1}"), streamStateMessage("s2", "{\"cursor\": 3}")),
+        readStreamStates(statePersistence));
+    assertEquals(Set.of(streamStateMessage("s1", "{\"cursor\": 1}"), streamStateMessage("s2", "{\"cursor\": 3}")),
+        readStreamStates(new StatePersistence(database)));
+  }
+
+  @Test
+  void testCompressedCatalogsRoundTrip() throws IOException, SQLException {
+    final ConfigRepository configRepository =
+        new ConfigRepository(database, MockData.MAX_SECONDS_BETWEEN_MESSAGE_SUPPLIER, PayloadCompression.GZIP);
+    final AirbyteCatalog catalog = CatalogHelpers.createAirbyteCatalog("clothes", Field.of("name", JsonSchemaType.STRING));
+
+    configRepository.writeActorCatalogFetchEvent(catalog, source.getSourceId(), DOCKER_IMAGE_TAG, CONFIG_HASH);
+    // the same catalog is found by its hash and isn't stored twice
+    configRepository.writeActorCatalogFetchEvent(catalog, source.getSourceId(), "1.3.0", CONFIG_HASH);
+
+    final Result<Record> rows = database.query(ctx -> ctx.select().from(ACTOR_CATALOG).fetch());
+    assertEquals(1, rows.size());
+    assertNull(rows.get(0).get(ACTOR_CATALOG.CATALOG));
+    assertEquals(GZIP, rows.get(0).get(ACTOR_CATALOG.COMPRESSION));
+
+    final Optional<ActorCatalog> actorCatalog = configRepository.getActorCatalog(source.getSourceId(), DOCKER_IMAGE_TAG, CONFIG_HASH);
+    assertTrue(actorCatalog.isPresent());
+    assertEquals(catalog, Jsons.object(actorCatalog.get().getCatalog(), AirbyteCatalog.class));
+  }
+
+  @Test
+  void testMigratorCompressesUncompressedPayloads() throws IOException, SQLException {
+    final StatePersistence statePersistence = new StatePersistence(database);
+    final StateWrapper state = streamStates(
+        streamStateMessage("s1", "{\"cursor\": 1}"),
+        streamStateMessage("s2", "{\"cursor\": 2}"),
+        streamStateMessage("s3", "{\"cursor\": 3}"));
+    statePersistence.updateOrCreateState(connectionId, state);
+    final ConfigRepository configRepository = new ConfigRepository(database, MockData.MAX_SECONDS_BETWEEN_MESSAGE_SUPPLIER);
+    final AirbyteCatalog catalog = CatalogHelpers.createAirbyteCatalog("clothes", Field.of("name", JsonSchemaType.STRING));
+    configRepository.writeActorCatalogFetchEvent(catalog, source.getSourceId(), DOCKER_IMAGE_TAG, CONFIG_HASH);
+
+    final PayloadCompressionMigrator migrator = new PayloadCompressionMigrator(database, PayloadCompression.GZIP);
+    assertEquals(2, migrator.compressStates(2));
+    assertEquals(1, migrator.compressStates(2));
+    assertEquals(0, migrator.compressStates(2));
+    assertEquals(1, migrator.compressCatalogs(2));
+    assertEquals(0, migrator.compressCatalogs(2));
+
+    assertEquals(0, database.query(ctx -> ctx.fetchCount(STATE, STATE.COMPRESSION.isNull())));
+    assertEquals(0, database.query(ctx -> ctx.fetchCount(ACTOR_CATALOG, ACTOR_CATALOG.COMPRESSION.isNull())));
+    assertEquals(new HashSet<>(state.getStateMessages()), readStreamStates(statePersistence));
+    assertEquals(catalog, Jsons.object(
+        configRepository.getActorCatalog(source.getSourceId(), DOCKER_IMAGE_TAG, CONFIG_HASH).orElseThrow().getCatalog(),
+        AirbyteCatalog.class));
+  }
+
+  @Test
+  void testPayloadsCanOnlyBeMigratedToACompression() {
+    assertThrows(IllegalArgumentException.class, () -> new PayloadCompressionMigrator(database, PayloadCompression.NONE));
+  }
+
+  @Test
+  void testMarkers() {
+    assertEquals(PayloadCompression.NONE, PayloadCompression.fromMarker(null));
+    assertEquals(PayloadCompression.GZIP, PayloadCompression.fromMarker(GZIP));
+    assertEquals(PayloadCompression.GZIP, PayloadCompression.fromConfiguration("GZip"));
+    assertThrows(IllegalStateException.class, () -> PayloadCompression.fromMarker("unknown"));
+  }
+
+  private Set<AirbyteStateMessage> readStreamStates(final StatePersistence statePersistence) throws IOException {
+    return new HashSet<>(statePersistence.getCurrentState(connectionId).orElseThrow().getStateMessages());
+  }
+
+  private static StateWrapper streamStates(final AirbyteStateMessage... stateMessages) {
+    return new StateWrapper().withStateType(StateType.STREAM).withStateMessages(List.of(stateMessages));
+  }
+
+  private static AirbyteStateMessage streamStateMessage(final String name, final String state) {
+    return new AirbyteStateMessage()
+        .withType(AirbyteStateType.STREAM)
+        .withStream(new AirbyteStreamState()
+            .withStreamDescriptor(new StreamDescriptor().withName(name))
+            .withStreamState(Jsons.deserialize(state)));
+  }
+
+}
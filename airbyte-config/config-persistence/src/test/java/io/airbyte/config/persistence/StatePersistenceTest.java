@@ -26,11 +26,15 @@ import io.airbyte.protocol.models.StreamDescriptor;
 import io.airbyte.validation.json.JsonValidationException;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.IntStream;
 import org.jooq.JSONB;
 import org.jooq.impl.DSL;
 import org.junit.jupiter.api.Assertions;
@@ -214,6 +218,43 @@ class StatePersistenceTest extends BaseConfigDatabaseTest {
     assertEquals(state4, state5.get());
   }
 
+  @Test
+  void testGlobalPartialUpdates() throws IOException {
+    final StateWrapper state0 = new StateWrapper()
+        .withStateType(StateType.GLOBAL)
+        .withGlobal(new AirbyteStateMessage()
+            .withType(AirbyteStateType.GLOBAL)
+            .withGlobal(new AirbyteGlobalState()
+                .withSharedState(Jsons.deserialize(GLOBAL_STATE))
+                .withStreamStates(Arrays.asList(
+                    new AirbyteStreamState()
+                        .withStreamDescriptor(new StreamDescriptor().withName("s1").withNamespace("n2"))
+                        .withStreamState(Jsons.deserialize(STATE_ONE)),
+                    new AirbyteStreamState()
+                        .withStreamDescriptor(new StreamDescriptor().withName("s1"))
+                        .withStreamState(Jsons.deserialize(STATE_TWO))))));
+    statePersistence.updateOrCreateState(connectionId, state0);
+
+    // Only the shared state and the stream that changed are sent
+    final StateWrapper partialUpdate = new StateWrapper()
+        .withStateType(StateType.GLOBAL)
+        .withGlobal(new AirbyteStateMessage()
+            .withType(AirbyteStateType.GLOBAL)
+            .withGlobal(new AirbyteGlobalState()
+                .withSharedState(Jsons.deserialize("\"updated shared state\""))
+                .withStreamStates(Collections.singletonList(
+                    new AirbyteStreamState()
+                        .withStreamDescriptor(new StreamDescriptor().withName("s1"))
+                        .withStreamState(Jsons.deserialize("\"updated state2\""))))));
+    statePersistence.updateOrCreateState(connectionId, partialUpdate);
+
+    final StateWrapper expected = clone(state0);
+    expected.getGlobal()
+        .getGlobal().withSharedState(Jsons.deserialize("\"updated shared state\""))
+        .getStreamStates().get(1).withStreamState(Jsons.deserialize("\"updated state2\""));
+    assertEquals(expected, statePersistence.getCurrentState(connectionId).orElseThrow());
+  }
+
   @Test
   void testGlobalPartialReset() throws IOException {
     final StateWrapper state0 = new StateWrapper()
@@ -434,6 +475,70 @@ class StatePersistenceTest extends BaseConfigDatabaseTest {
         partialResetResult);
   }
 
+  @Test
+  void testStreamUpdatesWithManyStreams() throws IOException {
+    // More streams than a single insert statement holds
+    final int streamCount = 2500;
+    final StateWrapper state0 = new StateWrapper()
+        .withStateType(StateType.STREAM)
+        .withStateMessages(IntStream.range(0, streamCount)
+            .mapToObj(i -> streamStateMessage(i % 2 == 0 ? null : "n" + i, "s" + i, "\"state" + i + "\""))
+            .toList());
+    statePersistence.updateOrCreateState(connectionId, state0);
+    Assertions.assertEquals(new HashSet<>(state0.getStateMessages()), readStreamStates());
+
+    // Creating, updating and deleting streams in the same update
+    final StateWrapper mixedUpdate = new StateWrapper()
+        .withStateType(StateType.STREAM)
+        .withStateMessages(List.of(
+            streamStateMessage(null, "s0", "\"updated\""),
+            streamStateMessage("n1", "s1", null),
+            streamStateMessage(null, "s2", null),
+            streamStateMessage(null, "new", "\"new state\"")));
+    statePersistence.updateOrCreateState(connectionId, mixedUpdate);
+
+    final List<AirbyteStateMessage> expected = new ArrayList<>(state0.getStateMessages().subList(3, streamCount));
+    expected.add(streamStateMessage(null, "s0", "\"updated\""));
+    expected.add(streamStateMessage(null, "new", "\"new state\""));
+    Assertions.assertEquals(new HashSet<>(expected), readStreamStates());
+  }
+
+  @Test
+  void testStreamUpdatesOfStreamsWithTheSameName() throws IOException {
+    final StateWrapper state0 = new StateWrapper()
+        .withStateType(StateType.STREAM)
+        .withStateMessages(List.of(
+            streamStateMessage("n1", "s1", STATE_ONE),
+            streamStateMessage("n2", "s1", STATE_ONE),
+            streamStateMessage(null, "s1", STATE_ONE)));
+    statePersistence.updateOrCreateState(connectionId, state0);
+
+    // only the updated streams are looked up, they must still be told apart by namespace
+    final StateWrapper update = new StateWrapper()
+        .withStateType(StateType.STREAM)
+        .withStateMessages(List.of(
+            streamStateMessage("n1", "s1", STATE_TWO),
+            streamStateMessage(null, "s1", STATE_TWO)));
+    statePersistence.updateOrCreateState(connectionId, update);
+
+    Assertions.assertEquals(Set.of(
+        streamStateMessage("n1", "s1", STATE_TWO),
+        streamStateMessage("n2", "s1", STATE_ONE),
+        streamStateMessage(null, "s1", STATE_TWO)), readStreamStates());
+  }
+
+  @Test
+  void testLastStateOfAStreamWins() throws IOException {
+    final StateWrapper state = new StateWrapper()
+        .withStateType(StateType.STREAM)
+        .withStateMessages(List.of(
+            streamStateMessage(null, "s1", STATE_ONE),
+            streamStateMessage(null, "s1", STATE_TWO)));
+    statePersistence.updateOrCreateState(connectionId, state);
+
+    Assertions.assertEquals(Set.of(streamStateMessage(null, "s1", STATE_TWO)), readStreamStates());
+  }
+
   @Test
   void testStreamFullReset() throws IOException {
     final StateWrapper state0 = new StateWrapper()
@@ -544,6 +649,18 @@ class StatePersistenceTest extends BaseConfigDatabaseTest {
     Assertions.assertEquals(readStates.get(0).getState(), stateWrapper.getLegacyState());
   }
 
+  private Set<AirbyteStateMessage> readStreamStates() throws IOException {
+    return new HashSet<>(statePersistence.getCurrentState(connectionId).orElseThrow().getStateMessages());
+  }
+
+  private static AirbyteStateMessage streamStateMessage(final String namespace, final String name, final String state) {
+    return new AirbyteStateMessage()
+        .withType(AirbyteStateType.STREAM)
+        .withStream(new AirbyteStreamState()
+            .withStreamDescriptor(new StreamDescriptor().withName(name).withNamespace(namespace))
+            .withStreamState(state != null ? Jsons.deserialize(state) : null));
+  }
+
   private StateWrapper clone(final StateWrapper state) {
     return switch (state.getStateType()) {
       case LEGACY -> new StateWrapper()
@@ -5,12 +5,18 @@
 package io.airbyte.container_orchestrator;
 
 import com.google.common.annotations.VisibleForTesting;
+import io.airbyte.commons.json.Jsons;
 import io.airbyte.workers.process.AsyncKubePodStatus;
+import io.airbyte.workers.process.AsyncKubePodStatusDocument;
 import io.airbyte.workers.process.KubePodInfo;
 import io.airbyte.workers.storage.DocumentStoreClient;
+import io.airbyte.workers.storage.DocumentStoreClient.VersionedDocument;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import java.lang.invoke.MethodHandles;
 import java.util.List;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,72 +24,114 @@ import org.slf4j.LoggerFactory;
  * The state manager writes the "truth" for states of the async pod process. If the store isn't
  * updated by the underlying pod, it will appear as failed.
  * <p>
- * It doesn't have a single value for a state. Instead, in a location on cloud storage or disk, it
- * writes every state it's encountered.
+ * It writes a single status document, overwritten every time the state changes, which holds the
+ * latest state, a sequence incremented by every write and the output of the pod once it succeeded. Writes are conditional on the version of
+ * the document, so they never overwrite a write they haven't seen, and a state never replaces one
+ * which takes precedence over it, e.g. a terminal state is never replaced by RUNNING.
+ * <p>
+ * Launchers of the previous version read one document per state instead, so these are still written
+ * too unless airbyte.container.orchestrator.write-legacy-status-documents is disabled, which can be
+ * done once every launcher of a deployment reads the status document.
  */
 @Singleton
 public class AsyncStateManager {
 
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-  private static final List<AsyncKubePodStatus> STATUS_CHECK_ORDER = List.of(
-      // terminal states first
-      AsyncKubePodStatus.FAILED,
-      AsyncKubePodStatus.SUCCEEDED,
-      // then check in progress state
+  private static final int MAX_WRITE_ATTEMPTS = 5;
+  // in increasing order of precedence, as checked by the launchers reading one document per state
+  private static final List<AsyncKubePodStatus> STATUS_PRECEDENCE = List.of(
+      AsyncKubePodStatus.NOT_STARTED,
+      AsyncKubePodStatus.INITIALIZING,
       AsyncKubePodStatus.RUNNING,
-      // then check for initialization state
-      AsyncKubePodStatus.INITIALIZING);
+      AsyncKubePodStatus.SUCCEEDED,
+      AsyncKubePodStatus.FAILED);
 
   private final DocumentStoreClient documentStoreClient;
   private final KubePodInfo kubePodInfo;
+  private final boolean writeLegacyStatusDocuments;
+  // latest status document written, so that writes don't need to read it first
+  private VersionedDocument latestDocument;
 
   public AsyncStateManager(final DocumentStoreClient documentStoreClient, final KubePodInfo kubePodInfo) {
+    this(documentStoreClient, kubePodInfo, true);
+  }
+
+  @Inject
+  public AsyncStateManager(final DocumentStoreClient documentStoreClient,
+                           final KubePodInfo kubePodInfo,
+                           @Value("${airbyte.container.orchestrator.write-legacy-status-documents:true}") final boolean writeLegacyStatusDocuments) {
     this.documentStoreClient = documentStoreClient;
     this.kubePodInfo = kubePodInfo;
+    this.writeLegacyStatusDocuments = writeLegacyStatusDocuments;
   }
 
   /**
-   * Writes an empty file to a location designated by the input status.
+   * Writes the status, with a value stored as the output of the pod, unless the current status takes
+   * precedence over it.
    */
-  public void write(final AsyncKubePodStatus status, final String value) {
-    final var key = getDocumentStoreKey(status);
+  public synchronized void write(final AsyncKubePodStatus status, final String value) {
+    final var key = getDocumentStoreKey();
     log.info("Writing async status {} for {}...", status, kubePodInfo);
-    documentStoreClient.write(key, value);
+    for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+      long sequence = 1;
+      if (latestDocument != null) {
+        final AsyncKubePodStatusDocument current = deserialize(latestDocument);
+        final AsyncKubePodStatus currentStatus = current.status();
+        sequence = current.sequence() + 1;
+        if (STATUS_PRECEDENCE.indexOf(currentStatus) > STATUS_PRECEDENCE.indexOf(status)) {
+          log.warn("Not writing async status {} for {} since its status is already {}", status, kubePodInfo, currentStatus);
+          return;
+        }
+      }
+      final String document = Jsons.serialize(new AsyncKubePodStatusDocument(status, sequence, value));
+      final Optional<String> version =
+          documentStoreClient.writeIfMatch(key, document, latestDocument == null ? null : latestDocument.version());
+      if (version.isPresent()) {
+        latestDocument = new VersionedDocument(document, version.get());
+        if (writeLegacyStatusDocuments) {
+          documentStoreClient.write(getLegacyDocumentStoreKey(status), value);
+        }
+        return;
+      }
+      // the document was written by someone else, e.g. a previous run of this pod
+      log.info("Async status of {} changed concurrently, retrying...", kubePodInfo);
+      latestDocument = documentStoreClient.readIfNoneMatch(key, null).orElse(null);
+    }
+    throw new IllegalStateException("Failed to write async status " + status + " for " + kubePodInfo + " because of concurrent writes");
   }
 
   /**
-   * Writes a file containing a string value to a location designated by the input status.
+   * Writes the status, without output.
    */
   public void write(final AsyncKubePodStatus status) {
     write(status, "");
   }
 
   /**
-   * Interprets the state given all written state messages for the pod.
-   * <p>
-   * Checks terminal states first, then running, then initialized. Defaults to not started.
-   * <p>
-   * The order matters here!
+   * Reads the latest status written for the pod, with a single read. Defaults to not started.
    */
   public AsyncKubePodStatus getStatus() {
-    return STATUS_CHECK_ORDER.stream()
-        .filter(this::statusFileExists)
-        .findFirst()
+    return readStatusDocument()
+        .map(AsyncKubePodStatusDocument::status)
         .orElse(AsyncKubePodStatus.NOT_STARTED);
   }
 
   /**
    * Get output.
    *
-   * @return the output stored in the success file. This can be an empty string.
-   * @throws IllegalArgumentException if no success file exists
+   * @return the output stored with the success status. This can be an empty string.
+   * @throws IllegalArgumentException if the pod didn't succeed
    */
   public String getOutput() throws IllegalArgumentException {
-    final var key = getDocumentStoreKey(AsyncKubePodStatus.SUCCEEDED);
-    final var output = documentStoreClient.read(key);
-
-    return output.orElseThrow(() -> new IllegalArgumentException("Expected to retrieve output from a successfully completed pod!"));
+    return readStatusDocument()
+        .filter(document -> document.status() == AsyncKubePodStatus.SUCCEEDED)
+        .map(AsyncKubePodStatusDocument::output)
+        .orElseThrow(() -> new IllegalArgumentException("Expected to retrieve output from a successfully completed pod!"));
+  }
 
+  @VisibleForTesting
+  String getDocumentStoreKey() {
+    return AsyncKubePodStatusDocument.getDocumentStoreKey(kubePodInfo);
   }
 
   /**
@@ -91,13 +139,16 @@ public class AsyncStateManager {
    * version is deployed.
    */
   @VisibleForTesting
-  String getDocumentStoreKey(final AsyncKubePodStatus status) {
+  String getLegacyDocumentStoreKey(final AsyncKubePodStatus status) {
     return kubePodInfo.namespace() + "/" + kubePodInfo.name() + "/" + status.name();
   }
 
-  private boolean statusFileExists(final AsyncKubePodStatus status) {
-    final var key = getDocumentStoreKey(status);
-    return documentStoreClient.read(key).isPresent();
+  private Optional<AsyncKubePodStatusDocument> readStatusDocument() {
+    return documentStoreClient.readIfNoneMatch(getDocumentStoreKey(), null).map(AsyncStateManager::deserialize);
+  }
+
+  private static AsyncKubePodStatusDocument deserialize(final VersionedDocument document) {
+    return Jsons.deserialize(document.document(), AsyncKubePodStatusDocument.class);
   }
 
 }
@@ -6,15 +6,21 @@ package io.airbyte.container_orchestrator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.airbyte.commons.json.Jsons;
 import io.airbyte.workers.process.AsyncKubePodStatus;
+import io.airbyte.workers.process.AsyncKubePodStatusDocument;
 import io.airbyte.workers.process.KubeContainerInfo;
 import io.airbyte.workers.process.KubePodInfo;
+import io.airbyte.workers.storage.DockerComposeDocumentStoreClient;
 import io.airbyte.workers.storage.DocumentStoreClient;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,8 +36,8 @@ class AsyncStateManagerTest {
   private AsyncStateManager stateManager;
 
   @BeforeEach
-  void setup() {
-    documentStore = mock(DocumentStoreClient.class);
+  void setup() throws IOException {
+    documentStore = new DockerComposeDocumentStoreClient(Files.createTempDirectory(Path.of("/tmp"), "document_store"));
     stateManager = new AsyncStateManager(documentStore, KUBE_POD_INFO);
   }
 
@@ -42,22 +48,19 @@ class AsyncStateManagerTest {
     // test for overwrite (which should be allowed)
     stateManager.write(AsyncKubePodStatus.INITIALIZING);
 
-    final var key = stateManager.getDocumentStoreKey(AsyncKubePodStatus.INITIALIZING);
-    verify(documentStore, times(2)).write(key, "");
+    assertEquals(new AsyncKubePodStatusDocument(AsyncKubePodStatus.INITIALIZING, 2, ""), readStatusDocument());
   }
 
   @Test
   void testContentfulWrite() {
     stateManager.write(AsyncKubePodStatus.SUCCEEDED, OUTPUT);
 
-    final var key = stateManager.getDocumentStoreKey(AsyncKubePodStatus.SUCCEEDED);
-    verify(documentStore, times(1)).write(key, OUTPUT);
+    assertEquals(new AsyncKubePodStatusDocument(AsyncKubePodStatus.SUCCEEDED, 1, OUTPUT), readStatusDocument());
   }
 
   @Test
   void testReadingOutputWhenItExists() {
-    final var key = stateManager.getDocumentStoreKey(AsyncKubePodStatus.SUCCEEDED);
-    when(documentStore.read(key)).thenReturn(Optional.of(OUTPUT));
+    stateManager.write(AsyncKubePodStatus.SUCCEEDED, OUTPUT);
     assertEquals(OUTPUT, stateManager.getOutput());
   }
 
@@ -67,45 +70,114 @@ class AsyncStateManagerTest {
     assertThrows(IllegalArgumentException.class, () -> {
       stateManager.getOutput();
     });
+
+    // or when the pod didn't succeed
+    stateManager.write(AsyncKubePodStatus.FAILED);
+    assertThrows(IllegalArgumentException.class, () -> {
+      stateManager.getOutput();
+    });
   }
 
   @Test
   void testSuccessfulStatusRetrievalLifecycle() {
-    when(documentStore.read(stateManager.getDocumentStoreKey(AsyncKubePodStatus.INITIALIZING))).thenReturn(Optional.empty());
-    final var beforeInitializingStatus = stateManager.getStatus();
-    assertEquals(AsyncKubePodStatus.NOT_STARTED, beforeInitializingStatus);
-
-    when(documentStore.read(stateManager.getDocumentStoreKey(AsyncKubePodStatus.INITIALIZING))).thenReturn(Optional.of(""));
-    final var initializingStatus = stateManager.getStatus();
-    assertEquals(AsyncKubePodStatus.INITIALIZING, initializingStatus);
-
-    when(documentStore.read(stateManager.getDocumentStoreKey(AsyncKubePodStatus.RUNNING))).thenReturn(Optional.of(""));
-    final var runningStatus = stateManager.getStatus();
-    assertEquals(AsyncKubePodStatus.RUNNING, runningStatus);
-
-    when(documentStore.read(stateManager.getDocumentStoreKey(AsyncKubePodStatus.SUCCEEDED))).thenReturn(
-        Optional.of("output"));
-    final var succeededStatus = stateManager.getStatus();
-    assertEquals(AsyncKubePodStatus.SUCCEEDED, succeededStatus);
+    assertEquals(AsyncKubePodStatus.NOT_STARTED, stateManager.getStatus());
+
+    stateManager.write(AsyncKubePodStatus.INITIALIZING);
+    assertEquals(AsyncKubePodStatus.INITIALIZING, stateManager.getStatus());
+
+    stateManager.write(AsyncKubePodStatus.RUNNING);
+    assertEquals(AsyncKubePodStatus.RUNNING, stateManager.getStatus());
+
+    stateManager.write(AsyncKubePodStatus.SUCCEEDED, "output");
+    assertEquals(AsyncKubePodStatus.SUCCEEDED, stateManager.getStatus());
   }
 
   @Test
   void testFailureStatusRetrievalLifecycle() {
-    when(documentStore.read(stateManager.getDocumentStoreKey(AsyncKubePodStatus.INITIALIZING))).thenReturn(Optional.empty());
-    final var beforeInitializingStatus = stateManager.getStatus();
-    assertEquals(AsyncKubePodStatus.NOT_STARTED, beforeInitializingStatus);
+    assertEquals(AsyncKubePodStatus.NOT_STARTED, stateManager.getStatus());
+
+    stateManager.write(AsyncKubePodStatus.INITIALIZING);
+    assertEquals(AsyncKubePodStatus.INITIALIZING, stateManager.getStatus());
+
+    stateManager.write(AsyncKubePodStatus.RUNNING);
+    assertEquals(AsyncKubePodStatus.RUNNING, stateManager.getStatus());
+
+    stateManager.write(AsyncKubePodStatus.FAILED);
+    assertEquals(AsyncKubePodStatus.FAILED, stateManager.getStatus());
+  }
+
+  @Test
+  void testConcurrentWritesAreNotOverwritten() {
+    // e.g. a previous run of the same pod
+    final AsyncStateManager otherStateManager = new AsyncStateManager(documentStore, KUBE_POD_INFO);
+    otherStateManager.write(AsyncKubePodStatus.INITIALIZING);
+    otherStateManager.write(AsyncKubePodStatus.RUNNING);
+
+    // the status of the other run takes precedence
+    stateManager.write(AsyncKubePodStatus.INITIALIZING);
+    assertEquals(new AsyncKubePodStatusDocument(AsyncKubePodStatus.RUNNING, 2, ""), readStatusDocument());
+
+    stateManager.write(AsyncKubePodStatus.SUCCEEDED, OUTPUT);
+    assertEquals(new AsyncKubePodStatusDocument(AsyncKubePodStatus.SUCCEEDED, 3, OUTPUT), readStatusDocument());
+  }
+
+  @Test
+  void testTerminalStatusIsNotReplaced() {
+    final AsyncStateManager otherStateManager = new AsyncStateManager(documentStore, KUBE_POD_INFO);
+    stateManager.write(AsyncKubePodStatus.RUNNING);
+    otherStateManager.write(AsyncKubePodStatus.FAILED);
 
-    when(documentStore.read(stateManager.getDocumentStoreKey(AsyncKubePodStatus.INITIALIZING))).thenReturn(Optional.of(""));
-    final var initializingStatus = stateManager.getStatus();
-    assertEquals(AsyncKubePodStatus.INITIALIZING, initializingStatus);
+    stateManager.write(AsyncKubePodStatus.RUNNING);
+    stateManager.write(AsyncKubePodStatus.SUCCEEDED, OUTPUT);
+
+    assertEquals(AsyncKubePodStatus.FAILED, stateManager.getStatus());
+  }
+
+  @Test
+  void testDocumentsOfEachStatusAreStillWritten() {
+    stateManager.write(AsyncKubePodStatus.INITIALIZING);
+    stateManager.write(AsyncKubePodStatus.SUCCEEDED, OUTPUT);
+
+    // launchers of the previous version read them
+    assertEquals(Optional.of(""), documentStore.read(stateManager.getLegacyDocumentStoreKey(AsyncKubePodStatus.INITIALIZING)));
+    assertEquals(Optional.of(OUTPUT), documentStore.read(stateManager.getLegacyDocumentStoreKey(AsyncKubePodStatus.SUCCEEDED)));
+    assertEquals(Optional.empty(), documentStore.read(stateManager.getLegacyDocumentStoreKey(AsyncKubePodStatus.RUNNING)));
+  }
+
+  @Test
+  void testSequenceIsIncrementedByEveryWrite() {
+    stateManager.write(AsyncKubePodStatus.INITIALIZING);
+    assertEquals(1, readStatusDocument().sequence());
 
-    when(documentStore.read(stateManager.getDocumentStoreKey(AsyncKubePodStatus.RUNNING))).thenReturn(Optional.of(""));
-    final var runningStatus = stateManager.getStatus();
-    assertEquals(AsyncKubePodStatus.RUNNING, runningStatus);
+    final AsyncStateManager otherStateManager = new AsyncStateManager(documentStore, KUBE_POD_INFO);
+    otherStateManager.write(AsyncKubePodStatus.RUNNING);
+    assertEquals(2, readStatusDocument().sequence());
+
+    stateManager.write(AsyncKubePodStatus.SUCCEEDED, OUTPUT);
+    assertEquals(3, readStatusDocument().sequence());
+  }
+
+  @Test
+  void testDocumentsOfEachStatusAreNotWrittenWhenDisabled() {
+    final AsyncStateManager statusDocumentOnlyStateManager = new AsyncStateManager(documentStore, KUBE_POD_INFO, false);
+    statusDocumentOnlyStateManager.write(AsyncKubePodStatus.SUCCEEDED, OUTPUT);
+
+    assertEquals(OUTPUT, statusDocumentOnlyStateManager.getOutput());
+    assertEquals(Optional.empty(), documentStore.read(stateManager.getLegacyDocumentStoreKey(AsyncKubePodStatus.SUCCEEDED)));
+  }
+
+  @Test
+  void testWriteFailsOnRepeatedConflicts() {
+    final DocumentStoreClient conflictingDocumentStore = mock(DocumentStoreClient.class);
+    when(conflictingDocumentStore.writeIfMatch(anyString(), anyString(), any())).thenReturn(Optional.empty());
+    when(conflictingDocumentStore.readIfNoneMatch(anyString(), any())).thenReturn(Optional.empty());
+    final AsyncStateManager conflictingStateManager = new AsyncStateManager(conflictingDocumentStore, KUBE_POD_INFO);
+
+    assertThrows(IllegalStateException.class, () -> conflictingStateManager.write(AsyncKubePodStatus.RUNNING));
+  }
 
-    when(documentStore.read(stateManager.getDocumentStoreKey(AsyncKubePodStatus.FAILED))).thenReturn(Optional.of("output"));
-    final var failedStatus = stateManager.getStatus();
-    assertEquals(AsyncKubePodStatus.FAILED, failedStatus);
+  private AsyncKubePodStatusDocument readStatusDocument() {
+    return Jsons.deserialize(documentStore.read(stateManager.getDocumentStoreKey()).orElseThrow(), AsyncKubePodStatusDocument.class);
   }
 
 }
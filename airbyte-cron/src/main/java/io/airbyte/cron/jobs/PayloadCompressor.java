@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.cron.jobs;
+
+import static io.airbyte.cron.MicronautCronRunner.SCHEDULED_TRACE_OPERATION_NAME;
+
+import datadog.trace.api.Trace;
+import io.airbyte.config.persistence.PayloadCompression;
+import io.airbyte.config.persistence.PayloadCompressionMigrator;
+import io.airbyte.db.Database;
+import io.airbyte.metrics.lib.MetricAttribute;
+import io.airbyte.metrics.lib.MetricClient;
+import io.airbyte.metrics.lib.MetricTags;
+import io.airbyte.metrics.lib.OssMetricsRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PayloadCompressor
+ *
+ * Compresses the connection states and actor catalogs stored before the payload compression was
+ * enabled, one batch of each at an interval (1m). This can be enabled by setting
+ * COMPRESS_PAYLOADS_CRON_ENABLED=true, the payloads are compressed with the format of
+ * PERSISTENCE_PAYLOAD_COMPRESSION.
+ */
+@Singleton
+@Slf4j
+@Requires(property = "airbyte.cron.compress-payloads.enabled",
+          value = "true")
+public class PayloadCompressor {
+
+  private final PayloadCompressionMigrator payloadCompressionMigrator;
+  private final MetricClient metricClient;
+  private final int batchSize;
+
+  public PayloadCompressor(@Named("configDatabase") final Database configDatabase,
+                           @Value("${airbyte.persistence.payload-compression}") final String payloadCompression,
+                           @Value("${airbyte.cron.compress-payloads.batch-size}") final int batchSize,
+                           final MetricClient metricClient) {
+    log.info("Creating payload compressor");
+
+    this.payloadCompressionMigrator = new PayloadCompressionMigrator(configDatabase, PayloadCompression.fromConfiguration(payloadCompression));
+    this.metricClient = metricClient;
+    this.batchSize = batchSize;
+  }
+
+  @Trace(operationName = SCHEDULED_TRACE_OPERATION_NAME)
+  @Scheduled(fixedRate = "1m",
+             initialDelay = "1m")
+  void compressPayloads() throws IOException {
+    metricClient.count(OssMetricsRegistry.CRON_JOB_RUN_BY_CRON_TYPE, 1, new MetricAttribute(MetricTags.CRON_TYPE, "payload_compressor"));
+    final int states = payloadCompressionMigrator.compressStates(batchSize);
+    final int catalogs = payloadCompressionMigrator.compressCatalogs(batchSize);
+    if (states > 0 || catalogs > 0) {
+      log.info("Compressed {} states and {} catalogs", states, catalogs);
+    }
+  }
+
+}
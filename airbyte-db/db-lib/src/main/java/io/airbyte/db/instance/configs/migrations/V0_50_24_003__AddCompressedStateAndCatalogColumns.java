@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.db.instance.configs.migrations;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adds a compressed payload column and a compression marker column to the state and actor_catalog
+ * tables. A row either stores its payload in the existing jsonb column with a null compression, or
+ * in the compressed bytea column with the compression format used. The catalog column of
+ * actor_catalog becomes nullable so that compressed catalogs don't have to be stored twice.
+ */
+public class V0_50_24_003__AddCompressedStateAndCatalogColumns extends BaseJavaMigration {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(V0_50_24_003__AddCompressedStateAndCatalogColumns.class);
+
+  private static final String COMPRESSION = "compression";
+
+  @Override
+  public void migrate(final Context context) throws Exception {
+    LOGGER.info("Running migration: {}", this.getClass().getSimpleName());
+
+    // Warning: please do not use any jOOQ generated code to write a migration.
+    // As database schema changes, the generated jOOQ code can be deprecated. So
+    // old migration may not compile if there is any generated code.
+    final DSLContext ctx = DSL.using(context.getConnection());
+    addCompressedStateColumns(ctx);
+    addCompressedCatalogColumns(ctx);
+  }
+
+  static void addCompressedStateColumns(final DSLContext ctx) {
+    ctx.alterTable("state")
+        .addColumnIfNotExists(DSL.field("compressed_state", SQLDataType.BLOB.nullable(true)))
+        .execute();
+    ctx.alterTable("state")
+        .addColumnIfNotExists(DSL.field(COMPRESSION, SQLDataType.VARCHAR(16).nullable(true)))
+        .execute();
+
+    LOGGER.info("compressed_state and compression columns added to state table");
+  }
+
+  static void addCompressedCatalogColumns(final DSLContext ctx) {
+    ctx.alterTable("actor_catalog")
+        .addColumnIfNotExists(DSL.field("compressed_catalog", SQLDataType.BLOB.nullable(true)))
+        .execute();
+    ctx.alterTable("actor_catalog")
+        .addColumnIfNotExists(DSL.field(COMPRESSION, SQLDataType.VARCHAR(16).nullable(true)))
+        .execute();
+    ctx.alterTable("actor_catalog")
+        .alterColumn("catalog")
+        .dropNotNull()
+        .execute();
+
+    LOGGER.info("compressed_catalog and compression columns added to actor_catalog table");
+  }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.db.instance.jobs.migrations;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adds a partial index on the creation time of the pending jobs. There are only a handful of pending
+ * jobs at any time, so the next job to run is found in this index instead of scanning every job
+ * ever run.
+ */
+public class V0_50_24_002__AddPendingJobsIndex extends BaseJavaMigration {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(V0_50_24_002__AddPendingJobsIndex.class);
+
+  private static final String JOBS_PENDING_CREATED_AT_IDX = "jobs_pending_created_at_idx";
+
+  @Override
+  public void migrate(final Context context) throws Exception {
+    LOGGER.info("Running migration: {}", this.getClass().getSimpleName());
+
+    // Warning: please do not use any jOOQ generated code to write a migration.
+    // As database schema changes, the generated jOOQ code can be deprecated. So
+    // old migration may not compile if there is any generated code.
+    final DSLContext ctx = DSL.using(context.getConnection());
+    ctx.createIndexIfNotExists(JOBS_PENDING_CREATED_AT_IDX)
+        .on("jobs", "created_at")
+        .where(DSL.condition("status = 'pending'"))
+        .execute();
+  }
+
+}
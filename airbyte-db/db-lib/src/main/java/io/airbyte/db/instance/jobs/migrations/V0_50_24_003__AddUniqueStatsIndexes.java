@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.db.instance.jobs.migrations;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Makes the sync stats unique per attempt, and the stream stats unique per attempt and stream
+ * including streams without a namespace, so that stats can be written with upserts instead of
+ * existence checks. Duplicated stats written before are removed, keeping the most recent ones.
+ * <p>
+ * The non-unique index on the attempt of the sync stats is replaced by the unique one.
+ */
+public class V0_50_24_003__AddUniqueStatsIndexes extends BaseJavaMigration {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(V0_50_24_003__AddUniqueStatsIndexes.class);
+
+  @Override
+  public void migrate(final Context context) throws Exception {
+    LOGGER.info("Running migration: {}", this.getClass().getSimpleName());
+
+    // Warning: please do not use any jOOQ generated code to write a migration.
+    // As database schema changes, the generated jOOQ code can be deprecated. So
+    // old migration may not compile if there is any generated code.
+    final DSLContext ctx = DSL.using(context.getConnection());
+    addUniqueSyncStatsIndex(ctx);
+    addUniqueStreamStatsIndex(ctx);
+  }
+
+  static void addUniqueSyncStatsIndex(final DSLContext ctx) {
+    final int deleted = ctx.execute("""
+                                    DELETE FROM sync_stats WHERE id IN (
+                                      SELECT id FROM (
+                                        SELECT id, row_number() OVER (PARTITION BY attempt_id ORDER BY updated_at DESC, id DESC) AS row_rank
+                                        FROM sync_stats
+                                      ) AS ranked_stats
+                                      WHERE row_rank > 1
+                                    )
+                                    """);
+    LOGGER.info("Deleted {} duplicated sync stats", deleted);
+
+    ctx.execute("CREATE UNIQUE INDEX IF NOT EXISTS sync_stats_attempt_id_idx ON sync_stats(attempt_id)");
+    ctx.dropIndexIfExists("attempt_id_idx").execute();
+  }
+
+  static void addUniqueStreamStatsIndex(final DSLContext ctx) {
+    final int deleted = ctx.execute("""
+                                    DELETE FROM stream_stats WHERE id IN (
+                                      SELECT id FROM (
+                                        SELECT id, row_number() OVER (
+                                          PARTITION BY attempt_id, stream_name, COALESCE(stream_namespace, '')
+                                          ORDER BY updated_at DESC, id DESC) AS row_rank
+                                        FROM stream_stats
+                                      ) AS ranked_stats
+                                      WHERE row_rank > 1
+                                    )
+                                    """);
+    LOGGER.info("Deleted {} duplicated stream stats", deleted);
+
+    // the existing unique constraint doesn't apply to streams without a namespace, as nulls are
+    // distinct.
+    ctx.execute("CREATE UNIQUE INDEX IF NOT EXISTS stream_stats_attempt_id_stream_idx "
+        + "ON stream_stats(attempt_id, stream_name, COALESCE(stream_namespace, ''))");
+  }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.db.instance.configs.migrations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.airbyte.db.factory.FlywayFactory;
+import io.airbyte.db.instance.configs.AbstractConfigsDatabaseTest;
+import io.airbyte.db.instance.configs.ConfigsDatabaseMigrator;
+import io.airbyte.db.instance.development.DevDatabaseMigrator;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class V0_50_24_003__AddCompressedStateAndCatalogColumnsTest extends AbstractConfigsDatabaseTest {
+
+  @BeforeEach
+  void beforeEach() {
+    final Flyway flyway =
+        FlywayFactory.create(dataSource, "V0_50_24_003__AddCompressedStateAndCatalogColumnsTest", ConfigsDatabaseMigrator.DB_IDENTIFIER,
+            ConfigsDatabaseMigrator.MIGRATION_FILE_LOCATION);
+    final ConfigsDatabaseMigrator configsDbMigrator = new ConfigsDatabaseMigrator(database, flyway);
+
+    final BaseJavaMigration previousMigration = new V0_50_24_002__BackfillBreakingChangeNotificationSettings();
+    final DevDatabaseMigrator devConfigsDbMigrator = new DevDatabaseMigrator(configsDbMigrator, previousMigration.getVersion());
+    devConfigsDbMigrator.createBaseline();
+  }
+
+  @Test
+  void test() {
+    final DSLContext context = getDslContext();
+    V0_50_24_003__AddCompressedStateAndCatalogColumns.addCompressedStateColumns(context);
+    V0_50_24_003__AddCompressedStateAndCatalogColumns.addCompressedCatalogColumns(context);
+
+    assertTrue(V0_50_6_002__AddDefaultVersionIdToActorTest.columnExists(context, "compressed_state", "state"));
+    assertTrue(V0_50_6_002__AddDefaultVersionIdToActorTest.columnExists(context, "compression", "state"));
+    assertTrue(V0_50_6_002__AddDefaultVersionIdToActorTest.columnExists(context, "compressed_catalog", "actor_catalog"));
+    assertTrue(V0_50_6_002__AddDefaultVersionIdToActorTest.columnExists(context, "compression", "actor_catalog"));
+    assertEquals("YES", context.select(DSL.field("is_nullable"))
+        .from("information_schema.columns")
+        .where(DSL.field("table_name").eq("actor_catalog").and(DSL.field("column_name").eq("catalog")))
+        .fetchOne(0, String.class));
+  }
+
+}
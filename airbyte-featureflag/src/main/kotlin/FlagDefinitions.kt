@@ -146,4 +146,48 @@ object FieldSelectionWorkspaces : EnvVar(envVar = "FIELD_SELECTION_WORKSPACES")
 
 object RunSocatInConnectorContainer : Temporary<Boolean>(key = "platform.run-socat-in-connector-container", default = false)
 
+/**
+ * Image of the stdio relay sidecar which carries the stdin, stdout and stderr of connector pods over a single connection,
+ * in place of the socat sidecars. The socat sidecars are used when not set.
+ */
+object StdioRelayImage : Temporary<String>(key = "platform.stdio-relay-image", default = "")
+
+/**
+ * Ports the workers listen on for the stdio of connector pods, e.g. `9001-9040` or `9001,9010-9020`, replacing the
+ * TEMPORAL_WORKER_PORTS range at runtime. The configured range is used when not set.
+ */
+object KubePortRange : Permanent<String>(key = "platform.kube-port-range", default = "")
+
 object FailSyncIfTooBig : Temporary<Boolean>(key = "platform.fail-sync-if-too-big", default = false)
+
+object UseRawRecordPassthrough : Temporary<Boolean>(key = "platform.use-raw-record-passthrough", default = false)
+
+object UseSourceRecordSize : Temporary<Boolean>(key = "platform.use-source-record-size", default = false)
+
+object ReplicationBufferImpl : Temporary<String>(key = "platform.replication-buffer-impl", default = "concurrent-linked-queue")
+
+/**
+ * Upper bound in megabytes of each buffer of the buffered replication worker, the buffers are only bounded in number of
+ * messages when not set.
+ */
+object ReplicationBufferMaxMegabytes : Temporary<Int>(key = "platform.replication-buffer-max-megabytes", default = 0)
+
+object DeferRecordDataDeserialization : Temporary<Boolean>(key = "platform.defer-record-data-deserialization", default = false)
+
+/**
+ * Number of threads validating the records of a sync against the schemas of their streams.
+ */
+object SchemaValidationThreads : Temporary<Int>(key = "platform.schema-validation-threads", default = 1)
+
+/**
+ * Schema validation sampling: the first [SchemaValidationFullRecords] records of each stream are validated, then one record
+ * out of [SchemaValidationSampleRate]. The defaults validate every record.
+ */
+object SchemaValidationFullRecords : Temporary<Int>(key = "platform.schema-validation-full-records", default = 0)
+
+object SchemaValidationSampleRate : Temporary<Int>(key = "platform.schema-validation-sample-rate", default = 1)
+
+/**
+ * Look for fields which are not in the catalog in one validated record out of [UnexpectedFieldsSampleRate] of each stream.
+ */
+object UnexpectedFieldsSampleRate : Temporary<Int>(key = "platform.unexpected-fields-sample-rate", default = 1)
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.validation.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Preconditions;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.ValidationMessage;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A JSONSchema compiled by {@link JsonSchemaValidator#compile(JsonNode)}. Compiling a schema is
+ * much more expensive than validating an object against it: callers validating many objects
+ * against the same schema should compile it once and keep this handle.
+ */
+public class CompiledJsonSchema {
+
+  private final JsonSchema schema;
+
+  CompiledJsonSchema(final JsonSchema schema) {
+    this.schema = schema;
+  }
+
+  /**
+   * Returns true if the object adheres to the schema and false otherwise.
+   */
+  public boolean test(final JsonNode objectJson) {
+    return validateInternal(objectJson).isEmpty();
+  }
+
+  /**
+   * Returns a set of schema validation errors, which is empty if the object adheres to the schema.
+   */
+  public Set<String> validate(final JsonNode objectJson) {
+    return validateInternal(objectJson)
+        .stream()
+        .map(ValidationMessage::getMessage)
+        .collect(Collectors.toSet());
+  }
+
+  // keep this internal as it returns a type specific to the wrapped library.
+  Set<ValidationMessage> validateInternal(final JsonNode objectJson) {
+    Preconditions.checkNotNull(objectJson);
+    return schema.validate(objectJson);
+  }
+
+}
@@ -7,6 +7,8 @@ package io.airbyte.validation.json;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.networknt.schema.JsonMetaSchema;
 import com.networknt.schema.JsonSchema;
 import com.networknt.schema.JsonSchemaFactory;
@@ -46,9 +48,22 @@ public class JsonSchemaValidator {
     }
   }
 
+  private static final long DEFAULT_MAX_CACHED_SCHEMAS = 512;
+
   private final JsonSchemaFactory jsonSchemaFactory;
   private final URI baseUri;
-  private final Map<String, JsonSchema> schemaToValidators = new HashMap<>();
+  private final Map<String, CompiledJsonSchema> schemaToValidators = new HashMap<>();
+  // Compiled schemas, see SchemaKey for how schemas are matched.
+  private final Cache<SchemaKey, CompiledJsonSchema> compiledSchemas;
+
+  /**
+   * Hit and miss counts of the cache of compiled schemas.
+   *
+   * @param hitCount number of schemas that were already compiled.
+   * @param missCount number of schemas that had to be compiled.
+   * @param size number of compiled schemas currently cached.
+   */
+  public record CacheStats(long hitCount, long missCount, long size) {}
 
   public JsonSchemaValidator() {
     this(DEFAULT_BASE_URI);
@@ -64,8 +79,46 @@ public class JsonSchemaValidator {
    */
   @VisibleForTesting
   public JsonSchemaValidator(final URI baseUri) {
+    this(baseUri, DEFAULT_MAX_CACHED_SCHEMAS);
+  }
+
+  @VisibleForTesting
+  JsonSchemaValidator(final URI baseUri, final long maxCachedSchemas) {
     this.jsonSchemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
     this.baseUri = baseUri;
+    this.compiledSchemas = CacheBuilder.newBuilder()
+        .maximumSize(maxCachedSchemas)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Compile a schema, or get it from the cache if the same schema was compiled before. Schemas are
+   * matched by content, the cache is bounded.
+   *
+   * @param schemaJson JSONSchema to compile
+   * @return the compiled schema, to validate any number of objects against.
+   */
+  public CompiledJsonSchema compile(final JsonNode schemaJson) {
+    Preconditions.checkNotNull(schemaJson);
+    final SchemaKey key = new SchemaKey(schemaJson);
+    final CompiledJsonSchema cached = compiledSchemas.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    // Concurrent misses on the same schema compile it twice, the last one stays in the cache.
+    final CompiledJsonSchema compiled = new CompiledJsonSchema(getSchemaValidator(schemaJson));
+    compiledSchemas.put(key, compiled);
+    return compiled;
+  }
+
+  /**
+   * Returns the hit and miss counts of the cache of compiled schemas since this validator was
+   * created.
+   */
+  public CacheStats getCacheStats() {
+    final com.google.common.cache.CacheStats stats = compiledSchemas.stats();
+    return new CacheStats(stats.hitCount(), stats.missCount(), compiledSchemas.size());
   }
 
   /**
@@ -74,7 +127,7 @@ public class JsonSchemaValidator {
    * {@link #validateInitializedSchema(String, JsonNode)} is called.
    */
   public void initializeSchemaValidator(final String schemaName, final JsonNode schemaJson) {
-    schemaToValidators.put(schemaName, getSchemaValidator(schemaJson));
+    schemaToValidators.put(schemaName, compile(schemaJson));
   }
 
   /**
@@ -84,8 +137,7 @@ public class JsonSchemaValidator {
     final var schema = schemaToValidators.get(schemaName);
     Preconditions.checkNotNull(schema, schemaName + " needs to be initialised before calling this method");
 
-    final var validate = schema.validate(objectJson);
-    return validate.isEmpty();
+    return schema.test(objectJson);
   }
 
   /**
@@ -96,24 +148,21 @@ public class JsonSchemaValidator {
     final var schema = schemaToValidators.get(schemaName);
     Preconditions.checkNotNull(schema, schemaName + " needs to be initialised before calling this method");
 
-    final Set<ValidationMessage> validationMessages = schema.validate(objectNode);
-    return validationMessages.stream().map(ValidationMessage::getMessage).collect(Collectors.toSet());
+    return schema.validate(objectNode);
   }
 
   /**
    * Test if a JSON object conforms to a given JSONSchema.
    * <p>
-   * WARNING
-   * <p>
-   * The following methods perform JSON validation **by re-creating a validator each time**. This is
-   * both CPU and GC expensive, and should be used carefully.
-   * <p>
+   * The following methods compile the schema through the cache of {@link #compile(JsonNode)}: an
+   * object is validated against the same schema as long as the schema stays in the cache, but the
+   * schema still has to be hashed on every call. Callers validating many objects should compile the
+   * schema once.
    *
    * @param schemaJson JSONSchema to test against
    * @param objectJson object to test
    * @return true if objectJson conforms to the JSONSchema. Otherwise, false.
    */
-  // todo(davin): Rewrite this section to cache schemas.
   public boolean test(final JsonNode schemaJson, final JsonNode objectJson) {
     final Set<ValidationMessage> validationMessages = validateInternal(schemaJson, objectJson);
 
@@ -180,8 +229,7 @@ public class JsonSchemaValidator {
     Preconditions.checkNotNull(schemaJson);
     Preconditions.checkNotNull(objectJson);
 
-    final JsonSchema schema = getSchemaValidator(schemaJson);
-    return schema.validate(objectJson);
+    return compile(schemaJson).validateInternal(objectJson);
   }
 
   /**
@@ -222,6 +270,43 @@ public class JsonSchemaValidator {
     return schema;
   }
 
+  /**
+   * Key of the cache of compiled schemas.
+   * <p>
+   * Schemas are compared by content so that equal schemas read from different places share their
+   * compiled form. Callers usually validate against the same schema instance over and over, so the
+   * instances are compared first: that makes a cache hit cost a hash of the schema instead of a full
+   * comparison. The hash is taken when the key is created: if the schema is modified after being
+   * compiled, its new content lands in another entry and the stale entry is eventually evicted.
+   */
+  private static final class SchemaKey {
+
+    private final JsonNode schema;
+    private final int hash;
+
+    private SchemaKey(final JsonNode schema) {
+      this.schema = schema;
+      this.hash = schema.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof SchemaKey otherKey) || hash != otherKey.hash) {
+        return false;
+      }
+      return schema == otherKey.schema || schema.equals(otherKey.schema);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+  }
+
   /**
    * Get JsonNode for an object defined as the main object in a JsonSchema file. Able to create the
    * JsonNode even if the the JsonSchema refers to objects in other files.
@@ -8,16 +8,19 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.airbyte.commons.io.IOs;
 import io.airbyte.commons.json.Jsons;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
+import java.util.Map;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 
@@ -167,4 +170,42 @@ class JsonSchemaValidatorTest {
     assert !errorMessages.isEmpty();
   }
 
+  @Test
+  void testCompiledSchemaIsReused() {
+    final JsonSchemaValidator validator = new JsonSchemaValidator();
+
+    final CompiledJsonSchema compiled = validator.compile(VALID_SCHEMA);
+
+    assertSame(compiled, validator.compile(VALID_SCHEMA));
+    // an equal schema read from somewhere else shares the compiled schema
+    assertSame(compiled, validator.compile(Jsons.clone(VALID_SCHEMA)));
+    assertTrue(compiled.test(Jsons.deserialize("{\"host\":\"abc\"}")));
+    assertFalse(compiled.validate(Jsons.deserialize("{\"host\":1}")).isEmpty());
+    assertEquals(new JsonSchemaValidator.CacheStats(2, 1, 1), validator.getCacheStats());
+  }
+
+  @Test
+  void testModifiedSchemaIsRecompiled() {
+    final JsonSchemaValidator validator = new JsonSchemaValidator();
+    final ObjectNode schema = (ObjectNode) Jsons.clone(VALID_SCHEMA);
+    final JsonNode object = Jsons.deserialize("{\"host\":\"abc\", \"other\":1}");
+
+    assertFalse(validator.test(schema, object));
+    schema.put("additionalProperties", true);
+
+    assertTrue(validator.test(schema, object));
+    assertEquals(2, validator.getCacheStats().missCount());
+  }
+
+  @Test
+  void testCompiledSchemasAreBounded() throws URISyntaxException {
+    final JsonSchemaValidator validator = new JsonSchemaValidator(new URI("file:///app/nonexistent_file.json"), 2);
+
+    for (int i = 0; i < 10; i++) {
+      validator.compile(Jsons.jsonNode(Map.of("type", "object", "title", "schema" + i)));
+    }
+
+    assertEquals(new JsonSchemaValidator.CacheStats(0, 10, 2), validator.getCacheStats());
+  }
+
 }
@@ -75,6 +75,16 @@ public class DogStatsDMetricClient implements MetricClient {
    */
   @Override
   public void count(final MetricsRegistry metric, final long amt, final MetricAttribute... attributes) {
+    publishCount(metric, amt, toTags(attributes));
+  }
+
+  @Override
+  public MetricCounter counter(final MetricsRegistry metric, final MetricAttribute... attributes) {
+    final String[] tags = toTags(attributes);
+    return amt -> publishCount(metric, amt, tags);
+  }
+
+  private void publishCount(final MetricsRegistry metric, final long amt, final String[] tags) {
     if (instancePublish) {
       if (statsDClient == null) {
         // do not loudly fail to prevent application disruption
@@ -82,8 +92,8 @@ public class DogStatsDMetricClient implements MetricClient {
         return;
       }
 
-      log.debug("publishing count, name: {}, value: {}, attributes: {}", metric, amt, attributes);
-      statsDClient.count(metric.getMetricName(), amt, toTags(attributes));
+      log.debug("publishing count, name: {}, value: {}, attributes: {}", metric, amt, tags);
+      statsDClient.count(metric.getMetricName(), amt, tags);
     }
   }
 
@@ -96,6 +106,16 @@ public class DogStatsDMetricClient implements MetricClient {
    */
   @Override
   public void gauge(final MetricsRegistry metric, final double val, final MetricAttribute... attributes) {
+    publishGauge(metric, val, toTags(attributes));
+  }
+
+  @Override
+  public MetricGauge gaugeHandle(final MetricsRegistry metric, final MetricAttribute... attributes) {
+    final String[] tags = toTags(attributes);
+    return val -> publishGauge(metric, val, tags);
+  }
+
+  private void publishGauge(final MetricsRegistry metric, final double val, final String[] tags) {
     if (instancePublish) {
       if (statsDClient == null) {
         // do not loudly fail to prevent application disruption
@@ -103,13 +123,23 @@ public class DogStatsDMetricClient implements MetricClient {
         return;
       }
 
-      log.debug("publishing gauge, name: {}, value: {}, attributes: {}", metric, val, attributes);
-      statsDClient.gauge(metric.getMetricName(), val, toTags(attributes));
+      log.debug("publishing gauge, name: {}, value: {}, attributes: {}", metric, val, tags);
+      statsDClient.gauge(metric.getMetricName(), val, tags);
     }
   }
 
   @Override
   public void distribution(final MetricsRegistry metric, final double val, final MetricAttribute... attributes) {
+    publishDistribution(metric, val, toTags(attributes));
+  }
+
+  @Override
+  public MetricHistogram histogram(final MetricsRegistry metric, final MetricAttribute... attributes) {
+    final String[] tags = toTags(attributes);
+    return val -> publishDistribution(metric, val, tags);
+  }
+
+  private void publishDistribution(final MetricsRegistry metric, final double val, final String[] tags) {
     if (instancePublish) {
       if (statsDClient == null) {
         // do not loudly fail to prevent application disruption
@@ -117,8 +147,8 @@ public class DogStatsDMetricClient implements MetricClient {
         return;
       }
 
-      log.debug("recording distribution, name: {}, value: {}, attributes: {}", metric, val, attributes);
-      statsDClient.distribution(metric.getMetricName(), val, toTags(attributes));
+      log.debug("recording distribution, name: {}, value: {}, attributes: {}", metric, val, tags);
+      statsDClient.distribution(metric.getMetricName(), val, tags);
     }
   }
 
@@ -6,6 +6,12 @@ package io.airbyte.metrics.lib;
 
 /**
  * A generic metric client interface supporting basic metric emitting actions.
+ * <p>
+ * Callers emitting the same metric with the same attributes in a loop should resolve a handle once
+ * with {@link #counter}, {@link #histogram} or {@link #gaugeHandle} and record through it, the
+ * implementations look up their instruments and convert the attributes only when the handle is
+ * created. Mocks of this interface return null handles, callers which may be given one fall back to
+ * the NO_OP handle of the type.
  */
 public interface MetricClient {
 
@@ -39,6 +45,42 @@ public interface MetricClient {
    */
   void distribution(MetricsRegistry metric, double val, final MetricAttribute... attributes);
 
+  /**
+   * Returns a counter bound to a metric and a fixed set of attributes.
+   *
+   * @param metric dd metric
+   * @param attributes attributes of every value added to the counter
+   * @return the counter
+   */
+  default MetricCounter counter(final MetricsRegistry metric, final MetricAttribute... attributes) {
+    final MetricAttribute[] boundAttributes = attributes.clone();
+    return val -> count(metric, val, boundAttributes);
+  }
+
+  /**
+   * Returns a gauge bound to a metric and a fixed set of attributes.
+   *
+   * @param metric dd metric
+   * @param attributes attributes of every value recorded for the gauge
+   * @return the gauge
+   */
+  default MetricGauge gaugeHandle(final MetricsRegistry metric, final MetricAttribute... attributes) {
+    final MetricAttribute[] boundAttributes = attributes.clone();
+    return val -> gauge(metric, val, boundAttributes);
+  }
+
+  /**
+   * Returns a distribution bound to a metric and a fixed set of attributes.
+   *
+   * @param metric dd metric
+   * @param attributes attributes of every value recorded in the distribution
+   * @return the distribution
+   */
+  default MetricHistogram histogram(final MetricsRegistry metric, final MetricAttribute... attributes) {
+    final MetricAttribute[] boundAttributes = attributes.clone();
+    return val -> distribution(metric, val, boundAttributes);
+  }
+
   /*
    * Reset initialization. Can be used in a unit test to reset metric client state.
    */
@@ -29,7 +29,8 @@ public class MetricClientFactory {
     // no explicit implementation
   }
 
-  private static MetricClient metricClient;
+  // Volatile so that the client can be read without locking, it is retrieved on hot paths.
+  private static volatile MetricClient metricClient;
 
   /**
    * Retrieve previously created metric client. If metric client was not created before, returns a
@@ -38,9 +39,10 @@ public class MetricClientFactory {
    * @return previously created metric client which has been properly initialized, or an instance of
    *         the empty NotImplementedMetricClient.
    */
-  public static synchronized MetricClient getMetricClient() {
-    if (metricClient != null) {
-      return metricClient;
+  public static MetricClient getMetricClient() {
+    final MetricClient client = metricClient;
+    if (client != null) {
+      return client;
     }
     LOGGER.warn(
         "MetricClient has not been initialized. Must call MetricClientFactory.CreateMetricClient before using MetricClient. "
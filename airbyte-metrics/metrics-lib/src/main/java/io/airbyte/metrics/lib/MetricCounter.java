@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.metrics.lib;
+
+/**
+ * A counter bound to a metric and a fixed set of attributes, see
+ * {@link MetricClient#counter(MetricsRegistry, MetricAttribute...)}.
+ */
+@FunctionalInterface
+public interface MetricCounter {
+
+  /**
+   * Ignores every value, returned by clients which don't report metrics.
+   */
+  MetricCounter NO_OP = val -> {};
+
+  /**
+   * Increment or decrement the counter.
+   *
+   * @param val to add.
+   */
+  void add(long val);
+
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.metrics.lib;
+
+/**
+ * A gauge bound to a metric and a fixed set of attributes, see
+ * {@link MetricClient#gaugeHandle(MetricsRegistry, MetricAttribute...)}.
+ */
+@FunctionalInterface
+public interface MetricGauge {
+
+  /**
+   * Ignores every value, returned by clients which don't report metrics.
+   */
+  MetricGauge NO_OP = val -> {};
+
+  /**
+   * Record the latest value of the gauge.
+   *
+   * @param val to record.
+   */
+  void set(double val);
+
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.metrics.lib;
+
+/**
+ * A distribution bound to a metric and a fixed set of attributes, see
+ * {@link MetricClient#histogram(MetricsRegistry, MetricAttribute...)}.
+ */
+@FunctionalInterface
+public interface MetricHistogram {
+
+  /**
+   * Ignores every value, returned by clients which don't report metrics.
+   */
+  MetricHistogram NO_OP = val -> {};
+
+  /**
+   * Record a value in the distribution.
+   *
+   * @param val to record.
+   */
+  void record(double val);
+
+}
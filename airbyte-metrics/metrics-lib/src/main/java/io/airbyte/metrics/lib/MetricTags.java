@@ -37,9 +37,13 @@ public class MetricTags {
   public static final String MAX_CONNECTOR_RELEASE_STATE = "max_connector_release_stage";
   // the release stage of the lowest release stage connector in the sync (GA > Beta > Alpha)
   public static final String MIN_CONNECTOR_RELEASE_STATE = "min_connector_release_stage";
+  public static final String PAYLOAD_COMPRESSION = "payload_compression"; // none|gzip
+  public static final String PAYLOAD_TYPE = "payload_type"; // state|catalog
+  public static final String PERCENTILE = "percentile";
   public static final String RELEASE_STAGE = "release_stage";
   public static final String RESET_WORKFLOW_FAILURE_CAUSE = "failure_cause";
   public static final String SOURCE_ID = "source_id";
+  public static final String STAGE = "stage";
   public static final String WORKFLOW_TYPE = "workflow_type";
   public static final String WORKSPACE_ID = "workspace_id";
   public static final String UNKNOWN = "unknown";
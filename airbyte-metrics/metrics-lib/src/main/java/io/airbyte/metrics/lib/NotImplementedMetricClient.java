@@ -26,6 +26,21 @@ public class NotImplementedMetricClient implements MetricClient {
     // Not Implemented.
   }
 
+  @Override
+  public MetricCounter counter(final MetricsRegistry metric, final MetricAttribute... attributes) {
+    return MetricCounter.NO_OP;
+  }
+
+  @Override
+  public MetricGauge gaugeHandle(final MetricsRegistry metric, final MetricAttribute... attributes) {
+    return MetricGauge.NO_OP;
+  }
+
+  @Override
+  public MetricHistogram histogram(final MetricsRegistry metric, final MetricAttribute... attributes) {
+    return MetricHistogram.NO_OP;
+  }
+
   @Override
   public void shutdown() {
     // Not Implemented.
@@ -30,6 +30,7 @@ import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementation of the {@link MetricClient} that sends the provided metric data to an
@@ -43,18 +44,23 @@ public class OpenTelemetryMetricClient implements MetricClient {
   private Meter meter;
   private SdkMeterProvider meterProvider;
 
+  // Instruments are built once per metric, building them is much more expensive than recording.
+  private final Map<String, LongCounter> counters = new ConcurrentHashMap<>();
+  private final Map<String, DoubleHistogram> histograms = new ConcurrentHashMap<>();
   private final Map<String, ObservableDoubleGauge> gauges = new HashMap<>();
   private final Map<String, Map<Attributes, Double>> gaugeValues = Collections.synchronizedMap(new HashMap<>());
 
   @Override
   public void count(final MetricsRegistry metric, final long val, final MetricAttribute... attributes) {
-    final LongCounter counter = meter
-        .counterBuilder(metric.getMetricName())
-        .setDescription(metric.getMetricDescription())
-        .build();
-
     final AttributesBuilder attributesBuilder = buildAttributes(attributes);
-    counter.add(val, attributesBuilder.build());
+    getCounter(metric).add(val, attributesBuilder.build());
+  }
+
+  @Override
+  public MetricCounter counter(final MetricsRegistry metric, final MetricAttribute... attributes) {
+    final LongCounter counter = getCounter(metric);
+    final Attributes attr = buildAttributes(attributes).build();
+    return val -> counter.add(val, attr);
   }
 
   @Override
@@ -71,7 +77,16 @@ public class OpenTelemetryMetricClient implements MetricClient {
      * MetricClient interface. Without some refactoring of the client interface, this adapter is
      * necessary.
      */
+    recordGauge(metric, val, buildAttributes(attributes).build());
+  }
+
+  @Override
+  public MetricGauge gaugeHandle(final MetricsRegistry metric, final MetricAttribute... attributes) {
     final Attributes attr = buildAttributes(attributes).build();
+    return val -> recordGauge(metric, val, attr);
+  }
+
+  private void recordGauge(final MetricsRegistry metric, final double val, final Attributes attr) {
     final String name = metric.getMetricName();
     synchronized (gauges) { // sync so we don't create the same gauge concurrently
       if (!gauges.containsKey(name)) {
@@ -100,9 +115,25 @@ public class OpenTelemetryMetricClient implements MetricClient {
 
   @Override
   public void distribution(final MetricsRegistry metric, final double val, final MetricAttribute... attributes) {
-    final DoubleHistogram histogramMeter = meter.histogramBuilder(metric.getMetricName()).setDescription(metric.getMetricDescription()).build();
     final AttributesBuilder attributesBuilder = buildAttributes(attributes);
-    histogramMeter.record(val, attributesBuilder.build());
+    getHistogram(metric).record(val, attributesBuilder.build());
+  }
+
+  @Override
+  public MetricHistogram histogram(final MetricsRegistry metric, final MetricAttribute... attributes) {
+    final DoubleHistogram histogram = getHistogram(metric);
+    final Attributes attr = buildAttributes(attributes).build();
+    return val -> histogram.record(val, attr);
+  }
+
+  private LongCounter getCounter(final MetricsRegistry metric) {
+    return counters.computeIfAbsent(metric.getMetricName(),
+        name -> meter.counterBuilder(name).setDescription(metric.getMetricDescription()).build());
+  }
+
+  private DoubleHistogram getHistogram(final MetricsRegistry metric) {
+    return histograms.computeIfAbsent(metric.getMetricName(),
+        name -> meter.histogramBuilder(name).setDescription(metric.getMetricDescription()).build());
   }
 
   /**
@@ -155,6 +186,8 @@ public class OpenTelemetryMetricClient implements MetricClient {
   @Override
   public void shutdown() {
     resetForTest();
+    counters.clear();
+    histograms.clear();
     closeGauges();
   }
 
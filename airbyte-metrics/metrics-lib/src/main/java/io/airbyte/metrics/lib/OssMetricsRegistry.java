@@ -135,6 +135,14 @@ public enum OssMetricsRegistry implements MetricsRegistry {
       MetricEmittingApps.WORKER,
       "job_succeeded_by_release_stage",
       "increments when a job succeeds. jobs are double counted as this is tagged by release stage."),
+  JSON_SCHEMA_VALIDATOR_CACHE_HITS(
+      MetricEmittingApps.WORKER,
+      "json_schema_validator_cache_hits",
+      "number of schemas validated against that were already compiled"),
+  JSON_SCHEMA_VALIDATOR_CACHE_MISSES(
+      MetricEmittingApps.WORKER,
+      "json_schema_validator_cache_misses",
+      "number of schemas validated against that had to be compiled"),
   JSON_STRING_LENGTH(
       MetricEmittingApps.WORKER,
       "json_string_length",
@@ -143,6 +151,22 @@ public enum OssMetricsRegistry implements MetricsRegistry {
       MetricEmittingApps.WORKER,
       "kube_pod_process_create_time_millisecs",
       "time taken to create a new kube pod process"),
+  KUBE_PORT_POOL_AVAILABLE_PORTS(
+      MetricEmittingApps.WORKER,
+      "kube_port_pool_available_ports",
+      "number of ports available to new kube pod processes"),
+  KUBE_PORT_POOL_LEASED_PORTS(
+      MetricEmittingApps.WORKER,
+      "kube_port_pool_leased_ports",
+      "number of ports leased by kube pod processes"),
+  KUBE_PORT_POOL_WAIT_TIME_MILLISECS(
+      MetricEmittingApps.WORKER,
+      "kube_port_pool_wait_time_millisecs",
+      "time waited by a kube pod process for a port to be available"),
+  KUBE_PORT_POOL_LEAKED_PORTS(
+      MetricEmittingApps.WORKER,
+      "kube_port_pool_leaked_ports",
+      "number of ports reclaimed after the kube pod process leasing them was never closed"),
   INCONSISTENT_ACTIVITY_INPUT(MetricEmittingApps.WORKER,
       "inconsistent_activity_input",
       "whenever we detect a mismatch between the input and the actual config"),
@@ -205,6 +229,13 @@ public enum OssMetricsRegistry implements MetricsRegistry {
       "overall_job_runtime_in_last_hour_by_terminal_state_secs",
       "overall job runtime - scheduling and execution for all attempts - for jobs that reach terminal states in the last hour. "
           + "tagged by terminal states."),
+  PAYLOAD_COMPRESSION_RATIO(MetricEmittingApps.SERVER,
+      "payload_compression_ratio",
+      "ratio between the uncompressed and the compressed size of a state or catalog written to the config database. "
+          + "tagged by payload type."),
+  PAYLOAD_READ_TIME_MILLISECS(MetricEmittingApps.SERVER,
+      "payload_read_time_millisecs",
+      "time taken to decompress and parse a state or catalog read from the config database. tagged by payload type and compression."),
   REPLICATION_BYTES_SYNCED(MetricEmittingApps.WORKER,
       "replication_bytes_synced",
       "number of bytes synced during replication"),
@@ -305,6 +336,14 @@ public enum OssMetricsRegistry implements MetricsRegistry {
       "worker_destination_buffer_size",
       "the size of the replication worker destination buffer queue"),
 
+  WORKER_DESTINATION_BUFFER_BYTES(MetricEmittingApps.WORKER,
+      "worker_destination_buffer_bytes",
+      "the estimated size in bytes of the messages in the replication worker destination buffer queue"),
+
+  WORKER_DESTINATION_BUFFER_FILL_RATIO(MetricEmittingApps.WORKER,
+      "worker_destination_buffer_fill_ratio",
+      "how full the replication worker destination buffer queue is relative to its current byte limit"),
+
   WORKER_DESTINATION_MESSAGE_READ(MetricEmittingApps.WORKER,
       "worker_destination_message_read",
       "whenever a message is read from the destination"),
@@ -317,9 +356,21 @@ public enum OssMetricsRegistry implements MetricsRegistry {
       "worker_source_buffer_size",
       "the size of the replication worker source buffer queue"),
 
+  WORKER_SOURCE_BUFFER_BYTES(MetricEmittingApps.WORKER,
+      "worker_source_buffer_bytes",
+      "the estimated size in bytes of the messages in the replication worker source buffer queue"),
+
+  WORKER_SOURCE_BUFFER_FILL_RATIO(MetricEmittingApps.WORKER,
+      "worker_source_buffer_fill_ratio",
+      "how full the replication worker source buffer queue is relative to its current byte limit"),
+
   WORKER_SOURCE_MESSAGE_READ(MetricEmittingApps.WORKER,
       "worker_source_message_read",
       "whenever a message is read from the source"),
+
+  WORKER_STAGE_LATENCY_MICROS(MetricEmittingApps.WORKER,
+      "worker_stage_latency_micros",
+      "percentiles of the time spent by messages in a stage of the replication worker, over the last reporting period"),
   WORFLOW_UNREACHABLE(MetricEmittingApps.WORKER,
       "workflow_unreachable",
       "whenever a workflow is unreachable"),
@@ -110,4 +110,57 @@ class OpenTelemetryMetricClientTest {
     assertThat(data.getHistogramData().getPoints().stream().anyMatch(histogramPointData -> histogramPointData.getMin() == 10.0));
   }
 
+  @Test
+  @DisplayName("Counter handles should add to the counter with their bound attributes")
+  void testCounterHandleSuccess() {
+    final MetricCounter counter = openTelemetryMetricClient.counter(OssMetricsRegistry.KUBE_POD_PROCESS_CREATE_TIME_MILLISECS,
+        new MetricAttribute(TAG, TAG));
+    counter.add(1);
+    counter.add(2);
+    openTelemetryMetricClient.count(OssMetricsRegistry.KUBE_POD_PROCESS_CREATE_TIME_MILLISECS, 4, new MetricAttribute(TAG, TAG));
+
+    metricProvider.forceFlush();
+    final List<MetricData> metricDataList = metricExporter.getFinishedMetricItems();
+    final MetricData data = Iterables.getOnlyElement(metricDataList);
+
+    assertThat(data.getName()).isEqualTo(OssMetricsRegistry.KUBE_POD_PROCESS_CREATE_TIME_MILLISECS.getMetricName());
+    final var point = Iterables.getOnlyElement(data.getLongSumData().getPoints());
+    assertThat(point.getValue()).isEqualTo(7L);
+    assertThat(point.getAttributes().get(AttributeKey.stringKey(TAG))).isEqualTo(TAG);
+  }
+
+  @Test
+  @DisplayName("Histogram handles should record values with their bound attributes")
+  void testHistogramHandleSuccess() {
+    final MetricHistogram histogram = openTelemetryMetricClient.histogram(OssMetricsRegistry.KUBE_POD_PROCESS_CREATE_TIME_MILLISECS,
+        new MetricAttribute(TAG, TAG));
+    histogram.record(10);
+    histogram.record(30);
+
+    metricProvider.forceFlush();
+    final List<MetricData> metricDataList = metricExporter.getFinishedMetricItems();
+    final MetricData data = Iterables.getOnlyElement(metricDataList);
+
+    assertThat(data.getName()).isEqualTo(OssMetricsRegistry.KUBE_POD_PROCESS_CREATE_TIME_MILLISECS.getMetricName());
+    final var point = Iterables.getOnlyElement(data.getHistogramData().getPoints());
+    assertThat(point.getCount()).isEqualTo(2L);
+    assertThat(point.getMin()).isEqualTo(10.0);
+    assertThat(point.getMax()).isEqualTo(30.0);
+    assertThat(point.getAttributes().get(AttributeKey.stringKey(TAG))).isEqualTo(TAG);
+  }
+
+  @Test
+  @DisplayName("Gauge handles should record the latest value of the gauge")
+  void testGaugeHandleSuccess() {
+    final MetricGauge gauge = openTelemetryMetricClient.gaugeHandle(OssMetricsRegistry.KUBE_POD_PROCESS_CREATE_TIME_MILLISECS);
+    gauge.set(3);
+    gauge.set(1);
+
+    metricProvider.forceFlush();
+    final List<MetricData> metricDataList = metricExporter.getFinishedMetricItems();
+    final MetricData data = Iterables.getOnlyElement(metricDataList);
+
+    assertThat(Iterables.getOnlyElement(data.getDoubleGaugeData().getPoints()).getValue()).isEqualTo(1.0);
+  }
+
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.persistence.job.benchmarks;
+
+import io.airbyte.config.JobConfig;
+import io.airbyte.config.JobConfig.ConfigType;
+import io.airbyte.config.JobGetSpecConfig;
+import io.airbyte.config.StreamSyncStats;
+import io.airbyte.config.SyncStats;
+import io.airbyte.db.Database;
+import io.airbyte.db.factory.DSLContextFactory;
+import io.airbyte.db.factory.DataSourceFactory;
+import io.airbyte.db.instance.test.TestDatabaseProviders;
+import io.airbyte.persistence.job.AttemptStatsCoalescer;
+import io.airbyte.persistence.job.DefaultJobPersistence;
+import io.airbyte.persistence.job.JobPersistence;
+import io.airbyte.test.utils.Databases;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.jooq.SQLDialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Measures the throughput of the stats reported by hundreds of concurrent syncs, each reporting the
+ * progress of its own attempt, when they are written as they are reported and when they are
+ * coalesced by an {@link AttemptStatsCoalescer}.
+ * <p>
+ * Coalesced stats are flushed by the benchmark threads rather than in the background, every
+ * {@code reportsPerFlush} reports of each sync, so that the time spent writing them is measured.
+ * <p>
+ * It needs docker to start a postgres container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@Threads(200)
+@SuppressWarnings("MissingJavadocMethod")
+public class AttemptStatsWriteBenchmark {
+
+  private static final int STREAMS_PER_SYNC = 20;
+  private static final JobConfig SPEC_JOB_CONFIG = new JobConfig()
+      .withConfigType(ConfigType.GET_SPEC)
+      .withGetSpec(new JobGetSpecConfig());
+
+  private PostgreSQLContainer<?> container;
+  private DataSource dataSource;
+  private JobPersistence jobPersistence;
+  private AttemptStatsCoalescer coalescer;
+
+  // number of reports of a sync coalesced between two flushes, as if it reported them within an
+  // interval
+  @Param({"1", "10"})
+  private int reportsPerFlush;
+
+  @Setup
+  public void setup() throws Exception {
+    container = new PostgreSQLContainer<>("postgres:13-alpine")
+        .withDatabaseName("airbyte")
+        .withUsername("docker")
+        .withPassword("docker");
+    container.start();
+    dataSource = Databases.createDataSource(container);
+    final Database jobDatabase =
+        new TestDatabaseProviders(dataSource, DSLContextFactory.create(dataSource, SQLDialect.POSTGRES)).createNewJobsDatabase();
+    jobPersistence = new DefaultJobPersistence(jobDatabase);
+    // the interval is never reached, the stats are flushed by the benchmark
+    coalescer = new AttemptStatsCoalescer(jobPersistence, Duration.ofDays(1));
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    coalescer.close();
+    DataSourceFactory.close(dataSource);
+    container.close();
+  }
+
+  /**
+   * Attempt of the sync run by a benchmark thread, and the stats it reports.
+   */
+  @State(Scope.Thread)
+  public static class Sync {
+
+    private long jobId;
+    private int attemptNumber;
+    private long records;
+    private long reports;
+
+    @Setup
+    public void setup(final AttemptStatsWriteBenchmark benchmark) throws IOException {
+      jobId = benchmark.jobPersistence.enqueueJob(UUID.randomUUID().toString(), SPEC_JOB_CONFIG).orElseThrow();
+      attemptNumber = benchmark.jobPersistence.createAttempt(jobId, Path.of("/tmp/logs"));
+    }
+
+    SyncStats syncStats() {
+      return stats(records * STREAMS_PER_SYNC);
+    }
+
+    List<StreamSyncStats> streamStats() {
+      reports++;
+      records += 100;
+      return IntStream.range(0, STREAMS_PER_SYNC)
+          .mapToObj(i -> new StreamSyncStats().withStreamName("stream_" + i).withStreamNamespace(i % 2 == 0 ? null : "public")
+              .withStats(stats(records)))
+          .toList();
+    }
+
+    private static SyncStats stats(final long records) {
+      return new SyncStats().withRecordsEmitted(records).withBytesEmitted(records * 100)
+          .withEstimatedRecords(records * 10).withEstimatedBytes(records * 1000);
+    }
+
+  }
+
+  @Benchmark
+  public void writeStatsDirectly(final Sync sync) throws IOException {
+    final List<StreamSyncStats> streamStats = sync.streamStats();
+    jobPersistence.writeStats(sync.jobId, sync.attemptNumber, sync.syncStats(), streamStats, Instant.now());
+  }
+
+  @Benchmark
+  public void writeStatsCoalesced(final Sync sync) throws IOException {
+    final List<StreamSyncStats> streamStats = sync.streamStats();
+    coalescer.writeStats(sync.jobId, sync.attemptNumber, sync.syncStats(), streamStats);
+    if (sync.reports % reportsPerFlush == 0) {
+      // writes the stats pending for every sync, not only this one
+      coalescer.flush();
+    }
+  }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.persistence.job;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.airbyte.config.StreamSyncStats;
+import io.airbyte.config.SyncStats;
+import io.airbyte.persistence.job.JobPersistence.JobAttemptPair;
+import io.airbyte.protocol.models.v0.StreamDescriptor;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the progress stats that running syncs report. Syncs report the stats of an attempt many
+ * times while it runs and each report supersedes the previous ones, so when an interval is set the
+ * reports of an attempt are coalesced in memory and only the latest are written, once per interval.
+ * Without an interval, the stats are written as they are reported.
+ * <p>
+ * Coalesced stats are written with the time they were reported at, so that they never overwrite
+ * more recent stats, like the final stats of the attempt written with its output.
+ */
+public class AttemptStatsCoalescer implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AttemptStatsCoalescer.class);
+
+  private final JobPersistence jobPersistence;
+  private final Supplier<Instant> timeSupplier;
+  private final Map<JobAttemptPair, PendingStats> pendingStats = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService flushExecutor;
+
+  public AttemptStatsCoalescer(final JobPersistence jobPersistence, final Duration interval) {
+    this(jobPersistence, interval, Instant::now);
+  }
+
+  @VisibleForTesting
+  AttemptStatsCoalescer(final JobPersistence jobPersistence, final Duration interval, final Supplier<Instant> timeSupplier) {
+    this.jobPersistence = jobPersistence;
+    this.timeSupplier = timeSupplier;
+    if (interval.isZero() || interval.isNegative()) {
+      flushExecutor = null;
+    } else {
+      flushExecutor = Executors.newSingleThreadScheduledExecutor();
+      flushExecutor.scheduleWithFixedDelay(this::flush, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Report the stats of an attempt.
+   *
+   * @throws IOException if the stats are written right away and there is an issue while interacting
+   *         with the db.
+   */
+  public void writeStats(final long jobId, final int attemptNumber, final SyncStats syncStats, final List<StreamSyncStats> streamStats)
+      throws IOException {
+    final PendingStats stats = new PendingStats(syncStats, streamStats, timeSupplier.get());
+    if (flushExecutor == null) {
+      write(new JobAttemptPair(jobId, attemptNumber), stats);
+    } else {
+      pendingStats.merge(new JobAttemptPair(jobId, attemptNumber), stats, PendingStats::mergeWith);
+    }
+  }
+
+  /**
+   * Write the latest stats reported by each attempt since the last flush. Stats which fail to be
+   * written are retried at the next flush, unless the attempt reported newer ones in between.
+   */
+  public void flush() {
+    for (final JobAttemptPair attempt : List.copyOf(pendingStats.keySet())) {
+      final PendingStats stats = pendingStats.remove(attempt);
+      if (stats == null) {
+        continue;
+      }
+      try {
+        write(attempt, stats);
+      } catch (final IOException | RuntimeException e) {
+        LOGGER.warn("Failed to write the stats of job {} attempt {}, retrying at the next flush", attempt.id(), attempt.attemptNumber(), e);
+        pendingStats.merge(attempt, stats, (newer, failed) -> failed.mergeWith(newer));
+      }
+    }
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    if (flushExecutor != null) {
+      flushExecutor.shutdown();
+      flushExecutor.awaitTermination(1, TimeUnit.MINUTES);
+      flush();
+    }
+  }
+
+  private void write(final JobAttemptPair attempt, final PendingStats stats) throws IOException {
+    jobPersistence.writeStats(attempt.id(), attempt.attemptNumber(), stats.syncStats(), stats.streamStats(), stats.reportedAt());
+  }
+
+  /**
+   * Latest stats reported by an attempt which are not written yet.
+   */
+  private record PendingStats(SyncStats syncStats, List<StreamSyncStats> streamStats, Instant reportedAt) {
+
+    /**
+     * Reports don't always include every stream, so the latest stats of each stream are kept.
+     */
+    PendingStats mergeWith(final PendingStats newer) {
+      final Map<StreamDescriptor, StreamSyncStats> mergedStreamStats = new LinkedHashMap<>();
+      for (final PendingStats stats : List.of(this, newer)) {
+        Optional.ofNullable(stats.streamStats()).orElse(List.of()).forEach(streamStats -> mergedStreamStats.put(
+            new StreamDescriptor().withName(streamStats.getStreamName()).withNamespace(streamStats.getStreamNamespace()),
+            streamStats));
+      }
+      return new PendingStats(newer.syncStats(), new ArrayList<>(mergedStreamStats.values()), newer.reportedAt());
+    }
+
+  }
+
+}
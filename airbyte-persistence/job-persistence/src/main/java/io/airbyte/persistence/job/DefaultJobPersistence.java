@@ -34,10 +34,10 @@ import io.airbyte.config.JobOutput.OutputType;
 import io.airbyte.config.NormalizationSummary;
 import io.airbyte.config.StreamSyncStats;
 import io.airbyte.config.SyncStats;
-import io.airbyte.config.persistence.PersistenceHelpers;
 import io.airbyte.db.Database;
 import io.airbyte.db.ExceptionWrappingDatabase;
 import io.airbyte.db.instance.configs.jooq.generated.Tables;
+import io.airbyte.db.instance.jobs.jooq.generated.tables.Jobs;
 import io.airbyte.persistence.job.models.Attempt;
 import io.airbyte.persistence.job.models.AttemptNormalizationStatus;
 import io.airbyte.persistence.job.models.AttemptStatus;
@@ -59,6 +59,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -70,9 +71,11 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStepN;
 import org.jooq.JSONB;
-import org.jooq.Query;
 import org.jooq.Record;
 import org.jooq.RecordMapper;
 import org.jooq.Result;
@@ -102,24 +105,52 @@ public class DefaultJobPersistence implements JobPersistence {
   private static final String METADATA_VAL_COL = "value";
 
   @VisibleForTesting
-  static final String BASE_JOB_SELECT_AND_JOIN = jobSelectAndJoin("jobs");
+  static final String BASE_JOB_SELECT_AND_JOIN = jobSelectAndJoin("jobs", JobProjection.FULL);
+  // Lookups which only need the id of the job, which is then loaded on its own.
+  private static final String JOB_ID_SELECT = "SELECT jobs.id AS job_id FROM jobs ";
 
   private static final String AIRBYTE_METADATA_TABLE = "airbyte_metadata";
   private static final String ORDER_BY_JOB_TIME_ATTEMPT_TIME =
       "ORDER BY jobs.created_at DESC, jobs.id DESC, attempts.created_at ASC, attempts.id ASC ";
   private static final String ORDER_BY_JOB_CREATED_AT_DESC = "ORDER BY jobs.created_at DESC ";
   private static final String LIMIT_1 = "LIMIT 1 ";
+  // the next job is the oldest pending job of a scope which has no running or incomplete job. Pending
+  // jobs are compared with the status enum rather than a string, so that they are read from
+  // jobs_pending_created_at_idx.
+  private static final String NEXT_JOB_CONDITION = "jobs.status = 'pending' AND NOT EXISTS ("
+      + "SELECT 1 FROM jobs AS scope_jobs WHERE scope_jobs.scope = jobs.scope AND scope_jobs.status IN ('running', 'incomplete')) ";
   private static final String JOB_STATUS_IS_NON_TERMINAL = String.format("status IN (%s) ",
       JobStatus.NON_TERMINAL_STATUSES.stream()
           .map(DefaultJobPersistence::toSqlName)
           .map(Names::singleQuote)
           .collect(Collectors.joining(",")));
 
+  private static final List<Field<?>> STREAM_STATS_UPDATED_FIELDS = List.of(
+      STREAM_STATS.UPDATED_AT,
+      STREAM_STATS.BYTES_EMITTED,
+      STREAM_STATS.RECORDS_EMITTED,
+      STREAM_STATS.ESTIMATED_RECORDS,
+      STREAM_STATS.ESTIMATED_BYTES,
+      STREAM_STATS.BYTES_COMMITTED,
+      STREAM_STATS.RECORDS_COMMITTED);
+  private static final List<Field<?>> STREAM_STATS_INSERTED_FIELDS = List.of(
+      STREAM_STATS.ID,
+      STREAM_STATS.ATTEMPT_ID,
+      STREAM_STATS.STREAM_NAME,
+      STREAM_STATS.STREAM_NAMESPACE,
+      STREAM_STATS.CREATED_AT,
+      STREAM_STATS.UPDATED_AT,
+      STREAM_STATS.BYTES_EMITTED,
+      STREAM_STATS.RECORDS_EMITTED,
+      STREAM_STATS.ESTIMATED_RECORDS,
+      STREAM_STATS.ESTIMATED_BYTES,
+      STREAM_STATS.BYTES_COMMITTED,
+      STREAM_STATS.RECORDS_COMMITTED);
+
   private static final String ATTEMPT_FIELDS = """
                                                  attempts.attempt_number AS attempt_number,
                                                  attempts.attempt_sync_config AS attempt_sync_config,
                                                  attempts.log_path AS log_path,
-                                                 attempts.output AS attempt_output,
                                                  attempts.status AS attempt_status,
                                                  attempts.processing_task_queue AS processing_task_queue,
                                                  attempts.failure_summary AS attempt_failure_summary,
@@ -128,8 +159,21 @@ public class DefaultJobPersistence implements JobPersistence {
                                                  attempts.ended_at AS attempt_ended_at
                                                """;
 
+  private static final String ATTEMPT_OUTPUT_FIELD = "attempts.output AS attempt_output,\n";
+  // The sync summary is a small part of the output, which otherwise holds the state and the output
+  // catalog of the sync. It is extracted in the query so that the rest isn't transferred.
+  private static final String ATTEMPT_STATS_OUTPUT_FIELD = """
+                                                          CASE WHEN attempts.output IS NULL THEN NULL
+                                                          ELSE jsonb_build_object(
+                                                            'outputType', attempts.output -> 'outputType',
+                                                            'sync', jsonb_build_object(
+                                                              'standardSyncSummary', attempts.output -> 'sync' -> 'standardSyncSummary'))
+                                                          END AS attempt_output,
+                                                          """;
+  private static final String ATTEMPT_NO_OUTPUT_FIELD = "NULL AS attempt_output,\n";
+
   private static final String ATTEMPT_SELECT =
-      "SELECT job_id," + ATTEMPT_FIELDS + "FROM attempts WHERE job_id = ? AND attempt_number = ?";
+      "SELECT job_id," + ATTEMPT_OUTPUT_FIELD + ATTEMPT_FIELDS + "FROM attempts WHERE job_id = ? AND attempt_number = ?";
 
   private final ExceptionWrappingDatabase jobDatabase;
   private final Supplier<Instant> timeSupplier;
@@ -151,7 +195,7 @@ public class DefaultJobPersistence implements JobPersistence {
     this(jobDatabase, Instant::now, 30, 500, 10);
   }
 
-  private static String jobSelectAndJoin(final String jobsSubquery) {
+  private static String jobSelectAndJoin(final String jobsSubquery, final JobProjection projection) {
     return "SELECT\n"
         + "jobs.id AS job_id,\n"
         + "jobs.config_type AS config_type,\n"
@@ -161,10 +205,19 @@ public class DefaultJobPersistence implements JobPersistence {
         + "jobs.started_at AS job_started_at,\n"
         + "jobs.created_at AS job_created_at,\n"
         + "jobs.updated_at AS job_updated_at,\n"
+        + attemptOutputField(projection)
         + ATTEMPT_FIELDS
         + "FROM " + jobsSubquery + " LEFT OUTER JOIN attempts ON jobs.id = attempts.job_id ";
   }
 
+  private static String attemptOutputField(final JobProjection projection) {
+    return switch (projection) {
+      case SUMMARY -> ATTEMPT_NO_OUTPUT_FIELD;
+      case WITH_STATS -> ATTEMPT_STATS_OUTPUT_FIELD;
+      case FULL -> ATTEMPT_OUTPUT_FIELD;
+    };
+  }
+
   /**
    * Enqueue a job for a given scope (i.e. almost always at this point just means enqueue a sync or
    * reset job for a connection).
@@ -266,7 +319,10 @@ public class DefaultJobPersistence implements JobPersistence {
         throw new IllegalStateException(errMsg);
       }
 
-      updateJobStatus(ctx, jobId, JobStatus.RUNNING, now);
+      // a job claimed with claimNextJob is already running when its first attempt is created.
+      if (job.getStatus() != JobStatus.RUNNING) {
+        updateJobStatus(ctx, jobId, JobStatus.RUNNING, now);
+      }
 
       // will fail if attempt number already exists for the job id.
       return ctx.fetch(
@@ -373,12 +429,12 @@ public class DefaultJobPersistence implements JobPersistence {
 
       final SyncStats syncStats = output.getSync().getStandardSyncSummary().getTotalStats();
       if (syncStats != null) {
-        saveToSyncStatsTable(now, syncStats, attemptId, ctx);
+        saveToSyncStatsTable(now, syncStats, attemptId, false, ctx);
       }
 
       final List<StreamSyncStats> streamSyncStats = output.getSync().getStandardSyncSummary().getStreamStats();
       if (CollectionUtils.isNotEmpty(streamSyncStats)) {
-        saveToStreamStatsTableBatch(now, output.getSync().getStandardSyncSummary().getStreamStats(), attemptId, ctx);
+        saveToStreamStatsTableBatch(now, output.getSync().getStandardSyncSummary().getStreamStats(), attemptId, false, ctx);
       }
 
       final NormalizationSummary normalizationSummary = output.getSync().getNormalizationSummary();
@@ -410,126 +466,125 @@ public class DefaultJobPersistence implements JobPersistence {
                          final Long bytesCommitted,
                          final List<StreamSyncStats> streamStats)
       throws IOException {
-    final OffsetDateTime now = OffsetDateTime.ofInstant(timeSupplier.get(), ZoneOffset.UTC);
+    final var syncStats = new SyncStats()
+        .withEstimatedRecords(estimatedRecords)
+        .withEstimatedBytes(estimatedBytes)
+        .withRecordsEmitted(recordsEmitted)
+        .withBytesEmitted(bytesEmitted)
+        .withRecordsCommitted(recordsCommitted)
+        .withBytesCommitted(bytesCommitted);
+    writeStats(jobId, attemptNumber, syncStats, streamStats, timeSupplier.get());
+  }
+
+  @Override
+  public void writeStats(final long jobId,
+                         final int attemptNumber,
+                         final SyncStats syncStats,
+                         final List<StreamSyncStats> streamStats,
+                         final Instant statsTime)
+      throws IOException {
+    final OffsetDateTime updatedAt = OffsetDateTime.ofInstant(statsTime, ZoneOffset.UTC);
     jobDatabase.transaction(ctx -> {
       final var attemptId = getAttemptId(jobId, attemptNumber, ctx);
-
-      final var syncStats = new SyncStats()
-          .withEstimatedRecords(estimatedRecords)
-          .withEstimatedBytes(estimatedBytes)
-          .withRecordsEmitted(recordsEmitted)
-          .withBytesEmitted(bytesEmitted)
-          .withRecordsCommitted(recordsCommitted)
-          .withBytesCommitted(bytesCommitted);
-      saveToSyncStatsTable(now, syncStats, attemptId, ctx);
-
-      saveToStreamStatsTableBatch(now, streamStats, attemptId, ctx);
+      // the final stats of the attempt are written with its output, progress reported after it is stale
+      if (ctx.fetchExists(ATTEMPTS, ATTEMPTS.ID.eq(attemptId).and(ATTEMPTS.OUTPUT.isNotNull()))) {
+        return null;
+      }
+      saveToSyncStatsTable(updatedAt, syncStats, attemptId, true, ctx);
+      saveToStreamStatsTableBatch(updatedAt, streamStats, attemptId, true, ctx);
       return null;
     });
-
   }
 
-  private static void saveToSyncStatsTable(final OffsetDateTime now, final SyncStats syncStats, final Long attemptId, final DSLContext ctx) {
-    // Although JOOQ supports upsert using the onConflict statement, we cannot use it as the table
-    // currently has duplicate records and also doesn't contain the unique constraint on the attempt_id
-    // column JOOQ requires. We are forced to check for existence.
-    final var isExisting = ctx.fetchExists(SYNC_STATS, SYNC_STATS.ATTEMPT_ID.eq(attemptId));
-    if (isExisting) {
-      ctx.update(SYNC_STATS)
-          .set(SYNC_STATS.UPDATED_AT, now)
-          .set(SYNC_STATS.BYTES_EMITTED, syncStats.getBytesEmitted())
-          .set(SYNC_STATS.RECORDS_EMITTED, syncStats.getRecordsEmitted())
-          .set(SYNC_STATS.ESTIMATED_RECORDS, syncStats.getEstimatedRecords())
-          .set(SYNC_STATS.ESTIMATED_BYTES, syncStats.getEstimatedBytes())
-          .set(SYNC_STATS.RECORDS_COMMITTED, syncStats.getRecordsCommitted())
-          .set(SYNC_STATS.BYTES_COMMITTED, syncStats.getBytesCommitted())
-          .set(SYNC_STATS.SOURCE_STATE_MESSAGES_EMITTED, syncStats.getSourceStateMessagesEmitted())
-          .set(SYNC_STATS.DESTINATION_STATE_MESSAGES_EMITTED, syncStats.getDestinationStateMessagesEmitted())
-          .set(SYNC_STATS.MAX_SECONDS_BEFORE_SOURCE_STATE_MESSAGE_EMITTED, syncStats.getMaxSecondsBeforeSourceStateMessageEmitted())
-          .set(SYNC_STATS.MEAN_SECONDS_BEFORE_SOURCE_STATE_MESSAGE_EMITTED, syncStats.getMeanSecondsBeforeSourceStateMessageEmitted())
-          .set(SYNC_STATS.MAX_SECONDS_BETWEEN_STATE_MESSAGE_EMITTED_AND_COMMITTED, syncStats.getMaxSecondsBetweenStateMessageEmittedandCommitted())
-          .set(SYNC_STATS.MEAN_SECONDS_BETWEEN_STATE_MESSAGE_EMITTED_AND_COMMITTED, syncStats.getMeanSecondsBetweenStateMessageEmittedandCommitted())
-          .where(SYNC_STATS.ATTEMPT_ID.eq(attemptId))
-          .execute();
-      return;
-    }
+  /**
+   * Upsert the stats of an attempt.
+   *
+   * @param onlyIfNewer whether the stats are progress, which only updates older stats so that
+   *        progress written late, e.g. after being coalesced, doesn't overwrite more recent progress.
+   *        The final stats of an attempt always overwrite its progress.
+   */
+  private static void saveToSyncStatsTable(final OffsetDateTime now,
+                                           final SyncStats syncStats,
+                                           final Long attemptId,
+                                           final boolean onlyIfNewer,
+                                           final DSLContext ctx) {
+    // stats can be null, which Map.of doesn't allow
+    final Map<Field<?>, Object> stats = new HashMap<>();
+    stats.put(SYNC_STATS.UPDATED_AT, now);
+    stats.put(SYNC_STATS.BYTES_EMITTED, syncStats.getBytesEmitted());
+    stats.put(SYNC_STATS.RECORDS_EMITTED, syncStats.getRecordsEmitted());
+    stats.put(SYNC_STATS.ESTIMATED_RECORDS, syncStats.getEstimatedRecords());
+    stats.put(SYNC_STATS.ESTIMATED_BYTES, syncStats.getEstimatedBytes());
+    stats.put(SYNC_STATS.RECORDS_COMMITTED, syncStats.getRecordsCommitted());
+    stats.put(SYNC_STATS.BYTES_COMMITTED, syncStats.getBytesCommitted());
+    stats.put(SYNC_STATS.SOURCE_STATE_MESSAGES_EMITTED, syncStats.getSourceStateMessagesEmitted());
+    stats.put(SYNC_STATS.DESTINATION_STATE_MESSAGES_EMITTED, syncStats.getDestinationStateMessagesEmitted());
+    stats.put(SYNC_STATS.MAX_SECONDS_BEFORE_SOURCE_STATE_MESSAGE_EMITTED, syncStats.getMaxSecondsBeforeSourceStateMessageEmitted());
+    stats.put(SYNC_STATS.MEAN_SECONDS_BEFORE_SOURCE_STATE_MESSAGE_EMITTED, syncStats.getMeanSecondsBeforeSourceStateMessageEmitted());
+    stats.put(SYNC_STATS.MAX_SECONDS_BETWEEN_STATE_MESSAGE_EMITTED_AND_COMMITTED, syncStats.getMaxSecondsBetweenStateMessageEmittedandCommitted());
+    stats.put(SYNC_STATS.MEAN_SECONDS_BETWEEN_STATE_MESSAGE_EMITTED_AND_COMMITTED, syncStats.getMeanSecondsBetweenStateMessageEmittedandCommitted());
 
     ctx.insertInto(SYNC_STATS)
         .set(SYNC_STATS.ID, UUID.randomUUID())
         .set(SYNC_STATS.CREATED_AT, now)
         .set(SYNC_STATS.ATTEMPT_ID, attemptId)
-        .set(SYNC_STATS.UPDATED_AT, now)
-        .set(SYNC_STATS.BYTES_EMITTED, syncStats.getBytesEmitted())
-        .set(SYNC_STATS.RECORDS_EMITTED, syncStats.getRecordsEmitted())
-        .set(SYNC_STATS.ESTIMATED_RECORDS, syncStats.getEstimatedRecords())
-        .set(SYNC_STATS.ESTIMATED_BYTES, syncStats.getEstimatedBytes())
-        .set(SYNC_STATS.RECORDS_COMMITTED, syncStats.getRecordsCommitted())
-        .set(SYNC_STATS.BYTES_COMMITTED, syncStats.getBytesCommitted())
-        .set(SYNC_STATS.SOURCE_STATE_MESSAGES_EMITTED, syncStats.getSourceStateMessagesEmitted())
-        .set(SYNC_STATS.DESTINATION_STATE_MESSAGES_EMITTED, syncStats.getDestinationStateMessagesEmitted())
-        .set(SYNC_STATS.MAX_SECONDS_BEFORE_SOURCE_STATE_MESSAGE_EMITTED, syncStats.getMaxSecondsBeforeSourceStateMessageEmitted())
-        .set(SYNC_STATS.MEAN_SECONDS_BEFORE_SOURCE_STATE_MESSAGE_EMITTED, syncStats.getMeanSecondsBeforeSourceStateMessageEmitted())
-        .set(SYNC_STATS.MAX_SECONDS_BETWEEN_STATE_MESSAGE_EMITTED_AND_COMMITTED, syncStats.getMaxSecondsBetweenStateMessageEmittedandCommitted())
-        .set(SYNC_STATS.MEAN_SECONDS_BETWEEN_STATE_MESSAGE_EMITTED_AND_COMMITTED, syncStats.getMeanSecondsBetweenStateMessageEmittedandCommitted())
+        .set(stats)
+        .onConflict(SYNC_STATS.ATTEMPT_ID)
+        .doUpdate()
+        .set(stats)
+        .where(onlyIfNewer ? SYNC_STATS.UPDATED_AT.le(now) : DSL.noCondition())
         .execute();
   }
 
+  /**
+   * Upsert the stats of the streams of an attempt with a single statement, progress only updates the
+   * stats of a stream with more recent ones as for {@link #saveToSyncStatsTable}.
+   */
   private static void saveToStreamStatsTableBatch(final OffsetDateTime now,
                                                   final List<StreamSyncStats> perStreamStats,
                                                   final Long attemptId,
+                                                  final boolean onlyIfNewer,
                                                   final DSLContext ctx) {
-    final List<Query> queries = new ArrayList<>();
-
-    // Upserts require the onConflict statement that does not work as the table currently has duplicate
-    // records on the null
-    // namespace value. This is a valid state and not a bug.
-    // Upserts are possible if we upgrade to Postgres 15. However this requires downtime. A simpler
-    // solution to prevent O(N) existence checks, where N in the
-    // number of streams, is to fetch all streams for the attempt. Existence checks are in memory,
-    // letting us do only 2 queries in total.
-    final Set<StreamDescriptor> existingStreams = ctx.select(STREAM_STATS.STREAM_NAME, STREAM_STATS.STREAM_NAMESPACE)
-        .from(STREAM_STATS)
-        .where(STREAM_STATS.ATTEMPT_ID.eq(attemptId))
-        .fetchSet(r -> new StreamDescriptor().withName(r.get(STREAM_STATS.STREAM_NAME)).withNamespace(r.get(STREAM_STATS.STREAM_NAMESPACE)));
-
-    Optional.ofNullable(perStreamStats).orElse(Collections.emptyList()).forEach(
-        streamStats -> {
-          final var isExisting =
-              existingStreams.contains(new StreamDescriptor().withName(streamStats.getStreamName()).withNamespace(streamStats.getStreamNamespace()));
-          final var stats = streamStats.getStats();
-          if (isExisting) {
-            queries.add(
-                ctx.update(STREAM_STATS)
-                    .set(STREAM_STATS.UPDATED_AT, now)
-                    .set(STREAM_STATS.BYTES_EMITTED, stats.getBytesEmitted())
-                    .set(STREAM_STATS.RECORDS_EMITTED, stats.getRecordsEmitted())
-                    .set(STREAM_STATS.ESTIMATED_RECORDS, stats.getEstimatedRecords())
-                    .set(STREAM_STATS.ESTIMATED_BYTES, stats.getEstimatedBytes())
-                    .set(STREAM_STATS.BYTES_COMMITTED, stats.getBytesCommitted())
-                    .set(STREAM_STATS.RECORDS_COMMITTED, stats.getRecordsCommitted())
-                    .where(
-                        STREAM_STATS.ATTEMPT_ID.eq(attemptId),
-                        PersistenceHelpers.isNullOrEquals(STREAM_STATS.STREAM_NAME, streamStats.getStreamName()),
-                        PersistenceHelpers.isNullOrEquals(STREAM_STATS.STREAM_NAMESPACE, streamStats.getStreamNamespace())));
-          } else {
-            queries.add(
-                ctx.insertInto(STREAM_STATS)
-                    .set(STREAM_STATS.ID, UUID.randomUUID())
-                    .set(STREAM_STATS.ATTEMPT_ID, attemptId)
-                    .set(STREAM_STATS.STREAM_NAME, streamStats.getStreamName())
-                    .set(STREAM_STATS.STREAM_NAMESPACE, streamStats.getStreamNamespace())
-                    .set(STREAM_STATS.CREATED_AT, now)
-                    .set(STREAM_STATS.UPDATED_AT, now)
-                    .set(STREAM_STATS.BYTES_EMITTED, stats.getBytesEmitted())
-                    .set(STREAM_STATS.RECORDS_EMITTED, stats.getRecordsEmitted())
-                    .set(STREAM_STATS.ESTIMATED_RECORDS, stats.getEstimatedRecords())
-                    .set(STREAM_STATS.ESTIMATED_BYTES, stats.getEstimatedBytes())
-                    .set(STREAM_STATS.BYTES_COMMITTED, stats.getBytesCommitted())
-                    .set(STREAM_STATS.RECORDS_COMMITTED, stats.getRecordsCommitted()));
-          }
-        });
+    // a statement can't upsert a stream twice, the last stats of a stream win.
+    final Map<StreamDescriptor, SyncStats> statsByStream = new LinkedHashMap<>();
+    Optional.ofNullable(perStreamStats).orElse(Collections.emptyList()).forEach(streamStats -> statsByStream.put(
+        new StreamDescriptor().withName(streamStats.getStreamName()).withNamespace(streamStats.getStreamNamespace()),
+        streamStats.getStats()));
+    if (statsByStream.isEmpty()) {
+      return;
+    }
 
-    ctx.batch(queries).execute();
+    final InsertValuesStepN<?> insert = ctx.insertInto(STREAM_STATS, STREAM_STATS_INSERTED_FIELDS);
+    statsByStream.forEach((stream, stats) -> insert.values(Arrays.asList(
+        UUID.randomUUID(),
+        attemptId,
+        stream.getName(),
+        stream.getNamespace(),
+        now,
+        now,
+        stats.getBytesEmitted(),
+        stats.getRecordsEmitted(),
+        stats.getEstimatedRecords(),
+        stats.getEstimatedBytes(),
+        stats.getBytesCommitted(),
+        stats.getRecordsCommitted())));
+
+    final Map<Field<?>, Field<?>> updatedStats = new LinkedHashMap<>();
+    STREAM_STATS_UPDATED_FIELDS.forEach(field -> updatedStats.put(field, excluded(field)));
+    insert
+        // the unique index of the streams coalesces null namespaces, so that they are a single stream.
+        .onConflict(DSL.field("attempt_id"), DSL.field("stream_name"), DSL.field("COALESCE(stream_namespace, '')"))
+        .doUpdate()
+        .set(updatedStats)
+        .where(onlyIfNewer ? STREAM_STATS.UPDATED_AT.le(excluded(STREAM_STATS.UPDATED_AT)) : DSL.noCondition())
+        .execute();
+  }
+
+  /**
+   * Value of a field in the row proposed for insertion, in the update of an upsert.
+   */
+  private static <T> Field<T> excluded(final Field<T> field) {
+    return DSL.field(DSL.name("excluded", field.getName()), field.getDataType());
   }
 
   @Override
@@ -733,7 +788,11 @@ public class DefaultJobPersistence implements JobPersistence {
   }
 
   private Optional<Job> getJobOptional(final DSLContext ctx, final long jobId) {
-    return getJobFromResult(ctx.fetch(BASE_JOB_SELECT_AND_JOIN + "WHERE jobs.id = ?", jobId));
+    return getJobOptional(ctx, jobId, JobProjection.FULL);
+  }
+
+  private Optional<Job> getJobOptional(final DSLContext ctx, final long jobId, final JobProjection projection) {
+    return getJobFromResult(ctx.fetch(jobSelectAndJoin("jobs", projection) + "WHERE jobs.id = ?", jobId));
   }
 
   @Override
@@ -746,6 +805,12 @@ public class DefaultJobPersistence implements JobPersistence {
 
   @Override
   public List<Job> listJobs(final Set<ConfigType> configTypes, final String configId, final int pagesize) throws IOException {
+    return listJobs(configTypes, configId, pagesize, JobProjection.FULL);
+  }
+
+  @Override
+  public List<Job> listJobs(final Set<ConfigType> configTypes, final String configId, final int pagesize, final JobProjection projection)
+      throws IOException {
     return jobDatabase.query(ctx -> {
       final String jobsSubquery = "(" + ctx.select(DSL.asterisk()).from(JOBS)
           .where(JOBS.CONFIG_TYPE.in(configTypeSqlNames(configTypes)))
@@ -754,7 +819,7 @@ public class DefaultJobPersistence implements JobPersistence {
           .limit(pagesize)
           .getSQL(ParamType.INLINED) + ") AS jobs";
 
-      return getJobsFromResult(ctx.fetch(jobSelectAndJoin(jobsSubquery) + ORDER_BY_JOB_TIME_ATTEMPT_TIME));
+      return getJobsFromResult(ctx.fetch(jobSelectAndJoin(jobsSubquery, projection) + ORDER_BY_JOB_TIME_ATTEMPT_TIME));
     });
   }
 
@@ -771,10 +836,75 @@ public class DefaultJobPersistence implements JobPersistence {
                             final String orderByField,
                             final String orderByMethod)
       throws IOException {
+    return listJobs(configTypes, configId, limit, offset, status, createdAtStart, createdAtEnd, updatedAtStart, updatedAtEnd, orderByField,
+        orderByMethod, JobProjection.FULL);
+  }
+
+  @Override
+  public List<Job> listJobs(final Set<ConfigType> configTypes,
+                            final String configId,
+                            final int limit,
+                            final int offset,
+                            final JobStatus status,
+                            final OffsetDateTime createdAtStart,
+                            final OffsetDateTime createdAtEnd,
+                            final OffsetDateTime updatedAtStart,
+                            final OffsetDateTime updatedAtEnd,
+                            final String orderByField,
+                            final String orderByMethod,
+                            final JobProjection projection)
+      throws IOException {
+    return listJobsPage(configTypes, configId, limit, offset, DSL.noCondition(), status, createdAtStart, createdAtEnd, updatedAtStart,
+        updatedAtEnd, buildJobOrderByString(orderByField, orderByMethod), projection);
+  }
+
+  @Override
+  public List<Job> listJobsAfter(final Set<ConfigType> configTypes,
+                                 final String configId,
+                                 final int limit,
+                                 final Long afterJobId,
+                                 final JobStatus status,
+                                 final OffsetDateTime createdAtStart,
+                                 final OffsetDateTime createdAtEnd,
+                                 final OffsetDateTime updatedAtStart,
+                                 final OffsetDateTime updatedAtEnd,
+                                 final JobProjection projection)
+      throws IOException {
+    // the jobs of a page are returned in the order the pages are split in, so that the next page starts
+    // after the last job of this one
+    return listJobsPage(configTypes, configId, limit, 0, afterJobId == null ? DSL.noCondition() : jobsAfter(afterJobId), status, createdAtStart,
+        createdAtEnd, updatedAtStart, updatedAtEnd, ORDER_BY_JOB_TIME_ATTEMPT_TIME, projection);
+  }
+
+  /**
+   * Jobs which come after the given job in descending (created_at, id) order. The position of the
+   * job is looked up in the query itself, so that the jobs after it are read from
+   * jobs_scope_created_at_id_idx. No job comes after a job which doesn't exist.
+   */
+  private static Condition jobsAfter(final long jobId) {
+    final Jobs cursorJob = JOBS.as("cursor_job");
+    return DSL.row(JOBS.CREATED_AT, JOBS.ID)
+        .lt(DSL.select(cursorJob.CREATED_AT, cursorJob.ID).from(cursorJob).where(cursorJob.ID.eq(jobId)));
+  }
+
+  private List<Job> listJobsPage(final Set<ConfigType> configTypes,
+                                 final String configId,
+                                 final int limit,
+                                 final int offset,
+                                 final Condition pageCondition,
+                                 final JobStatus status,
+                                 final OffsetDateTime createdAtStart,
+                                 final OffsetDateTime createdAtEnd,
+                                 final OffsetDateTime updatedAtStart,
+                                 final OffsetDateTime updatedAtEnd,
+                                 final String orderBy,
+                                 final JobProjection projection)
+      throws IOException {
     return jobDatabase.query(ctx -> {
       final String jobsSubquery = "(" + ctx.select(DSL.asterisk()).from(JOBS)
           .where(JOBS.CONFIG_TYPE.in(configTypeSqlNames(configTypes)))
           .and(JOBS.SCOPE.eq(configId))
+          .and(pageCondition)
           .and(status == null ? DSL.noCondition()
               : JOBS.STATUS.eq(io.airbyte.db.instance.jobs.jooq.generated.enums.JobStatus.lookupLiteral(status.toString().toLowerCase())))
           .and(createdAtStart == null ? DSL.noCondition() : JOBS.CREATED_AT.ge(createdAtStart))
@@ -787,7 +917,7 @@ public class DefaultJobPersistence implements JobPersistence {
           .getSQL(ParamType.INLINED) + ") AS jobs";
 
       LOGGER.debug("jobs subquery: {}", jobsSubquery);
-      return getJobsFromResult(ctx.fetch(jobSelectAndJoin(jobsSubquery) + buildJobOrderByString(orderByField, orderByMethod)));
+      return getJobsFromResult(ctx.fetch(jobSelectAndJoin(jobsSubquery, projection) + orderBy));
     });
   }
 
@@ -804,6 +934,24 @@ public class DefaultJobPersistence implements JobPersistence {
                             final String orderByField,
                             final String orderByMethod)
       throws IOException {
+    return listJobs(configTypes, workspaceIds, limit, offset, status, createdAtStart, createdAtEnd, updatedAtStart, updatedAtEnd, orderByField,
+        orderByMethod, JobProjection.FULL);
+  }
+
+  @Override
+  public List<Job> listJobs(final Set<ConfigType> configTypes,
+                            final List<UUID> workspaceIds,
+                            final int limit,
+                            final int offset,
+                            final JobStatus status,
+                            final OffsetDateTime createdAtStart,
+                            final OffsetDateTime createdAtEnd,
+                            final OffsetDateTime updatedAtStart,
+                            final OffsetDateTime updatedAtEnd,
+                            final String orderByField,
+                            final String orderByMethod,
+                            final JobProjection projection)
+      throws IOException {
 
     return jobDatabase.query(ctx -> {
       final String jobsSubquery = "(" + ctx.select(JOBS.asterisk()).from(JOBS)
@@ -824,7 +972,7 @@ public class DefaultJobPersistence implements JobPersistence {
           .offset(offset)
           .getSQL(ParamType.INLINED) + ") AS jobs";
 
-      return getJobsFromResult(ctx.fetch(jobSelectAndJoin(jobsSubquery) + buildJobOrderByString(orderByField, orderByMethod)));
+      return getJobsFromResult(ctx.fetch(jobSelectAndJoin(jobsSubquery, projection) + buildJobOrderByString(orderByField, orderByMethod)));
     });
   }
 
@@ -865,6 +1013,16 @@ public class DefaultJobPersistence implements JobPersistence {
   @Override
   public List<Job> listJobsIncludingId(final Set<ConfigType> configTypes, final String connectionId, final long includingJobId, final int pagesize)
       throws IOException {
+    return listJobsIncludingId(configTypes, connectionId, includingJobId, pagesize, JobProjection.FULL);
+  }
+
+  @Override
+  public List<Job> listJobsIncludingId(final Set<ConfigType> configTypes,
+                                       final String connectionId,
+                                       final long includingJobId,
+                                       final int pagesize,
+                                       final JobProjection projection)
+      throws IOException {
     final Optional<OffsetDateTime> includingJobCreatedAt = jobDatabase.query(ctx -> ctx.select(JOBS.CREATED_AT).from(JOBS)
         .where(JOBS.CONFIG_TYPE.in(configTypeSqlNames(configTypes)))
         .and(JOBS.SCOPE.eq(connectionId))
@@ -886,7 +1044,7 @@ public class DefaultJobPersistence implements JobPersistence {
 
     // calculate the multiple of `pagesize` that includes the target job
     final int pageSizeThatIncludesJob = (countIncludingJob / pagesize + 1) * pagesize;
-    return listJobs(configTypes, connectionId, pageSizeThatIncludesJob);
+    return listJobs(configTypes, connectionId, pageSizeThatIncludesJob, projection);
   }
 
   @Override
@@ -912,8 +1070,17 @@ public class DefaultJobPersistence implements JobPersistence {
   @Override
   public List<Job> listJobsForConnectionWithStatuses(final UUID connectionId, final Set<ConfigType> configTypes, final Set<JobStatus> statuses)
       throws IOException {
+    return listJobsForConnectionWithStatuses(connectionId, configTypes, statuses, JobProjection.FULL);
+  }
+
+  @Override
+  public List<Job> listJobsForConnectionWithStatuses(final UUID connectionId,
+                                                     final Set<ConfigType> configTypes,
+                                                     final Set<JobStatus> statuses,
+                                                     final JobProjection projection)
+      throws IOException {
     return jobDatabase.query(ctx -> getJobsFromResult(ctx
-        .fetch(BASE_JOB_SELECT_AND_JOIN + WHERE
+        .fetch(jobSelectAndJoin("jobs", projection) + WHERE
             + SCOPE_CLAUSE
             + "config_type IN " + toSqlInFragment(configTypes) + AND
             + "jobs.status IN " + toSqlInFragment(statuses) + " "
@@ -946,7 +1113,7 @@ public class DefaultJobPersistence implements JobPersistence {
   @Override
   public Optional<Job> getLastReplicationJob(final UUID connectionId) throws IOException {
     return jobDatabase.query(ctx -> ctx
-        .fetch(BASE_JOB_SELECT_AND_JOIN + WHERE
+        .fetch(JOB_ID_SELECT + WHERE
             + "CAST(jobs.config_type AS VARCHAR) in " + toSqlInFragment(Job.REPLICATION_TYPES) + AND
             + SCOPE_CLAUSE
             + "CAST(jobs.status AS VARCHAR) <> ? "
@@ -960,8 +1127,13 @@ public class DefaultJobPersistence implements JobPersistence {
 
   @Override
   public Optional<Job> getLastSyncJob(final UUID connectionId) throws IOException {
+    return getLastSyncJob(connectionId, JobProjection.FULL);
+  }
+
+  @Override
+  public Optional<Job> getLastSyncJob(final UUID connectionId, final JobProjection projection) throws IOException {
     return jobDatabase.query(ctx -> ctx
-        .fetch(BASE_JOB_SELECT_AND_JOIN + WHERE
+        .fetch(JOB_ID_SELECT + WHERE
             + "CAST(jobs.config_type AS VARCHAR) = ? " + AND
             + "scope = ? "
             + ORDER_BY_JOB_CREATED_AT_DESC + LIMIT_1,
@@ -969,7 +1141,7 @@ public class DefaultJobPersistence implements JobPersistence {
             connectionId.toString())
         .stream()
         .findFirst()
-        .flatMap(r -> getJobOptional(ctx, r.get(JOB_ID, Long.class))));
+        .flatMap(r -> getJobOptional(ctx, r.get(JOB_ID, Long.class), projection)));
   }
 
   /**
@@ -978,6 +1150,11 @@ public class DefaultJobPersistence implements JobPersistence {
    */
   @Override
   public List<Job> getLastSyncJobForConnections(final List<UUID> connectionIds) throws IOException {
+    return getLastSyncJobForConnections(connectionIds, JobProjection.FULL);
+  }
+
+  @Override
+  public List<Job> getLastSyncJobForConnections(final List<UUID> connectionIds, final JobProjection projection) throws IOException {
     if (connectionIds.isEmpty()) {
       return Collections.emptyList();
     }
@@ -989,7 +1166,7 @@ public class DefaultJobPersistence implements JobPersistence {
             + "ORDER BY scope, created_at DESC",
             toSqlName(ConfigType.SYNC))
         .stream()
-        .flatMap(r -> getJobOptional(ctx, r.get("id", Long.class)).stream())
+        .flatMap(r -> getJobOptional(ctx, r.get("id", Long.class), projection).stream())
         .collect(Collectors.toList()));
   }
 
@@ -999,6 +1176,11 @@ public class DefaultJobPersistence implements JobPersistence {
    */
   @Override
   public List<Job> getRunningSyncJobForConnections(final List<UUID> connectionIds) throws IOException {
+    return getRunningSyncJobForConnections(connectionIds, JobProjection.FULL);
+  }
+
+  @Override
+  public List<Job> getRunningSyncJobForConnections(final List<UUID> connectionIds, final JobProjection projection) throws IOException {
     if (connectionIds.isEmpty()) {
       return Collections.emptyList();
     }
@@ -1011,7 +1193,7 @@ public class DefaultJobPersistence implements JobPersistence {
             + "ORDER BY scope, created_at DESC",
             toSqlName(ConfigType.SYNC))
         .stream()
-        .flatMap(r -> getJobOptional(ctx, r.get("id", Long.class)).stream())
+        .flatMap(r -> getJobOptional(ctx, r.get("id", Long.class), projection).stream())
         .collect(Collectors.toList()));
   }
 
@@ -1026,7 +1208,7 @@ public class DefaultJobPersistence implements JobPersistence {
   @Override
   public Optional<Job> getFirstReplicationJob(final UUID connectionId) throws IOException {
     return jobDatabase.query(ctx -> ctx
-        .fetch(BASE_JOB_SELECT_AND_JOIN + WHERE
+        .fetch(JOB_ID_SELECT + WHERE
             + "CAST(jobs.config_type AS VARCHAR) in " + toSqlInFragment(Job.REPLICATION_TYPES) + AND
             + SCOPE_CLAUSE
             + "CAST(jobs.status AS VARCHAR) <> ? "
@@ -1040,20 +1222,49 @@ public class DefaultJobPersistence implements JobPersistence {
 
   @Override
   public Optional<Job> getNextJob() throws IOException {
-    // rules:
-    // 1. get oldest, pending job
-    // 2. job is excluded if another job of the same scope is already running
-    // 3. job is excluded if another job of the same scope is already incomplete
     return jobDatabase.query(ctx -> ctx
-        .fetch(BASE_JOB_SELECT_AND_JOIN + WHERE
-            + "CAST(jobs.status AS VARCHAR) = 'pending' AND "
-            + "jobs.scope NOT IN ( SELECT scope FROM jobs WHERE status = 'running' OR status = 'incomplete' ) "
-            + "ORDER BY jobs.created_at ASC LIMIT 1")
+        .fetch(JOB_ID_SELECT + WHERE + NEXT_JOB_CONDITION + "ORDER BY jobs.created_at ASC LIMIT 1")
         .stream()
         .findFirst()
         .flatMap(r -> getJobOptional(ctx, r.get(JOB_ID, Long.class))));
   }
 
+  @Override
+  public Optional<Job> claimNextJob() throws IOException {
+    final LocalDateTime now = LocalDateTime.ofInstant(timeSupplier.get(), ZoneOffset.UTC);
+    return jobDatabase.transaction(ctx -> {
+      // pending jobs locked by another claim are skipped instead of waited for.
+      final Optional<Record> nextJob = ctx
+          .fetch("SELECT jobs.id AS job_id, jobs.scope, jobs.created_at FROM jobs " + WHERE + NEXT_JOB_CONDITION
+              + "ORDER BY jobs.created_at ASC LIMIT 1 FOR UPDATE SKIP LOCKED")
+          .stream()
+          .findFirst();
+      if (nextJob.isEmpty()) {
+        return Optional.empty();
+      }
+      final long jobId = nextJob.get().get(JOB_ID, Long.class);
+      final String scope = nextJob.get().get("scope", String.class);
+
+      // two jobs of the same scope can be locked by two claims at once, so the claims of a scope are
+      // serialized and the job is only claimed if it's still the next job of its scope once the other
+      // claims are committed.
+      ctx.fetch("SELECT pg_advisory_xact_lock(hashtext(?))", scope);
+      final boolean isNextJobOfScope = ctx.fetch(
+          "SELECT id FROM jobs WHERE scope = ? AND id <> ? AND (status IN ('running', 'incomplete') OR (status = 'pending' AND created_at < ?)) "
+              + LIMIT_1,
+          scope,
+          jobId,
+          nextJob.get().get("created_at", OffsetDateTime.class))
+          .isEmpty();
+      if (!isNextJobOfScope) {
+        return Optional.empty();
+      }
+
+      updateJobStatus(ctx, jobId, JobStatus.RUNNING, now);
+      return getJobOptional(ctx, jobId);
+    });
+  }
+
   @Override
   public List<AttemptWithJobInfo> listAttemptsWithJobInfo(final ConfigType configType, final Instant attemptEndedAtTimestamp, final int limit)
       throws IOException {
@@ -1378,7 +1589,8 @@ public class DefaultJobPersistence implements JobPersistence {
       sortMethod = orderByMethod.toUpperCase();
     }
 
-    return String.format("ORDER BY jobs.%s %s ", field, sortMethod);
+    // ties are broken by id, so that the order of the jobs of a page is stable
+    return String.format("ORDER BY jobs.%s %s, jobs.id %s ", field, sortMethod, sortMethod);
   }
 
 }
@@ -57,6 +57,26 @@ public interface JobPersistence {
    */
   record JobAttemptPair(long id, int attemptNumber) {}
 
+  /**
+   * Columns of the attempts loaded with the jobs. The outputs of the attempts hold the state and
+   * catalog of the syncs and can be megabytes of json, that list and polling callers don't need.
+   */
+  enum JobProjection {
+    /**
+     * Jobs and attempts without the outputs of the attempts.
+     */
+    SUMMARY,
+    /**
+     * Jobs and attempts with only the sync summary of the outputs of the attempts, which holds the
+     * records and bytes synced and the stats.
+     */
+    WITH_STATS,
+    /**
+     * Jobs and attempts with the whole outputs of the attempts.
+     */
+    FULL
+  }
+
   /**
    * Retrieve the combined and per stream stats for a single attempt.
    *
@@ -200,6 +220,16 @@ public interface JobPersistence {
                   List<StreamSyncStats> streamStats)
       throws IOException;
 
+  /**
+   * Write the progress stats of an attempt as of a point in time. Stats older than the stored ones are
+   * ignored, so that stats which are written late never overwrite more recent ones. Once the output of
+   * the attempt, which holds its final stats, is written, progress is ignored.
+   *
+   * @param statsTime time at which the stats were reported
+   * @throws IOException if there is an issue while interacting with the db.
+   */
+  void writeStats(long jobId, int attemptNumber, SyncStats syncStats, List<StreamSyncStats> streamStats, Instant statsTime) throws IOException;
+
   /**
    * Writes a summary of all failures that occurred during the attempt.
    *
@@ -240,6 +270,17 @@ public interface JobPersistence {
    */
   List<Job> listJobs(Set<ConfigType> configTypes, String configId, int limit) throws IOException;
 
+  /**
+   * List jobs of a connection, with the given projection of their attempts. Pageable.
+   *
+   * @param configTypes - type of config, e.g. sync
+   * @param configId - id of that config
+   * @param projection - attempt columns to load
+   * @return lists job in descending order by created_at
+   * @throws IOException - what you do when you IO
+   */
+  List<Job> listJobs(Set<ConfigType> configTypes, String configId, int limit, JobProjection projection) throws IOException;
+
   /**
    * List jobs of a connection with filters. Pageable.
    *
@@ -262,6 +303,55 @@ public interface JobPersistence {
                      String orderByMethod)
       throws IOException;
 
+  /**
+   * List jobs of a connection with filters, with the given projection of their attempts. Pageable.
+   *
+   * @param configTypes - type of config, e.g. sync
+   * @param configId - id of that config
+   * @param projection - attempt columns to load
+   * @return lists job in descending order by created_at
+   * @throws IOException - what you do when you IO
+   */
+  List<Job> listJobs(
+                     Set<JobConfig.ConfigType> configTypes,
+                     String configId,
+                     int limit,
+                     int offset,
+                     JobStatus status,
+                     OffsetDateTime createdAtStart,
+                     OffsetDateTime createdAtEnd,
+                     OffsetDateTime updatedAtStart,
+                     OffsetDateTime updatedAtEnd,
+                     String orderByField,
+                     String orderByMethod,
+                     JobProjection projection)
+      throws IOException;
+
+  /**
+   * List jobs of a connection with filters, by pages which start right after the last job of the
+   * previous page in descending created_at order. Unlike an offset, the cost of reading a page
+   * doesn't grow with how deep the page is in the history of the connection.
+   *
+   * @param configTypes - type of config, e.g. sync
+   * @param configId - id of that config
+   * @param afterJobId - id of the last job of the previous page, null for the first page
+   * @param projection - attempt columns to load
+   * @return lists job in descending order by created_at, then id
+   * @throws IOException - what you do when you IO
+   */
+  List<Job> listJobsAfter(
+                          Set<JobConfig.ConfigType> configTypes,
+                          String configId,
+                          int limit,
+                          Long afterJobId,
+                          JobStatus status,
+                          OffsetDateTime createdAtStart,
+                          OffsetDateTime createdAtEnd,
+                          OffsetDateTime updatedAtStart,
+                          OffsetDateTime updatedAtEnd,
+                          JobProjection projection)
+      throws IOException;
+
   /**
    * List jobs of a connection. Pageable.
    *
@@ -284,6 +374,30 @@ public interface JobPersistence {
                      String orderByMethod)
       throws IOException;
 
+  /**
+   * List jobs of workspaces, with the given projection of their attempts. Pageable.
+   *
+   * @param configTypes - type of config, e.g. sync
+   * @param workspaceIds - ids of requested workspaces
+   * @param projection - attempt columns to load
+   * @return lists job in descending order by created_at
+   * @throws IOException - what you do when you IO
+   */
+  List<Job> listJobs(
+                     Set<JobConfig.ConfigType> configTypes,
+                     List<UUID> workspaceIds,
+                     int limit,
+                     int offset,
+                     JobStatus status,
+                     OffsetDateTime createdAtStart,
+                     OffsetDateTime createdAtEnd,
+                     OffsetDateTime updatedAtStart,
+                     OffsetDateTime updatedAtEnd,
+                     String orderByField,
+                     String orderByMethod,
+                     JobProjection projection)
+      throws IOException;
+
   /**
    * List jobs of a config type after a certain time.
    *
@@ -308,6 +422,17 @@ public interface JobPersistence {
    */
   List<Job> listJobsIncludingId(Set<JobConfig.ConfigType> configTypes, String connectionId, long includingJobId, int pagesize) throws IOException;
 
+  /**
+   * List jobs with id, with the given projection of their attempts. See
+   * {@link #listJobsIncludingId(Set, String, long, int)}.
+   */
+  List<Job> listJobsIncludingId(Set<JobConfig.ConfigType> configTypes,
+                                String connectionId,
+                                long includingJobId,
+                                int pagesize,
+                                JobProjection projection)
+      throws IOException;
+
   List<Job> listJobsWithStatus(JobStatus status) throws IOException;
 
   List<Job> listJobsWithStatus(Set<JobConfig.ConfigType> configTypes, JobStatus status) throws IOException;
@@ -316,6 +441,12 @@ public interface JobPersistence {
 
   List<Job> listJobsForConnectionWithStatuses(UUID connectionId, Set<JobConfig.ConfigType> configTypes, Set<JobStatus> statuses) throws IOException;
 
+  List<Job> listJobsForConnectionWithStatuses(UUID connectionId,
+                                              Set<JobConfig.ConfigType> configTypes,
+                                              Set<JobStatus> statuses,
+                                              JobProjection projection)
+      throws IOException;
+
   /**
    * List job statuses and timestamps for connection id.
    *
@@ -335,14 +466,31 @@ public interface JobPersistence {
 
   Optional<Job> getLastSyncJob(UUID connectionId) throws IOException;
 
+  Optional<Job> getLastSyncJob(UUID connectionId, JobProjection projection) throws IOException;
+
   List<Job> getLastSyncJobForConnections(final List<UUID> connectionIds) throws IOException;
 
+  List<Job> getLastSyncJobForConnections(final List<UUID> connectionIds, JobProjection projection) throws IOException;
+
   List<Job> getRunningSyncJobForConnections(final List<UUID> connectionIds) throws IOException;
 
+  List<Job> getRunningSyncJobForConnections(final List<UUID> connectionIds, JobProjection projection) throws IOException;
+
   Optional<Job> getFirstReplicationJob(UUID connectionId) throws IOException;
 
   Optional<Job> getNextJob() throws IOException;
 
+  /**
+   * Claim the next job to run, which is the oldest pending job of a scope without running or
+   * incomplete jobs, by moving it to running. Concurrent claims never claim the same job, nor two jobs
+   * of the same scope, and don't wait on each other: jobs being claimed by someone else are skipped.
+   *
+   * @return the claimed job, empty if there is no job to run or if the next job of its scope was
+   *         claimed concurrently. Callers are expected to poll again.
+   * @throws IOException if there is an issue while interacting with the db.
+   */
+  Optional<Job> claimNextJob() throws IOException;
+
   /**
    * List attempts after a certain type of a type. Used for cloud billing.
    *
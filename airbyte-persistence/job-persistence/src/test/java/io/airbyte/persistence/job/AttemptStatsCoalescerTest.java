@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.persistence.job;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import io.airbyte.config.StreamSyncStats;
+import io.airbyte.config.SyncStats;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AttemptStatsCoalescerTest {
+
+  private static final long JOB_ID = 10L;
+  private static final int ATTEMPT_NUMBER = 1;
+  private static final Instant NOW = Instant.now();
+  // long enough for the scheduled flushes to never run during a test
+  private static final Duration INTERVAL = Duration.ofHours(1);
+
+  private JobPersistence jobPersistence;
+  private Supplier<Instant> timeSupplier;
+  private AttemptStatsCoalescer coalescer;
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setup() {
+    jobPersistence = mock(JobPersistence.class);
+    timeSupplier = mock(Supplier.class);
+    when(timeSupplier.get()).thenReturn(NOW, NOW.plusSeconds(1), NOW.plusSeconds(2));
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    if (coalescer != null) {
+      coalescer.close();
+    }
+  }
+
+  @Test
+  void testStatsAreWrittenRightAwayWithoutInterval() throws IOException {
+    coalescer = new AttemptStatsCoalescer(jobPersistence, Duration.ZERO, timeSupplier);
+
+    coalescer.writeStats(JOB_ID, ATTEMPT_NUMBER, syncStats(10), List.of(streamStats("s1", 10)));
+
+    verify(jobPersistence).writeStats(JOB_ID, ATTEMPT_NUMBER, syncStats(10), List.of(streamStats("s1", 10)), NOW);
+  }
+
+  @Test
+  void testLatestStatsOfEachStreamAreWrittenOncePerFlush() throws IOException {
+    coalescer = new AttemptStatsCoalescer(jobPersistence, INTERVAL, timeSupplier);
+
+    coalescer.writeStats(JOB_ID, ATTEMPT_NUMBER, syncStats(10), List.of(streamStats("s1", 5), streamStats("s2", 5)));
+    coalescer.writeStats(JOB_ID, ATTEMPT_NUMBER, syncStats(20), List.of(streamStats("s1", 15)));
+    coalescer.writeStats(JOB_ID + 1, ATTEMPT_NUMBER, syncStats(30), List.of(streamStats("s1", 30)));
+    verifyNoInteractions(jobPersistence);
+
+    coalescer.flush();
+    coalescer.flush();
+
+    verify(jobPersistence).writeStats(JOB_ID, ATTEMPT_NUMBER, syncStats(20), List.of(streamStats("s1", 15), streamStats("s2", 5)),
+        NOW.plusSeconds(1));
+    verify(jobPersistence).writeStats(JOB_ID + 1, ATTEMPT_NUMBER, syncStats(30), List.of(streamStats("s1", 30)), NOW.plusSeconds(2));
+    verifyNoMoreInteractions(jobPersistence);
+  }
+
+  @Test
+  void testFailedWritesAreRetriedAtTheNextFlush() throws IOException {
+    coalescer = new AttemptStatsCoalescer(jobPersistence, INTERVAL, timeSupplier);
+    doThrow(new IOException()).doNothing().when(jobPersistence).writeStats(anyLong(), anyInt(), any(), any(), any());
+
+    coalescer.writeStats(JOB_ID, ATTEMPT_NUMBER, syncStats(10), List.of(streamStats("s1", 10)));
+    coalescer.flush();
+    coalescer.flush();
+
+    verify(jobPersistence, times(2)).writeStats(JOB_ID, ATTEMPT_NUMBER, syncStats(10), List.of(streamStats("s1", 10)), NOW);
+  }
+
+  @Test
+  void testPendingStatsAreWrittenOnClose() throws IOException, InterruptedException {
+    coalescer = new AttemptStatsCoalescer(jobPersistence, INTERVAL, timeSupplier);
+
+    coalescer.writeStats(JOB_ID, ATTEMPT_NUMBER, syncStats(10), List.of());
+    coalescer.close();
+
+    verify(jobPersistence).writeStats(JOB_ID, ATTEMPT_NUMBER, syncStats(10), List.of(), NOW);
+  }
+
+  private static SyncStats syncStats(final long records) {
+    return new SyncStats().withRecordsEmitted(records).withBytesEmitted(records * 100);
+  }
+
+  private static StreamSyncStats streamStats(final String name, final long records) {
+    return new StreamSyncStats().withStreamName(name).withStats(syncStats(records));
+  }
+
+}
@@ -49,6 +49,7 @@ import io.airbyte.db.factory.DataSourceFactory;
 import io.airbyte.db.instance.test.TestDatabaseProviders;
 import io.airbyte.persistence.job.JobPersistence.AttemptStats;
 import io.airbyte.persistence.job.JobPersistence.JobAttemptPair;
+import io.airbyte.persistence.job.JobPersistence.JobProjection;
 import io.airbyte.persistence.job.models.Attempt;
 import io.airbyte.persistence.job.models.AttemptNormalizationStatus;
 import io.airbyte.persistence.job.models.AttemptStatus;
@@ -65,11 +66,19 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
@@ -491,6 +500,55 @@ class DefaultJobPersistenceTest {
       assertNotEquals(streamStatsRec.get(STREAM_STATS.CREATED_AT), streamStatsRec.get(STREAM_STATS.UPDATED_AT));
     }
 
+    @Test
+    @DisplayName("Writing stats older than the stored ones should not overwrite them")
+    void testWriteStatsOutOfOrder() throws IOException {
+      final long jobId = jobPersistence.enqueueJob(SCOPE, SPEC_JOB_CONFIG).orElseThrow();
+      final int attemptNumber = jobPersistence.createAttempt(jobId, LOG_PATH);
+      final SyncStats newerStats = new SyncStats().withBytesEmitted(1000L).withRecordsEmitted(1000L);
+      final List<StreamSyncStats> newerStreamStats = List.of(
+          new StreamSyncStats().withStreamName("name1").withStats(new SyncStats().withBytesEmitted(1000L).withRecordsEmitted(1000L)));
+
+      jobPersistence.writeStats(jobId, attemptNumber, newerStats, newerStreamStats, NOW.plusSeconds(10));
+      jobPersistence.writeStats(jobId, attemptNumber, new SyncStats().withBytesEmitted(500L).withRecordsEmitted(500L),
+          List.of(new StreamSyncStats().withStreamName("name1").withStats(new SyncStats().withBytesEmitted(500L).withRecordsEmitted(500L)),
+              new StreamSyncStats().withStreamName("name2").withStats(new SyncStats().withBytesEmitted(5L).withRecordsEmitted(5L))),
+          NOW);
+
+      final AttemptStats stats = jobPersistence.getAttemptStats(jobId, attemptNumber);
+      assertEquals(1000L, stats.combinedStats().getBytesEmitted());
+      assertEquals(1000L, stats.combinedStats().getRecordsEmitted());
+      // streams which weren't stored yet are still written
+      assertEquals(Set.of(newerStreamStats.get(0),
+          new StreamSyncStats().withStreamName("name2").withStats(new SyncStats().withBytesEmitted(5L).withRecordsEmitted(5L))),
+          Set.copyOf(stats.perStreamStats()));
+    }
+
+    @Test
+    @DisplayName("The final stats of the output should overwrite progress, even more recent, and not be overwritten by it")
+    void testWriteOutputOverwritesProgress() throws IOException {
+      final long jobId = jobPersistence.enqueueJob(SCOPE, SPEC_JOB_CONFIG).orElseThrow();
+      final int attemptNumber = jobPersistence.createAttempt(jobId, LOG_PATH);
+      final SyncStats progress = new SyncStats().withBytesEmitted(500L).withRecordsEmitted(500L);
+      final List<StreamSyncStats> streamProgress = List.of(new StreamSyncStats().withStreamName("name1").withStats(progress));
+      final SyncStats finalStats = new SyncStats().withBytesEmitted(1000L).withRecordsEmitted(1000L);
+      final List<StreamSyncStats> finalStreamStats = List.of(new StreamSyncStats().withStreamName("name1").withStats(finalStats));
+      final JobOutput jobOutput = new JobOutput().withOutputType(JobOutput.OutputType.SYNC).withSync(new StandardSyncOutput()
+          .withStandardSyncSummary(new StandardSyncSummary().withTotalStats(finalStats).withStreamStats(finalStreamStats)));
+
+      // e.g. reported by a replica whose clock is ahead
+      jobPersistence.writeStats(jobId, attemptNumber, progress, streamProgress, NOW.plusSeconds(3600));
+      when(timeSupplier.get()).thenReturn(NOW);
+      jobPersistence.writeOutput(jobId, attemptNumber, jobOutput);
+      // e.g. flushed late
+      jobPersistence.writeStats(jobId, attemptNumber, progress, streamProgress, NOW.plusSeconds(7200));
+
+      final AttemptStats stats = jobPersistence.getAttemptStats(jobId, attemptNumber);
+      assertEquals(1000L, stats.combinedStats().getBytesEmitted());
+      assertEquals(1000L, stats.combinedStats().getRecordsEmitted());
+      assertEquals(finalStreamStats, stats.perStreamStats());
+    }
+
     @Test
     @DisplayName("Writing multiple stats a stream with null namespace should write correctly without exceptions")
     void testWriteNullNamespace() throws IOException {
@@ -1652,6 +1710,69 @@ class DefaultJobPersistenceTest {
       assertTrue(actual.isEmpty());
     }
 
+    @Test
+    @DisplayName("Should claim the oldest pending job of each scope by moving it to running")
+    void testClaimNextJob() throws IOException {
+      final long jobId = createJobAt(NOW.minusSeconds(1000));
+      final long jobId2 = createJobAt(NOW);
+      when(timeSupplier.get()).thenReturn(NOW);
+      final long otherScopeJobId = jobPersistence.enqueueJob(CONNECTION_ID2.toString(), SPEC_JOB_CONFIG).orElseThrow();
+
+      assertEquals(jobId, jobPersistence.claimNextJob().orElseThrow().getId());
+      assertEquals(otherScopeJobId, jobPersistence.claimNextJob().orElseThrow().getId());
+      // the other job of the first scope waits for the claimed one
+      assertTrue(jobPersistence.claimNextJob().isEmpty());
+
+      assertEquals(JobStatus.RUNNING, jobPersistence.getJob(jobId).getStatus());
+      assertEquals(JobStatus.PENDING, jobPersistence.getJob(jobId2).getStatus());
+      final int attemptNumber = jobPersistence.createAttempt(jobId, LOG_PATH);
+      assertEquals(AttemptStatus.RUNNING, jobPersistence.getJob(jobId).getAttemptByNumber(attemptNumber).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should claim each job once and a single job per scope when claiming concurrently")
+    void testConcurrentClaims() throws Exception {
+      final int scopeCount = 10;
+      final Map<String, Long> oldestJobIds = new HashMap<>();
+      for (int i = 0; i < 3; i++) {
+        when(timeSupplier.get()).thenReturn(NOW.plusSeconds(i));
+        for (int scope = 0; scope < scopeCount; scope++) {
+          final long jobId = jobPersistence.enqueueJob("scope-" + scope, SPEC_JOB_CONFIG).orElseThrow();
+          oldestJobIds.putIfAbsent("scope-" + scope, jobId);
+        }
+      }
+      when(timeSupplier.get()).thenReturn(NOW.plusSeconds(10));
+
+      final int claimerCount = 4;
+      final ExecutorService executor = Executors.newFixedThreadPool(claimerCount);
+      final CountDownLatch start = new CountDownLatch(1);
+      final Queue<Job> claimedJobs = new ConcurrentLinkedQueue<>();
+      try {
+        final List<Future<?>> claimers = new ArrayList<>();
+        for (int i = 0; i < claimerCount; i++) {
+          claimers.add(executor.submit(() -> {
+            start.await();
+            // a claim is empty when it loses the race for a scope, so claim until there is no next job left
+            while (jobPersistence.getNextJob().isPresent()) {
+              jobPersistence.claimNextJob().ifPresent(claimedJobs::add);
+            }
+            return null;
+          }));
+        }
+        start.countDown();
+        for (final Future<?> claimer : claimers) {
+          claimer.get(1, TimeUnit.MINUTES);
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+
+      assertEquals(oldestJobIds, claimedJobs.stream().collect(Collectors.toMap(Job::getScope, Job::getId)));
+      for (final Job job : claimedJobs) {
+        assertEquals(JobStatus.RUNNING, jobPersistence.getJob(job.getId()).getStatus());
+      }
+    }
+
   }
 
   @Nested
@@ -1732,6 +1853,67 @@ class DefaultJobPersistenceTest {
       }
     }
 
+    @Test
+    @DisplayName("Should return the pages of results after the last job of the previous page")
+    void testListJobsAfter() throws IOException {
+      final List<Long> ids = new ArrayList<>();
+      for (int i = 0; i < 25; i++) {
+        // These have strictly the same created_at, so the pages have to be split by id.
+        ids.add(0, jobPersistence.enqueueJob(CONNECTION_ID.toString(), SPEC_JOB_CONFIG).orElseThrow());
+        jobPersistence.enqueueJob(CONNECTION_ID2.toString(), SPEC_JOB_CONFIG).orElseThrow();
+      }
+      final Set<ConfigType> configTypes = Set.of(SPEC_JOB_CONFIG.getConfigType());
+
+      final List<Long> actualIds = new ArrayList<>();
+      final List<Integer> pageSizes = new ArrayList<>();
+      Long afterJobId = null;
+      List<Job> page;
+      do {
+        page = jobPersistence.listJobsAfter(configTypes, CONNECTION_ID.toString(), 10, afterJobId, null, null, null, null, null,
+            JobProjection.SUMMARY);
+        page.forEach(job -> actualIds.add(job.getId()));
+        pageSizes.add(page.size());
+        afterJobId = page.isEmpty() ? null : page.get(page.size() - 1).getId();
+      } while (page.size() == 10);
+
+      assertEquals(ids, actualIds);
+      assertEquals(List.of(10, 10, 5), pageSizes);
+      assertEquals(jobPersistence.listJobs(configTypes, CONNECTION_ID.toString(), 10, 10, null, null, null, null, null, null, null),
+          jobPersistence.listJobsAfter(configTypes, CONNECTION_ID.toString(), 10, ids.get(9), null, null, null, null, null,
+              JobProjection.FULL));
+      assertTrue(jobPersistence.listJobsAfter(configTypes, CONNECTION_ID.toString(), 10, Long.MAX_VALUE, null, null, null, null, null,
+          JobProjection.SUMMARY).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should only load the part of the attempt outputs of the projection")
+    void testListJobsProjections() throws IOException {
+      final long jobId = jobPersistence.enqueueJob(SCOPE, SYNC_JOB_CONFIG).orElseThrow();
+      final int attemptNumber = jobPersistence.createAttempt(jobId, LOG_PATH);
+      final StandardSyncSummary syncSummary = new StandardSyncSummary()
+          .withRecordsSynced(10L)
+          .withBytesSynced(100L)
+          .withTotalStats(new SyncStats().withRecordsEmitted(10L).withBytesEmitted(100L));
+      final JobOutput jobOutput = new JobOutput()
+          .withOutputType(JobOutput.OutputType.SYNC)
+          .withSync(new StandardSyncOutput()
+              .withStandardSyncSummary(syncSummary)
+              .withState(new State().withState(Jsons.jsonNode(Map.of("cursor", "2023-01-01")))));
+      jobPersistence.writeOutput(jobId, attemptNumber, jobOutput);
+      final Set<ConfigType> configTypes = Set.of(SYNC_JOB_CONFIG.getConfigType());
+
+      final Attempt summary = jobPersistence.listJobs(configTypes, SCOPE, 10, JobProjection.SUMMARY).get(0).getAttempts().get(0);
+      final Attempt withStats = jobPersistence.listJobs(configTypes, SCOPE, 10, JobProjection.WITH_STATS).get(0).getAttempts().get(0);
+      final Attempt full = jobPersistence.listJobs(configTypes, SCOPE, 10, JobProjection.FULL).get(0).getAttempts().get(0);
+
+      assertTrue(summary.getOutput().isEmpty());
+      assertEquals(LOG_PATH, summary.getLogPath());
+      assertEquals(new JobOutput().withOutputType(JobOutput.OutputType.SYNC).withSync(new StandardSyncOutput().withStandardSyncSummary(syncSummary)),
+          withStats.getOutput().orElseThrow());
+      assertEquals(jobOutput, full.getOutput().orElseThrow());
+      assertEquals(full, jobPersistence.listJobs(configTypes, SCOPE, 10).get(0).getAttempts().get(0));
+    }
+
     @Test
     @DisplayName("Should list all jobs")
     void testListJobs() throws IOException {
@@ -12,6 +12,7 @@ import io.airbyte.api.generated.StateApi;
 import io.airbyte.api.model.generated.ConnectionIdRequestBody;
 import io.airbyte.api.model.generated.ConnectionState;
 import io.airbyte.api.model.generated.ConnectionStateCreateOrUpdate;
+import io.airbyte.api.model.generated.InternalOperationResult;
 import io.airbyte.commons.auth.SecuredWorkspace;
 import io.airbyte.commons.server.handlers.StateHandler;
 import io.airbyte.commons.server.scheduling.AirbyteTaskExecutors;
@@ -49,6 +50,14 @@ public class StateApiController implements StateApi {
     return ApiHelper.execute(() -> stateHandler.createOrUpdateStateSafe(connectionStateCreateOrUpdate));
   }
 
+  @Post("/merge")
+  @Secured({ADMIN})
+  @ExecuteOn(AirbyteTaskExecutors.IO)
+  @Override
+  public InternalOperationResult mergeState(final ConnectionStateCreateOrUpdate connectionStateCreateOrUpdate) {
+    return ApiHelper.execute(() -> stateHandler.mergeState(connectionStateCreateOrUpdate));
+  }
+
   @Post("/get")
   @Secured({READER})
   @SecuredWorkspace
@@ -6,6 +6,7 @@ package io.airbyte.server.config;
 
 import io.airbyte.config.persistence.ConfigRepository;
 import io.airbyte.config.persistence.OrganizationPersistence;
+import io.airbyte.config.persistence.PayloadCompression;
 import io.airbyte.config.persistence.PermissionPersistence;
 import io.airbyte.config.persistence.StatePersistence;
 import io.airbyte.config.persistence.StreamResetPersistence;
@@ -18,10 +19,12 @@ import io.airbyte.db.factory.DSLContextFactory;
 import io.airbyte.db.factory.DatabaseCheckFactory;
 import io.airbyte.db.instance.DatabaseConstants;
 import io.airbyte.featureflag.FeatureFlagClient;
+import io.airbyte.persistence.job.AttemptStatsCoalescer;
 import io.airbyte.persistence.job.DefaultJobPersistence;
 import io.airbyte.persistence.job.DefaultMetadataPersistence;
 import io.airbyte.persistence.job.JobPersistence;
 import io.airbyte.persistence.job.MetadataPersistence;
+import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
 import io.micronaut.context.annotation.Value;
 import io.micronaut.flyway.FlywayConfigurationProperties;
@@ -29,6 +32,7 @@ import io.micronaut.transaction.jdbc.DelegatingDataSource;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import java.io.IOException;
+import java.time.Duration;
 import javax.sql.DataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.flywaydb.core.Flyway;
@@ -87,8 +91,10 @@ public class DatabaseBeanFactory {
 
   @Singleton
   public ConfigRepository configRepository(@Named("configDatabase") final Database configDatabase,
-                                           final FeatureFlagClient featureFlagClient) {
-    return new ConfigRepository(configDatabase, ConfigRepository.getMaxSecondsBetweenMessagesSupplier(featureFlagClient));
+                                           final FeatureFlagClient featureFlagClient,
+                                           @Value("${airbyte.persistence.payload-compression}") final String payloadCompression) {
+    return new ConfigRepository(configDatabase, ConfigRepository.getMaxSecondsBetweenMessagesSupplier(featureFlagClient),
+        PayloadCompression.fromConfiguration(payloadCompression));
   }
 
   @Singleton
@@ -96,6 +102,13 @@ public class DatabaseBeanFactory {
     return new DefaultJobPersistence(jobDatabase);
   }
 
+  @Singleton
+  @Bean(preDestroy = "close")
+  public AttemptStatsCoalescer attemptStatsCoalescer(final JobPersistence jobPersistence,
+                                                     @Value("${airbyte.persistence.stats-coalescing-interval}") final Duration statsCoalescingInterval) {
+    return new AttemptStatsCoalescer(jobPersistence, statsCoalescingInterval);
+  }
+
   @Singleton
   public MetadataPersistence metadataPersistence(@Named("configDatabase") final Database jobDatabase) {
     return new DefaultMetadataPersistence(jobDatabase);
@@ -107,8 +120,9 @@ public class DatabaseBeanFactory {
   }
 
   @Singleton
-  public StatePersistence statePersistence(@Named("configDatabase") final Database configDatabase) {
-    return new StatePersistence(configDatabase);
+  public StatePersistence statePersistence(@Named("configDatabase") final Database configDatabase,
+                                           @Value("${airbyte.persistence.payload-compression}") final String payloadCompression) {
+    return new StatePersistence(configDatabase, PayloadCompression.fromConfiguration(payloadCompression));
   }
 
   @Singleton
@@ -5,6 +5,7 @@
 package io.airbyte.server.apis;
 
 import io.airbyte.api.model.generated.ConnectionState;
+import io.airbyte.api.model.generated.InternalOperationResult;
 import io.airbyte.api.model.generated.SourceIdRequestBody;
 import io.airbyte.commons.json.Jsons;
 import io.micronaut.context.annotation.Requires;
@@ -31,6 +32,16 @@ class StateApiTest extends BaseControllerTest {
         HttpStatus.OK);
   }
 
+  @Test
+  void testMergeState() throws IOException {
+    Mockito.when(stateHandler.mergeState(Mockito.any()))
+        .thenReturn(new InternalOperationResult().succeeded(true));
+    final String path = "/api/v1/state/merge";
+    testEndpointStatus(
+        HttpRequest.POST(path, Jsons.serialize(new SourceIdRequestBody())),
+        HttpStatus.OK);
+  }
+
   @Test
   void testGetState() throws IOException {
     Mockito.when(stateHandler.getState(Mockito.any()))
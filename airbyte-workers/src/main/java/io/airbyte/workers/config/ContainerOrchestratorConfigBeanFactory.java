@@ -11,6 +11,7 @@ import io.airbyte.config.Configs.WorkerEnvironment;
 import io.airbyte.config.EnvConfigs;
 import io.airbyte.config.storage.CloudStorageConfigs;
 import io.airbyte.workers.ContainerOrchestratorConfig;
+import io.airbyte.workers.process.AsyncOrchestratorStatusTracker;
 import io.airbyte.workers.storage.DocumentStoreClient;
 import io.airbyte.workers.storage.StateClients;
 import io.fabric8.kubernetes.client.DefaultKubernetesClient;
@@ -159,7 +160,8 @@ public class ContainerOrchestratorConfigBeanFactory {
         containerOrchestratorImagePullPolicy,
         googleApplicationCredentials,
         workerEnvironment,
-        serviceAccount);
+        serviceAccount,
+        new AsyncOrchestratorStatusTracker(kubernetesClient, namespace));
   }
 
 }
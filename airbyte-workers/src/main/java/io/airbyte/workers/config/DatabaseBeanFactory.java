@@ -6,6 +6,7 @@ package io.airbyte.workers.config;
 
 import io.airbyte.commons.temporal.config.WorkerMode;
 import io.airbyte.config.persistence.ConfigRepository;
+import io.airbyte.config.persistence.PayloadCompression;
 import io.airbyte.config.persistence.StatePersistence;
 import io.airbyte.config.persistence.StreamResetPersistence;
 import io.airbyte.db.Database;
@@ -88,8 +89,10 @@ public class DatabaseBeanFactory {
   @Singleton
   @Requires(env = WorkerMode.CONTROL_PLANE)
   public ConfigRepository configRepository(@Named("configDatabase") final Database configDatabase,
-                                           final FeatureFlagClient featureFlagClient) {
-    return new ConfigRepository(configDatabase, ConfigRepository.getMaxSecondsBetweenMessagesSupplier(featureFlagClient));
+                                           final FeatureFlagClient featureFlagClient,
+                                           @Value("${airbyte.persistence.payload-compression}") final String payloadCompression) {
+    return new ConfigRepository(configDatabase, ConfigRepository.getMaxSecondsBetweenMessagesSupplier(featureFlagClient),
+        PayloadCompression.fromConfiguration(payloadCompression));
   }
 
   @Singleton
@@ -100,8 +103,9 @@ public class DatabaseBeanFactory {
 
   @Singleton
   @Requires(env = WorkerMode.CONTROL_PLANE)
-  public StatePersistence statePersistence(@Named("configDatabase") final Database configDatabase) {
-    return new StatePersistence(configDatabase);
+  public StatePersistence statePersistence(@Named("configDatabase") final Database configDatabase,
+                                           @Value("${airbyte.persistence.payload-compression}") final String payloadCompression) {
+    return new StatePersistence(configDatabase, PayloadCompression.fromConfiguration(payloadCompression));
   }
 
   @Singleton
@@ -120,7 +120,8 @@ class AsyncOrchestratorPodProcessIntegrationTest {
         Map.of("k8s.io/example", "true"),
         serverPort,
         "airbyte-admin",
-        null);
+        null,
+        new AsyncOrchestratorStatusTracker(kubernetesClient, "default"));
 
     final Map<Integer, Integer> portMap = Map.of(
         serverPort, serverPort,